@@ -0,0 +1,137 @@
+import scr.controlador.BancoController;
+import scr.controlador.CacheHistoriales;
+import scr.controlador.DiarioAsincronico;
+import scr.controlador.DiarioBinario;
+import scr.controlador.DiarioParticionado;
+import scr.controlador.GestorArchivos;
+import scr.controlador.Metricas;
+import scr.controlador.ModoDurabilidad;
+import scr.controlador.Persistencia;
+import scr.controlador.ServidorBanco;
+import java.io.IOException;
+import java.util.Scanner;
+
+/**
+ * Clase principal para simular el sistema bancario.
+ * Actúa como un controlador simple que coordina las operaciones 
+ * entre el Modelo (Cuentas) y la Persistencia (GestorArchivos).
+ */
+public class Main {
+
+    public static void main(String[] args) {
+    Scanner sc = new Scanner(System.in);
+    BancoController controller = crearControlador();
+    System.out.println("Estado recuperado: " + controller.getCuentas().size() + " cuentas en "
+            + controller.getDuracionRecuperacionMs() + " ms (" + controller.getMovimientosRecuperados()
+            + " movimientos reproducidos)");
+    // -Dbanco.metricas.intervaloMs=0 desactiva el volcado periódico de métricas
+    Metricas.registrarJmx();
+    // -Dbanco.cache.bytes=N limita la memoria de los historiales leídos de los logs (0 la desactiva)
+    controller.getCacheHistoriales().setLimiteBytes(Long.getLong("banco.cache.bytes", CacheHistoriales.LIMITE_BYTES_POR_DEFECTO));
+    Metricas.global().iniciarVolcado(Metricas.ARCHIVO_POR_DEFECTO, Long.getLong("banco.metricas.intervaloMs", 60_000));
+    // -Dbanco.servidor.puerto=7070 atiende además pedidos por red (ver ServidorBanco)
+    ServidorBanco servidor = iniciarServidor(controller);
+
+
+
+        boolean running = true;
+        while (running) {
+            System.out.println("\n--- MENÚ SISTEMA BANCARIO ---");
+            System.out.println("1. Crear cuenta");
+            System.out.println("2. Retirar");
+            System.out.println("3. Depositar");
+            System.out.println("4. Mostrar movimientos (retiros/depositos)");
+            System.out.println("5. Salir");
+            System.out.println("6. Cierre mensual (intereses/mantenimiento)");
+            System.out.println("7. Importar movimientos desde archivo");
+            System.out.println("8. Mostrar métricas");
+            System.out.println("9. Transferir");
+            System.out.println("10. Estado de cuenta del mes");
+            System.out.println("11. Validar saldos de los logs");
+            System.out.print("Elija una opción: ");
+
+            int opcion = Integer.parseInt(sc.nextLine());
+            switch (opcion) {
+                case 1:
+                    controller.crearCuentaInteractive(sc);
+                    break;
+                case 2:
+                    controller.retirarInteractive(sc);
+                    break;
+                case 3:
+                    controller.depositarInteractive(sc);
+                    break;
+                case 4:
+                    controller.mostrarMovimientosInteractive(sc);
+                    break;
+                case 5:
+                    if (servidor != null) servidor.close();
+                    controller.cerrar();
+                    running = false;
+                    break;
+                case 6:
+                    controller.cierreMensualInteractive();
+                    break;
+                case 7:
+                    controller.importarMovimientosInteractive(sc);
+                    break;
+                case 8:
+                    System.out.print(Metricas.global().getResumen());
+                    System.out.println(controller.getCacheHistoriales());
+                    break;
+                case 9:
+                    controller.transferirInteractive(sc);
+                    break;
+                case 10:
+                    controller.estadoCuentaInteractive(sc);
+                    break;
+                case 11:
+                    controller.validarSaldosInteractive();
+                    break;
+                default:
+                    System.out.println("Opción inválida.");
+            }
+        }
+        sc.close();
+    }
+
+    private static ServidorBanco iniciarServidor(BancoController controller) {
+        Integer puerto = Integer.getInteger("banco.servidor.puerto");
+        if (puerto == null) return null;
+        try {
+            ServidorBanco servidor = new ServidorBanco(controller, puerto);
+            System.out.println("Atendiendo pedidos en el puerto " + servidor.getPuerto());
+            return servidor;
+        } catch (IOException e) {
+            System.err.println("No se pudo abrir el puerto " + puerto + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // -Dbanco.persistencia=binaria usa el diario binario en lugar de los logs de texto;
+    // -Dbanco.particiones=N usa el modo particionado con un segmento de diario por partición
+    private static BancoController crearControlador() {
+        int particiones = Integer.getInteger("banco.particiones", 0);
+        if (particiones <= 0 && !"binaria".equals(System.getProperty("banco.persistencia"))) {
+            // -Dbanco.logs.compactarDias=N comprime los segmentos de los logs con más de N días
+            int dias = Integer.getInteger("banco.logs.compactarDias", 0);
+            if (dias <= 0) return new BancoController(asincronico(new GestorArchivos()));
+            return new BancoController(asincronico(new GestorArchivos(ModoDurabilidad.POR_OPERACION, 1, 0,
+                    GestorArchivos.MAXIMO_SEGMENTO_POR_DEFECTO, dias)));
+        }
+        try {
+            if (particiones > 0) return new BancoController(asincronico(new DiarioParticionado(particiones)), particiones);
+            return new BancoController(asincronico(new DiarioBinario()));
+        } catch (IOException e) {
+            System.err.println("No se pudo abrir el diario binario: " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    // -Dbanco.asincronico=true registra los movimientos desde un hilo escritor, fuera de la operación
+    private static Persistencia asincronico(Persistencia persistencia) {
+        if (!Boolean.getBoolean("banco.asincronico")) return persistencia;
+        return new DiarioAsincronico(persistencia, DiarioAsincronico.CAPACIDAD_POR_DEFECTO);
+    }
+}
@@ -0,0 +1,170 @@
+package scr.controlador;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agregados de los movimientos de una cuenta, actualizados con cada movimiento: por
+ * cada día con movimientos guarda las sumas acumuladas de créditos y débitos (desde el
+ * primer movimiento) y el saldo al cierre, y por cada mes los movimientos de mayor
+ * monto. Los totales de cualquier periodo salen de restar dos acumulados, con una
+ * búsqueda binaria por extremo, sin recorrer el historial.
+ *
+ * <p>Los movimientos deben llegar en orden cronológico; uno con un día anterior al
+ * último (ej. si el reloj retrocede) se suma al último día.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+final class AgregadosCuenta {
+
+    /** Movimientos de mayor monto que se conservan por mes. */
+    static final int MAXIMO_MAYORES = 10;
+
+    private final String numeroCuenta;
+    // Por día con movimientos, en orden: día (epoch day), acumulados hasta ese día inclusive y saldo al cierre
+    private int[] dias = new int[16];
+    private long[] creditos = new long[16];
+    private long[] debitos = new long[16];
+    private long[] cantidadCreditos = new long[16];
+    private long[] cantidadDebitos = new long[16];
+    private long[] saldos = new long[16];
+    private int tamanio;
+    // Clave del mes del último día (año * 12 + mes - 1)
+    private int mesUltimo;
+    private final Map<Integer, MovimientoLog[]> mayores = new HashMap<>();
+
+    AgregadosCuenta(String numeroCuenta) {
+        this.numeroCuenta = numeroCuenta;
+    }
+
+    /**
+     * @param tipo Tipo de movimiento.
+     * @return true si el tipo suma al saldo, false si resta.
+     */
+    static boolean esCredito(String tipo) {
+        return tipo.equals("DEPOSITO") || tipo.equals("INTERES") || tipo.equals("TRANSFERENCIA_RECIBIDA");
+    }
+
+    /**
+     * Suma un movimiento.
+     *
+     * @param dia Día del movimiento (epoch day).
+     * @param fecha Fecha del movimiento; null para usar la actual si hace falta guardarlo.
+     * @param tipo Tipo de movimiento.
+     * @param monto Monto en centavos.
+     * @param saldoFinal Saldo luego del movimiento, en centavos.
+     */
+    synchronized void agregar(int dia, LocalDateTime fecha, String tipo, long monto, long saldoFinal) {
+        if (tamanio == 0 || dia > dias[tamanio - 1]) nuevoDia(dia);
+        int i = tamanio - 1;
+        if (esCredito(tipo)) {
+            creditos[i] += monto;
+            cantidadCreditos[i]++;
+        } else {
+            debitos[i] += monto;
+            cantidadDebitos[i]++;
+        }
+        saldos[i] = saldoFinal;
+
+        MovimientoLog[] lista = mayores.get(mesUltimo);
+        if (lista == null) {
+            lista = new MovimientoLog[MAXIMO_MAYORES];
+            mayores.put(mesUltimo, lista);
+        }
+        // Sin crear objetos si el monto no entra entre los mayores del mes
+        if (lista[MAXIMO_MAYORES - 1] != null && lista[MAXIMO_MAYORES - 1].getMonto() >= monto) return;
+        int j = MAXIMO_MAYORES - 1;
+        while (j > 0 && (lista[j - 1] == null || lista[j - 1].getMonto() < monto)) {
+            lista[j] = lista[j - 1];
+            j--;
+        }
+        lista[j] = new MovimientoLog(numeroCuenta, tipo, monto, saldoFinal,
+                fecha != null ? fecha : LocalDateTime.now(), -1);
+    }
+
+    private void nuevoDia(int dia) {
+        if (tamanio == dias.length) {
+            int n = tamanio * 2;
+            dias = Arrays.copyOf(dias, n);
+            creditos = Arrays.copyOf(creditos, n);
+            debitos = Arrays.copyOf(debitos, n);
+            cantidadCreditos = Arrays.copyOf(cantidadCreditos, n);
+            cantidadDebitos = Arrays.copyOf(cantidadDebitos, n);
+            saldos = Arrays.copyOf(saldos, n);
+        }
+        int i = tamanio++;
+        dias[i] = dia;
+        if (i > 0) {
+            creditos[i] = creditos[i - 1];
+            debitos[i] = debitos[i - 1];
+            cantidadCreditos[i] = cantidadCreditos[i - 1];
+            cantidadDebitos[i] = cantidadDebitos[i - 1];
+            saldos[i] = saldos[i - 1];
+        }
+        LocalDate fecha = LocalDate.ofEpochDay(dia);
+        mesUltimo = clave(fecha.getYear(), fecha.getMonthValue());
+    }
+
+    private static int clave(int anio, int mes) {
+        return anio * 12 + mes - 1;
+    }
+
+    // Índice del último día con movimientos que no es posterior a 'dia'; -1 si no hay
+    private int ultimoHasta(long dia) {
+        if (dia > Integer.MAX_VALUE) return tamanio - 1;
+        if (dia < Integer.MIN_VALUE) return -1;
+        int i = Arrays.binarySearch(dias, 0, tamanio, (int) dia);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /**
+     * @param fecha Día.
+     * @return Saldo al cierre del día, en centavos (0 antes del primer movimiento).
+     */
+    synchronized long saldoAl(LocalDate fecha) {
+        int i = ultimoHasta(fecha.toEpochDay());
+        return i < 0 ? 0 : saldos[i];
+    }
+
+    /**
+     * @param desde Primer día del periodo.
+     * @param hasta Último día del periodo (inclusive).
+     * @return Totales del periodo.
+     */
+    synchronized TotalesPeriodo totales(LocalDate desde, LocalDate hasta) {
+        int a = ultimoHasta(desde.toEpochDay() - 1);
+        int b = ultimoHasta(hasta.toEpochDay());
+        if (b < a) b = a;
+        return new TotalesPeriodo(numeroCuenta, desde, hasta,
+                a < 0 ? 0 : saldos[a], b < 0 ? 0 : saldos[b],
+                acumulado(creditos, b) - acumulado(creditos, a),
+                acumulado(debitos, b) - acumulado(debitos, a),
+                acumulado(cantidadCreditos, b) - acumulado(cantidadCreditos, a),
+                acumulado(cantidadDebitos, b) - acumulado(cantidadDebitos, a));
+    }
+
+    private static long acumulado(long[] valores, int i) {
+        return i < 0 ? 0 : valores[i];
+    }
+
+    /**
+     * @param mes Mes.
+     * @param cantidad Cantidad máxima ({@value #MAXIMO_MAYORES} como mucho).
+     * @return Movimientos de mayor monto del mes, de mayor a menor.
+     */
+    synchronized List<MovimientoLog> mayores(YearMonth mes, int cantidad) {
+        MovimientoLog[] lista = mayores.get(clave(mes.getYear(), mes.getMonthValue()));
+        List<MovimientoLog> resultado = new ArrayList<>();
+        if (lista == null) return resultado;
+        for (int i = 0; i < Math.min(cantidad, MAXIMO_MAYORES) && lista[i] != null; i++) {
+            resultado.add(lista[i]);
+        }
+        return resultado;
+    }
+}
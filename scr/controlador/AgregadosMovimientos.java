@@ -0,0 +1,156 @@
+package scr.controlador;
+import scr.model.Deposito;
+import scr.model.Retiro;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Backend de persistencia que delega en otro y mantiene los {@link AgregadosCuenta}
+ * de las cuentas consultadas: los agregados de una cuenta se arman con su historial
+ * la primera vez que se piden ({@link #obtener}) y desde entonces se actualizan con
+ * cada movimiento registrado. Las cuentas nunca consultadas no ocupan memoria ni
+ * agregan trabajo a la operación.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+final class AgregadosMovimientos implements Persistencia {
+
+    private static volatile long[] diaActual = { 0, Long.MIN_VALUE };
+
+    private final Persistencia destino;
+    private final Map<String, AgregadosCuenta> cuentas = new ConcurrentHashMap<>();
+
+    /**
+     * @param destino Backend donde se registran los movimientos.
+     */
+    AgregadosMovimientos(Persistencia destino) {
+        this.destino = destino;
+    }
+
+    /**
+     * @return Backend decorado.
+     */
+    Persistencia getDestino() {
+        return destino;
+    }
+
+    /**
+     * Devuelve los agregados de una cuenta, armándolos con su historial si es la primera
+     * vez. Quien llama debe impedir que se registren movimientos de la cuenta mientras
+     * tanto (el controlador bloquea la cuenta y toma el lock de lectura de su pausa).
+     *
+     * @param numeroCuenta Número de cuenta.
+     * @return Los agregados de la cuenta.
+     */
+    AgregadosCuenta obtener(String numeroCuenta) {
+        AgregadosCuenta a = cuentas.get(numeroCuenta);
+        if (a != null) return a;
+        AgregadosCuenta nuevos = new AgregadosCuenta(numeroCuenta);
+        destino.recorrerCuenta(numeroCuenta, m -> nuevos.agregar((int) m.getFecha().toLocalDate().toEpochDay(),
+                m.getFecha(), m.getTipo(), m.getMonto(), m.getSaldoFinal()));
+        cuentas.put(numeroCuenta, nuevos);
+        return nuevos;
+    }
+
+    /**
+     * @param numeroCuenta Número de cuenta.
+     * @return Los agregados de la cuenta, o null si todavía no se armaron.
+     */
+    AgregadosCuenta buscar(String numeroCuenta) {
+        return cuentas.get(numeroCuenta);
+    }
+
+    // Día local actual sin crear objetos: se recalcula sólo al pasar la medianoche
+    static int hoy() {
+        long ms = System.currentTimeMillis();
+        long[] d = diaActual;
+        if (ms >= d[1]) diaActual = d = calcularDia();
+        return (int) d[0];
+    }
+
+    private static long[] calcularDia() {
+        ZoneId zona = ZoneId.systemDefault();
+        LocalDate hoy = LocalDate.now(zona);
+        long hasta = hoy.plusDays(1).atStartOfDay(zona).toInstant().toEpochMilli();
+        return new long[] { hoy.toEpochDay(), hasta };
+    }
+
+    private void actualizar(String tipo, String numeroCuenta, long monto, long saldoFinal) {
+        AgregadosCuenta a = cuentas.get(numeroCuenta);
+        if (a != null) a.agregar(hoy(), null, tipo, monto, saldoFinal);
+    }
+
+    @Override
+    public void registrarMovimiento(String tipoMovimiento, String numeroCuenta, long monto, long saldoFinal) {
+        destino.registrarMovimiento(tipoMovimiento, numeroCuenta, monto, saldoFinal);
+        actualizar(tipoMovimiento, numeroCuenta, monto, saldoFinal);
+    }
+
+    @Override
+    public void registrarLote(LoteMovimientos lote) {
+        destino.registrarLote(lote);
+        if (cuentas.isEmpty()) return;
+        for (int i = 0; i < lote.tamanio(); i++) {
+            actualizar(lote.getTipo(i), lote.getNumeroCuenta(i), lote.getMonto(i), lote.getSaldoFinal(i));
+        }
+    }
+
+    @Override
+    public void registrarTransferencia(String origen, String destinoTransferencia, long monto,
+                                       long saldoOrigen, long saldoDestino) {
+        destino.registrarTransferencia(origen, destinoTransferencia, monto, saldoOrigen, saldoDestino);
+        actualizar("TRANSFERENCIA_ENVIADA", origen, monto, saldoOrigen);
+        actualizar("TRANSFERENCIA_RECIBIDA", destinoTransferencia, monto, saldoDestino);
+    }
+
+    @Override
+    public void confirmar() {
+        destino.confirmar();
+    }
+
+    @Override
+    public CompletableFuture<Void> confirmarAsync() {
+        return destino.confirmarAsync();
+    }
+
+    @Override
+    public void cerrar() {
+        destino.cerrar();
+    }
+
+    @Override
+    public List<Deposito> cargarDepositosParaCuenta(String numeroCuenta) {
+        return destino.cargarDepositosParaCuenta(numeroCuenta);
+    }
+
+    @Override
+    public List<Retiro> cargarRetirosParaCuenta(String numeroCuenta) {
+        return destino.cargarRetirosParaCuenta(numeroCuenta);
+    }
+
+    @Override
+    public void reproducir(Consumer<MovimientoLog> visitante) {
+        destino.reproducir(visitante);
+    }
+
+    @Override
+    public long[] posicion() {
+        return destino.posicion();
+    }
+
+    @Override
+    public void reproducirDesde(long[] posicion, Consumer<MovimientoLog> visitante) {
+        destino.reproducirDesde(posicion, visitante);
+    }
+
+    @Override
+    public void recorrerCuenta(String numeroCuenta, Consumer<MovimientoLog> visitante) {
+        destino.recorrerCuenta(numeroCuenta, visitante);
+    }
+}
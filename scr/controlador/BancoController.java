@@ -2,25 +2,212 @@ package scr.controlador;
 import scr.excepciones.OperacionInvalidaException;
 import scr.excepciones.SaldoInsuficienteException;
 import scr.model.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * Controlador de alto nivel que maneja la colección de cuentas y las operaciones
  * delegadas desde la clase Main.
+ * Las operaciones bloquean sólo la cuenta involucrada, por lo que pueden atenderse
+ * desde varios hilos en paralelo.
+ *
+ * <p>Al crearse reconstruye las cuentas a partir de la última {@link Instantanea},
+ * las altas del {@link CatalogoCuentas} y los movimientos registrados después de la
+ * instantánea. Periódicamente (y al cerrar) guarda una nueva instantánea.</p>
+ *
+ * <p>En modo particionado (constructor con {@code particiones > 0}) los depósitos y
+ * retiros no se ejecutan en el hilo que los pide: cada cuenta pertenece a una
+ * partición con un único hilo que aplica sus operaciones en orden, y
+ * {@link #depositarAsync} / {@link #intentarRetirarAsync} devuelven un futuro. Con
+ * {@link DiarioParticionado} con la misma cantidad de segmentos, cada hilo escribe
+ * sólo en su propio segmento.</p>
  *
  * @author Juan
  * @version 1.0
  */
 public class BancoController {
 
-    private List<CuentaBancaria> cuentas;
-    private GestorArchivos gestor;
+    /** Intervalo por defecto entre instantáneas automáticas. */
+    public static final long INTERVALO_INSTANTANEA_MS = 5 * 60 * 1000;
+    /** Movimientos que cada cuenta conserva en memoria por defecto. */
+    public static final int HISTORIAL_EN_MEMORIA = 512;
+
+    private RegistroCuentas registro;
+    private Persistencia gestor;
+    // Decora al backend
+    private final AgregadosMovimientos agregados;
+    // Decora a 'agregados'; 'gestor' apunta a él
+    private final CacheHistoriales historiales;
+    // null si no pudo abrirse (las cuentas nuevas no sobrevivirán a un reinicio)
+    private CatalogoCuentas catalogo;
+    private final String archivoInstantanea;
+    // Los movimientos más antiguos se leen de 'gestor' cuando se piden
+    private volatile PoliticaHistorial politicaHistorial = PoliticaHistorial.ultimos(HISTORIAL_EN_MEMORIA);
+
+    // Último saldo de las cuentas que figuran en los logs pero no en el catálogo
+    // (ej. creadas antes de que existiera); sólo se modifica al iniciar
+    private Map<String, Long> saldosRecuperados;
+
+    // Las operaciones toman el lock de lectura, así que no se excluyen entre sí;
+    // la instantánea toma el de escritura para ver un estado consistente con los logs
+    private final ReentrantReadWriteLock pausa = new ReentrantReadWriteLock();
+    private final Object escrituraInstantanea = new Object();
+    private final LongAdder operaciones = new LongAdder();
+    private volatile long operacionesEnInstantanea;
+    private final ScheduledExecutorService temporizador;
+    private long duracionRecuperacionMs;
+    private long movimientosRecuperados;
+    private final Metricas metricas = Metricas.global();
+    // null en el modo con locks
+    private final EjecutorParticionado particiones;
 
     public BancoController() {
-        this.cuentas = new ArrayList<>();
-        this.gestor = new GestorArchivos();
+        this(new GestorArchivos());
+    }
+
+    /**
+     * Crea el controlador con el backend de persistencia indicado, usando los archivos
+     * de catálogo e instantánea por defecto.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param persistencia Backend donde se registran los movimientos.
+     */
+    public BancoController(Persistencia persistencia) {
+        this(persistencia, CatalogoCuentas.ARCHIVO_POR_DEFECTO, Instantanea.ARCHIVO_POR_DEFECTO, INTERVALO_INSTANTANEA_MS);
+    }
+
+    /**
+     * Crea el controlador en modo particionado (o con locks si {@code particiones} es 0),
+     * usando los archivos de catálogo e instantánea por defecto.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param persistencia Backend donde se registran los movimientos.
+     * @param particiones Cantidad de particiones; 0 para el modo con locks.
+     */
+    public BancoController(Persistencia persistencia, int particiones) {
+        this(persistencia, CatalogoCuentas.ARCHIVO_POR_DEFECTO, Instantanea.ARCHIVO_POR_DEFECTO,
+                INTERVALO_INSTANTANEA_MS, particiones);
+    }
+
+    /**
+     * Crea el controlador y recupera el estado guardado: carga la última instantánea,
+     * las cuentas dadas de alta después y reproduce sólo los movimientos posteriores.
+     * Los números de cuentas que aparecen en los logs quedan reservados.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param persistencia Backend donde se registran los movimientos.
+     * @param archivoCatalogo Archivo de altas de cuentas.
+     * @param archivoInstantanea Archivo de instantánea.
+     * @param intervaloInstantaneaMs Intervalo entre instantáneas automáticas; 0 para desactivarlas.
+     */
+    public BancoController(Persistencia persistencia, String archivoCatalogo, String archivoInstantanea,
+                           long intervaloInstantaneaMs) {
+        this(persistencia, archivoCatalogo, archivoInstantanea, intervaloInstantaneaMs, 0);
+    }
+
+    /**
+     * Igual que {@link #BancoController(Persistencia, String, String, long)}, pero con
+     * {@code particiones > 0} los depósitos y retiros se reparten por cuenta entre esa
+     * cantidad de hilos, cada uno dueño de sus cuentas (ver {@link #depositarAsync}).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param persistencia Backend donde se registran los movimientos.
+     * @param archivoCatalogo Archivo de altas de cuentas.
+     * @param archivoInstantanea Archivo de instantánea.
+     * @param intervaloInstantaneaMs Intervalo entre instantáneas automáticas; 0 para desactivarlas.
+     * @param particiones Cantidad de particiones; 0 para el modo con locks.
+     */
+    public BancoController(Persistencia persistencia, String archivoCatalogo, String archivoInstantanea,
+                           long intervaloInstantaneaMs, int particiones) {
+        this.registro = new RegistroCuentas();
+        this.agregados = new AgregadosMovimientos(persistencia);
+        this.historiales = new CacheHistoriales(agregados, CacheHistoriales.LIMITE_BYTES_POR_DEFECTO);
+        this.gestor = historiales;
+        this.archivoInstantanea = archivoInstantanea;
+        this.saldosRecuperados = new HashMap<>();
+        try {
+            this.catalogo = new CatalogoCuentas(archivoCatalogo);
+        } catch (IOException e) {
+            System.err.println("No se pudo abrir el catálogo de cuentas " + archivoCatalogo + ": " + e.getMessage());
+        }
+        recuperar();
+        // Cada hilo toma el lock de lectura una vez por lote, así la instantánea no
+        // puede quedar a mitad de una operación
+        this.particiones = particiones > 0
+                ? new EjecutorParticionado(particiones, EjecutorParticionado.CAPACIDAD_POR_DEFECTO, pausa.readLock())
+                : null;
+
+        if (intervaloInstantaneaMs > 0) {
+            this.temporizador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "instantaneas");
+                t.setDaemon(true);
+                return t;
+            });
+            this.temporizador.scheduleWithFixedDelay(this::instantaneaPeriodica,
+                    intervaloInstantaneaMs, intervaloInstantaneaMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.temporizador = null;
+        }
+    }
+
+    private void recuperar() {
+        long inicio = System.nanoTime();
+        Instantanea instantanea = null;
+        try {
+            instantanea = Instantanea.cargar(archivoInstantanea);
+            if (instantanea != null && !instantanea.getBackend().equals(nombreBackend())) {
+                System.err.println("La instantánea corresponde a otro backend, se reproduce el historial completo.");
+                instantanea = null;
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo cargar la instantánea, se reproduce el historial completo: " + e.getMessage());
+        }
+        if (instantanea != null) {
+            for (CuentaBancaria c : instantanea.getCuentas()) registrar(c);
+            saldosRecuperados.putAll(instantanea.getSinCatalogo());
+        }
+        if (catalogo != null) {
+            try {
+                catalogo.leerDesde(instantanea == null ? 0 : instantanea.getPosicionCatalogo(), c -> {
+                    if (registro.buscar(c.getNumeroCuenta()) == null) registrar(c);
+                });
+            } catch (IOException e) {
+                System.err.println("Error al leer el catálogo de cuentas: " + e.getMessage());
+            }
+        }
+
+        Consumer<MovimientoLog> aplicar = m -> {
+            movimientosRecuperados++;
+            CuentaBancaria c = registro.buscar(m.getNumeroCuenta());
+            if (c != null) c.recuperarMovimiento(m.getTipo(), m.getSaldoFinal());
+            else saldosRecuperados.put(m.getNumeroCuenta(), m.getSaldoFinal());
+        };
+        if (instantanea == null) gestor.reproducir(aplicar);
+        else gestor.reproducirDesde(instantanea.getPosiciones(), aplicar);
+        for (String numero : saldosRecuperados.keySet()) {
+            registro.reservar(numero);
+        }
+        duracionRecuperacionMs = (System.nanoTime() - inicio) / 1_000_000;
     }
 
     /**
@@ -37,48 +224,137 @@ public class BancoController {
         System.out.print("Titular: ");
         String titular = sc.nextLine();
         System.out.print("Saldo inicial: ");
-        double saldo = Double.parseDouble(sc.nextLine());
-        // Generar número de cuenta: 6 dígitos numéricos (con padding) y asegurar unicidad
-        String numero;
-        do {
-            int n = (int)(Math.random() * 1_000_000);
-            numero = String.format("%06d", n);
-        } while (buscarCuenta(numero) != null);
-        CuentaBancaria cuenta = null;
+        long saldo = Dinero.parsear(sc.nextLine());
+        CuentaBancaria cuenta;
 
+        // El número se genera recién con todos los datos leídos: cada número se entrega
+        // una sola vez, así que una creación abortada no debe consumir uno
         switch (tipo) {
-            case 1:
+            case 1: {
                 System.out.print("Comisión por retiro (por defecto 5.0): ");
-                double com = Double.parseDouble(sc.nextLine());
-                cuenta = new CuentaCorriente(titular, numero, com);
+                long com = Dinero.parsear(sc.nextLine());
+                cuenta = new CuentaCorriente(titular, registro.generarNumero(), com);
                 break;
-            case 2:
+            }
+            case 2: {
                 System.out.print("Tasa de interés mensual (ej: 0.02): ");
                 double tasa = Double.parseDouble(sc.nextLine());
                 System.out.print("Cantidad de retiros gratis por mes (ej: 3): ");
                 int cant = Integer.parseInt(sc.nextLine());
-                cuenta = new CuentaAhorros(titular, numero, tasa, cant);
+                cuenta = new CuentaAhorros(titular, registro.generarNumero(), tasa, cant);
                 break;
-            case 3:
+            }
+            case 3: {
                 System.out.print("Límite de retiro por operación (ej: 5000): ");
-                double limite = Double.parseDouble(sc.nextLine());
+                long limite = Dinero.parsear(sc.nextLine());
                 System.out.print("Gestor asignado (nombre): ");
                 String gestorNombre = sc.nextLine();
-                cuenta = new CuentaEmpresarial(titular, numero, limite, gestorNombre);
+                cuenta = new CuentaEmpresarial(titular, registro.generarNumero(), limite, gestorNombre);
                 break;
+            }
+            default:
+                cuenta = null;
         }
 
         if (cuenta != null) {
-            cuenta.depositar(saldo);
-            // registrar en archivo el depósito inicial
-            gestor.registrarMovimiento("DEPOSITO", cuenta.getNumeroCuenta(), saldo, cuenta.getSaldo());
-            cuentas.add(cuenta);
+            abrirCuenta(cuenta, saldo);
             System.out.println("Cuenta creada. Número: " + cuenta.getNumeroCuenta() + " Tipo: " + cuenta.getClass().getSimpleName());
         }
     }
 
     /**
-     * Busca una cuenta en memoria por su número.
+     * Genera un número de cuenta libre para una cuenta nueva. Llamadas concurrentes
+     * reciben números distintos.
+     *
+     * @author Juan
+     * @version 1.0
+     * @return Número de cuenta de 6 dígitos.
+     * @throws IllegalStateException si ya no quedan números disponibles.
+     */
+    public String generarNumeroCuenta() {
+        return registro.generarNumero();
+    }
+
+    /**
+     * Da de alta una cuenta: registra en los logs el depósito del saldo inicial y
+     * luego la agrega en memoria y en el catálogo. Si el depósito no puede escribirse
+     * la cuenta no se abre.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param cuenta Cuenta nueva (con saldo cero).
+     * @param saldoInicial Depósito inicial en centavos.
+     * @throws IllegalArgumentException si ya existe una cuenta con el mismo número.
+     * @throws UncheckedIOException si el depósito inicial no pudo escribirse en los logs.
+     */
+    public void abrirCuenta(CuentaBancaria cuenta, long saldoInicial) {
+        pausa.readLock().lock();
+        try {
+            if (registro.buscar(cuenta.getNumeroCuenta()) != null) {
+                throw new IllegalArgumentException("Ya existe una cuenta con número " + cuenta.getNumeroCuenta());
+            }
+            // El depósito inicial se registra antes de publicar la cuenta; si se corta
+            // antes del catálogo, la recuperación lo trata como una cuenta sólo de los logs
+            synchronized (cuenta) {
+                cuenta.depositar(saldoInicial);
+                gestor.registrarMovimiento("DEPOSITO", cuenta.getNumeroCuenta(), saldoInicial, cuenta.getSaldo());
+                cuenta.marcarRegistrados();
+            }
+            registrar(cuenta);
+            if (catalogo != null) {
+                try {
+                    catalogo.agregar(cuenta);
+                } catch (IOException e) {
+                    System.err.println("Error al registrar la cuenta " + cuenta.getNumeroCuenta() + " en el catálogo: " + e.getMessage());
+                }
+            }
+            operaciones.increment();
+        } finally {
+            pausa.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Cantidad de particiones; 0 en el modo con locks.
+     */
+    public int getParticiones() {
+        return particiones == null ? 0 : particiones.getCantidad();
+    }
+
+    /**
+     * Cambia cuántos movimientos conserva en memoria cada cuenta (las existentes y las
+     * que se creen). El resto del historial se lee de los logs cuando se pide.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param politica Nueva política.
+     */
+    public void setPoliticaHistorial(PoliticaHistorial politica) {
+        this.politicaHistorial = politica;
+        for (CuentaBancaria c : registro.getCuentas()) {
+            c.configurarHistorial(politica, gestor);
+        }
+    }
+
+    /**
+     * Devuelve la cache de historiales leídos de los logs (ver {@link CacheHistoriales}),
+     * para consultar sus estadísticas o cambiar su tamaño máximo.
+     *
+     * @author Juan
+     * @version 1.0
+     * @return La cache del controlador.
+     */
+    public CacheHistoriales getCacheHistoriales() {
+        return historiales;
+    }
+
+    private void registrar(CuentaBancaria cuenta) {
+        cuenta.configurarHistorial(politicaHistorial, gestor);
+        registro.registrar(cuenta);
+    }
+
+    /**
+     * Busca una cuenta en memoria por su número (búsqueda O(1) en el registro).
      *
      * @author Juan
      * @version 1.0
@@ -86,10 +362,7 @@ public class BancoController {
      * @return La instancia de {@link scr.model.CuentaBancaria} si se encuentra, o null si no existe.
      */
     public CuentaBancaria buscarCuenta(String numero) {
-        for (CuentaBancaria c : cuentas) {
-            if (c.getNumeroCuenta().equals(numero)) return c;
-        }
-        return null;
+        return registro.buscar(numero);
     }
 
     /**
@@ -107,16 +380,17 @@ public class BancoController {
         if (c == null) { System.out.println("Cuenta no encontrada."); return; }
         System.out.println("Tipo: " + c.getClass().getSimpleName());
         System.out.print("Monto a retirar: ");
-        double monto = Double.parseDouble(sc.nextLine());
+        long monto = Dinero.parsear(sc.nextLine());
         try {
-            c.retirar(monto);
-            gestor.registrarMovimiento("RETIRO", c.getNumeroCuenta(), monto, c.getSaldo());
-            System.out.println("Retiro exitoso. Saldo actual: " + c.getSaldo());
+            long saldo = retirar(c, monto);
+            System.out.println("Retiro exitoso. Saldo actual: " + Dinero.formatear(saldo));
         } catch (OperacionInvalidaException e) {
             System.err.println("Error: " + e.getMessage());
             if (e.getCause() != null) System.err.println("Causa: " + e.getCause().getMessage());
         } catch (SaldoInsuficienteException e) {
             System.err.println("Error: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            System.err.println("El retiro no se aplicó porque no pudo registrarse: " + e.getMessage());
         }
     }
 
@@ -134,75 +408,595 @@ public class BancoController {
         if (c == null) { System.out.println("Cuenta no encontrada."); return; }
         System.out.println("Tipo: " + c.getClass().getSimpleName());
         System.out.print("Monto a depositar: ");
-        double monto = Double.parseDouble(sc.nextLine());
-        c.depositar(monto);
-        gestor.registrarMovimiento("DEPOSITO", c.getNumeroCuenta(), monto, c.getSaldo());
-        System.out.println("Depósito exitoso. Saldo actual: " + c.getSaldo());
+        long monto = Dinero.parsear(sc.nextLine());
+        try {
+            long saldo = depositar(c, monto);
+            System.out.println("Depósito exitoso. Saldo actual: " + Dinero.formatear(saldo));
+        } catch (UncheckedIOException e) {
+            System.err.println("El depósito no se aplicó porque no pudo registrarse: " + e.getMessage());
+        }
     }
 
     /**
-     * Muestra los movimientos (depósitos y retiros) de una cuenta. Si la cuenta no
-     * existe en memoria, intenta leer los movimientos desde los archivos de log.
+     * Deposita en la cuenta indicada y registra el movimiento. Puede llamarse desde
+     * varios hilos: operaciones sobre cuentas distintas se ejecutan en paralelo.
      *
      * @author Juan
      * @version 1.0
-     * @param sc Scanner para lectura del usuario.
+     * @param numero Número de cuenta.
+     * @param monto Monto a depositar en centavos.
+     * @return Saldo de la cuenta luego del depósito, en centavos.
+     * @throws OperacionInvalidaException si la cuenta no existe.
      */
-    public void mostrarMovimientosInteractive(Scanner sc) {
-        System.out.print("Número de cuenta: ");
-        String num = sc.nextLine();
-        CuentaBancaria c = buscarCuenta(num);
+    public long depositar(String numero, long monto) throws OperacionInvalidaException {
+        CuentaBancaria c = buscarCuenta(numero);
+        if (c == null) throw new OperacionInvalidaException("Cuenta no encontrada: " + numero);
+        return depositar(c, monto);
+    }
+
+    /**
+     * Retira de la cuenta indicada y registra el movimiento. Puede llamarse desde
+     * varios hilos: operaciones sobre cuentas distintas se ejecutan en paralelo.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numero Número de cuenta.
+     * @param monto Monto a retirar en centavos.
+     * @return Saldo de la cuenta luego del retiro, en centavos.
+     * @throws OperacionInvalidaException si la cuenta no existe o el retiro viola una regla de la cuenta.
+     * @throws SaldoInsuficienteException si el saldo no alcanza.
+     */
+    public long retirar(String numero, long monto) throws OperacionInvalidaException, SaldoInsuficienteException {
+        CuentaBancaria c = buscarCuenta(numero);
         if (c == null) {
-            // Intentar cargar movimientos desde archivo incluso si la cuenta no está en memoria
-            List<Deposito> depsEnArchivo = gestor.cargarDepositosParaCuenta(num);
-            List<Retiro> rtsEnArchivo = gestor.cargarRetirosParaCuenta(num);
-            if ((depsEnArchivo == null || depsEnArchivo.isEmpty()) && (rtsEnArchivo == null || rtsEnArchivo.isEmpty())) {
-                System.out.println("Cuenta no encontrada en memoria ni en archivos.");
-                return;
+            metricas.rechazo(ResultadoRetiro.CUENTA_INEXISTENTE);
+            throw new OperacionInvalidaException("Cuenta no encontrada: " + numero);
+        }
+        return retirar(c, monto);
+    }
+
+    /**
+     * Igual que {@link #retirar(String, long)} pero sin excepciones: los rechazos se
+     * informan en el resultado, que es un enum. Conviene cuando los rechazos son
+     * frecuentes (ej. procesos por lotes).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numero Número de cuenta.
+     * @param monto Monto a retirar en centavos.
+     * @return {@link ResultadoRetiro#REALIZADO} o el motivo del rechazo.
+     */
+    public ResultadoRetiro intentarRetirar(String numero, long monto) {
+        CuentaBancaria c = buscarCuenta(numero);
+        if (c == null) {
+            metricas.rechazo(ResultadoRetiro.CUENTA_INEXISTENTE);
+            return ResultadoRetiro.CUENTA_INEXISTENTE;
+        }
+        if (particiones != null) return intentarRetirarEnParticion(c, monto).join().getResultado();
+        return intentarRetirar(c, monto).getResultado();
+    }
+
+    private IntentoRetiro intentarRetirar(CuentaBancaria c, long monto) {
+        long inicio = System.nanoTime();
+        IntentoRetiro intento;
+        pausa.readLock().lock();
+        try {
+            intento = aplicarIntentoRetiro(c, monto);
+        } finally {
+            pausa.readLock().unlock();
+        }
+        metricas.retiro.registrarDesde(inicio);
+        if (intento.isRealizado()) metricas.operacion("RETIRO", c);
+        else metricas.rechazo(intento.getResultado());
+        return intento;
+    }
+
+    /**
+     * Deposita en la cuenta indicada sin esperar a que termine la operación. En modo
+     * particionado la operación se encola en el hilo de la partición de la cuenta; en el
+     * modo con locks se ejecuta en el hilo que llama y el futuro se devuelve terminado.
+     *
+     * <p>El futuro se completa en el hilo de la partición: las acciones encadenadas que
+     * puedan demorar deben usar las variantes {@code ...Async} de {@link CompletableFuture}
+     * para no detener a las demás cuentas de la partición.</p>
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numero Número de cuenta.
+     * @param monto Monto a depositar en centavos.
+     * @return Futuro con el saldo luego del depósito, o fallido con
+     *         {@link OperacionInvalidaException} si la cuenta no existe.
+     */
+    public CompletableFuture<Long> depositarAsync(String numero, long monto) {
+        CuentaBancaria c = buscarCuenta(numero);
+        if (c == null) return CompletableFuture.failedFuture(new OperacionInvalidaException("Cuenta no encontrada: " + numero));
+        if (particiones != null) return depositarEnParticion(c, monto);
+        return CompletableFuture.completedFuture(depositar(c, monto));
+    }
+
+    /**
+     * Igual que {@link #intentarRetirar(String, long)} pero sin esperar a que termine
+     * la operación (ver {@link #depositarAsync}).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numero Número de cuenta.
+     * @param monto Monto a retirar en centavos.
+     * @return Futuro con el resultado y el saldo que dejó el retiro en la cuenta.
+     */
+    public CompletableFuture<IntentoRetiro> intentarRetirarAsync(String numero, long monto) {
+        CuentaBancaria c = buscarCuenta(numero);
+        if (c == null) {
+            metricas.rechazo(ResultadoRetiro.CUENTA_INEXISTENTE);
+            return CompletableFuture.completedFuture(new IntentoRetiro(ResultadoRetiro.CUENTA_INEXISTENTE, 0));
+        }
+        if (particiones != null) return intentarRetirarEnParticion(c, monto);
+        return CompletableFuture.completedFuture(intentarRetirar(c, monto));
+    }
+
+    // La operación y su registro se hacen con la cuenta bloqueada, así el
+    // "Saldo Final" del log corresponde exactamente a este movimiento.
+    private long depositar(CuentaBancaria c, long monto) {
+        if (particiones != null) return depositarEnParticion(c, monto).join();
+        long inicio = System.nanoTime();
+        long saldo;
+        pausa.readLock().lock();
+        try {
+            saldo = aplicarDeposito(c, monto);
+        } finally {
+            pausa.readLock().unlock();
+        }
+        metricas.deposito.registrarDesde(inicio);
+        metricas.operacion("DEPOSITO", c);
+        return saldo;
+    }
+
+    private long retirar(CuentaBancaria c, long monto) throws OperacionInvalidaException, SaldoInsuficienteException {
+        if (particiones != null) return esperar(retirarEnParticion(c, monto));
+        long inicio = System.nanoTime();
+        long saldo;
+        pausa.readLock().lock();
+        try {
+            saldo = aplicarRetiro(c, monto);
+        } catch (SaldoInsuficienteException | OperacionInvalidaException e) {
+            metricas.rechazo(motivoRechazo(e, monto));
+            throw e;
+        } finally {
+            pausa.readLock().unlock();
+            metricas.retiro.registrarDesde(inicio);
+        }
+        metricas.operacion("RETIRO", c);
+        return saldo;
+    }
+
+    // Las operaciones aplicar* deben llamarse con el lock de lectura de 'pausa' tomado.
+    // En modo particionado la cuenta se sigue bloqueando (sin competencia en el caso
+    // normal) porque las transferencias y el cierre mensual corren fuera de las particiones.
+    // Si el movimiento no puede escribirse en los logs la cuenta vuelve a como estaba:
+    // un error significa que la operación no se aplicó y puede reintentarse.
+    private long aplicarDeposito(CuentaBancaria c, long monto) {
+        synchronized (c) {
+            long saldoAnterior = c.getSaldo();
+            c.depositar(monto);
+            long saldo = c.getSaldo();
+            try {
+                gestor.registrarMovimiento("DEPOSITO", c.getNumeroCuenta(), monto, saldo);
+            } catch (RuntimeException e) {
+                // Un monto no positivo no cambia la cuenta
+                if (saldo != saldoAnterior) c.deshacerUltimo(saldoAnterior);
+                throw e;
             }
+            c.marcarRegistrados();
+            operaciones.increment();
+            return saldo;
+        }
+    }
 
-            System.out.println("--- Depósitos---");
-            for (Deposito d : depsEnArchivo) {
-                System.out.println(d.getFecha() + " - $" + d.getMonto());
+    private long aplicarRetiro(CuentaBancaria c, long monto) throws OperacionInvalidaException, SaldoInsuficienteException {
+        // Las cuentas ignoran un monto no positivo: sin este control se registraría como un retiro realizado
+        if (monto <= 0) throw new OperacionInvalidaException("El monto a retirar debe ser positivo.");
+        synchronized (c) {
+            long saldoAnterior = c.getSaldo();
+            c.retirar(monto);
+            long saldo = c.getSaldo();
+            try {
+                gestor.registrarMovimiento("RETIRO", c.getNumeroCuenta(), monto, saldo);
+            } catch (RuntimeException e) {
+                c.deshacerUltimo(saldoAnterior);
+                throw e;
             }
-            System.out.println("--- Retiros---");
-            for (Retiro r : rtsEnArchivo) {
-                System.out.println(r.getFecha() + " - $" + r.getMonto());
+            c.marcarRegistrados();
+            operaciones.increment();
+            return saldo;
+        }
+    }
+
+    private IntentoRetiro aplicarIntentoRetiro(CuentaBancaria c, long monto) {
+        synchronized (c) {
+            long saldoAnterior = c.getSaldo();
+            ResultadoRetiro resultado = c.intentarRetirar(monto);
+            long saldo = c.getSaldo();
+            if (resultado.isRealizado()) {
+                try {
+                    gestor.registrarMovimiento("RETIRO", c.getNumeroCuenta(), monto, saldo);
+                } catch (RuntimeException e) {
+                    c.deshacerUltimo(saldoAnterior);
+                    throw e;
+                }
+                c.marcarRegistrados();
+                operaciones.increment();
             }
-            return;
+            return new IntentoRetiro(resultado, saldo);
+        }
+    }
+
+    // Las latencias del modo particionado incluyen la espera en la cola de la partición
+    private CompletableFuture<Long> depositarEnParticion(CuentaBancaria c, long monto) {
+        CompletableFuture<Long> futuro = new CompletableFuture<>();
+        long inicio = System.nanoTime();
+        particiones.ejecutar(c.getNumeroCuenta(), () -> {
+            try {
+                long saldo = aplicarDeposito(c, monto);
+                metricas.deposito.registrarDesde(inicio);
+                metricas.operacion("DEPOSITO", c);
+                futuro.complete(saldo);
+            } catch (RuntimeException e) {
+                futuro.completeExceptionally(e);
+            }
+        });
+        return futuro;
+    }
+
+    private CompletableFuture<Long> retirarEnParticion(CuentaBancaria c, long monto) {
+        CompletableFuture<Long> futuro = new CompletableFuture<>();
+        long inicio = System.nanoTime();
+        particiones.ejecutar(c.getNumeroCuenta(), () -> {
+            try {
+                long saldo = aplicarRetiro(c, monto);
+                metricas.retiro.registrarDesde(inicio);
+                metricas.operacion("RETIRO", c);
+                futuro.complete(saldo);
+            } catch (SaldoInsuficienteException | OperacionInvalidaException e) {
+                metricas.retiro.registrarDesde(inicio);
+                metricas.rechazo(motivoRechazo(e, monto));
+                futuro.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                futuro.completeExceptionally(e);
+            }
+        });
+        return futuro;
+    }
+
+    private CompletableFuture<IntentoRetiro> intentarRetirarEnParticion(CuentaBancaria c, long monto) {
+        CompletableFuture<IntentoRetiro> futuro = new CompletableFuture<>();
+        long inicio = System.nanoTime();
+        particiones.ejecutar(c.getNumeroCuenta(), () -> {
+            try {
+                IntentoRetiro intento = aplicarIntentoRetiro(c, monto);
+                metricas.retiro.registrarDesde(inicio);
+                if (intento.isRealizado()) metricas.operacion("RETIRO", c);
+                else metricas.rechazo(intento.getResultado());
+                futuro.complete(intento);
+            } catch (RuntimeException e) {
+                futuro.completeExceptionally(e);
+            }
+        });
+        return futuro;
+    }
+
+    // Espera el resultado y relanza la excepción original de la operación
+    private static long esperar(CompletableFuture<Long> futuro) throws OperacionInvalidaException, SaldoInsuficienteException {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof OperacionInvalidaException) throw (OperacionInvalidaException) causa;
+            if (causa instanceof SaldoInsuficienteException) throw (SaldoInsuficienteException) causa;
+            if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+            throw e;
+        }
+    }
+
+    // Las cuentas encadenan la SaldoInsuficienteException; sin causa es el límite por operación
+    private static ResultadoRetiro motivoRechazo(Exception e, long monto) {
+        if (monto <= 0) return ResultadoRetiro.MONTO_INVALIDO;
+        if (e instanceof SaldoInsuficienteException || e.getCause() instanceof SaldoInsuficienteException) {
+            return ResultadoRetiro.SALDO_INSUFICIENTE;
+        }
+        return ResultadoRetiro.LIMITE_EXCEDIDO;
+    }
+
+    /**
+     * Transfiere entre dos cuentas de forma atómica: el débito (con las reglas de la
+     * cuenta de origen, ej. comisión o límite por operación) y el crédito se hacen con
+     * ambas cuentas bloqueadas y se registran como un único movimiento enlazado
+     * ({@link Persistencia#registrarTransferencia}). Si el débito se rechaza o el
+     * movimiento no puede escribirse en los logs ninguna cuenta cambia.
+     *
+     * <p>Las cuentas se bloquean siempre en orden de número de cuenta, así que
+     * transferencias concurrentes en sentidos opuestos no pueden bloquearse entre sí.</p>
+     *
+     * @author Juan
+     * @version 1.0
+     * @param origen Número de la cuenta a debitar.
+     * @param destino Número de la cuenta a acreditar.
+     * @param monto Monto a transferir en centavos.
+     * @return Saldo de la cuenta de origen luego de la transferencia, en centavos.
+     * @throws OperacionInvalidaException si alguna cuenta no existe, son la misma, el monto
+     *         no es positivo o el débito viola una regla de la cuenta de origen.
+     * @throws SaldoInsuficienteException si el saldo de la cuenta de origen no alcanza.
+     */
+    public long transferir(String origen, String destino, long monto)
+            throws OperacionInvalidaException, SaldoInsuficienteException {
+        CuentaBancaria desde = buscarCuenta(origen);
+        CuentaBancaria hacia = buscarCuenta(destino);
+        if (desde == null || hacia == null) {
+            metricas.rechazo(ResultadoRetiro.CUENTA_INEXISTENTE);
+            throw new OperacionInvalidaException("Cuenta no encontrada: " + (desde == null ? origen : destino));
+        }
+        if (desde == hacia) throw new OperacionInvalidaException("La cuenta de origen y la de destino son la misma.");
+        if (monto <= 0) {
+            metricas.rechazo(ResultadoRetiro.MONTO_INVALIDO);
+            throw new OperacionInvalidaException("El monto a transferir debe ser positivo.");
         }
 
-        List<Deposito> depsEnArchivo = gestor.cargarDepositosParaCuenta(num);
-        for (Deposito d : depsEnArchivo) {
-            boolean existe = false;
-            for (Deposito ex : c.getDepositos()) {
-                if (Double.compare(ex.getMonto(), d.getMonto()) == 0 && ex.getFecha().equals(d.getFecha())) { existe = true; break; }
+        // Orden global de bloqueo: primero la cuenta de menor número
+        boolean origenPrimero = desde.getNumeroCuenta().compareTo(hacia.getNumeroCuenta()) < 0;
+        CuentaBancaria primera = origenPrimero ? desde : hacia;
+        CuentaBancaria segunda = origenPrimero ? hacia : desde;
+        long inicio = System.nanoTime();
+        long saldo;
+        pausa.readLock().lock();
+        try {
+            synchronized (primera) {
+                synchronized (segunda) {
+                    long saldoOrigen = desde.getSaldo();
+                    long saldoDestino = hacia.getSaldo();
+                    desde.retirar(monto);
+                    hacia.depositar(monto);
+                    saldo = desde.getSaldo();
+                    try {
+                        gestor.registrarTransferencia(origen, destino, monto, saldo, hacia.getSaldo());
+                    } catch (RuntimeException e) {
+                        // Sin el registro la transferencia no se aplicó en ninguna de las dos cuentas
+                        hacia.deshacerUltimo(saldoDestino);
+                        desde.deshacerUltimo(saldoOrigen);
+                        throw e;
+                    }
+                    desde.marcarRegistrados();
+                    hacia.marcarRegistrados();
+                    operaciones.increment();
+                }
             }
-            if (!existe) c.getDepositos().add(d);
+        } catch (SaldoInsuficienteException | OperacionInvalidaException e) {
+            metricas.rechazo(motivoRechazo(e, monto));
+            throw e;
+        } finally {
+            pausa.readLock().unlock();
+            metricas.transferencia.registrarDesde(inicio);
         }
+        metricas.operacion("TRANSFERENCIA", desde);
+        return saldo;
+    }
 
-        List<Retiro> rtsEnArchivo = gestor.cargarRetirosParaCuenta(num);
-        for (Retiro r : rtsEnArchivo) {
-            boolean existe = false;
-            for (Retiro ex : c.getRetiros()) {
-                if (Double.compare(ex.getMonto(), r.getMonto()) == 0 && ex.getFecha().equals(r.getFecha())) { existe = true; break; }
+    /**
+     * Solicita por consola las cuentas y el monto y ejecuta la transferencia.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param sc Scanner para lectura del usuario.
+     */
+    public void transferirInteractive(Scanner sc) {
+        System.out.print("Cuenta de origen: ");
+        String origen = sc.nextLine();
+        System.out.print("Cuenta de destino: ");
+        String destino = sc.nextLine();
+        System.out.print("Monto a transferir: ");
+        long monto = Dinero.parsear(sc.nextLine());
+        try {
+            long saldo = transferir(origen, destino, monto);
+            System.out.println("Transferencia exitosa. Saldo actual de la cuenta de origen: " + Dinero.formatear(saldo));
+        } catch (OperacionInvalidaException e) {
+            System.err.println("Error: " + e.getMessage());
+            if (e.getCause() != null) System.err.println("Causa: " + e.getCause().getMessage());
+        } catch (SaldoInsuficienteException e) {
+            System.err.println("Error: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            System.err.println("La transferencia no se aplicó porque no pudo registrarse: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve el saldo de una cuenta al cierre de un día. La primera consulta sobre una
+     * cuenta arma sus agregados leyendo su historial; las siguientes no leen los logs.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numero Número de cuenta.
+     * @param fecha Día.
+     * @return Saldo al cierre del día en centavos (0 si la cuenta aún no tenía movimientos).
+     * @throws OperacionInvalidaException si la cuenta no existe.
+     */
+    public long saldoAl(String numero, LocalDate fecha) throws OperacionInvalidaException {
+        return agregadosDe(numero).saldoAl(fecha);
+    }
+
+    /**
+     * Devuelve los créditos, débitos y saldos de una cuenta en un periodo, a partir de
+     * sumas acumuladas por día (no recorre los movimientos del periodo).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numero Número de cuenta.
+     * @param desde Primer día del periodo.
+     * @param hasta Último día del periodo (inclusive).
+     * @return Totales del periodo.
+     * @throws OperacionInvalidaException si la cuenta no existe o el periodo está invertido.
+     */
+    public TotalesPeriodo totales(String numero, LocalDate desde, LocalDate hasta) throws OperacionInvalidaException {
+        if (hasta.isBefore(desde)) throw new OperacionInvalidaException("El periodo termina antes de empezar.");
+        return agregadosDe(numero).totales(desde, hasta);
+    }
+
+    /**
+     * Igual que {@link #totales(String, LocalDate, LocalDate)} para un mes completo.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numero Número de cuenta.
+     * @param mes Mes.
+     * @return Totales del mes.
+     * @throws OperacionInvalidaException si la cuenta no existe.
+     */
+    public TotalesPeriodo totales(String numero, YearMonth mes) throws OperacionInvalidaException {
+        return totales(numero, mes.atDay(1), mes.atEndOfMonth());
+    }
+
+    /**
+     * Devuelve los movimientos de mayor monto de una cuenta en un mes.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numero Número de cuenta.
+     * @param mes Mes.
+     * @param cantidad Cantidad de movimientos (como mucho {@value AgregadosCuenta#MAXIMO_MAYORES}).
+     * @return Movimientos de mayor a menor monto.
+     * @throws OperacionInvalidaException si la cuenta no existe.
+     */
+    public List<MovimientoLog> mayoresMovimientos(String numero, YearMonth mes, int cantidad) throws OperacionInvalidaException {
+        return agregadosDe(numero).mayores(mes, cantidad);
+    }
+
+    // Arma los agregados con la cuenta bloqueada, así ningún movimiento queda fuera ni
+    // se cuenta dos veces (el importador registra con el lock de escritura de 'pausa')
+    private AgregadosCuenta agregadosDe(String numero) throws OperacionInvalidaException {
+        CuentaBancaria c = buscarCuenta(numero);
+        if (c == null) throw new OperacionInvalidaException("Cuenta no encontrada: " + numero);
+        AgregadosCuenta a = agregados.buscar(numero);
+        if (a != null) return a;
+        pausa.readLock().lock();
+        try {
+            synchronized (c) {
+                return agregados.obtener(numero);
+            }
+        } finally {
+            pausa.readLock().unlock();
+        }
+    }
+
+    /**
+     * Muestra por consola el estado de cuenta de un mes: saldos, totales y los
+     * movimientos de mayor monto.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param sc Scanner para lectura del usuario.
+     */
+    public void estadoCuentaInteractive(Scanner sc) {
+        System.out.print("Número de cuenta: ");
+        String num = sc.nextLine();
+        System.out.print("Mes (AAAA-MM, vacío para el actual): ");
+        String texto = sc.nextLine().trim();
+        try {
+            YearMonth mes = texto.isEmpty() ? YearMonth.now() : YearMonth.parse(texto);
+            System.out.println(totales(num, mes));
+            System.out.println("--- Mayores movimientos ---");
+            for (MovimientoLog m : mayoresMovimientos(num, mes, 5)) {
+                System.out.println(m.getFecha() + " - " + m.getTipo() + " $" + Dinero.formatear(m.getMonto()));
             }
-            if (!existe) c.getRetiros().add(r);
+        } catch (OperacionInvalidaException e) {
+            System.err.println("Error: " + e.getMessage());
+        } catch (DateTimeParseException e) {
+            System.err.println("Mes inválido: " + texto);
         }
+    }
 
-        System.out.println("--- Depósitos ---");
-        for (Deposito d : c.getDepositos()) {
-            System.out.println(d.getFecha() + " - $" + d.getMonto());
+    /**
+     * Muestra los movimientos de una cuenta en orden cronológico, con el saldo luego de
+     * cada uno, leyéndolos de los logs (la cuenta puede no estar en memoria). Los
+     * movimientos cuyo saldo no continúa el anterior se marcan con el saldo esperado.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param sc Scanner para lectura del usuario.
+     */
+    public void mostrarMovimientosInteractive(Scanner sc) {
+        System.out.print("Número de cuenta: ");
+        String num = sc.nextLine();
+        CuentaBancaria c = buscarCuenta(num);
+        ValidadorSaldos validador = new ValidadorSaldos(this::comisionRetiro);
+        List<String> lineas = new ArrayList<>();
+        try {
+            gestor.recorrerCuenta(num, m -> {
+                Long anterior = validador.getSaldo(num);
+                long esperado = validador.saldoEsperado(anterior == null ? 0 : anterior, m);
+                validador.accept(m);
+                lineas.add(m.getFecha() + " - " + m.getTipo() + " $" + Dinero.formatear(m.getMonto())
+                        + " - saldo $" + Dinero.formatear(m.getSaldoFinal())
+                        + (m.getSaldoFinal() != esperado ? " (esperado $" + Dinero.formatear(esperado) + ")" : ""));
+            });
+        } catch (UncheckedIOException e) {
+            System.err.println("No se pudieron leer los movimientos de la cuenta: " + e.getMessage());
+            return;
+        }
+        if (lineas.isEmpty()) {
+            System.out.println(c == null ? "Cuenta no encontrada en memoria ni en archivos." : "La cuenta no tiene movimientos.");
+            return;
         }
-        System.out.println("--- Retiros ---");
-        for (Retiro r : c.getRetiros()) {
-            System.out.println(r.getFecha() + " - $" + r.getMonto());
+        if (c == null) System.out.println("La cuenta no está en memoria; movimientos de los archivos:");
+        System.out.println("--- Movimientos ---");
+        for (String linea : lineas) System.out.println(linea);
+        if (validador.getCantidadDiscrepancias() > 0) {
+            System.out.println(validador.getCantidadDiscrepancias() + " movimientos con un saldo que no continúa el anterior.");
         }
     }
 
     /**
-     * Devuelve la lista de cuentas (útil para integraciones o pruebas).
+     * Recorre todos los movimientos de los logs y verifica la cadena de saldos de cada
+     * cuenta ({@link ValidadorSaldos}). Las operaciones se pausan mientras tanto, para
+     * que ningún movimiento quede a medio leer.
+     *
+     * @author Juan
+     * @version 1.0
+     * @return El validador con las discrepancias encontradas.
+     * @throws UncheckedIOException si los logs no pudieron leerse completos.
+     */
+    public ValidadorSaldos validarSaldos() {
+        ValidadorSaldos validador = new ValidadorSaldos(this::comisionRetiro);
+        pausa.writeLock().lock();
+        try {
+            gestor.reproducir(validador);
+        } finally {
+            pausa.writeLock().unlock();
+        }
+        return validador;
+    }
+
+    // Los logs registran el monto pedido; la comisión sólo se ve en el saldo
+    private long comisionRetiro(String numeroCuenta) {
+        CuentaBancaria c = registro.buscar(numeroCuenta);
+        return c instanceof CuentaCorriente ? ((CuentaCorriente) c).getComisionRetiro() : 0;
+    }
+
+    /**
+     * Ejecuta por consola la validación de saldos y muestra el resultado.
+     *
+     * @author Juan
+     * @version 1.0
      */
+    public void validarSaldosInteractive() {
+        long inicio = System.nanoTime();
+        ValidadorSaldos validador;
+        try {
+            validador = validarSaldos();
+        } catch (UncheckedIOException e) {
+            System.err.println("No se pudieron leer los logs completos, la validación no terminó: " + e.getMessage());
+            return;
+        }
+        System.out.println(validador);
+        System.out.println("Duración: " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+    }
+
     /**
      * Devuelve la lista de cuentas en memoria (útil para integraciones o pruebas).
      *
@@ -211,6 +1005,201 @@ public class BancoController {
      * @return Lista de cuentas almacenadas en memoria.
      */
     public List<CuentaBancaria> getCuentas() {
-        return cuentas;
+        return registro.getCuentas();
+    }
+
+    /**
+     * Ejecuta el cierre mensual (intereses, mantenimiento y reinicio de contadores)
+     * sobre todas las cuentas en memoria, en paralelo. Si una ejecución anterior del
+     * mismo periodo fue interrumpida, sólo se procesan las cuentas pendientes.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param periodo Mes a cerrar.
+     * @return Resumen de la ejecución.
+     * @throws IOException si no puede leerse o escribirse el archivo de control del cierre.
+     */
+    public ResumenCierre ejecutarCierreMensual(YearMonth periodo) throws IOException {
+        CierreMensual cierre = new CierreMensual(gestor, periodo);
+        pausa.readLock().lock();
+        try {
+            ResumenCierre resumen = cierre.ejecutar(registro.getCuentas(), Runtime.getRuntime().availableProcessors());
+            operaciones.add(resumen.getCuentasProcesadas());
+            return resumen;
+        } finally {
+            pausa.readLock().unlock();
+        }
+    }
+
+    /**
+     * Importa depósitos y retiros desde un archivo (CSV o formato de log) usando
+     * {@link ImportadorMovimientos}. Las demás operaciones esperan mientras dura la
+     * importación; al terminar se guarda una instantánea, así el arranque no depende
+     * del orden en que quedaron en los logs los movimientos importados en el mismo segundo.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Ruta del archivo a importar.
+     * @return Resumen con los movimientos aceptados y los rechazos por motivo.
+     * @throws IOException si el archivo no puede leerse o la instantánea no puede escribirse.
+     */
+    public ResumenImportacion importarMovimientos(String archivo) throws IOException {
+        ImportadorMovimientos importador = new ImportadorMovimientos(registro, gestor,
+                Runtime.getRuntime().availableProcessors());
+        synchronized (escrituraInstantanea) {
+            ResumenImportacion resumen;
+            byte[] contenido;
+            pausa.writeLock().lock();
+            try {
+                resumen = importador.importar(archivo);
+                operaciones.add(resumen.getAceptados());
+                contenido = capturar();
+            } finally {
+                pausa.writeLock().unlock();
+            }
+            Instantanea.guardar(archivoInstantanea, contenido);
+            return resumen;
+        }
+    }
+
+    /**
+     * Solicita por consola la ruta de un archivo de movimientos, lo importa y muestra el resumen.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param sc Scanner para lectura del usuario.
+     */
+    public void importarMovimientosInteractive(Scanner sc) {
+        System.out.print("Archivo a importar: ");
+        String archivo = sc.nextLine().trim();
+        try {
+            System.out.println(importarMovimientos(archivo));
+        } catch (IOException e) {
+            System.err.println("Error en la importación: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Guarda una instantánea del estado actual. Las operaciones se detienen sólo
+     * mientras se copian los saldos en memoria; la escritura al disco no las bloquea.
+     *
+     * @author Juan
+     * @version 1.0
+     * @throws IOException si la instantánea no puede escribirse.
+     */
+    public void guardarInstantanea() throws IOException {
+        synchronized (escrituraInstantanea) {
+            byte[] contenido;
+            pausa.writeLock().lock();
+            try {
+                contenido = capturar();
+            } finally {
+                pausa.writeLock().unlock();
+            }
+            Instantanea.guardar(archivoInstantanea, contenido);
+        }
+    }
+
+    /**
+     * @return Milisegundos que tomó recuperar el estado al crear el controlador.
+     */
+    public long getDuracionRecuperacionMs() {
+        return duracionRecuperacionMs;
+    }
+
+    /**
+     * @return Movimientos de los logs que se reprodujeron al crear el controlador: los
+     * posteriores a la instantánea, o todos si no había una que sirviera.
+     */
+    public long getMovimientosRecuperados() {
+        return movimientosRecuperados;
+    }
+
+    // El diario asincrónico no cambia el formato de los archivos, así que no cuenta como otro backend
+    private String nombreBackend() {
+        Persistencia p = agregados.getDestino();
+        if (p instanceof DiarioAsincronico) p = ((DiarioAsincronico) p).getDestino();
+        return p.getClass().getSimpleName();
+    }
+
+    // Debe llamarse con el lock de escritura de 'pausa' tomado
+    private byte[] capturar() {
+        long[] posiciones = gestor.posicion();
+        long posicionCatalogo = catalogo == null ? 0 : catalogo.getPosicion();
+        operacionesEnInstantanea = operaciones.sum();
+        return Instantanea.serializar(nombreBackend(), posiciones, posicionCatalogo,
+                registro.getCuentas(), saldosRecuperados);
+    }
+
+    // Si hay operaciones en curso (ej. un cierre mensual) se deja para el próximo intervalo
+    private void instantaneaPeriodica() {
+        if (operaciones.sum() == operacionesEnInstantanea) return;
+        synchronized (escrituraInstantanea) {
+            byte[] contenido;
+            if (!pausa.writeLock().tryLock()) return;
+            try {
+                contenido = capturar();
+            } finally {
+                pausa.writeLock().unlock();
+            }
+            try {
+                Instantanea.guardar(archivoInstantanea, contenido);
+            } catch (IOException e) {
+                System.err.println("Error al guardar la instantánea: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ejecuta por consola el cierre mensual del mes actual y muestra el resumen.
+     *
+     * @author Juan
+     * @version 1.0
+     */
+    public void cierreMensualInteractive() {
+        try {
+            ResumenCierre resumen = ejecutarCierreMensual(YearMonth.now());
+            System.out.println(resumen);
+        } catch (IOException e) {
+            System.err.println("Error en el cierre mensual: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pide que los movimientos registrados hasta ahora queden en disco, sin bloquear. Con
+     * un {@link DiarioAsincronico} las operaciones retornan antes de escribir sus
+     * movimientos; quien necesite saber que ya son durables espera este futuro.
+     *
+     * @author Juan
+     * @version 1.0
+     * @return Futuro que se completa cuando los movimientos están en disco.
+     */
+    public CompletableFuture<Void> confirmarMovimientos() {
+        return gestor.confirmarAsync();
+    }
+
+    /**
+     * Libera los recursos del controlador: guarda una instantánea y cierra los archivos.
+     *
+     * @author Juan
+     * @version 1.0
+     */
+    public void cerrar() {
+        // Primero se aplican las operaciones que quedaron encoladas en las particiones
+        if (particiones != null) particiones.cerrar();
+        if (temporizador != null) temporizador.shutdown();
+        try {
+            guardarInstantanea();
+        } catch (IOException e) {
+            System.err.println("Error al guardar la instantánea: " + e.getMessage());
+        }
+        gestor.cerrar();
+        if (catalogo != null) {
+            try {
+                catalogo.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el catálogo de cuentas: " + e.getMessage());
+            }
+        }
     }
 }
@@ -0,0 +1,345 @@
+package scr.controlador;
+import scr.model.Deposito;
+import scr.model.Movimiento;
+import scr.model.Retiro;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Backend de persistencia que delega en otro y guarda en memoria el historial de las
+ * cuentas consultadas, para que pedir dos veces los movimientos de una cuenta no lea
+ * dos veces los logs. El historial de una cuenta se lee completo la primera vez que se
+ * pide ({@link #recorrerCuenta}, {@link #cargarDepositosParaCuenta} o
+ * {@link #cargarRetirosParaCuenta}) y se descarta cuando se registra un movimiento de
+ * ella, así que nunca se sirve un historial desactualizado.
+ *
+ * <p>El tamaño se limita en bytes (estimados según la cantidad de movimientos, que se
+ * guardan en arreglos paralelos); al superarlo se descartan los historiales usados
+ * hace más tiempo. Una cuenta cuyo historial no entra en el límite se lee siempre del
+ * backend.</p>
+ *
+ * <p>Registrar un movimiento de una cuenta que no está guardada ni cargándose sólo
+ * cuesta una búsqueda en un mapa concurrente. Si se registra un movimiento mientras su
+ * historial se está leyendo, esa lectura se entrega pero no se guarda.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class CacheHistoriales implements Persistencia {
+
+    /** Límite por defecto del tamaño de los historiales guardados. */
+    public static final long LIMITE_BYTES_POR_DEFECTO = 32L * 1024 * 1024;
+
+    // Estimación de la memoria de un historial: objetos y cabeceras de los arreglos,
+    // más un long de fecha, monto, saldo y posición, un int de nanos y un byte de tipo
+    static final int BYTES_POR_HISTORIAL = 200;
+    static final int BYTES_POR_MOVIMIENTO = 37;
+
+    private final Persistencia destino;
+    // En orden de acceso: el primero es el usado hace más tiempo
+    private final LinkedHashMap<String, Historial> historiales = new LinkedHashMap<>(16, 0.75f, true);
+    // Cuentas guardadas o con una lectura en curso (el valor identifica la lectura);
+    // registrar un movimiento de otra cuenta no toma el lock
+    private final Map<String, Object> seguidas = new ConcurrentHashMap<>();
+    private long limiteBytes;
+    private long bytes;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    /**
+     * @author Juan
+     * @version 1.0
+     * @param destino Backend donde se registran los movimientos.
+     * @param limiteBytes Tamaño máximo de los historiales guardados; 0 para no guardar ninguno.
+     */
+    public CacheHistoriales(Persistencia destino, long limiteBytes) {
+        this.destino = destino;
+        this.limiteBytes = Math.max(0, limiteBytes);
+    }
+
+    /**
+     * @return Backend decorado.
+     */
+    Persistencia getDestino() {
+        return destino;
+    }
+
+    /**
+     * Cambia el tamaño máximo, descartando los historiales usados hace más tiempo si
+     * hace falta.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param limiteBytes Nuevo límite; 0 para no guardar ninguno.
+     */
+    public synchronized void setLimiteBytes(long limiteBytes) {
+        this.limiteBytes = Math.max(0, limiteBytes);
+        desalojar();
+    }
+
+    // Devuelve el historial de la cuenta, leyéndolo del backend si no está guardado
+    private Historial obtener(String numeroCuenta) {
+        Object lectura = new Object();
+        synchronized (this) {
+            Historial h = historiales.get(numeroCuenta);
+            if (h != null) {
+                aciertos.increment();
+                return h;
+            }
+            fallos.increment();
+            if (limiteBytes > 0) seguidas.put(numeroCuenta, lectura);
+        }
+        Historial h = new Historial();
+        try {
+            destino.recorrerCuenta(numeroCuenta, h::agregar);
+        } catch (RuntimeException e) {
+            seguidas.remove(numeroCuenta, lectura);
+            throw e;
+        }
+        h.ajustar();
+        synchronized (this) {
+            // Si entretanto se registró un movimiento de la cuenta, la lectura quedó vieja
+            if (!seguidas.remove(numeroCuenta, lectura)) return h;
+            if (h.bytes > limiteBytes) return h;
+            seguidas.put(numeroCuenta, h);
+            historiales.put(numeroCuenta, h);
+            bytes += h.bytes;
+            desalojar();
+        }
+        return h;
+    }
+
+    // Debe llamarse con el lock tomado
+    private void desalojar() {
+        Iterator<Map.Entry<String, Historial>> it = historiales.entrySet().iterator();
+        while (bytes > limiteBytes && it.hasNext()) {
+            Map.Entry<String, Historial> e = it.next();
+            it.remove();
+            seguidas.remove(e.getKey());
+            bytes -= e.getValue().bytes;
+            desalojos.increment();
+        }
+    }
+
+    // Se llama después de registrar el movimiento en el backend
+    private void invalidar(String numeroCuenta) {
+        if (!seguidas.containsKey(numeroCuenta)) return;
+        synchronized (this) {
+            seguidas.remove(numeroCuenta);
+            Historial h = historiales.remove(numeroCuenta);
+            if (h == null) return;
+            bytes -= h.bytes;
+            invalidaciones.increment();
+        }
+    }
+
+    /**
+     * Descarta todos los historiales guardados (las estadísticas se conservan).
+     *
+     * @author Juan
+     * @version 1.0
+     */
+    public synchronized void vaciar() {
+        seguidas.clear();
+        historiales.clear();
+        bytes = 0;
+    }
+
+    @Override
+    public void registrarMovimiento(String tipoMovimiento, String numeroCuenta, long monto, long saldoFinal) {
+        // Si la escritura falla parte pudo llegar al backend: se invalida igual
+        try {
+            destino.registrarMovimiento(tipoMovimiento, numeroCuenta, monto, saldoFinal);
+        } finally {
+            invalidar(numeroCuenta);
+        }
+    }
+
+    @Override
+    public void registrarLote(LoteMovimientos lote) {
+        try {
+            destino.registrarLote(lote);
+        } finally {
+            if (!seguidas.isEmpty()) {
+                for (int i = 0; i < lote.tamanio(); i++) {
+                    invalidar(lote.getNumeroCuenta(i));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void registrarTransferencia(String origen, String destinoTransferencia, long monto,
+                                       long saldoOrigen, long saldoDestino) {
+        try {
+            destino.registrarTransferencia(origen, destinoTransferencia, monto, saldoOrigen, saldoDestino);
+        } finally {
+            invalidar(origen);
+            invalidar(destinoTransferencia);
+        }
+    }
+
+    @Override
+    public void confirmar() {
+        destino.confirmar();
+    }
+
+    @Override
+    public CompletableFuture<Void> confirmarAsync() {
+        return destino.confirmarAsync();
+    }
+
+    @Override
+    public void cerrar() {
+        destino.cerrar();
+        vaciar();
+    }
+
+    @Override
+    public List<Deposito> cargarDepositosParaCuenta(String numeroCuenta) {
+        List<Deposito> resultado = new ArrayList<>();
+        obtener(numeroCuenta).recorrer(numeroCuenta, m -> {
+            Movimiento mov = m.aMovimiento(resultado.size());
+            if (mov instanceof Deposito) resultado.add((Deposito) mov);
+        });
+        return resultado;
+    }
+
+    @Override
+    public List<Retiro> cargarRetirosParaCuenta(String numeroCuenta) {
+        List<Retiro> resultado = new ArrayList<>();
+        obtener(numeroCuenta).recorrer(numeroCuenta, m -> {
+            Movimiento mov = m.aMovimiento(resultado.size());
+            if (mov instanceof Retiro) resultado.add((Retiro) mov);
+        });
+        return resultado;
+    }
+
+    @Override
+    public void reproducir(Consumer<MovimientoLog> visitante) {
+        destino.reproducir(visitante);
+    }
+
+    @Override
+    public long[] posicion() {
+        return destino.posicion();
+    }
+
+    @Override
+    public void reproducirDesde(long[] posicion, Consumer<MovimientoLog> visitante) {
+        destino.reproducirDesde(posicion, visitante);
+    }
+
+    /**
+     * Recorre los movimientos de la cuenta desde la memoria, leyéndolos del backend si
+     * no estaban guardados.
+     */
+    @Override
+    public void recorrerCuenta(String numeroCuenta, Consumer<MovimientoLog> visitante) {
+        obtener(numeroCuenta).recorrer(numeroCuenta, visitante);
+    }
+
+    public long getAciertos() { return aciertos.sum(); }
+    public long getFallos() { return fallos.sum(); }
+    public long getDesalojos() { return desalojos.sum(); }
+    public long getInvalidaciones() { return invalidaciones.sum(); }
+    public synchronized long getBytes() { return bytes; }
+    public synchronized long getLimiteBytes() { return limiteBytes; }
+    public synchronized int getHistoriales() { return historiales.size(); }
+
+    /**
+     * @return Proporción de consultas servidas desde la memoria (0 si no hubo consultas).
+     */
+    public double getTasaAciertos() {
+        long a = aciertos.sum();
+        long total = a + fallos.sum();
+        return total == 0 ? 0 : (double) a / total;
+    }
+
+    /**
+     * Pone en cero las estadísticas (los historiales guardados se conservan).
+     *
+     * @author Juan
+     * @version 1.0
+     */
+    public void reiniciarEstadisticas() {
+        aciertos.reset();
+        fallos.reset();
+        desalojos.reset();
+        invalidaciones.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache de historiales: %d cuentas, %d/%d bytes, aciertos=%d, fallos=%d (%.1f%% aciertos), "
+                        + "desalojos=%d, invalidaciones=%d", getHistoriales(), getBytes(), getLimiteBytes(),
+                getAciertos(), getFallos(), getTasaAciertos() * 100, getDesalojos(), getInvalidaciones());
+    }
+
+    // Movimientos de una cuenta en orden cronológico, en arreglos paralelos. No cambia
+    // después de guardarse, así que se recorre sin el lock
+    private static final class Historial {
+        private long[] segundos = new long[8];
+        private int[] nanos = new int[8];
+        private long[] montos = new long[8];
+        private long[] saldos = new long[8];
+        private long[] posiciones = new long[8];
+        private byte[] tipos = new byte[8];
+        // Tipos distintos de la cuenta; 'tipos' guarda el índice
+        private final List<String> nombresTipo = new ArrayList<>(6);
+        private int tamanio;
+        private long bytes;
+
+        void agregar(MovimientoLog m) {
+            if (tamanio == montos.length) redimensionar(tamanio * 2);
+            LocalDateTime fecha = m.getFecha();
+            segundos[tamanio] = fecha.toEpochSecond(ZoneOffset.UTC);
+            nanos[tamanio] = fecha.getNano();
+            montos[tamanio] = m.getMonto();
+            saldos[tamanio] = m.getSaldoFinal();
+            posiciones[tamanio] = m.getPosicion();
+            int t = nombresTipo.indexOf(m.getTipo());
+            if (t < 0) {
+                t = nombresTipo.size();
+                nombresTipo.add(m.getTipo());
+            }
+            tipos[tamanio] = (byte) t;
+            tamanio++;
+        }
+
+        // Recorta los arreglos al tamaño justo y calcula los bytes
+        void ajustar() {
+            if (tamanio != montos.length) redimensionar(tamanio);
+            bytes = BYTES_POR_HISTORIAL + (long) tamanio * BYTES_POR_MOVIMIENTO;
+        }
+
+        private void redimensionar(int n) {
+            segundos = Arrays.copyOf(segundos, n);
+            nanos = Arrays.copyOf(nanos, n);
+            montos = Arrays.copyOf(montos, n);
+            saldos = Arrays.copyOf(saldos, n);
+            posiciones = Arrays.copyOf(posiciones, n);
+            tipos = Arrays.copyOf(tipos, n);
+        }
+
+        void recorrer(String numeroCuenta, Consumer<MovimientoLog> visitante) {
+            for (int i = 0; i < tamanio; i++) {
+                visitante.accept(new MovimientoLog(numeroCuenta, nombresTipo.get(tipos[i]), montos[i], saldos[i],
+                        LocalDateTime.ofEpochSecond(segundos[i], nanos[i], ZoneOffset.UTC), posiciones[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package scr.controlador;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.CuentaCorriente;
+import scr.model.CuentaEmpresarial;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Archivo de alta de cuentas ({@code cuentas.txt}): una línea por cuenta creada con
+ * su tipo y configuración, separada por tabuladores. Los logs de movimientos sólo
+ * guardan el número de cuenta, así que este archivo es lo que permite reconstruir
+ * las cuentas al iniciar.
+ *
+ * <pre>
+ * CORRIENTE    numero  titular  comisionRetiro(centavos)
+ * AHORROS      numero  titular  tasaInteresMensual  cantidadRetirosMes
+ * EMPRESARIAL  numero  titular  limiteRetiro(centavos)  gestorAsignado
+ * </pre>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class CatalogoCuentas implements AutoCloseable {
+
+    /** Archivo usado por defecto. */
+    public static final String ARCHIVO_POR_DEFECTO = "cuentas.txt";
+
+    private final String archivo;
+    private final FileChannel canal;
+    private long posicion;
+
+    /**
+     * Abre (o crea) el catálogo en modo append.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Ruta del catálogo.
+     * @throws IOException si el archivo no puede abrirse.
+     */
+    public CatalogoCuentas(String archivo) throws IOException {
+        this.archivo = archivo;
+        this.canal = FileChannel.open(Paths.get(archivo),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.posicion = canal.size();
+        // Una línea cortada por una caída no debe quedar pegada a la siguiente alta
+        if (posicion > 0) {
+            ByteBuffer ultimo = ByteBuffer.allocate(1);
+            try (FileChannel lectura = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ)) {
+                lectura.read(ultimo, posicion - 1);
+            }
+            if (ultimo.get(0) != '\n') escribir("\n");
+        }
+    }
+
+    /**
+     * Agrega el alta de una cuenta.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param cuenta Cuenta creada.
+     * @throws IOException si falla la escritura.
+     */
+    public synchronized void agregar(CuentaBancaria cuenta) throws IOException {
+        escribir(describir(cuenta) + "\n");
+    }
+
+    /**
+     * @return Tamaño actual del catálogo en bytes, usado como posición para {@link #leerDesde}.
+     */
+    public synchronized long getPosicion() {
+        return posicion;
+    }
+
+    /**
+     * Lee las altas a partir de una posición y crea las cuentas correspondientes,
+     * con saldo cero. Las líneas inválidas se informan por System.err.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param desde Posición en bytes (inicio de una línea).
+     * @param visitante Recibe cada cuenta creada.
+     * @throws IOException si el archivo no puede leerse.
+     */
+    public void leerDesde(long desde, Consumer<CuentaBancaria> visitante) throws IOException {
+        Path ruta = Paths.get(archivo);
+        if (!Files.exists(ruta)) return;
+        try (FileChannel lectura = FileChannel.open(ruta, StandardOpenOption.READ);
+             BufferedReader br = new BufferedReader(Channels.newReader(lectura.position(desde), StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                if (linea.isBlank()) continue;
+                CuentaBancaria c = interpretar(linea.split("\t", -1), 0);
+                if (c == null) {
+                    System.err.println("Línea inválida en " + archivo + ": " + linea);
+                    continue;
+                }
+                visitante.accept(c);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Describe el tipo y la configuración de una cuenta en el formato del catálogo (sin salto de línea).
+     *
+     * @param c Cuenta.
+     * @return Campos separados por tabuladores.
+     */
+    static String describir(CuentaBancaria c) {
+        StringBuilder sb = new StringBuilder(64);
+        if (c instanceof CuentaCorriente) {
+            sb.append("CORRIENTE\t").append(c.getNumeroCuenta()).append('\t').append(limpiar(c.getTitular()))
+              .append('\t').append(((CuentaCorriente) c).getComisionRetiro());
+        } else if (c instanceof CuentaAhorros) {
+            CuentaAhorros a = (CuentaAhorros) c;
+            sb.append("AHORROS\t").append(c.getNumeroCuenta()).append('\t').append(limpiar(c.getTitular()))
+              .append('\t').append(a.getTasaInteresMensual()).append('\t').append(a.getCantidadRetirosMes());
+        } else if (c instanceof CuentaEmpresarial) {
+            CuentaEmpresarial e = (CuentaEmpresarial) c;
+            sb.append("EMPRESARIAL\t").append(c.getNumeroCuenta()).append('\t').append(limpiar(c.getTitular()))
+              .append('\t').append(e.getLimiteRetiro()).append('\t').append(limpiar(e.getGestorAsignado()));
+        } else {
+            throw new IllegalArgumentException("Tipo de cuenta no soportado: " + c.getClass().getSimpleName());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Crea una cuenta (con saldo cero) a partir de los campos de {@link #describir}.
+     *
+     * @param campos Campos de la línea.
+     * @param i Índice del campo con el tipo.
+     * @return La cuenta, o null si los campos no son válidos.
+     */
+    static CuentaBancaria interpretar(String[] campos, int i) {
+        try {
+            switch (campos[i]) {
+                case "CORRIENTE":
+                    return new CuentaCorriente(campos[i + 2], campos[i + 1], Long.parseLong(campos[i + 3]));
+                case "AHORROS":
+                    return new CuentaAhorros(campos[i + 2], campos[i + 1],
+                            Double.parseDouble(campos[i + 3]), Integer.parseInt(campos[i + 4]));
+                case "EMPRESARIAL":
+                    return new CuentaEmpresarial(campos[i + 2], campos[i + 1],
+                            Long.parseLong(campos[i + 3]), campos[i + 4]);
+                default:
+                    return null;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param tipo Tipo leído con {@link #interpretar}.
+     * @return Cantidad de campos que ocupa ese tipo de cuenta (incluido el tipo).
+     */
+    static int cantidadCampos(String tipo) {
+        return tipo.equals("CORRIENTE") ? 4 : 5;
+    }
+
+    // El tabulador y los saltos de línea son separadores del formato
+    private static String limpiar(String s) {
+        return s == null ? "" : s.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private void escribir(String texto) throws IOException {
+        ByteBuffer b = ByteBuffer.wrap(texto.getBytes(StandardCharsets.UTF_8));
+        while (b.hasRemaining()) {
+            posicion += canal.write(b);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package scr.controlador;
+import scr.model.CuentaBancaria;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Proceso de cierre de mes: aplica intereses o mantenimiento a todas las cuentas
+ * en paralelo, registra cada variación como movimiento en los logs ("INTERES" o
+ * "MANTENIMIENTO") y reinicia los contadores mensuales.
+ *
+ * <p>El avance se deduce de los propios logs: antes de empezar se guarda en un archivo
+ * de control ({@code cierre-AAAA-MM.txt}) la posición de los logs, y una cuenta está
+ * cerrada si tiene un movimiento "INTERES" o "MANTENIMIENTO" a partir de esa posición
+ * (las cuentas sin variación registran un "INTERES" de cero). Si el proceso se
+ * interrumpe, volver a ejecutarlo para el mismo periodo sólo procesa las cuentas
+ * cuyo movimiento no llegó a los logs, así que no se pierden ni se duplican intereses.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class CierreMensual {
+
+    private final Persistencia gestor;
+    private final YearMonth periodo;
+    private final Path archivoControl;
+    private final Set<String> cerradas;
+    private final AtomicBoolean cancelado;
+
+    /**
+     * Prepara el cierre del periodo. Si una ejecución anterior del periodo empezó, las
+     * cuentas que ya tienen su movimiento de cierre en los logs quedan como cerradas.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param gestor Gestor donde se registran los movimientos.
+     * @param periodo Mes a cerrar.
+     * @throws IOException si el archivo de control existe pero no puede leerse o es inválido.
+     */
+    public CierreMensual(Persistencia gestor, YearMonth periodo) throws IOException {
+        this.gestor = gestor;
+        this.periodo = periodo;
+        this.archivoControl = Paths.get("cierre-" + periodo + ".txt");
+        this.cerradas = ConcurrentHashMap.newKeySet();
+        this.cancelado = new AtomicBoolean(false);
+        if (Files.exists(archivoControl)) {
+            gestor.reproducirDesde(leerInicio(archivoControl), m -> {
+                if (m.getTipo().equals("INTERES") || m.getTipo().equals("MANTENIMIENTO")) cerradas.add(m.getNumeroCuenta());
+            });
+        }
+    }
+
+    /**
+     * Ejecuta el cierre sobre las cuentas indicadas usando un pool fork/join.
+     * Si el hilo que llama es interrumpido, el proceso se detiene ordenadamente y
+     * el resumen queda marcado como incompleto.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param cuentas Cuentas a cerrar.
+     * @param paralelismo Cantidad de hilos a usar.
+     * @return Resumen de la ejecución.
+     * @throws IOException si no puede escribirse el archivo de control.
+     */
+    public ResumenCierre ejecutar(List<CuentaBancaria> cuentas, int paralelismo) throws IOException {
+        long inicio = System.nanoTime();
+        if (!Files.exists(archivoControl)) guardarInicio(archivoControl, gestor.posicion());
+        LongAdder procesadas = new LongAdder();
+        LongAdder omitidas = new LongAdder();
+        LongAdder errores = new LongAdder();
+        LongAdder intereses = new LongAdder();
+        LongAdder mantenimiento = new LongAdder();
+        boolean interrumpido = false;
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, paralelismo));
+        try {
+            ForkJoinTask<?> tarea = pool.submit(() -> cuentas.parallelStream().forEach(c -> {
+                if (cancelado.get()) return;
+                if (!cerradas.add(c.getNumeroCuenta())) {
+                    omitidas.increment();
+                    return;
+                }
+                try {
+                    long variacion = cerrarCuenta(c);
+                    if (variacion >= 0) intereses.add(variacion);
+                    else mantenimiento.add(-variacion);
+                    procesadas.increment();
+                } catch (RuntimeException e) {
+                    // El cierre se deshizo: la cuenta queda para la próxima ejecución
+                    cerradas.remove(c.getNumeroCuenta());
+                    errores.increment();
+                    System.err.println("Error en el cierre de la cuenta " + c.getNumeroCuenta() + ": " + e.getMessage());
+                }
+            }));
+            try {
+                tarea.get();
+            } catch (InterruptedException e) {
+                // Se deja terminar la cuenta en curso de cada hilo antes de confirmar los logs
+                cancelado.set(true);
+                interrumpido = true;
+                pool.awaitQuiescence(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                cancelado.set(true);
+                System.err.println("El cierre se detuvo por un error: " + e.getCause());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        if (interrumpido) Thread.currentThread().interrupt();
+        gestor.confirmar();
+
+        long duracion = (System.nanoTime() - inicio) / 1_000_000;
+        return new ResumenCierre(periodo, procesadas.sum(), omitidas.sum(), errores.sum(),
+                intereses.sum(), mantenimiento.sum(), !cancelado.get(), duracion);
+    }
+
+    /**
+     * Pide que el cierre en curso se detenga; las cuentas pendientes quedan para la próxima ejecución.
+     */
+    public void cancelar() {
+        cancelado.set(true);
+    }
+
+    public YearMonth getPeriodo() {
+        return periodo;
+    }
+
+    // Aplica el cierre y registra el movimiento con la cuenta bloqueada. Sin variación
+    // se registra un "INTERES" de cero: marca la cuenta como cerrada en los logs. Si no
+    // puede registrarse el cierre se deshace
+    private long cerrarCuenta(CuentaBancaria c) {
+        synchronized (c) {
+            long saldoAnterior = c.getSaldo();
+            long variacion = c.aplicarCierreMensual();
+            String tipo = variacion >= 0 ? "INTERES" : "MANTENIMIENTO";
+            try {
+                gestor.registrarMovimiento(tipo, c.getNumeroCuenta(), Math.abs(variacion), c.getSaldo());
+            } catch (RuntimeException e) {
+                c.deshacerCierreMensual(saldoAnterior);
+                throw e;
+            }
+            Metricas.global().operacion(tipo, c);
+            return variacion;
+        }
+    }
+
+    // El archivo de control tiene una línea "inicio: p1,p2,..." con la posición de los logs
+    private static long[] leerInicio(Path archivo) throws IOException {
+        for (String l : Files.readAllLines(archivo, StandardCharsets.UTF_8)) {
+            if (!l.startsWith("inicio:")) continue;
+            String[] partes = l.substring("inicio:".length()).trim().split(",");
+            long[] posicion = new long[partes.length];
+            try {
+                for (int i = 0; i < partes.length; i++) posicion[i] = Long.parseLong(partes[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Posición inválida en " + archivo + ": " + l, e);
+            }
+            return posicion;
+        }
+        throw new IOException("El archivo de control " + archivo + " no tiene la posición de inicio.");
+    }
+
+    // Se fuerza a disco antes de registrar el primer movimiento del cierre
+    private static void guardarInicio(Path archivo, long[] posicion) throws IOException {
+        StringBuilder sb = new StringBuilder("inicio: ");
+        for (int i = 0; i < posicion.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(posicion[i]);
+        }
+        ByteBuffer linea = ByteBuffer.wrap(sb.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel control = FileChannel.open(archivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (linea.hasRemaining()) control.write(linea);
+            control.force(true);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package scr.controlador;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cola acotada sin locks para varios productores y un solo consumidor, sobre un
+ * arreglo circular. Cada casilla tiene un número de secuencia que indica si está
+ * libre para el productor de la vuelta actual o lista para el consumidor, así que
+ * los productores sólo compiten por reservar la posición (un CAS) y el consumidor
+ * no usa operaciones atómicas de lectura-escritura.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+final class ColaAnillo<T> {
+
+    private final Object[] elementos;
+    // secuencias[i] == posición: libre para esa posición; posición + 1: con dato para el consumidor
+    private final AtomicLongArray secuencias;
+    private final int mascara;
+    private final AtomicLong cola = new AtomicLong();
+    // Sólo la modifica el consumidor
+    private long cabeza;
+
+    /**
+     * @param capacidad Cantidad de casillas; se redondea a la siguiente potencia de dos.
+     */
+    ColaAnillo(int capacidad) {
+        int n = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.elementos = new Object[n];
+        this.secuencias = new AtomicLongArray(n);
+        this.mascara = n - 1;
+        for (int i = 0; i < n; i++) secuencias.set(i, i);
+    }
+
+    /**
+     * Agrega un elemento si hay lugar. Puede llamarse desde varios hilos.
+     *
+     * @param elemento Elemento a agregar (no null).
+     * @return false si la cola está llena.
+     */
+    boolean ofrecer(T elemento) {
+        long posicion = cola.get();
+        int i;
+        while (true) {
+            i = (int) posicion & mascara;
+            long diferencia = secuencias.get(i) - posicion;
+            if (diferencia == 0) {
+                if (cola.compareAndSet(posicion, posicion + 1)) break;
+                posicion = cola.get();
+            } else if (diferencia < 0) {
+                // La casilla sigue ocupada desde la vuelta anterior
+                return false;
+            } else {
+                posicion = cola.get();
+            }
+        }
+        elementos[i] = elemento;
+        // Escritura volátil: además de publicar el elemento, ordena la lectura posterior
+        // de 'dormido' del productor (ver EjecutorParticionado)
+        secuencias.set(i, posicion + 1);
+        return true;
+    }
+
+    /**
+     * Saca hasta {@code destino.length} elementos, en orden. Sólo debe llamarlo el consumidor.
+     *
+     * @param destino Arreglo donde se copian los elementos.
+     * @return Cantidad de elementos sacados.
+     */
+    @SuppressWarnings("unchecked")
+    int drenar(T[] destino) {
+        int n = 0;
+        while (n < destino.length) {
+            int i = (int) cabeza & mascara;
+            if (secuencias.get(i) != cabeza + 1) break;
+            destino[n++] = (T) elementos[i];
+            elementos[i] = null;
+            secuencias.lazySet(i, cabeza + elementos.length);
+            cabeza++;
+        }
+        return n;
+    }
+
+    /**
+     * @return true si no hay elementos listos para el consumidor. Sólo debe llamarlo el consumidor.
+     */
+    boolean estaVacia() {
+        return secuencias.get((int) cabeza & mascara) != cabeza + 1;
+    }
+}
@@ -0,0 +1,122 @@
+package scr.controlador;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Conversión entre los logs de texto ({@code depositos.txt}/{@code retiros.txt})
+ * y el {@link DiarioBinario}.
+ *
+ * <p>Uso por línea de comandos:</p>
+ * <pre>
+ * java scr.controlador.ConversorDiario a-binario [depositos.txt retiros.txt movimientos.wal]
+ * java scr.controlador.ConversorDiario a-texto   [movimientos.wal depositos.txt retiros.txt]
+ * </pre>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class ConversorDiario {
+
+    private ConversorDiario() {
+    }
+
+    /**
+     * Agrega al diario binario los movimientos de los logs de texto (incluidos sus
+     * segmentos cerrados y comprimidos), intercalados por fecha. Si el diario ya tiene registros, los nuevos se agregan a continuación.
+     * Las líneas inválidas y los movimientos que no pueden representarse se omiten.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param depositos Log de depósitos.
+     * @param retiros Log de retiros.
+     * @param destino Diario binario.
+     * @return Cantidad de movimientos convertidos.
+     * @throws IOException si algún archivo no puede leerse o escribirse.
+     */
+    public static long textoABinario(String depositos, String retiros, String destino) throws IOException {
+        long[] cantidad = { 0 };
+        DiarioBinario diario = new DiarioBinario(destino, ModoDurabilidad.GRUPO, Integer.MAX_VALUE, 0);
+        try (LectorSegmentos deps = LogSegmentado.leerCompleto(depositos);
+             LectorSegmentos rets = LogSegmentado.leerCompleto(retiros)) {
+            LectorMovimientos.intercalar(deps, rets, m -> {
+                try {
+                    diario.agregar(m.getFecha(), tipoBinario(m.getTipo()), m.getNumeroCuenta(), m.getMonto(), m.getSaldoFinal());
+                    cantidad[0]++;
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Movimiento omitido: " + e.getMessage());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            long invalidas = deps.getLineasInvalidas() + rets.getLineasInvalidas();
+            if (invalidas > 0) System.err.println("Se omitieron " + invalidas + " líneas inválidas.");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            diario.cerrar();
+        }
+        return cantidad[0];
+    }
+
+    // En los logs de texto las dos mitades de una transferencia están en archivos
+    // distintos y no pueden volver a emparejarse; se convierten como retiro y depósito,
+    // que al reproducirse tienen el mismo efecto
+    private static String tipoBinario(String tipo) {
+        if (tipo.equals("TRANSFERENCIA_ENVIADA")) return "RETIRO";
+        if (tipo.equals("TRANSFERENCIA_RECIBIDA")) return "DEPOSITO";
+        return tipo;
+    }
+
+    /**
+     * Agrega a los logs de texto los movimientos del diario binario, en orden de
+     * secuencia. Los intereses van a depósitos y el mantenimiento a retiros.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param origen Diario binario (no se modifica).
+     * @param depositos Log de depósitos.
+     * @param retiros Log de retiros.
+     * @return Cantidad de movimientos convertidos.
+     * @throws IOException si algún archivo no puede leerse o escribirse.
+     */
+    public static long binarioATexto(String origen, String depositos, String retiros) throws IOException {
+        long[] cantidad = { 0 };
+        try (EscritorDiario deps = new EscritorDiario(depositos, ModoDurabilidad.GRUPO, Integer.MAX_VALUE, 0);
+             EscritorDiario rets = new EscritorDiario(retiros, ModoDurabilidad.GRUPO, Integer.MAX_VALUE, 0)) {
+            DiarioBinario.leer(origen, m -> {
+                boolean esDeposito = m.getTipo().equals("DEPOSITO") || m.getTipo().equals("INTERES")
+                        || m.getTipo().equals("TRANSFERENCIA_RECIBIDA");
+                try {
+                    (esDeposito ? deps : rets).escribir(m.getFecha(), m.getNumeroCuenta(), m.getTipo(),
+                            m.getMonto(), m.getSaldoFinal());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                cantidad[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return cantidad[0];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || (!args[0].equals("a-binario") && !args[0].equals("a-texto"))) {
+            System.err.println("Uso: ConversorDiario a-binario|a-texto [archivos...]");
+            System.exit(1);
+        }
+        long n;
+        if (args[0].equals("a-binario")) {
+            n = textoABinario(arg(args, 1, "depositos.txt"), arg(args, 2, "retiros.txt"),
+                    arg(args, 3, DiarioBinario.ARCHIVO_POR_DEFECTO));
+        } else {
+            n = binarioATexto(arg(args, 1, DiarioBinario.ARCHIVO_POR_DEFECTO), arg(args, 2, "depositos.txt"),
+                    arg(args, 3, "retiros.txt"));
+        }
+        System.out.println("Movimientos convertidos: " + n);
+    }
+
+    private static String arg(String[] args, int i, String porDefecto) {
+        return args.length > i ? args[i] : porDefecto;
+    }
+}
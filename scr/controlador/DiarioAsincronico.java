@@ -0,0 +1,402 @@
+package scr.controlador;
+import scr.model.Deposito;
+import scr.model.Retiro;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Backend de persistencia que registra los movimientos fuera del camino de la
+ * operación: quien registra sólo los encola en una {@link ColaAnillo} acotada y un
+ * hilo escritor los toma en lotes de hasta {@value #MAXIMO_LOTE} y los escribe en el
+ * backend decorado con {@link Persistencia#registrarLote} (en modo FSYNC, un solo
+ * fsync por lote). Las transferencias se escriben como una unidad y en el orden en que
+ * se encolaron, igual que el resto.
+ *
+ * <p>Registrar no garantiza que el movimiento ya esté en disco. Quien lo necesite
+ * espera el futuro de {@link #confirmarAsync()}, que se completa cuando todo lo
+ * encolado hasta ese momento fue escrito y confirmado (o con la excepción de la
+ * primera escritura que falló desde la confirmación anterior); los pedidos que llegan
+ * juntos comparten la confirmación. Si el backend rechaza un grupo (los movimientos
+ * seguidos que se escriben juntos, una transferencia o un lote), sólo ese grupo se
+ * cuenta como fallido y se sigue con el resto. Las lecturas ({@link #recorrerCuenta},
+ * {@link #reproducir}, {@link #posicion()}, etc.) esperan antes a que se escriba lo
+ * encolado, así que ven todos los movimientos registrados.</p>
+ *
+ * <p>Si la cola está llena, quien registra no espera al escritor: toma su lugar y
+ * escribe él mismo un lote de lo encolado (en orden, antes que su registro) hasta que
+ * su registro entra en la cola. El movimiento ya se aplicó a la cuenta, así que no
+ * puede descartarse, y la operación pasa a ir al ritmo del disco como con un backend
+ * sincrónico (se cuenta en {@link #getEsperasColaLlena()}). En ese caso los futuros de
+ * las confirmaciones pueden completarse en el hilo de quien registra, con su cuenta
+ * bloqueada, así que el trabajo que dependa de ellos no debe bloquear otras cuentas.
+ * La fecha de cada movimiento la pone el backend al escribirlo, unos instantes
+ * después de la operación.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class DiarioAsincronico implements Persistencia {
+
+    /** Movimientos que pueden quedar encolados por defecto. */
+    public static final int CAPACIDAD_POR_DEFECTO = 8192;
+    /** Máximo de registros que el escritor toma de la cola por vez. */
+    public static final int MAXIMO_LOTE = 256;
+
+    private static final int ESPERAS_ACTIVAS = 64;
+    // Resguardo por si se perdiera un aviso; con los avisos normales no se alcanza
+    private static final long ESPERA_MAXIMA_NANOS = 10_000_000;
+
+    private final Persistencia destino;
+    private final ColaAnillo<Registro> cola;
+    private final Thread escritor;
+    // La toma quien escribe en el backend (y es el único consumidor de la cola): el
+    // hilo escritor o, con la cola llena, quien registra
+    private final ReentrantLock escritura = new ReentrantLock();
+    // Sólo se usan con 'escritura' tomado
+    private final Registro[] pendientes = new Registro[MAXIMO_LOTE];
+    private final LoteMovimientos lote = new LoteMovimientos(MAXIMO_LOTE);
+    // Falla de escritura que todavía no se informó en una confirmación
+    private RuntimeException errorSinInformar;
+    // true mientras el escritor está por dormirse o dormido; quien encola lo despierta
+    private volatile boolean dormido;
+    private volatile boolean cerrado;
+
+    private final LongAdder encolados = new LongAdder();
+    private final LongAdder esperasColaLlena = new LongAdder();
+    // Sólo se modifican con 'escritura' tomado
+    private volatile long escritos;
+    private volatile long fallidos;
+    private volatile long lotes;
+
+    /**
+     * Crea el diario y arranca su hilo escritor (daemon).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param destino Backend donde se escriben los movimientos.
+     * @param capacidad Movimientos que pueden quedar encolados; se redondea a una potencia de dos.
+     */
+    public DiarioAsincronico(Persistencia destino, int capacidad) {
+        this.destino = destino;
+        this.cola = new ColaAnillo<>(capacidad);
+        this.escritor = new Thread(this::ejecutar, "diario-asincronico");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * @return Backend decorado.
+     */
+    Persistencia getDestino() {
+        return destino;
+    }
+
+    // Si la cola está llena escribe él mismo lo encolado antes, en vez de esperar al
+    // escritor con la cuenta bloqueada; cada vuelta libera lugar, así que no gira en vano
+    private void encolar(Registro r) {
+        if (cerrado) throw new RejectedExecutionException("El diario asincrónico está cerrado.");
+        if (!cola.ofrecer(r)) {
+            esperasColaLlena.increment();
+            do {
+                if (cerrado) throw new RejectedExecutionException("El diario asincrónico está cerrado.");
+                escribirPendientes();
+            } while (!cola.ofrecer(r));
+        }
+        encolados.increment();
+        if (dormido) LockSupport.unpark(escritor);
+    }
+
+    // Espera a que se escriba lo encolado hasta ahora (y se confirme, si se pide)
+    private CompletableFuture<Void> marca(boolean confirmar) {
+        Registro r = new Registro(Registro.MARCA);
+        r.confirmar = confirmar;
+        r.aviso = new CompletableFuture<>();
+        if (cerrado) {
+            if (confirmar) destino.confirmar();
+            r.aviso.complete(null);
+            return r.aviso;
+        }
+        encolar(r);
+        return r.aviso;
+    }
+
+    private void esperarEscritos() {
+        if (!cerrado) marca(false).join();
+    }
+
+    @Override
+    public void registrarMovimiento(String tipoMovimiento, String numeroCuenta, long monto, long saldoFinal) {
+        Registro r = new Registro(Registro.MOVIMIENTO);
+        r.tipo = tipoMovimiento;
+        r.cuenta = numeroCuenta;
+        r.monto = monto;
+        r.saldo = saldoFinal;
+        encolar(r);
+    }
+
+    /**
+     * Encola una copia del lote, que se escribe como una unidad.
+     */
+    @Override
+    public void registrarLote(LoteMovimientos lote) {
+        LoteMovimientos copia = new LoteMovimientos(lote.tamanio());
+        for (int i = 0; i < lote.tamanio(); i++) {
+            copia.agregar(lote.getTipo(i), lote.getNumeroCuenta(i), lote.getMonto(i), lote.getSaldoFinal(i));
+        }
+        Registro r = new Registro(Registro.LOTE);
+        r.lote = copia;
+        encolar(r);
+    }
+
+    @Override
+    public void registrarTransferencia(String origen, String destinoTransferencia, long monto,
+                                       long saldoOrigen, long saldoDestino) {
+        Registro r = new Registro(Registro.TRANSFERENCIA);
+        r.cuenta = origen;
+        r.cuentaDestino = destinoTransferencia;
+        r.monto = monto;
+        r.saldo = saldoOrigen;
+        r.saldoDestino = saldoDestino;
+        encolar(r);
+    }
+
+    /**
+     * Espera a que se escriba y se confirme todo lo encolado hasta ahora.
+     */
+    @Override
+    public void confirmar() {
+        marca(true).join();
+    }
+
+    /**
+     * El futuro se completa cuando todo lo encolado hasta ahora fue escrito y confirmado
+     * por el backend, o excepcionalmente si la escritura falló.
+     */
+    @Override
+    public CompletableFuture<Void> confirmarAsync() {
+        return marca(true);
+    }
+
+    /**
+     * Deja de aceptar movimientos, escribe los encolados y cierra el backend.
+     */
+    @Override
+    public void cerrar() {
+        if (cerrado) return;
+        cerrado = true;
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Movimientos encolados por quien pasó el control de 'cerrado' justo antes del cierre
+        while (escribirPendientes() > 0) {
+            // sigue hasta vaciar la cola
+        }
+        destino.cerrar();
+    }
+
+    @Override
+    public List<Deposito> cargarDepositosParaCuenta(String numeroCuenta) {
+        esperarEscritos();
+        return destino.cargarDepositosParaCuenta(numeroCuenta);
+    }
+
+    @Override
+    public List<Retiro> cargarRetirosParaCuenta(String numeroCuenta) {
+        esperarEscritos();
+        return destino.cargarRetirosParaCuenta(numeroCuenta);
+    }
+
+    @Override
+    public void reproducir(Consumer<MovimientoLog> visitante) {
+        esperarEscritos();
+        destino.reproducir(visitante);
+    }
+
+    @Override
+    public long[] posicion() {
+        esperarEscritos();
+        return destino.posicion();
+    }
+
+    @Override
+    public void reproducirDesde(long[] posicion, Consumer<MovimientoLog> visitante) {
+        esperarEscritos();
+        destino.reproducirDesde(posicion, visitante);
+    }
+
+    @Override
+    public void recorrerCuenta(String numeroCuenta, Consumer<MovimientoLog> visitante) {
+        esperarEscritos();
+        destino.recorrerCuenta(numeroCuenta, visitante);
+    }
+
+    /**
+     * @return Registros encolados (movimientos, lotes, transferencias y esperas de escritura).
+     */
+    public long getEncolados() { return encolados.sum(); }
+    /**
+     * @return Movimientos escritos en el backend (una transferencia cuenta como dos).
+     */
+    public long getEscritos() { return escritos; }
+    /**
+     * @return Movimientos cuya escritura falló en el backend.
+     */
+    public long getFallidos() { return fallidos; }
+    /**
+     * @return Lotes tomados de la cola (por el escritor o por quien registra con la cola llena).
+     */
+    public long getLotes() { return lotes; }
+    /**
+     * @return Veces que un registro tuvo que esperar porque la cola estaba llena.
+     */
+    public long getEsperasColaLlena() { return esperasColaLlena.sum(); }
+
+    @Override
+    public String toString() {
+        long l = lotes;
+        return String.format("Diario asincrónico: encolados=%d, escritos=%d, fallidos=%d, lotes=%d (%.1f por lote), esperas por cola llena=%d",
+                getEncolados(), escritos, fallidos, l, l == 0 ? 0.0 : (double) escritos / l, getEsperasColaLlena());
+    }
+
+    private void ejecutar() {
+        int ociosas = 0;
+        while (true) {
+            if (escribirPendientes() > 0) {
+                ociosas = 0;
+                continue;
+            }
+            if (cerrado) return;
+            if (++ociosas < ESPERAS_ACTIVAS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            dormido = true;
+            // Se vuelve a mirar la cola después de publicar 'dormido' (quien encola hace
+            // lo inverso), así un aviso no puede perderse entre los dos pasos
+            if (cola.estaVacia() && !cerrado) LockSupport.parkNanos(this, ESPERA_MAXIMA_NANOS);
+            dormido = false;
+        }
+    }
+
+    // Escribe un lote de la cola; devuelve cuántos registros tomó
+    private int escribirPendientes() {
+        escritura.lock();
+        try {
+            int n = cola.drenar(pendientes);
+            if (n == 0) return 0;
+            escribir(n);
+            lotes++;
+            return n;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private void escribir(int n) {
+        // Error de algún grupo de este lote; cada grupo falla por separado
+        RuntimeException error = null;
+        boolean confirmar = false;
+        lote.limpiar();
+        for (int i = 0; i < n; i++) {
+            Registro r = pendientes[i];
+            switch (r.clase) {
+                case Registro.MOVIMIENTO:
+                    lote.agregar(r.tipo, r.cuenta, r.monto, r.saldo);
+                    break;
+                case Registro.TRANSFERENCIA:
+                case Registro.LOTE:
+                    error = primero(error, escribirGrupo(null));
+                    error = primero(error, escribirGrupo(r));
+                    break;
+                default:
+                    confirmar |= r.confirmar;
+            }
+        }
+        error = primero(error, escribirGrupo(null));
+        if (confirmar) {
+            try {
+                destino.confirmar();
+            } catch (RuntimeException e) {
+                error = primero(error, fallo(e));
+            }
+        }
+        // Una confirmación falla si falló la escritura de algo encolado antes que ella,
+        // aunque haya sido en un lote anterior
+        RuntimeException errorConfirmacion = errorSinInformar;
+        for (int i = 0; i < n; i++) {
+            Registro r = pendientes[i];
+            if (r.aviso != null) {
+                RuntimeException e = r.confirmar ? errorConfirmacion : error;
+                if (e == null) r.aviso.complete(null);
+                else r.aviso.completeExceptionally(e);
+                if (r.confirmar) errorSinInformar = null;
+            }
+            pendientes[i] = null;
+        }
+    }
+
+    // Escribe un grupo: la transferencia o el lote del registro, o con null los
+    // movimientos sueltos acumulados. Devuelve el error si el backend lo rechazó
+    private RuntimeException escribirGrupo(Registro r) {
+        int cantidad = r == null ? lote.tamanio() : (r.clase == Registro.LOTE ? r.lote.tamanio() : 2);
+        if (r == null && cantidad == 0) return null;
+        try {
+            if (r == null) destino.registrarLote(lote);
+            else if (r.clase == Registro.LOTE) destino.registrarLote(r.lote);
+            else destino.registrarTransferencia(r.cuenta, r.cuentaDestino, r.monto, r.saldo, r.saldoDestino);
+            escritos += cantidad;
+            return null;
+        } catch (RuntimeException e) {
+            fallidos += cantidad;
+            return fallo(e);
+        } finally {
+            if (r == null) lote.limpiar();
+        }
+    }
+
+    private RuntimeException fallo(RuntimeException e) {
+        if (errorSinInformar == null) errorSinInformar = e;
+        // Las fallas de E/S ya las contó el backend
+        if (!(e instanceof UncheckedIOException)) {
+            Metricas.global().errorES("Error al escribir movimientos desde el diario asincrónico: " + e);
+        }
+        return e;
+    }
+
+    private static RuntimeException primero(RuntimeException anterior, RuntimeException nuevo) {
+        return anterior != null ? anterior : nuevo;
+    }
+
+    // Elemento de la cola: un movimiento, una transferencia, un lote o una marca que
+    // avisa cuando se escribió lo anterior
+    private static final class Registro {
+        static final int MOVIMIENTO = 0;
+        static final int TRANSFERENCIA = 1;
+        static final int LOTE = 2;
+        static final int MARCA = 3;
+
+        final int clase;
+        String tipo;
+        String cuenta;
+        String cuentaDestino;
+        long monto;
+        long saldo;
+        long saldoDestino;
+        LoteMovimientos lote;
+        boolean confirmar;
+        CompletableFuture<Void> aviso;
+
+        Registro(int clase) {
+            this.clase = clase;
+        }
+    }
+}
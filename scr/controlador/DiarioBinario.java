@@ -0,0 +1,603 @@
+package scr.controlador;
+import scr.model.Deposito;
+import scr.model.Movimiento;
+import scr.model.Retiro;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Backend de {@link Persistencia} que guarda todos los movimientos en un único
+ * diario binario de escritura secuencial, con registros de tamaño fijo.
+ *
+ * <p>Formato: una cabecera de {@value #TAMANIO_CABECERA} bytes (magia, versión y
+ * tamaño de registro) seguida de registros de {@value #TAMANIO_REGISTRO} bytes:</p>
+ * <pre>
+ *  0  long  secuencia (1, 2, 3, ...)
+ *  8  long  fecha en segundos desde 1970-01-01T00:00:00 (hora local sin zona)
+ * 16  long  monto en centavos
+ * 24  long  saldo final en centavos
+ * 32  byte  tipo (1 DEPOSITO, 2 RETIRO, 3 INTERES, 4 MANTENIMIENTO,
+ *             5 TRANSFERENCIA_ENVIADA, 6 TRANSFERENCIA_RECIBIDA)
+ * 33  byte  largo del número de cuenta
+ * 34  18 bytes número de cuenta (ASCII, relleno con ceros)
+ * 52  int   CRC32C de los bytes 0..51
+ * </pre>
+ *
+ * <p>Una transferencia ocupa dos registros consecutivos: el débito en la cuenta de
+ * origen (ENVIADA) seguido del crédito en la de destino (RECIBIDA), con el mismo
+ * monto. Se escriben juntos y se validan como una unidad: un débito sin su crédito
+ * se considera incompleto.</p>
+ *
+ * <p>Al abrir el diario se recorre completo verificando CRC, secuencia y pares de
+ * transferencia; si el final quedó a medio escribir (ej. corte de luz) se trunca en
+ * el último registro válido. Las escrituras siguen los mismos {@link ModoDurabilidad} que los logs de texto.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class DiarioBinario implements Persistencia {
+
+    /** Archivo usado por defecto. */
+    public static final String ARCHIVO_POR_DEFECTO = "movimientos.wal";
+
+    static final int TAMANIO_CABECERA = 8;
+    static final int TAMANIO_REGISTRO = 56;
+    static final int MAXIMO_CUENTA = 18;
+
+    private static final int MAGIA = 0x53425744; // "SBWD"
+    private static final short VERSION = 1;
+    private static final int TAMANIO_DATOS = 52;
+    private static final int TAMANIO_BUFFER = TAMANIO_REGISTRO * 1170; // ~64KB, múltiplo del registro
+    private static final String[] TIPOS = { null, "DEPOSITO", "RETIRO", "INTERES", "MANTENIMIENTO",
+            "TRANSFERENCIA_ENVIADA", "TRANSFERENCIA_RECIBIDA" };
+    private static final int ENVIADA = 5;
+    private static final int RECIBIDA = 6;
+
+    private final String archivo;
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private final byte[] registro;
+    private final ByteBuffer vistaRegistro;
+    private final CRC32C crc;
+    private final ModoDurabilidad modo;
+    private final int maxRegistros;
+    private final ScheduledExecutorService temporizador;
+
+    private int pendientes;
+    private boolean cerrado;
+    // Fin de los datos ya escritos en el archivo (sin contar el buffer)
+    private long posicionArchivo;
+    private long siguienteSecuencia;
+
+    /**
+     * Abre {@value #ARCHIVO_POR_DEFECTO} escribiendo cada movimiento inmediatamente.
+     *
+     * @throws IOException si el archivo no puede abrirse o no es un diario binario.
+     */
+    public DiarioBinario() throws IOException {
+        this(ARCHIVO_POR_DEFECTO, ModoDurabilidad.POR_OPERACION, 1, 0);
+    }
+
+    /**
+     * Abre (o crea) el diario y recupera su estado.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Ruta del diario.
+     * @param modo Modo de durabilidad.
+     * @param maxRegistros En modo GRUPO, cantidad de registros que dispara la escritura.
+     * @param intervaloMs En modo GRUPO, tiempo máximo que un registro puede quedar en el buffer.
+     * @throws IOException si el archivo no puede abrirse o no es un diario binario.
+     */
+    public DiarioBinario(String archivo, ModoDurabilidad modo, int maxRegistros, long intervaloMs) throws IOException {
+        this.archivo = archivo;
+        this.modo = modo;
+        this.maxRegistros = Math.max(1, maxRegistros);
+        this.canal = FileChannel.open(Paths.get(archivo),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+        this.registro = new byte[TAMANIO_REGISTRO];
+        this.vistaRegistro = ByteBuffer.wrap(registro);
+        this.crc = new CRC32C();
+        this.pendientes = 0;
+        this.cerrado = false;
+        try {
+            recuperar();
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+
+        if (modo == ModoDurabilidad.GRUPO && intervaloMs > 0) {
+            this.temporizador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "diario-" + archivo);
+                t.setDaemon(true);
+                return t;
+            });
+            this.temporizador.scheduleWithFixedDelay(this::volcarPorTiempo, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.temporizador = null;
+        }
+    }
+
+    /**
+     * Recorre un diario en modo sólo lectura, sin truncar ni modificar el archivo.
+     * La lectura se detiene en el primer registro inválido.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Ruta del diario.
+     * @param visitante Recibe cada movimiento en orden de secuencia.
+     * @throws IOException si el archivo no puede leerse o no es un diario binario.
+     */
+    public static void leer(String archivo, Consumer<MovimientoLog> visitante) throws IOException {
+        Path ruta = Paths.get(archivo);
+        if (!Files.exists(ruta)) return;
+        try (FileChannel lectura = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamanio = lectura.size();
+            if (tamanio == 0) return;
+            verificarCabecera(lectura, archivo);
+            escanear(lectura, TAMANIO_CABECERA, tamanio, null, visitante, null);
+        }
+    }
+
+    @Override
+    public void registrarMovimiento(String tipoMovimiento, String numeroCuenta, long monto, long saldoFinal) {
+        long inicio = System.nanoTime();
+        try {
+            agregar(LocalDateTime.now(), tipoMovimiento, numeroCuenta, monto, saldoFinal);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            throw errorEscritura(e);
+        }
+        Metricas.global().escritura.registrarDesde(inicio);
+    }
+
+    /**
+     * Agrega un movimiento con la fecha indicada (usado también por {@link ConversorDiario}).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param fecha Fecha del movimiento (se guarda con precisión de segundos).
+     * @param tipoMovimiento "DEPOSITO", "RETIRO", "INTERES" o "MANTENIMIENTO" (las
+     *                       transferencias se agregan con {@link #registrarTransferencia}).
+     * @param numeroCuenta Número de cuenta (ASCII, hasta {@value #MAXIMO_CUENTA} caracteres).
+     * @param monto Monto en centavos.
+     * @param saldoFinal Saldo final en centavos.
+     * @return Número de secuencia asignado.
+     * @throws IllegalArgumentException si el tipo o el número de cuenta no pueden representarse.
+     * @throws IOException si falla la escritura.
+     */
+    public synchronized long agregar(LocalDateTime fecha, String tipoMovimiento, String numeroCuenta,
+                                     long monto, long saldoFinal) throws IOException {
+        int tipo = validar(tipoMovimiento, numeroCuenta);
+        if (tipo == ENVIADA || tipo == RECIBIDA) {
+            throw new IllegalArgumentException("Las transferencias se registran con registrarTransferencia.");
+        }
+        long secuencia = poner(tipo, fecha, numeroCuenta, monto, saldoFinal);
+        terminarGrupo();
+        return secuencia;
+    }
+
+    /**
+     * Agrega todos los movimientos del lote y aplica el modo de durabilidad una sola
+     * vez al final. Los movimientos que no pueden representarse se omiten.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param lote Movimientos a registrar, en orden.
+     * @throws UncheckedIOException si falla la escritura.
+     */
+    @Override
+    public synchronized void registrarLote(LoteMovimientos lote) {
+        long inicio = System.nanoTime();
+        LocalDateTime ahora = LocalDateTime.now();
+        try {
+            for (int i = 0; i < lote.tamanio(); i++) {
+                try {
+                    int tipo = validar(lote.getTipo(i), lote.getNumeroCuenta(i));
+                    if (tipo == ENVIADA || tipo == RECIBIDA) {
+                        throw new IllegalArgumentException("Las transferencias se registran con registrarTransferencia.");
+                    }
+                    poner(tipo, ahora, lote.getNumeroCuenta(i), lote.getMonto(i), lote.getSaldoFinal(i));
+                } catch (IllegalArgumentException e) {
+                    System.err.println(e.getMessage());
+                }
+            }
+            terminarGrupo();
+        } catch (IOException e) {
+            throw errorEscritura(e);
+        }
+        Metricas.global().escrituraLote.registrarDesde(inicio);
+    }
+
+    /**
+     * Registra una transferencia como el par de registros consecutivos débito/crédito,
+     * escritos juntos y con un solo paso del modo de durabilidad.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param origen Cuenta debitada.
+     * @param destino Cuenta acreditada.
+     * @param monto Monto transferido en centavos.
+     * @param saldoOrigen Saldo final de la cuenta de origen (incluye la comisión, si hubo).
+     * @param saldoDestino Saldo final de la cuenta de destino.
+     * @throws UncheckedIOException si falla la escritura.
+     */
+    @Override
+    public synchronized void registrarTransferencia(String origen, String destino, long monto,
+                                                    long saldoOrigen, long saldoDestino) {
+        long inicio = System.nanoTime();
+        LocalDateTime ahora = LocalDateTime.now();
+        try {
+            // Se validan ambas cuentas antes de escribir, para no dejar un débito suelto
+            validar("TRANSFERENCIA_ENVIADA", origen);
+            validar("TRANSFERENCIA_RECIBIDA", destino);
+            poner(ENVIADA, ahora, origen, monto, saldoOrigen);
+            poner(RECIBIDA, ahora, destino, monto, saldoDestino);
+            terminarGrupo();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            throw errorEscritura(e);
+        }
+        Metricas.global().escritura.registrarDesde(inicio);
+    }
+
+    // Devuelve el código del tipo si el movimiento puede representarse en el diario
+    private static int validar(String tipoMovimiento, String numeroCuenta) {
+        int tipo = codigoTipo(tipoMovimiento);
+        if (tipo == 0) throw new IllegalArgumentException("Tipo de movimiento inválido para el registro: " + tipoMovimiento);
+        int largo = numeroCuenta.length();
+        if (largo > MAXIMO_CUENTA) throw new IllegalArgumentException("Número de cuenta demasiado largo para el diario: " + numeroCuenta);
+        for (int i = 0; i < largo; i++) {
+            if (numeroCuenta.charAt(i) >= 0x80) throw new IllegalArgumentException("Número de cuenta no ASCII: " + numeroCuenta);
+        }
+        return tipo;
+    }
+
+    // Arma el registro (ya validado) en el buffer sin aplicar el modo de durabilidad
+    private long poner(int tipo, LocalDateTime fecha, String numeroCuenta, long monto, long saldoFinal) throws IOException {
+        int largo = numeroCuenta.length();
+        if (cerrado) throw new IOException("El diario " + archivo + " está cerrado.");
+
+        long secuencia = siguienteSecuencia;
+        vistaRegistro.clear();
+        vistaRegistro.putLong(secuencia);
+        vistaRegistro.putLong(fecha.toEpochSecond(ZoneOffset.UTC));
+        vistaRegistro.putLong(monto);
+        vistaRegistro.putLong(saldoFinal);
+        vistaRegistro.put((byte) tipo);
+        vistaRegistro.put((byte) largo);
+        for (int i = 0; i < MAXIMO_CUENTA; i++) {
+            vistaRegistro.put((byte) (i < largo ? numeroCuenta.charAt(i) : 0));
+        }
+        crc.reset();
+        crc.update(registro, 0, TAMANIO_DATOS);
+        vistaRegistro.putInt((int) crc.getValue());
+
+        if (buffer.remaining() < TAMANIO_REGISTRO) volcar();
+        buffer.put(registro);
+        siguienteSecuencia++;
+        pendientes++;
+        return secuencia;
+    }
+
+    private void terminarGrupo() throws IOException {
+        if (pendientes == 0) return;
+        switch (modo) {
+            case POR_OPERACION:
+                volcar();
+                break;
+            case FSYNC:
+                volcar();
+                canal.force(false);
+                break;
+            case GRUPO:
+                if (pendientes >= maxRegistros) volcar();
+                break;
+        }
+    }
+
+    /**
+     * Escribe al archivo lo que quede en el buffer (sin fsync).
+     *
+     * @throws IOException si falla la escritura.
+     */
+    public synchronized void volcar() throws IOException {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            posicionArchivo += canal.write(buffer, posicionArchivo);
+        }
+        buffer.clear();
+        pendientes = 0;
+    }
+
+    /**
+     * Escribe lo pendiente y lo fuerza a disco.
+     *
+     * @throws UncheckedIOException si falla la escritura o el fsync.
+     */
+    @Override
+    public synchronized void confirmar() {
+        if (cerrado) return;
+        try {
+            volcar();
+            canal.force(false);
+        } catch (IOException e) {
+            Metricas.global().errorES("Error al confirmar el diario " + archivo + ": " + e.getMessage());
+            throw new UncheckedIOException("Error al confirmar el diario " + archivo, e);
+        }
+    }
+
+    @Override
+    public synchronized void cerrar() {
+        if (cerrado) return;
+        if (temporizador != null) temporizador.shutdownNow();
+        try {
+            confirmar();
+        } catch (UncheckedIOException e) {
+            // Ya contado en las métricas; el archivo se cierra igual
+        }
+        cerrado = true;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            Metricas.global().errorES("Error al cerrar el diario " + archivo + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<Deposito> cargarDepositosParaCuenta(String numeroCuenta) {
+        long inicio = System.nanoTime();
+        List<Deposito> resultado = new ArrayList<>();
+        recorrer(numeroCuenta, TAMANIO_CABECERA, m -> {
+            Movimiento mov = m.aMovimiento(resultado.size());
+            if (mov instanceof Deposito) resultado.add((Deposito) mov);
+        });
+        Metricas.global().consulta.registrarDesde(inicio);
+        return resultado;
+    }
+
+    @Override
+    public List<Retiro> cargarRetirosParaCuenta(String numeroCuenta) {
+        long inicio = System.nanoTime();
+        List<Retiro> resultado = new ArrayList<>();
+        recorrer(numeroCuenta, TAMANIO_CABECERA, m -> {
+            Movimiento mov = m.aMovimiento(resultado.size());
+            if (mov instanceof Retiro) resultado.add((Retiro) mov);
+        });
+        Metricas.global().consulta.registrarDesde(inicio);
+        return resultado;
+    }
+
+    @Override
+    public void reproducir(Consumer<MovimientoLog> visitante) {
+        recorrer(null, TAMANIO_CABECERA, visitante);
+    }
+
+    @Override
+    public void recorrerCuenta(String numeroCuenta, Consumer<MovimientoLog> visitante) {
+        recorrer(numeroCuenta, TAMANIO_CABECERA, visitante);
+    }
+
+    /**
+     * @return {@code {posición en bytes del fin del diario}}, luego de escribir lo pendiente.
+     */
+    @Override
+    public synchronized long[] posicion() {
+        try {
+            volcar();
+        } catch (IOException e) {
+            Metricas.global().errorES("Error al escribir en el diario " + archivo + ": " + e.getMessage());
+        }
+        return new long[] { posicionArchivo };
+    }
+
+    @Override
+    public void reproducirDesde(long[] posicion, Consumer<MovimientoLog> visitante) {
+        long desde = posicion[0];
+        if (desde < TAMANIO_CABECERA || (desde - TAMANIO_CABECERA) % TAMANIO_REGISTRO != 0) {
+            System.err.println("Posición inválida para el diario " + archivo + ", se reproduce completo.");
+            desde = TAMANIO_CABECERA;
+        }
+        recorrer(null, desde, visitante);
+    }
+
+    /**
+     * @return Cantidad de movimientos registrados (incluye los que siguen en el buffer).
+     */
+    public synchronized long tamanio() {
+        return siguienteSecuencia - 1;
+    }
+
+    public String getArchivo() {
+        return archivo;
+    }
+
+    public ModoDurabilidad getModo() {
+        return modo;
+    }
+
+    // Recorre los registros escritos hasta el momento, opcionalmente filtrando por cuenta
+    private void recorrer(String numeroCuenta, long desde, Consumer<MovimientoLog> visitante) {
+        long limite;
+        synchronized (this) {
+            if (cerrado) return;
+            try {
+                volcar();
+            } catch (IOException e) {
+                Metricas.global().errorES("Error al escribir en el diario " + archivo + ": " + e.getMessage());
+            }
+            limite = posicionArchivo;
+        }
+        byte[] filtro = numeroCuenta == null ? null : numeroCuenta.getBytes(StandardCharsets.US_ASCII);
+        try {
+            // Las lecturas posicionadas no mueven la posición del canal, así que no bloquean a los escritores
+            escanear(canal, desde, limite, filtro, visitante, null);
+        } catch (IOException e) {
+            // Un recorrido cortado no debe pasar por completo
+            Metricas.global().errorES("Error al leer el diario " + archivo + ": " + e.getMessage());
+            throw new UncheckedIOException("Error al leer el diario " + archivo, e);
+        }
+    }
+
+    // Valida la cabecera y trunca la cola inválida; deja lista la próxima secuencia
+    private void recuperar() throws IOException {
+        long tamanio = canal.size();
+        if (tamanio == 0) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+            cabecera.putInt(MAGIA).putShort(VERSION).putShort((short) TAMANIO_REGISTRO).flip();
+            while (cabecera.hasRemaining()) canal.write(cabecera, cabecera.position());
+            posicionArchivo = TAMANIO_CABECERA;
+            siguienteSecuencia = 1;
+            return;
+        }
+        verificarCabecera(canal, archivo);
+        long[] ultima = { 0 };
+        long fin = escanear(canal, TAMANIO_CABECERA, tamanio, null, null, ultima);
+        if (fin < tamanio) {
+            System.err.println("Diario " + archivo + ": se descartaron " + (tamanio - fin)
+                    + " bytes inválidos o incompletos al final.");
+            canal.truncate(fin);
+            canal.force(false);
+        }
+        posicionArchivo = fin;
+        siguienteSecuencia = ultima[0] + 1;
+    }
+
+    private static void verificarCabecera(FileChannel c, String archivo) throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+        while (cabecera.hasRemaining() && c.read(cabecera, cabecera.position()) >= 0) { }
+        cabecera.flip();
+        if (cabecera.remaining() < TAMANIO_CABECERA || cabecera.getInt() != MAGIA) {
+            throw new IOException(archivo + " no es un diario binario de movimientos.");
+        }
+        short version = cabecera.getShort();
+        short tamanio = cabecera.getShort();
+        if (version != VERSION || tamanio != TAMANIO_REGISTRO) {
+            throw new IOException(archivo + ": versión de diario no soportada (" + version + ").");
+        }
+    }
+
+    /**
+     * Recorre los registros de {@code [desde, hasta)} deteniéndose en el primero con
+     * CRC o secuencia inválidos, o en el débito de una transferencia sin su crédito.
+     *
+     * @return Posición donde terminan los registros válidos.
+     */
+    private static long escanear(FileChannel c, long desde, long hasta, byte[] filtro,
+                                 Consumer<MovimientoLog> visitante, long[] ultimaSecuencia) throws IOException {
+        ByteBuffer lectura = ByteBuffer.allocate(TAMANIO_BUFFER);
+        byte[] datos = lectura.array();
+        CRC32C verificador = new CRC32C();
+        long anterior = 0;
+        long pos = desde;
+        // Débito de transferencia cuyo crédito todavía no se leyó (-1 si no hay)
+        long inicioPar = -1;
+        long secuenciaAntesPar = 0;
+        long montoPar = 0;
+        MovimientoLog enviada = null;
+        while (hasta - pos >= TAMANIO_REGISTRO) {
+            lectura.clear();
+            lectura.limit((int) Math.min(TAMANIO_BUFFER, (hasta - pos) / TAMANIO_REGISTRO * TAMANIO_REGISTRO));
+            while (lectura.hasRemaining()) {
+                if (c.read(lectura, pos + lectura.position()) < 0) break;
+            }
+            int leidos = lectura.position() / TAMANIO_REGISTRO * TAMANIO_REGISTRO;
+            if (leidos == 0) break;
+            for (int r = 0; r < leidos; r += TAMANIO_REGISTRO) {
+                verificador.reset();
+                verificador.update(datos, r, TAMANIO_DATOS);
+                long secuencia = lectura.getLong(r);
+                int tipo = lectura.get(r + 32);
+                int largo = lectura.get(r + 33);
+                long monto = lectura.getLong(r + 16);
+                if ((int) verificador.getValue() != lectura.getInt(r + TAMANIO_DATOS)
+                        || (anterior != 0 && secuencia != anterior + 1) || secuencia < 1
+                        || tipo < 1 || tipo >= TIPOS.length || largo < 0 || largo > MAXIMO_CUENTA
+                        || (tipo == RECIBIDA) != (inicioPar >= 0) || (inicioPar >= 0 && monto != montoPar)) {
+                    return cortar(pos + r, anterior, inicioPar, secuenciaAntesPar, ultimaSecuencia);
+                }
+                anterior = secuencia;
+                if (tipo == ENVIADA) {
+                    inicioPar = pos + r;
+                    secuenciaAntesPar = secuencia - 1;
+                    montoPar = monto;
+                } else if (tipo == RECIBIDA) {
+                    // El débito se entrega recién cuando se sabe que la transferencia está completa
+                    inicioPar = -1;
+                    if (enviada != null) visitante.accept(enviada);
+                    enviada = null;
+                }
+                if (visitante == null || (filtro != null && !igual(datos, r + 34, largo, filtro))) continue;
+                String cuenta = new String(datos, r + 34, largo, StandardCharsets.US_ASCII);
+                LocalDateTime fecha = LocalDateTime.ofEpochSecond(lectura.getLong(r + 8), 0, ZoneOffset.UTC);
+                MovimientoLog m = new MovimientoLog(cuenta, TIPOS[tipo], monto, lectura.getLong(r + 24), fecha, pos + r);
+                if (tipo == ENVIADA) enviada = m;
+                else visitante.accept(m);
+            }
+            pos += leidos;
+        }
+        return cortar(pos, anterior, inicioPar, secuenciaAntesPar, ultimaSecuencia);
+    }
+
+    // Fin de los registros válidos: si quedó un débito sin su crédito, se corta antes de él
+    private static long cortar(long posicion, long anterior, long inicioPar, long secuenciaAntesPar,
+                               long[] ultimaSecuencia) {
+        if (inicioPar >= 0) {
+            posicion = inicioPar;
+            anterior = secuenciaAntesPar;
+        }
+        if (ultimaSecuencia != null) ultimaSecuencia[0] = anterior;
+        return posicion;
+    }
+
+    private static boolean igual(byte[] datos, int inicio, int largo, byte[] valor) {
+        if (largo != valor.length) return false;
+        for (int i = 0; i < largo; i++) {
+            if (datos[inicio + i] != valor[i]) return false;
+        }
+        return true;
+    }
+
+    private static int codigoTipo(String tipo) {
+        for (int i = 1; i < TIPOS.length; i++) {
+            if (TIPOS[i].equals(tipo)) return i;
+        }
+        return 0;
+    }
+
+    // Cuenta la falla en las métricas y la devuelve para informarla a quien registra
+    private UncheckedIOException errorEscritura(IOException e) {
+        Metricas.global().errorES("Error al escribir en el diario " + archivo + ": " + e.getMessage());
+        return new UncheckedIOException("Error al escribir en el diario " + archivo, e);
+    }
+
+    private synchronized void volcarPorTiempo() {
+        if (cerrado) return;
+        try {
+            volcar();
+        } catch (IOException e) {
+            Metricas.global().errorES("Error al escribir en el diario " + archivo + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package scr.controlador;
+import scr.model.Deposito;
+import scr.model.Retiro;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Backend de {@link Persistencia} formado por N segmentos {@link DiarioBinario}
+ * ({@code movimientos-0.wal}, {@code movimientos-1.wal}, ...). Cada cuenta se
+ * registra siempre en el mismo segmento, elegido igual que su partición en
+ * {@link EjecutorParticionado}, así que en el modo particionado de
+ * {@link BancoController} cada hilo escribe sólo en su propio segmento.
+ *
+ * <p>Como el historial de cada cuenta está completo y en orden dentro de su segmento,
+ * la reproducción recorre los segmentos uno tras otro. La cantidad de segmentos
+ * queda fija al crear el diario.</p>
+ *
+ * <p>Una transferencia entre cuentas de segmentos distintos se registra como un
+ * retiro en el segmento de origen y un depósito en el de destino; sólo las
+ * transferencias dentro de un mismo segmento se validan como una unidad.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class DiarioParticionado implements Persistencia {
+
+    /** Prefijo de los segmentos usado por defecto. */
+    public static final String PREFIJO_POR_DEFECTO = "movimientos";
+
+    private final DiarioBinario[] segmentos;
+
+    /**
+     * Abre {@code movimientos-<i>.wal} escribiendo cada movimiento inmediatamente.
+     *
+     * @param cantidad Cantidad de segmentos.
+     * @throws IOException si algún segmento no puede abrirse o los existentes no son {@code cantidad}.
+     */
+    public DiarioParticionado(int cantidad) throws IOException {
+        this(PREFIJO_POR_DEFECTO, cantidad, ModoDurabilidad.POR_OPERACION, 1, 0);
+    }
+
+    /**
+     * Abre (o crea) los segmentos {@code <prefijo>-<i>.wal}.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param prefijo Prefijo de los archivos.
+     * @param cantidad Cantidad de segmentos.
+     * @param modo Modo de durabilidad de cada segmento.
+     * @param maxRegistros En modo GRUPO, cantidad de registros que dispara la escritura.
+     * @param intervaloMs En modo GRUPO, tiempo máximo que un registro puede quedar en el buffer.
+     * @throws IOException si algún segmento no puede abrirse o los existentes no son {@code cantidad}.
+     */
+    public DiarioParticionado(String prefijo, int cantidad, ModoDurabilidad modo, int maxRegistros, long intervaloMs)
+            throws IOException {
+        if (cantidad < 1) throw new IllegalArgumentException("Se necesita al menos un segmento.");
+        int existentes = 0;
+        while (Files.exists(Paths.get(archivo(prefijo, existentes)))) existentes++;
+        if (existentes != 0 && existentes != cantidad) {
+            throw new IOException("El diario " + prefijo + " tiene " + existentes + " segmentos y se pidieron " + cantidad + ".");
+        }
+        this.segmentos = new DiarioBinario[cantidad];
+        try {
+            for (int i = 0; i < cantidad; i++) {
+                segmentos[i] = new DiarioBinario(archivo(prefijo, i), modo, maxRegistros, intervaloMs);
+            }
+        } catch (IOException e) {
+            for (DiarioBinario d : segmentos) if (d != null) d.cerrar();
+            throw e;
+        }
+    }
+
+    private static String archivo(String prefijo, int i) {
+        return prefijo + "-" + i + ".wal";
+    }
+
+    /**
+     * @return Cantidad de segmentos.
+     */
+    public int getCantidad() {
+        return segmentos.length;
+    }
+
+    private DiarioBinario segmento(String numeroCuenta) {
+        return segmentos[EjecutorParticionado.particion(numeroCuenta, segmentos.length)];
+    }
+
+    @Override
+    public void registrarMovimiento(String tipoMovimiento, String numeroCuenta, long monto, long saldoFinal) {
+        segmento(numeroCuenta).registrarMovimiento(tipoMovimiento, numeroCuenta, monto, saldoFinal);
+    }
+
+    /**
+     * Registra el lote repartiendo los movimientos entre los segmentos; cada segmento
+     * escribe su parte de una vez.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param lote Movimientos a registrar, en orden.
+     */
+    @Override
+    public void registrarLote(LoteMovimientos lote) {
+        LoteMovimientos[] partes = new LoteMovimientos[segmentos.length];
+        for (int i = 0; i < lote.tamanio(); i++) {
+            int s = EjecutorParticionado.particion(lote.getNumeroCuenta(i), segmentos.length);
+            if (partes[s] == null) partes[s] = new LoteMovimientos(lote.tamanio());
+            partes[s].agregar(lote.getTipo(i), lote.getNumeroCuenta(i), lote.getMonto(i), lote.getSaldoFinal(i));
+        }
+        for (int s = 0; s < segmentos.length; s++) {
+            if (partes[s] != null) segmentos[s].registrarLote(partes[s]);
+        }
+    }
+
+    @Override
+    public void registrarTransferencia(String origen, String destino, long monto, long saldoOrigen, long saldoDestino) {
+        DiarioBinario a = segmento(origen);
+        DiarioBinario b = segmento(destino);
+        if (a == b) {
+            a.registrarTransferencia(origen, destino, monto, saldoOrigen, saldoDestino);
+            return;
+        }
+        a.registrarMovimiento("RETIRO", origen, monto, saldoOrigen);
+        b.registrarMovimiento("DEPOSITO", destino, monto, saldoDestino);
+    }
+
+    /**
+     * Confirma todos los segmentos, aunque alguno falle.
+     *
+     * @throws UncheckedIOException con la primera falla, si hubo alguna.
+     */
+    @Override
+    public void confirmar() {
+        UncheckedIOException error = null;
+        for (DiarioBinario d : segmentos) {
+            try {
+                d.confirmar();
+            } catch (UncheckedIOException e) {
+                if (error == null) error = e;
+            }
+        }
+        if (error != null) throw error;
+    }
+
+    @Override
+    public void cerrar() {
+        for (DiarioBinario d : segmentos) d.cerrar();
+    }
+
+    @Override
+    public List<Deposito> cargarDepositosParaCuenta(String numeroCuenta) {
+        return segmento(numeroCuenta).cargarDepositosParaCuenta(numeroCuenta);
+    }
+
+    @Override
+    public List<Retiro> cargarRetirosParaCuenta(String numeroCuenta) {
+        return segmento(numeroCuenta).cargarRetirosParaCuenta(numeroCuenta);
+    }
+
+    @Override
+    public void reproducir(Consumer<MovimientoLog> visitante) {
+        for (DiarioBinario d : segmentos) d.reproducir(visitante);
+    }
+
+    @Override
+    public void recorrerCuenta(String numeroCuenta, Consumer<MovimientoLog> visitante) {
+        segmento(numeroCuenta).recorrerCuenta(numeroCuenta, visitante);
+    }
+
+    /**
+     * @return La posición de cada segmento, en orden.
+     */
+    @Override
+    public long[] posicion() {
+        long[] posiciones = new long[segmentos.length];
+        for (int i = 0; i < segmentos.length; i++) posiciones[i] = segmentos[i].posicion()[0];
+        return posiciones;
+    }
+
+    @Override
+    public void reproducirDesde(long[] posicion, Consumer<MovimientoLog> visitante) {
+        if (posicion.length != segmentos.length) {
+            System.err.println("La posición no corresponde a " + segmentos.length + " segmentos, se reproduce completo.");
+            reproducir(visitante);
+            return;
+        }
+        for (int i = 0; i < segmentos.length; i++) {
+            segmentos[i].reproducirDesde(new long[] { posicion[i] }, visitante);
+        }
+    }
+}
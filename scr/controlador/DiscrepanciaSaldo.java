@@ -0,0 +1,68 @@
+package scr.controlador;
+import scr.model.Dinero;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento cuyo saldo final registrado no coincide con el que resulta de aplicar el
+ * movimiento al saldo anterior de la cuenta ({@link ValidadorSaldos}).
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class DiscrepanciaSaldo {
+    private final String numeroCuenta;
+    private final LocalDateTime fecha;
+    private final String tipo;
+    private final long monto;
+    private final long saldoAnterior;
+    private final long saldoEsperado;
+    private final long saldoRegistrado;
+    private final long posicion;
+
+    /**
+     * @param numeroCuenta Número de cuenta.
+     * @param fecha Fecha del movimiento.
+     * @param tipo Tipo de movimiento.
+     * @param monto Monto del movimiento en centavos.
+     * @param saldoAnterior Saldo registrado por el movimiento anterior de la cuenta (0 si es el primero).
+     * @param saldoEsperado Saldo que resulta de aplicar el movimiento, en centavos.
+     * @param saldoRegistrado Saldo final registrado en el log, en centavos.
+     * @param posicion Posición del movimiento en su archivo (-1 si no se conoce).
+     */
+    public DiscrepanciaSaldo(String numeroCuenta, LocalDateTime fecha, String tipo, long monto,
+                             long saldoAnterior, long saldoEsperado, long saldoRegistrado, long posicion) {
+        this.numeroCuenta = numeroCuenta;
+        this.fecha = fecha;
+        this.tipo = tipo;
+        this.monto = monto;
+        this.saldoAnterior = saldoAnterior;
+        this.saldoEsperado = saldoEsperado;
+        this.saldoRegistrado = saldoRegistrado;
+        this.posicion = posicion;
+    }
+
+    public String getNumeroCuenta() { return numeroCuenta; }
+    public LocalDateTime getFecha() { return fecha; }
+    public String getTipo() { return tipo; }
+    public long getMonto() { return monto; }
+    public long getSaldoAnterior() { return saldoAnterior; }
+    public long getSaldoEsperado() { return saldoEsperado; }
+    public long getSaldoRegistrado() { return saldoRegistrado; }
+    public long getPosicion() { return posicion; }
+
+    /**
+     * @return Saldo registrado menos saldo esperado, en centavos.
+     */
+    public long getDiferencia() {
+        return saldoRegistrado - saldoEsperado;
+    }
+
+    @Override
+    public String toString() {
+        return "Cuenta " + numeroCuenta + " " + fecha + " " + tipo + " $" + Dinero.formatear(monto)
+                + ": saldo anterior=$" + Dinero.formatear(saldoAnterior)
+                + ", esperado=$" + Dinero.formatear(saldoEsperado)
+                + ", registrado=$" + Dinero.formatear(saldoRegistrado)
+                + (posicion >= 0 ? " (posición " + posicion + ")" : "");
+    }
+}
@@ -0,0 +1,159 @@
+package scr.controlador;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ejecuta tareas repartidas por número de cuenta entre N particiones, cada una con
+ * un único hilo dueño que las toma de una {@link ColaAnillo}. Todas las tareas de
+ * una cuenta corren en el mismo hilo y en el orden en que se enviaron, así que los
+ * hilos de distintas particiones nunca compiten por la misma cuenta.
+ *
+ * <p>Cada hilo aplica las tareas en lotes y toma {@code lockLote} una vez por lote
+ * (el controlador pasa el lock de lectura de su pausa), en lugar de una vez por
+ * operación. Si la cola de una partición se llena, quien envía espera a que avance.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+final class EjecutorParticionado {
+
+    /** Tareas que cada partición puede tener encoladas. */
+    static final int CAPACIDAD_POR_DEFECTO = 8192;
+
+    private static final int MAXIMO_LOTE = 256;
+    private static final int ESPERAS_ACTIVAS = 64;
+    // Resguardo por si se perdiera un aviso; con los avisos normales no se alcanza
+    private static final long ESPERA_MAXIMA_NANOS = 10_000_000;
+
+    private final Particion[] particiones;
+    private final Lock lockLote;
+    private volatile boolean cerrado;
+
+    /**
+     * Crea las particiones y arranca sus hilos (daemon).
+     *
+     * @param cantidad Cantidad de particiones.
+     * @param capacidad Tareas que cada partición puede tener encoladas.
+     * @param lockLote Lock que se toma mientras se aplica cada lote.
+     */
+    EjecutorParticionado(int cantidad, int capacidad, Lock lockLote) {
+        if (cantidad < 1) throw new IllegalArgumentException("Se necesita al menos una partición.");
+        this.lockLote = lockLote;
+        this.particiones = new Particion[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            particiones[i] = new Particion(capacidad);
+            Thread hilo = new Thread(particiones[i], "particion-" + i);
+            hilo.setDaemon(true);
+            particiones[i].hilo = hilo;
+        }
+        for (Particion p : particiones) p.hilo.start();
+    }
+
+    /**
+     * Partición a la que pertenece una cuenta. Es estable entre ejecuciones (depende
+     * sólo del número), por lo que también sirve para elegir segmentos de diario.
+     *
+     * @param numeroCuenta Número de cuenta.
+     * @param cantidad Cantidad de particiones.
+     * @return Índice de la partición, entre 0 y {@code cantidad - 1}.
+     */
+    static int particion(String numeroCuenta, int cantidad) {
+        return Math.floorMod(numeroCuenta.hashCode(), cantidad);
+    }
+
+    int getCantidad() {
+        return particiones.length;
+    }
+
+    /**
+     * Encola una tarea en la partición de la cuenta. Si la cola está llena espera.
+     *
+     * @param numeroCuenta Cuenta sobre la que opera la tarea.
+     * @param tarea Tarea; no debería lanzar excepciones (las que lance se informan y se descartan).
+     * @throws RejectedExecutionException si el ejecutor está cerrado.
+     */
+    void ejecutar(String numeroCuenta, Runnable tarea) {
+        if (cerrado) throw new RejectedExecutionException("El ejecutor particionado está cerrado.");
+        Particion p = particiones[particion(numeroCuenta, particiones.length)];
+        int intentos = 0;
+        while (!p.cola.ofrecer(tarea)) {
+            if (cerrado) throw new RejectedExecutionException("El ejecutor particionado está cerrado.");
+            if (p.dormido) LockSupport.unpark(p.hilo);
+            if (++intentos < ESPERAS_ACTIVAS) Thread.onSpinWait();
+            else Thread.yield();
+        }
+        if (p.dormido) LockSupport.unpark(p.hilo);
+    }
+
+    /**
+     * Deja de aceptar tareas, espera a que se apliquen las encoladas y detiene los hilos.
+     */
+    void cerrar() {
+        cerrado = true;
+        for (Particion p : particiones) LockSupport.unpark(p.hilo);
+        for (Particion p : particiones) {
+            try {
+                p.hilo.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // Tareas encoladas por quien pasó el control de 'cerrado' justo antes del cierre
+            p.aplicarPendientes();
+        }
+    }
+
+    private final class Particion implements Runnable {
+        final ColaAnillo<Runnable> cola;
+        final Runnable[] lote = new Runnable[MAXIMO_LOTE];
+        Thread hilo;
+        // true mientras el hilo está por dormirse o dormido; quien encola lo despierta
+        volatile boolean dormido;
+
+        Particion(int capacidad) {
+            this.cola = new ColaAnillo<>(capacidad);
+        }
+
+        @Override
+        public void run() {
+            int ociosas = 0;
+            while (true) {
+                if (aplicarPendientes() > 0) {
+                    ociosas = 0;
+                    continue;
+                }
+                if (cerrado) return;
+                if (++ociosas < ESPERAS_ACTIVAS) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                dormido = true;
+                // Se vuelve a mirar la cola después de publicar 'dormido' (el productor
+                // hace lo inverso), así un aviso no puede perderse entre los dos pasos
+                if (cola.estaVacia() && !cerrado) LockSupport.parkNanos(this, ESPERA_MAXIMA_NANOS);
+                dormido = false;
+            }
+        }
+
+        // Aplica un lote con el lock tomado; devuelve cuántas tareas aplicó
+        int aplicarPendientes() {
+            int n = cola.drenar(lote);
+            if (n == 0) return 0;
+            lockLote.lock();
+            try {
+                for (int i = 0; i < n; i++) {
+                    try {
+                        lote[i].run();
+                    } catch (RuntimeException e) {
+                        System.err.println("Error en una tarea de " + hilo.getName() + ": " + e);
+                    }
+                    lote[i] = null;
+                }
+            } finally {
+                lockLote.unlock();
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package scr.controlador;
+import scr.model.Dinero;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritor de larga duración para un archivo de log de movimientos.
+ * Mantiene el archivo abierto mediante un {@link FileChannel} y arma cada línea
+ * directamente en un buffer reutilizable, evitando abrir/cerrar el archivo y
+ * usar {@code String.format} en cada transacción.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class EscritorDiario implements AutoCloseable {
+
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+    // Largo máximo de la fecha (año de hasta 10 dígitos) y de un monto con signo y decimales
+    private static final int LARGO_FECHA = 25;
+    private static final int LARGO_MONTO = 23;
+    // Todo lo de una línea salvo la cuenta y el tipo
+    private static final int LARGO_FIJO = LARGO_FECHA + " | Cuenta: ".length() + " | Tipo: ".length()
+            + " | Monto: $".length() + " | Saldo Final: $".length() + 2 * LARGO_MONTO + 1;
+
+    private final String archivo;
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private final ModoDurabilidad modo;
+    private final int maxRegistros;
+    private final long intervaloMs;
+    private final ScheduledExecutorService temporizador;
+
+    private int pendientes;
+    private boolean cerrado;
+    // Posición en el archivo donde comenzará el contenido actual del buffer
+    private long posicionArchivo;
+
+    /**
+     * Abre (o crea) el archivo en modo append.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Ruta del archivo de log.
+     * @param modo Modo de durabilidad.
+     * @param maxRegistros En modo GRUPO, cantidad de registros que dispara la escritura.
+     * @param intervaloMs En modo GRUPO, tiempo máximo que un registro puede quedar en el buffer.
+     * @throws IOException si el archivo no puede abrirse.
+     */
+    public EscritorDiario(String archivo, ModoDurabilidad modo, int maxRegistros, long intervaloMs) throws IOException {
+        this.archivo = archivo;
+        this.modo = modo;
+        this.maxRegistros = Math.max(1, maxRegistros);
+        this.intervaloMs = intervaloMs;
+        this.canal = FileChannel.open(Paths.get(archivo),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+        this.pendientes = 0;
+        this.cerrado = false;
+        this.posicionArchivo = canal.size();
+        terminarUltimaLinea();
+
+        if (modo == ModoDurabilidad.GRUPO && intervaloMs > 0) {
+            this.temporizador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "diario-" + archivo);
+                t.setDaemon(true);
+                return t;
+            });
+            this.temporizador.scheduleWithFixedDelay(this::volcarPorTiempo, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.temporizador = null;
+        }
+    }
+
+    /**
+     * Agrega una línea con el formato
+     * {@code yyyy-MM-dd HH:mm:ss | Cuenta: <num> | Tipo: <tipo> | Monto: $<monto> | Saldo Final: $<saldo>}.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param fecha Fecha del movimiento.
+     * @param numeroCuenta Número de cuenta.
+     * @param tipoMovimiento Tipo de movimiento (ej. "DEPOSITO").
+     * @param monto Monto del movimiento en centavos.
+     * @param saldoFinal Saldo luego del movimiento en centavos.
+     * @return Posición (en bytes) del inicio de la línea dentro del archivo.
+     * @throws IllegalArgumentException si la línea no puede escribirse (ver {@link #agregar}).
+     * @throws IOException si falla la escritura.
+     */
+    public synchronized long escribir(LocalDateTime fecha, String numeroCuenta, String tipoMovimiento,
+                                      long monto, long saldoFinal) throws IOException {
+        long posicionLinea = agregar(fecha, numeroCuenta, tipoMovimiento, monto, saldoFinal);
+        terminarGrupo();
+        return posicionLinea;
+    }
+
+    /**
+     * Igual que {@link #escribir} pero sin aplicar el modo de durabilidad: la línea
+     * queda en el buffer hasta {@link #terminarGrupo()}. Permite escribir un lote de
+     * movimientos con una sola escritura (y un solo fsync en modo FSYNC).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param fecha Fecha del movimiento.
+     * @param numeroCuenta Número de cuenta.
+     * @param tipoMovimiento Tipo de movimiento (ej. "DEPOSITO").
+     * @param monto Monto del movimiento en centavos.
+     * @param saldoFinal Saldo luego del movimiento en centavos.
+     * @return Posición (en bytes) del inicio de la línea dentro del archivo.
+     * @throws IllegalArgumentException si la cuenta o el tipo tienen saltos de línea o
+     *                                  la línea no entra en el buffer (no se escribe nada).
+     * @throws IOException si falla la escritura.
+     */
+    public synchronized long agregar(LocalDateTime fecha, String numeroCuenta, String tipoMovimiento,
+                                     long monto, long saldoFinal) throws IOException {
+        if (cerrado) throw new IOException("El diario " + archivo + " está cerrado.");
+        // Se mide la línea antes de escribirla, así nunca queda un registro a medias en el buffer
+        int largo = LARGO_FIJO + largoTexto(numeroCuenta) + largoTexto(tipoMovimiento);
+        if (largo > buffer.capacity()) {
+            throw new IllegalArgumentException("Movimiento demasiado largo para el log " + archivo + " (" + largo + " bytes).");
+        }
+        if (buffer.remaining() < largo) volcar();
+        long posicionLinea = posicionArchivo + buffer.position();
+
+        ponerFecha(fecha);
+        ponerTexto(" | Cuenta: ");
+        ponerTexto(numeroCuenta);
+        ponerTexto(" | Tipo: ");
+        ponerTexto(tipoMovimiento);
+        ponerTexto(" | Monto: $");
+        ponerMonto(monto);
+        ponerTexto(" | Saldo Final: $");
+        ponerMonto(saldoFinal);
+        buffer.put((byte) '\n');
+        pendientes++;
+        return posicionLinea;
+    }
+
+    /**
+     * Aplica el modo de durabilidad a las líneas agregadas con {@link #agregar}.
+     *
+     * @author Juan
+     * @version 1.0
+     * @throws IOException si falla la escritura o el fsync.
+     */
+    public synchronized void terminarGrupo() throws IOException {
+        if (pendientes == 0) return;
+        switch (modo) {
+            case POR_OPERACION:
+                volcar();
+                break;
+            case FSYNC:
+                volcar();
+                canal.force(false);
+                break;
+            case GRUPO:
+                if (pendientes >= maxRegistros) volcar();
+                break;
+        }
+    }
+
+    /**
+     * Escribe al archivo todo lo que quede en el buffer (sin fsync).
+     *
+     * @author Juan
+     * @version 1.0
+     * @throws IOException si falla la escritura.
+     */
+    public synchronized void volcar() throws IOException {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            posicionArchivo += canal.write(buffer);
+        }
+        buffer.clear();
+        pendientes = 0;
+    }
+
+    /**
+     * Confirma los movimientos pendientes: los escribe y fuerza a disco.
+     *
+     * @author Juan
+     * @version 1.0
+     * @throws IOException si falla la escritura o el fsync.
+     */
+    public synchronized void confirmar() throws IOException {
+        volcar();
+        canal.force(false);
+    }
+
+    /**
+     * Confirma lo pendiente y cierra el archivo. Llamadas repetidas no tienen efecto.
+     *
+     * @author Juan
+     * @version 1.0
+     * @throws IOException si falla la escritura o el cierre.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (cerrado) return;
+        cerrado = true;
+        if (temporizador != null) temporizador.shutdownNow();
+        try {
+            confirmar();
+        } finally {
+            canal.close();
+        }
+    }
+
+    /**
+     * @return Tamaño del archivo en bytes, incluyendo lo que sigue en el buffer.
+     */
+    public synchronized long getTamanio() {
+        return posicionArchivo + buffer.position();
+    }
+
+    public String getArchivo() {
+        return archivo;
+    }
+
+    public ModoDurabilidad getModo() {
+        return modo;
+    }
+
+    private synchronized void volcarPorTiempo() {
+        if (cerrado) return;
+        try {
+            volcar();
+        } catch (IOException e) {
+            System.err.println("Error al escribir en el archivo de log " + archivo + ": " + e.getMessage());
+        }
+    }
+
+    // Si el archivo termina sin salto de línea (ej. editado a mano) se agrega uno,
+    // para que el primer movimiento nuevo no quede pegado a la línea anterior
+    private void terminarUltimaLinea() throws IOException {
+        if (posicionArchivo == 0) return;
+        ByteBuffer ultimo = ByteBuffer.allocate(1);
+        // El canal en modo append no permite lectura; se usa uno temporal
+        try (FileChannel lectura = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ)) {
+            lectura.read(ultimo, posicionArchivo - 1);
+        }
+        if (ultimo.get(0) != '\n') {
+            buffer.put((byte) '\n');
+            volcar();
+        }
+    }
+
+    private void ponerFecha(LocalDateTime f) {
+        ponerEntero(f.getYear(), 4);
+        buffer.put((byte) '-');
+        ponerEntero(f.getMonthValue(), 2);
+        buffer.put((byte) '-');
+        ponerEntero(f.getDayOfMonth(), 2);
+        buffer.put((byte) ' ');
+        ponerEntero(f.getHour(), 2);
+        buffer.put((byte) ':');
+        ponerEntero(f.getMinute(), 2);
+        buffer.put((byte) ':');
+        ponerEntero(f.getSecond(), 2);
+    }
+
+    // Escribe un entero no negativo con padding de ceros hasta 'digitos'
+    private void ponerEntero(long valor, int digitos) {
+        int inicio = buffer.position();
+        int n = 1;
+        for (long v = valor / 10; v > 0; v /= 10) n++;
+        if (n < digitos) n = digitos;
+        for (int i = n - 1; i >= 0; i--) {
+            buffer.put(inicio + i, (byte) ('0' + valor % 10));
+            valor /= 10;
+        }
+        buffer.position(inicio + n);
+    }
+
+    // Centavos con dos decimales, igual que Dinero.formatear pero sin crear objetos
+    private void ponerMonto(long centavos) {
+        if (centavos < 0) buffer.put((byte) '-');
+        ponerEntero(Math.abs(centavos / Dinero.CENTAVOS), 1);
+        buffer.put((byte) '.');
+        ponerEntero(Math.abs(centavos % Dinero.CENTAVOS), 2);
+    }
+
+    // Bytes que ocupa el texto en UTF-8 (lo que escribe ponerTexto)
+    private static int largoTexto(String s) {
+        boolean ascii = true;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch == '\n' || ch == '\r') throw new IllegalArgumentException("Salto de línea en un campo del movimiento: " + s);
+            if (ch >= 0x80) ascii = false;
+        }
+        return ascii ? s.length() : s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private void ponerTexto(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch >= 0x80) {
+                // Texto no ASCII: se codifica completo en UTF-8
+                buffer.put(s.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            buffer.put((byte) ch);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package scr.controlador;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Filtro de Bloom de números de cuenta: responde "seguro que no está" o "puede estar"
+ * usando unos pocos bits por cuenta. Con {@value #BITS_POR_ELEMENTO} bits por cuenta y
+ * {@value #FUNCIONES} funciones los falsos positivos rondan el 1%.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+final class FiltroBloom {
+
+    static final int BITS_POR_ELEMENTO = 10;
+    static final int FUNCIONES = 7;
+
+    // Marca, junto al número de funciones guardado, de los filtros que usan el hash mezclado
+    private static final int HASH_MEZCLADO = 1 << 16;
+
+    private final long[] bits;
+    private final int funciones;
+    // false en los filtros guardados antes de mezclar el hash, que se siguen consultando como se armaron
+    private final boolean mezclado;
+
+    /**
+     * @param elementos Cantidad de cuentas que se van a agregar.
+     */
+    FiltroBloom(int elementos) {
+        this(new long[Math.max(1, (int) Math.min(Integer.MAX_VALUE / 64, ((long) elementos * BITS_POR_ELEMENTO + 63) / 64))],
+                FUNCIONES, true);
+    }
+
+    private FiltroBloom(long[] bits, int funciones, boolean mezclado) {
+        this.bits = bits;
+        this.funciones = funciones;
+        this.mezclado = mezclado;
+    }
+
+    void agregar(String cuenta) {
+        long h = hash(cuenta);
+        int h1 = (int) h;
+        int h2 = segundoHash(h);
+        long total = (long) bits.length * 64;
+        for (int i = 0; i < funciones; i++) {
+            long bit = Math.floorMod(h1 + i * h2, total);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean puedeContener(String cuenta) {
+        long h = hash(cuenta);
+        int h1 = (int) h;
+        int h2 = segundoHash(h);
+        long total = (long) bits.length * 64;
+        for (int i = 0; i < funciones; i++) {
+            long bit = Math.floorMod(h1 + i * h2, total);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits: las dos mitades sirven como los dos hashes base. Sus bits bajos
+    // dependen sólo de los bits bajos de cada carácter, y en un filtro chico (una potencia
+    // de 2 de bits) son los únicos que cuentan: por eso se mezcla el resultado
+    private long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        if (!mezclado) return h;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Impar, así las posiciones no se repiten aunque la cantidad de bits sea par
+    private int segundoHash(long h) {
+        int h2 = (int) (h >>> 32);
+        return mezclado ? h2 | 1 : h2;
+    }
+
+    void escribir(DataOutput salida) throws IOException {
+        salida.writeInt(mezclado ? funciones | HASH_MEZCLADO : funciones);
+        salida.writeInt(bits.length);
+        for (long b : bits) salida.writeLong(b);
+    }
+
+    static FiltroBloom leer(DataInput entrada) throws IOException {
+        int guardado = entrada.readInt();
+        int largo = entrada.readInt();
+        boolean mezclado = (guardado & HASH_MEZCLADO) != 0;
+        int funciones = guardado & ~HASH_MEZCLADO;
+        if (funciones < 1 || funciones > 32 || largo < 1 || largo > Integer.MAX_VALUE / 64) {
+            throw new IOException("Filtro de cuentas inválido.");
+        }
+        long[] bits = new long[largo];
+        for (int i = 0; i < largo; i++) bits[i] = entrada.readLong();
+        return new FiltroBloom(bits, funciones, mezclado);
+    }
+}
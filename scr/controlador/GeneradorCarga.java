@@ -0,0 +1,127 @@
+package scr.controlador;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cliente de carga para {@link ServidorBanco}: abre varias conexiones simultáneas,
+ * cada una envía pedidos de a uno (espera la respuesta antes del siguiente) y al
+ * final informa el rendimiento y la latencia de ida y vuelta (p50, p99, etc.).
+ *
+ * <p>Antes de medir abre las cuentas de prueba con {@code ABRIR}. La mezcla de
+ * pedidos es 40% depósitos, 40% retiros, 10% transferencias y 10% consultas de saldo.</p>
+ *
+ * <p>Uso: {@code java scr.controlador.GeneradorCarga [host] [puerto] [conexiones]
+ * [pedidosPorConexion] [cuentas]} (por defecto localhost, 7070, 100, 1000 y 100).</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class GeneradorCarga {
+
+    private GeneradorCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int puerto = args.length > 1 ? Integer.parseInt(args[1]) : ServidorBanco.PUERTO_POR_DEFECTO;
+        int conexiones = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int pedidos = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        int cantidadCuentas = args.length > 4 ? Integer.parseInt(args[4]) : 100;
+
+        String[] cuentas = new String[cantidadCuentas];
+        try (Conexion c = new Conexion(host, puerto)) {
+            for (int i = 0; i < cuentas.length; i++) {
+                String r = c.pedir("ABRIR AHORROS 1000000 Carga " + i);
+                if (!r.startsWith("OK ")) throw new IOException("No se pudo abrir una cuenta de prueba: " + r);
+                cuentas[i] = r.substring(3);
+            }
+        }
+
+        HistogramaLatencia latencias = new HistogramaLatencia();
+        LongAdder errores = new LongAdder();
+        CountDownLatch conectadas = new CountDownLatch(conexiones);
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService hilos = ServidorBanco.crearEjecutor("carga");
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < conexiones; i++) {
+            long semilla = i;
+            tareas.add(hilos.submit(() -> {
+                try (Conexion c = new Conexion(host, puerto)) {
+                    conectadas.countDown();
+                    largada.await();
+                    SplittableRandom azar = new SplittableRandom(semilla);
+                    for (int j = 0; j < pedidos; j++) {
+                        String pedido = pedido(azar, cuentas);
+                        long inicio = System.nanoTime();
+                        String respuesta = c.pedir(pedido);
+                        latencias.registrarDesde(inicio);
+                        if (!respuesta.startsWith("OK")) errores.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        conectadas.await();
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> f : tareas) f.get();
+        long duracion = System.nanoTime() - inicio;
+        hilos.shutdown();
+
+        long total = (long) conexiones * pedidos;
+        System.out.println("Conexiones: " + conexiones + ", pedidos: " + total + ", rechazados: " + errores.sum());
+        System.out.printf("Duración: %.2f s, %.0f pedidos/s%n", duracion / 1e9, total * 1e9 / duracion);
+        System.out.println("Latencia: " + latencias.resumen());
+    }
+
+    private static String pedido(SplittableRandom azar, String[] cuentas) {
+        int p = azar.nextInt(10);
+        String cuenta = cuentas[azar.nextInt(cuentas.length)];
+        long monto = 1 + azar.nextInt(500);
+        if (p < 4) return "DEPOSITAR " + cuenta + " " + monto;
+        if (p < 8) return "RETIRAR " + cuenta + " " + monto;
+        if (p < 9) return "TRANSFERIR " + cuenta + " " + cuentas[azar.nextInt(cuentas.length)] + " " + monto;
+        return "SALDO " + cuenta;
+    }
+
+    // Conexión de prueba: un pedido y su respuesta por vez
+    private static final class Conexion implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader entrada;
+        private final Writer salida;
+
+        Conexion(String host, int puerto) throws IOException {
+            socket = new Socket(host, puerto);
+            socket.setTcpNoDelay(true);
+            entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            salida = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        String pedir(String pedido) throws IOException {
+            salida.write(pedido);
+            salida.write('\n');
+            salida.flush();
+            String respuesta = entrada.readLine();
+            if (respuesta == null) throw new IOException("El servidor cerró la conexión.");
+            return respuesta;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
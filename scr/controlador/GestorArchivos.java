@@ -1,78 +1,381 @@
 package scr.controlador;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Clase responsable de manejar la persistencia de transacciones
- * en archivos de texto (logs).
+ * en archivos de texto (logs). Es el backend de {@link Persistencia} por defecto.
+ *
+ * <p>Cada log se escribe en {@code depositos.txt}/{@code retiros.txt} y se cierra como
+ * un segmento ({@code depositos.000001.txt}, ...) al cambiar el día o al superar
+ * {@link #MAXIMO_SEGMENTO_POR_DEFECTO} bytes. Cada segmento guarda su rango de fechas y
+ * un filtro de sus cuentas, así que las lecturas por periodo o por cuenta sólo abren los
+ * segmentos que pueden tener movimientos. Los segmentos viejos se comprimen con
+ * {@link #compactarSegmentos(LocalDate)} (o solos, ver el constructor).</p>
  *
  * @author Juan
  * @version 1.0
  */
-public class GestorArchivos {
+public class GestorArchivos implements Persistencia {
+
+    /** Tamaño del archivo activo a partir del cual se cierra un segmento aunque no cambie el día. */
+    public static final long MAXIMO_SEGMENTO_POR_DEFECTO = 64L * 1024 * 1024;
+
+    private final LogSegmentado depositos;
+    private final LogSegmentado retiros;
+    // Hilo que comprime los segmentos viejos tras cada rotación; null si no se comprimen solos
+    private final ExecutorService compactador;
+
+    /**
+     * Crea un gestor que escribe cada movimiento al archivo inmediatamente.
+     */
+    public GestorArchivos() {
+        this(ModoDurabilidad.POR_OPERACION, 1, 0);
+    }
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /**
+     * Crea un gestor con el modo de durabilidad indicado.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param modo Modo de durabilidad de los escritores.
+     * @param maxRegistrosGrupo En modo GRUPO, registros acumulados antes de escribir.
+     * @param intervaloGrupoMs En modo GRUPO, milisegundos máximos antes de escribir.
+     */
+    public GestorArchivos(ModoDurabilidad modo, int maxRegistrosGrupo, long intervaloGrupoMs) {
+        this(modo, maxRegistrosGrupo, intervaloGrupoMs, MAXIMO_SEGMENTO_POR_DEFECTO, 0);
+    }
+
+    /**
+     * Crea un gestor indicando cuándo se cierran y se comprimen los segmentos.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param modo Modo de durabilidad de los escritores.
+     * @param maxRegistrosGrupo En modo GRUPO, registros acumulados antes de escribir.
+     * @param intervaloGrupoMs En modo GRUPO, milisegundos máximos antes de escribir.
+     * @param maximoBytesSegmento Tamaño del archivo activo a partir del cual se cierra un segmento.
+     * @param diasSinComprimir Si es mayor a 0, tras cada rotación se comprimen en segundo
+     *                         plano los segmentos anteriores a esa cantidad de días.
+     */
+    public GestorArchivos(ModoDurabilidad modo, int maxRegistrosGrupo, long intervaloGrupoMs,
+                          long maximoBytesSegmento, int diasSinComprimir) {
+        if (maximoBytesSegmento <= 0) throw new IllegalArgumentException("El tamaño máximo de segmento debe ser positivo.");
+        if (diasSinComprimir > 0) {
+            this.compactador = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "compactador-logs");
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            this.compactador = null;
+        }
+        this.depositos = new LogSegmentado("depositos.txt", modo, maxRegistrosGrupo, intervaloGrupoMs,
+                maximoBytesSegmento, diasSinComprimir, compactador);
+        this.retiros = new LogSegmentado("retiros.txt", modo, maxRegistrosGrupo, intervaloGrupoMs,
+                maximoBytesSegmento, diasSinComprimir, compactador);
+    }
 
     /**
      * Registra un movimiento (depósito o retiro) en el archivo de log correspondiente.
      *
      * @author Juan
      * @version 1.0
-     * @param tipoMovimiento "DEPOSITO" o "RETIRO".
+     * @param tipoMovimiento "DEPOSITO" o "RETIRO"; también "INTERES" (se guarda con los
+     *                       depósitos) y "MANTENIMIENTO" (se guarda con los retiros).
+     *                       Las transferencias se registran con {@link #registrarTransferencia}.
      * @param numeroCuenta El número de la cuenta.
-     * @param monto Cantidad del movimiento.
-     * @param saldoFinal Saldo de la cuenta después del movimiento.
-     */
-    public void registrarMovimiento(String tipoMovimiento, String numeroCuenta, double monto, double saldoFinal) {
-        String archivo;
-        
-        // Define el nombre del archivo basado en el tipo de movimiento
-        if (tipoMovimiento.equals("DEPOSITO")) {
-            archivo = "depositos.txt";
-        } else if (tipoMovimiento.equals("RETIRO")) {
-            archivo = "retiros.txt";
-        } else {
+     * @param monto Cantidad del movimiento en centavos.
+     * @param saldoFinal Saldo de la cuenta después del movimiento, en centavos.
+     * @throws UncheckedIOException si falla la escritura.
+     */
+    @Override
+    public void registrarMovimiento(String tipoMovimiento, String numeroCuenta, long monto, long saldoFinal) {
+        // Define el log basado en el tipo de movimiento
+        LogSegmentado log = logPara(tipoMovimiento);
+        if (log == null) {
             System.err.println("Tipo de movimiento inválido para el registro.");
             return;
         }
 
-        String timestamp = LocalDateTime.now().format(FORMATTER);
-        String linea = String.format("%s | Cuenta: %s | Tipo: %s | Monto: $%.2f | Saldo Final: $%.2f",
-                                    timestamp, numeroCuenta, tipoMovimiento, monto, saldoFinal);
+        long inicio = System.nanoTime();
+        try {
+            // El log escribe la línea y la agrega al índice juntas, en el mismo orden que el archivo
+            log.escribir(LocalDateTime.now(), numeroCuenta, tipoMovimiento, monto, saldoFinal);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            throw errorEscritura(log, e);
+        }
+        Metricas.global().escritura.registrarDesde(inicio);
+    }
 
-        try (PrintWriter pw = new PrintWriter(new FileWriter(archivo, true))) {
-            pw.println(linea);
+    /**
+     * Registra un lote de movimientos: las líneas de cada archivo se agregan juntas y
+     * se escriben con una sola operación (y un solo fsync en modo FSYNC).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param lote Movimientos a registrar, en orden.
+     * @throws UncheckedIOException si falla la escritura de alguno de los archivos.
+     */
+    @Override
+    public void registrarLote(LoteMovimientos lote) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < lote.tamanio(); i++) {
+            if (logPara(lote.getTipo(i)) == null) System.err.println("Tipo de movimiento inválido para el registro.");
+        }
+        escribirLote(lote, depositos);
+        escribirLote(lote, retiros);
+        Metricas.global().escrituraLote.registrarDesde(inicio);
+    }
+
+    private void escribirLote(LoteMovimientos lote, LogSegmentado log) {
+        int primero = 0;
+        while (primero < lote.tamanio() && logPara(lote.getTipo(primero)) != log) primero++;
+        if (primero == lote.tamanio()) return;
+        LocalDateTime ahora = LocalDateTime.now();
+        try {
+            // El grupo entero con el monitor del log, para que no se mezcle con otras escrituras
+            synchronized (log) {
+                for (int i = primero; i < lote.tamanio(); i++) {
+                    if (logPara(lote.getTipo(i)) != log) continue;
+                    try {
+                        log.agregar(ahora, lote.getNumeroCuenta(i), lote.getTipo(i), lote.getMonto(i), lote.getSaldoFinal(i));
+                    } catch (IllegalArgumentException e) {
+                        // Como en DiarioBinario: el movimiento que no puede escribirse se omite
+                        System.err.println(e.getMessage());
+                    }
+                }
+                log.terminarGrupo();
+            }
         } catch (IOException e) {
-            System.err.println("Error al escribir en el archivo de log " + archivo + ": " + e.getMessage());
+            throw errorEscritura(log, e);
         }
     }
 
+    // Cuenta la falla en las métricas y la devuelve para informarla a quien registra
+    private static UncheckedIOException errorEscritura(LogSegmentado log, IOException e) {
+        Metricas.global().errorES("Error al escribir en el archivo de log " + log.getArchivo() + ": " + e.getMessage());
+        return new UncheckedIOException("Error al escribir en el archivo de log " + log.getArchivo(), e);
+    }
+
+    // Log de cada tipo de movimiento; null si el tipo no es válido
+    private LogSegmentado logPara(String tipoMovimiento) {
+        if (tipoMovimiento.equals("DEPOSITO") || tipoMovimiento.equals("INTERES")
+                || tipoMovimiento.equals("TRANSFERENCIA_RECIBIDA")) return depositos;
+        if (tipoMovimiento.equals("RETIRO") || tipoMovimiento.equals("MANTENIMIENTO")
+                || tipoMovimiento.equals("TRANSFERENCIA_ENVIADA")) return retiros;
+        return null;
+    }
+
     /**
-     * Lee las líneas de un archivo de texto.
+     * Escribe y fuerza a disco los movimientos pendientes de ambos archivos.
      *
      * @author Juan
      * @version 1.0
-     * @param archivo Ruta o nombre del archivo a leer.
-     * @return Lista de cadenas con las líneas leídas (vacía si hay error o no existe).
-     */
-    private List<String> leerLineasArchivo(String archivo) {
-        List<String> lines = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                lines.add(line);
+     * @throws UncheckedIOException si falla la escritura o el fsync de alguno (se intentan ambos).
+     */
+    @Override
+    public void confirmar() {
+        try {
+            depositos.confirmar();
+        } finally {
+            retiros.confirmar();
+        }
+    }
+
+    /**
+     * Cierra los archivos de log abiertos, confirmando lo pendiente, y espera a que
+     * termine la compresión en curso. Debe llamarse al terminar la aplicación.
+     *
+     * @author Juan
+     * @version 1.0
+     */
+    @Override
+    public void cerrar() {
+        if (compactador != null) {
+            compactador.shutdown();
+            try {
+                compactador.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        } catch (Exception e) {
-            // Si el archivo no existe o hay otro error devolvemos lista vacía
         }
-        return lines;
+        depositos.cerrar();
+        retiros.cerrar();
+    }
+
+    /**
+     * Cierra los archivos activos como segmentos (los que tengan movimientos), sin
+     * esperar al cambio de día ni al tamaño máximo.
+     *
+     * @author Juan
+     * @version 1.0
+     * @throws IOException si falla el cierre de algún segmento.
+     */
+    public void rotarSegmentos() throws IOException {
+        depositos.rotar();
+        retiros.rotar();
+    }
+
+    /**
+     * Comprime los segmentos cuyo último movimiento es anterior al día indicado. Las
+     * escrituras no se detienen; cada segmento se reemplaza por su versión comprimida
+     * cuando terminan las lecturas que lo estaban usando.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param antesDe Primer día que queda sin comprimir.
+     * @return Cantidad de segmentos comprimidos.
+     */
+    public int compactarSegmentos(LocalDate antesDe) {
+        return depositos.compactar(antesDe) + retiros.compactar(antesDe);
+    }
+
+    /**
+     * Recorre los movimientos de ambos archivos intercalados por fecha (a igual fecha,
+     * primero los depósitos). Las líneas inválidas se saltan y se informan por System.err.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param visitante Recibe cada movimiento.
+     */
+    @Override
+    public void reproducir(Consumer<MovimientoLog> visitante) {
+        reproducirDesde(new long[] { 0, 0, 0, 0 }, visitante);
+    }
+
+    /**
+     * Igual que {@link #reproducir(Consumer)} pero desde la posición devuelta por
+     * {@link #posicion()}. Una posición de dos valores (anterior a los segmentos) sólo
+     * se respeta si todavía no se cerró ningún segmento; si no, se reproduce todo.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param posicion {@code {segmento, bytes}} de depósitos y luego de retiros.
+     * @param visitante Recibe cada movimiento.
+     */
+    @Override
+    public void reproducirDesde(long[] posicion, Consumer<MovimientoLog> visitante) {
+        long[] p = posicion;
+        if (p.length == 2 && depositos.sinSegmentos() && retiros.sinSegmentos()) {
+            p = new long[] { depositos.getSecuenciaActiva(), p[0], retiros.getSecuenciaActiva(), p[1] };
+        } else if (p.length != 4) {
+            System.err.println("La posición no corresponde a los segmentos de los logs, se reproduce completo.");
+            p = new long[] { 0, 0, 0, 0 };
+        }
+        recorrer(p, Long.MIN_VALUE, Long.MAX_VALUE, visitante);
+    }
+
+    /**
+     * Recorre los movimientos de un periodo, intercalados por fecha como en
+     * {@link #reproducir(Consumer)}. Sólo se leen los segmentos cuyo rango de fechas
+     * se superpone con el periodo.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param desde Inicio del periodo.
+     * @param hasta Fin del periodo (inclusive).
+     * @param visitante Recibe cada movimiento del periodo.
+     */
+    public void recorrerPeriodo(LocalDateTime desde, LocalDateTime hasta, Consumer<MovimientoLog> visitante) {
+        long inicio = desde.toEpochSecond(ZoneOffset.UTC);
+        long fin = hasta.toEpochSecond(ZoneOffset.UTC);
+        recorrer(new long[] { 0, 0, 0, 0 }, inicio, fin, m -> {
+            long s = m.getFecha().toEpochSecond(ZoneOffset.UTC);
+            if (s >= inicio && s <= fin) visitante.accept(m);
+        });
+    }
+
+    /**
+     * Abre la secuencia cronológica de los movimientos de ambos logs, de una cuenta o de
+     * todas, leyéndolos a medida que se recorre (la memoria no depende de la cantidad de
+     * movimientos). Debe cerrarse, en el mismo hilo que la abrió.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numeroCuenta Número de cuenta, o null para todas.
+     * @return Los movimientos en orden cronológico.
+     * @throws IOException si no pueden abrirse los logs.
+     */
+    public MezclaMovimientos abrirMovimientos(String numeroCuenta) throws IOException {
+        LectorSegmentos deps = depositos.abrir(0, 0, numeroCuenta, Long.MIN_VALUE, Long.MAX_VALUE);
+        LectorSegmentos rets = null;
+        try {
+            rets = retiros.abrir(0, 0, numeroCuenta, Long.MIN_VALUE, Long.MAX_VALUE);
+            return new MezclaMovimientos(Arrays.asList(deps, rets));
+        } catch (IOException | RuntimeException e) {
+            if (rets != null) rets.close();
+            deps.close();
+            throw e;
+        }
+    }
+
+    // Una falla de lectura se informa a quien recorre: un recorrido cortado no debe
+    // pasar por completo (ej. una validación de saldos sin discrepancias)
+    private void recorrer(long[] p, long desde, long hasta, Consumer<MovimientoLog> visitante) {
+        try (LectorSegmentos deps = depositos.abrir(p[0], p[1], null, desde, hasta);
+             LectorSegmentos rets = retiros.abrir(p[2], p[3], null, desde, hasta)) {
+            LectorMovimientos.intercalar(deps, rets, visitante);
+            long invalidas = deps.getLineasInvalidas() + rets.getLineasInvalidas();
+            if (invalidas > 0) System.err.println("Se ignoraron " + invalidas + " líneas inválidas al leer los logs.");
+        } catch (IOException e) {
+            throw errorLectura(e);
+        } catch (UncheckedIOException e) {
+            throw errorLectura(e.getCause());
+        }
+    }
+
+    // Cuenta la falla en las métricas y la devuelve para informarla a quien lee
+    private static UncheckedIOException errorLectura(IOException e) {
+        Metricas.global().errorES("Error al leer los archivos de log: " + e.getMessage());
+        return new UncheckedIOException("Error al leer los archivos de log", e);
+    }
+
+    /**
+     * @return {@code {segmento, bytes}} del archivo activo de depósitos y luego de
+     *         retiros, incluyendo lo que estaba pendiente.
+     */
+    @Override
+    public long[] posicion() {
+        long[] d = depositos.posicion();
+        long[] r = retiros.posicion();
+        return new long[] { d[0], d[1], r[0], r[1] };
+    }
+
+    /**
+     * Recorre los movimientos de la cuenta de ambos logs (salteando los segmentos que no
+     * la contienen) a medida que los lee con {@link #abrirMovimientos(String)}, así la
+     * memoria no depende del largo del historial. En un mismo segundo el orden se deduce
+     * de los saldos y, si no alcanza, van primero los depósitos. El visitante corre con
+     * los logs abiertos para lectura: no debe comprimirlos.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numeroCuenta Número de cuenta.
+     * @param visitante Recibe cada movimiento de la cuenta.
+     * @throws UncheckedIOException si los logs no pudieron leerse completos.
+     */
+    @Override
+    public void recorrerCuenta(String numeroCuenta, Consumer<MovimientoLog> visitante) {
+        try (MezclaMovimientos movimientos = abrirMovimientos(numeroCuenta)) {
+            movimientos.forEachRemaining(visitante);
+        } catch (IOException e) {
+            throw errorLectura(e);
+        } catch (UncheckedIOException e) {
+            throw errorLectura(e.getCause());
+        }
     }
 
     /**
@@ -84,27 +387,14 @@ public class GestorArchivos {
      * @param numeroCuenta Número de cuenta a filtrar.
      * @return Lista de depósitos pertenecientes a la cuenta.
      */
+    @Override
     public List<scr.model.Deposito> cargarDepositosParaCuenta(String numeroCuenta) {
+        long inicio = System.nanoTime();
         List<scr.model.Deposito> resultado = new ArrayList<>();
-        List<String> lines = leerLineasArchivo("depositos.txt");
-        for (String l : lines) {
-            // Formato esperado: yyyy-MM-dd HH:mm:ss | Cuenta: <num> | Tipo: DEPOSITO | Monto: $<monto> | Saldo Final: $<saldo>
-            try {
-                String[] parts = l.split("\\s\\|\\s");
-                String fechaStr = parts[0].trim();
-                String cuentaPart = parts[1].trim();
-                String montoPart = parts[3].trim();
-
-                String cuenta = cuentaPart.replace("Cuenta:", "").trim();
-                if (!cuenta.equals(numeroCuenta)) continue;
-
-                String montoStr = montoPart.replace("Monto: $", "").trim();
-                double monto = Double.parseDouble(montoStr);
-                LocalDateTime fecha = LocalDateTime.parse(fechaStr, FORMATTER);
-                resultado.add(new scr.model.Deposito(monto, fecha));
-            } catch (Exception e) {
-            }
+        for (MovimientoLog m : depositos.leerCuenta(numeroCuenta)) {
+            resultado.add(new scr.model.Deposito(m.getMonto(), m.getFecha(), resultado.size()));
         }
+        Metricas.global().consulta.registrarDesde(inicio);
         return resultado;
     }
 
@@ -117,26 +407,14 @@ public class GestorArchivos {
      * @param numeroCuenta Número de cuenta a filtrar.
      * @return Lista de retiros pertenecientes a la cuenta.
      */
+    @Override
     public List<scr.model.Retiro> cargarRetirosParaCuenta(String numeroCuenta) {
+        long inicio = System.nanoTime();
         List<scr.model.Retiro> resultado = new ArrayList<>();
-        List<String> lines = leerLineasArchivo("retiros.txt");
-        for (String l : lines) {
-            try {
-                String[] parts = l.split("\\s\\|\\s");
-                String fechaStr = parts[0].trim();
-                String cuentaPart = parts[1].trim();
-                String montoPart = parts[3].trim();
-
-                String cuenta = cuentaPart.replace("Cuenta:", "").trim();
-                if (!cuenta.equals(numeroCuenta)) continue;
-
-                String montoStr = montoPart.replace("Monto: $", "").trim();
-                double monto = Double.parseDouble(montoStr);
-                LocalDateTime fecha = LocalDateTime.parse(fechaStr, FORMATTER);
-                resultado.add(new scr.model.Retiro(monto, fecha));
-            } catch (Exception e) {
-            }
+        for (MovimientoLog m : retiros.leerCuenta(numeroCuenta)) {
+            resultado.add(new scr.model.Retiro(m.getMonto(), m.getFecha(), resultado.size()));
         }
+        Metricas.global().consulta.registrarDesde(inicio);
         return resultado;
     }
-}
\ No newline at end of file
+}
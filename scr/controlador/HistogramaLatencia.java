@@ -0,0 +1,111 @@
+package scr.controlador;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas log-lineales (al estilo HDR):
+ * cada potencia de dos se divide en {@value #SUBCUBETAS} cubetas iguales, así que
+ * el error relativo de los percentiles es menor a 1/{@value #SUBCUBETAS} (~3%) en
+ * todo el rango, desde nanosegundos hasta horas, con memoria fija (~15 KB).
+ *
+ * <p>Registrar un valor no toma locks ni crea objetos: incrementa una cubeta con
+ * una operación atómica. Las lecturas ({@link #resumen()}) no detienen a quienes
+ * registran, por lo que un resumen tomado con registros en curso puede mezclar
+ * valores de instantes cercanos.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class HistogramaLatencia {
+
+    private static final int BITS_SUBCUBETA = 5;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int CUBETAS = (64 - BITS_SUBCUBETA) * SUBCUBETAS;
+
+    private final AtomicLongArray cuentas = new AtomicLongArray(CUBETAS);
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra una medición.
+     *
+     * @param nanos Duración en nanosegundos (los valores negativos se toman como cero).
+     */
+    public void registrar(long nanos) {
+        long v = Math.max(0, nanos);
+        cuentas.incrementAndGet(indice(v));
+        suma.add(v);
+        // Sólo se intenta el CAS cuando el valor supera el máximo visto
+        long m = maximo.get();
+        while (v > m && !maximo.compareAndSet(m, v)) m = maximo.get();
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde {@code inicioNanos} ({@link System#nanoTime()}).
+     *
+     * @param inicioNanos Momento de inicio de la operación.
+     */
+    public void registrarDesde(long inicioNanos) {
+        registrar(System.nanoTime() - inicioNanos);
+    }
+
+    /**
+     * Calcula cantidad, media, percentiles y máximo de lo registrado hasta ahora.
+     *
+     * @author Juan
+     * @version 1.0
+     * @return Resumen de las mediciones.
+     */
+    public ResumenLatencia resumen() {
+        long[] copia = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = cuentas.get(i);
+            total += copia[i];
+        }
+        long max = maximo.get();
+        double media = total == 0 ? 0 : (double) suma.sum() / total;
+        return new ResumenLatencia(total, media, percentil(copia, total, 50, max), percentil(copia, total, 90, max),
+                percentil(copia, total, 99, max), percentil(copia, total, 99.9, max), max);
+    }
+
+    /**
+     * Descarta las mediciones registradas.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) cuentas.set(i, 0);
+        suma.reset();
+        maximo.set(0);
+    }
+
+    // Valor más alto de la cubeta que contiene el percentil (acotado por el máximo real).
+    // La última cubeta llega hasta Long.MAX_VALUE inclusive: su valor más alto es el máximo
+    static long percentil(long[] copia, long total, double p, long max) {
+        if (total == 0) return 0;
+        long objetivo = Math.max(1, (long) Math.ceil(p / 100 * total));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) return i == CUBETAS - 1 ? max : Math.min(max, limiteInferior(i + 1) - 1);
+        }
+        return max;
+    }
+
+    // Los valores menores a SUBCUBETAS tienen cubeta propia; el resto se agrupa por
+    // potencia de dos y por los BITS_SUBCUBETA bits siguientes al más significativo
+    static int indice(long v) {
+        if (v < SUBCUBETAS) return (int) v;
+        int exponente = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + sub;
+    }
+
+    static long limiteInferior(int i) {
+        if (i < SUBCUBETAS) return i;
+        if (i >= CUBETAS) return Long.MAX_VALUE;
+        int grupo = i / SUBCUBETAS;
+        int sub = i % SUBCUBETAS;
+        return (long) (SUBCUBETAS + sub) << (grupo - 1);
+    }
+}
@@ -0,0 +1,439 @@
+package scr.controlador;
+import scr.model.CuentaBancaria;
+import scr.model.Dinero;
+import scr.model.HistorialMovimientos;
+import scr.model.ResultadoRetiro;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Importación por lotes de depósitos y retiros desde un archivo. Cada línea puede
+ * estar en formato CSV ({@code cuenta,tipo,monto}, ej. {@code 123456,DEPOSITO,150.25})
+ * o en el formato de los logs de movimientos; en este último se toman la cuenta, el
+ * tipo y el monto, y se ignoran la fecha y el saldo final. Si la primera línea del
+ * archivo no tiene un monto válido se toma como encabezado.
+ *
+ * <p>El archivo se procesa en rondas: primero se leen en paralelo varios bloques
+ * mapeados en memoria, repartiendo los movimientos entre particiones según el
+ * número de cuenta; luego cada partición se aplica en su propio hilo, recorriendo
+ * los bloques en orden. Así cada cuenta pertenece a una sola partición y sus
+ * movimientos se aplican en el orden del archivo, mientras que cuentas distintas se
+ * procesan en paralelo. Los movimientos aceptados se registran en lotes de
+ * {@value #TAMANIO_LOTE} con {@link Persistencia#registrarLote}.</p>
+ *
+ * <p>El importador no bloquea la cuenta entre la operación y su registro, así que
+ * debe ejecutarse sin otras operaciones en curso (ver
+ * {@link BancoController#importarMovimientos}).</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class ImportadorMovimientos {
+
+    /** Motivo de rechazo de las líneas que no pueden interpretarse. */
+    public static final String LINEA_INVALIDA = "Línea inválida";
+    /** Motivo de rechazo de los movimientos de cuentas que no existen. */
+    public static final String CUENTA_INEXISTENTE = "Cuenta no encontrada";
+    /** Motivo de rechazo de los montos cero o negativos. */
+    public static final String MONTO_INVALIDO = "Monto inválido";
+    /** Motivo de rechazo de los tipos distintos de DEPOSITO y RETIRO (ej. INTERES). */
+    public static final String TIPO_NO_SOPORTADO = "Tipo no soportado";
+
+    private static final long TAMANIO_BLOQUE = 4L * 1024 * 1024;
+    // Una línea puede continuar hasta este largo después del fin de su bloque
+    private static final int MAXIMO_LINEA = 4096;
+    private static final int BLOQUES_POR_HILO = 2;
+    private static final int TAMANIO_LOTE = 4096;
+    private static final int MAX_EJEMPLOS = 20;
+    private static final byte[] DEPOSITO = "DEPOSITO".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RETIRO = "RETIRO".getBytes(StandardCharsets.US_ASCII);
+
+    private final RegistroCuentas registro;
+    private final Persistencia gestor;
+    private final int hilos;
+    private final Metricas metricas = Metricas.global();
+
+    /**
+     * @param registro Cuentas sobre las que se aplican los movimientos.
+     * @param gestor Backend donde se registran los movimientos aceptados.
+     * @param hilos Cantidad de hilos (y de particiones de cuentas) a usar.
+     */
+    public ImportadorMovimientos(RegistroCuentas registro, Persistencia gestor, int hilos) {
+        this.registro = registro;
+        this.gestor = gestor;
+        this.hilos = Math.max(1, hilos);
+    }
+
+    /**
+     * Importa el archivo: aplica cada movimiento válido a su cuenta, lo registra y
+     * confirma el backend al terminar. Los movimientos rechazados no modifican nada.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Ruta del archivo a importar.
+     * @return Resumen con los aceptados y los rechazos por motivo.
+     * @throws IOException si el archivo no puede leerse.
+     */
+    public ResumenImportacion importar(String archivo) throws IOException {
+        long inicio = System.nanoTime();
+        Conteo total = new Conteo();
+        LoteMovimientos[] lotes = new LoteMovimientos[hilos];
+        for (int s = 0; s < hilos; s++) lotes[s] = new LoteMovimientos(TAMANIO_LOTE);
+
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        try (FileChannel canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            long bloques = (tamanio + TAMANIO_BLOQUE - 1) / TAMANIO_BLOQUE;
+            int porRonda = hilos * BLOQUES_POR_HILO;
+            long siguienteLinea = 1;
+            for (long primero = 0; primero < bloques; primero += porRonda) {
+                List<Callable<Bloque>> lecturas = new ArrayList<>();
+                for (long b = primero; b < Math.min(bloques, primero + porRonda); b++) {
+                    long indice = b;
+                    lecturas.add(() -> leerBloque(canal, tamanio, indice));
+                }
+                List<Bloque> leidos = invocar(pool, lecturas);
+                for (Bloque b : leidos) {
+                    b.primeraLinea = siguienteLinea;
+                    siguienteLinea += b.lineas;
+                    total.sumar(b.conteo, b.primeraLinea - 1);
+                }
+
+                List<Callable<Conteo>> aplicaciones = new ArrayList<>();
+                for (int s = 0; s < hilos; s++) {
+                    int particion = s;
+                    aplicaciones.add(() -> aplicar(leidos, particion, lotes[particion]));
+                }
+                for (Conteo c : invocar(pool, aplicaciones)) total.sumar(c, 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        gestor.confirmar();
+
+        long duracion = (System.nanoTime() - inicio) / 1_000_000;
+        long rechazados = total.rechazados();
+        return new ResumenImportacion(archivo, total.aceptados + rechazados, total.aceptados, rechazados,
+                total.motivosOrdenados(), total.ejemplos(), duracion);
+    }
+
+    // Lee las líneas que comienzan dentro del bloque y las reparte por partición
+    private Bloque leerBloque(FileChannel canal, long tamanio, long indice) throws IOException {
+        long desde = indice * TAMANIO_BLOQUE;
+        long hasta = Math.min(tamanio, desde + TAMANIO_BLOQUE);
+        // Se incluye el byte anterior para saber si el bloque empieza al inicio de una línea
+        long inicioMapa = desde == 0 ? 0 : desde - 1;
+        long finMapa = Math.min(tamanio, hasta + MAXIMO_LINEA);
+        MappedByteBuffer buf = canal.map(FileChannel.MapMode.READ_ONLY, inicioMapa, finMapa - inicioMapa);
+        int limite = buf.limit();
+        int finPropio = (int) (hasta - inicioMapa);
+
+        Bloque bloque = new Bloque(hilos);
+        ParserLineaMovimiento parser = new ParserLineaMovimiento();
+        int pos = 0;
+        if (desde > 0) {
+            // La línea que empezó en el bloque anterior la procesa ese bloque
+            while (pos < limite && buf.get(pos) != '\n') pos++;
+            pos++;
+        }
+        while (pos < finPropio) {
+            int fin = pos;
+            while (fin < limite && buf.get(fin) != '\n') fin++;
+            bloque.lineas++;
+            if (fin == limite && finMapa < tamanio) {
+                bloque.conteo.rechazar(LINEA_INVALIDA, bloque.lineas, "línea demasiado larga");
+                break;
+            }
+            procesar(buf, pos, fin, bloque, parser, indice == 0 && bloque.lineas == 1);
+            pos = fin + 1;
+        }
+        return bloque;
+    }
+
+    private void procesar(ByteBuffer buf, int inicio, int fin, Bloque bloque,
+                          ParserLineaMovimiento parser, boolean primeraDelArchivo) {
+        while (fin > inicio && esEspacio(buf.get(fin - 1))) fin--;
+        while (inicio < fin && esEspacio(buf.get(inicio))) inicio++;
+        if (inicio == fin) return;
+        long linea = bloque.lineas;
+
+        int inicioCuenta, finCuenta;
+        byte tipo;
+        long monto;
+        if (esLineaDeLog(buf, inicio, fin)) {
+            if (parser.parsear(buf, inicio, fin, null) != ParserLineaMovimiento.VALIDA) {
+                bloque.conteo.rechazar(LINEA_INVALIDA, linea, texto(buf, inicio, fin));
+                return;
+            }
+            inicioCuenta = parser.getInicioCuenta();
+            finCuenta = parser.getFinCuenta();
+            tipo = parser.tipoEs(buf, DEPOSITO) ? HistorialMovimientos.DEPOSITO
+                    : parser.tipoEs(buf, RETIRO) ? HistorialMovimientos.RETIRO : -1;
+            monto = parser.getMontoCentavos();
+        } else {
+            // cuenta,tipo,monto (las columnas adicionales se ignoran)
+            int c1 = buscar(buf, inicio, fin, (byte) ',');
+            int c2 = c1 < 0 ? -1 : buscar(buf, c1 + 1, fin, (byte) ',');
+            int c3 = c2 < 0 ? -1 : buscar(buf, c2 + 1, fin, (byte) ',');
+            if (c2 < 0) {
+                if (!primeraDelArchivo) bloque.conteo.rechazar(LINEA_INVALIDA, linea, texto(buf, inicio, fin));
+                return;
+            }
+            inicioCuenta = inicio;
+            finCuenta = recortarFin(buf, inicio, c1);
+            int inicioTipo = recortarInicio(buf, c1 + 1, c2);
+            int finTipo = recortarFin(buf, inicioTipo, c2);
+            tipo = igual(buf, inicioTipo, finTipo, DEPOSITO) ? HistorialMovimientos.DEPOSITO
+                    : igual(buf, inicioTipo, finTipo, RETIRO) ? HistorialMovimientos.RETIRO : -1;
+            int inicioMonto = recortarInicio(buf, c2 + 1, c3 < 0 ? fin : c3);
+            if (inicioMonto < fin && buf.get(inicioMonto) == '$') inicioMonto++;
+            monto = ParserLineaMovimiento.centavos(buf, inicioMonto, c3 < 0 ? fin : c3);
+            if (monto == Long.MIN_VALUE) {
+                // Encabezado (ej. "cuenta,tipo,monto")
+                if (!primeraDelArchivo) bloque.conteo.rechazar(LINEA_INVALIDA, linea, texto(buf, inicio, fin));
+                return;
+            }
+            if (finCuenta <= inicioCuenta) {
+                bloque.conteo.rechazar(LINEA_INVALIDA, linea, texto(buf, inicio, fin));
+                return;
+            }
+        }
+        if (tipo < 0) {
+            bloque.conteo.rechazar(TIPO_NO_SOPORTADO, linea, texto(buf, inicio, fin));
+            return;
+        }
+        if (monto <= 0) {
+            bloque.conteo.rechazar(MONTO_INVALIDO, linea, texto(buf, inicio, fin));
+            return;
+        }
+        String numero = texto(buf, inicioCuenta, finCuenta);
+        CuentaBancaria c = registro.buscar(numero);
+        if (c == null) {
+            bloque.conteo.rechazar(CUENTA_INEXISTENTE, linea, numero);
+            return;
+        }
+        bloque.partes[particion(numero)].agregar(c, tipo, monto, bloque.lineas);
+    }
+
+    // Aplica, en el orden de los bloques, los movimientos de una partición
+    private Conteo aplicar(List<Bloque> bloques, int particion, LoteMovimientos lote) {
+        Conteo conteo = new Conteo();
+        // Cuentas de los movimientos del lote, para marcarlos como registrados al escribirlo
+        List<CuentaBancaria> cuentas = new ArrayList<>();
+        for (Bloque b : bloques) {
+            Parte p = b.partes[particion];
+            for (int i = 0; i < p.cantidad; i++) {
+                CuentaBancaria c = p.cuentas[i];
+                long monto = p.montos[i];
+                boolean deposito = p.tipos[i] == HistorialMovimientos.DEPOSITO;
+                long saldo;
+                ResultadoRetiro resultado = ResultadoRetiro.REALIZADO;
+                // Los rechazos son habituales en un lote: se usa el retiro sin excepciones
+                synchronized (c) {
+                    if (deposito) c.depositar(monto);
+                    else resultado = c.intentarRetirar(monto);
+                    saldo = c.getSaldo();
+                }
+                if (!resultado.isRealizado()) {
+                    metricas.rechazo(resultado);
+                    long linea = b.primeraLinea - 1 + p.lineas[i];
+                    if (conteo.guardaEjemplo(linea)) {
+                        conteo.rechazar(resultado.getDescripcion(), linea, c.getNumeroCuenta() + ": retiro de $"
+                                + Dinero.formatear(monto) + " con saldo de $" + Dinero.formatear(saldo));
+                    } else {
+                        conteo.rechazar(resultado.getDescripcion());
+                    }
+                    continue;
+                }
+                conteo.aceptados++;
+                metricas.operacion(deposito ? "DEPOSITO" : "RETIRO", c);
+                lote.agregar(deposito ? "DEPOSITO" : "RETIRO", c.getNumeroCuenta(), monto, saldo);
+                cuentas.add(c);
+                if (lote.tamanio() >= TAMANIO_LOTE) registrar(lote, cuentas);
+            }
+        }
+        if (lote.tamanio() > 0) registrar(lote, cuentas);
+        return conteo;
+    }
+
+    // Cada cuenta se importa en una sola partición, así que al escribir el lote todos sus
+    // movimientos en memoria están en los logs
+    private void registrar(LoteMovimientos lote, List<CuentaBancaria> cuentas) {
+        gestor.registrarLote(lote);
+        for (CuentaBancaria c : cuentas) c.marcarRegistrados();
+        lote.limpiar();
+        cuentas.clear();
+    }
+
+    private int particion(String numero) {
+        return (numero.hashCode() & 0x7fffffff) % hilos;
+    }
+
+    private static <T> List<T> invocar(ForkJoinPool pool, List<Callable<T>> tareas) throws IOException {
+        List<T> resultados = new ArrayList<>(tareas.size());
+        for (Future<T> f : pool.invokeAll(tareas)) {
+            try {
+                resultados.add(f.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Importación interrumpida", e);
+            } catch (ExecutionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof IOException) throw (IOException) causa;
+                if (causa instanceof UncheckedIOException) throw ((UncheckedIOException) causa).getCause();
+                if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+                throw new IOException(causa);
+            }
+        }
+        return resultados;
+    }
+
+    // yyyy-MM-dd al inicio de la línea
+    private static boolean esLineaDeLog(ByteBuffer buf, int inicio, int fin) {
+        return fin - inicio >= 19 && buf.get(inicio + 4) == '-' && buf.get(inicio + 7) == '-';
+    }
+
+    private static int buscar(ByteBuffer buf, int desde, int fin, byte b) {
+        for (int i = desde; i < fin; i++) {
+            if (buf.get(i) == b) return i;
+        }
+        return -1;
+    }
+
+    private static int recortarInicio(ByteBuffer buf, int inicio, int fin) {
+        while (inicio < fin && esEspacio(buf.get(inicio))) inicio++;
+        return inicio;
+    }
+
+    private static int recortarFin(ByteBuffer buf, int inicio, int fin) {
+        while (fin > inicio && esEspacio(buf.get(fin - 1))) fin--;
+        return fin;
+    }
+
+    private static boolean igual(ByteBuffer buf, int inicio, int fin, byte[] valor) {
+        if (fin - inicio != valor.length) return false;
+        for (int i = 0; i < valor.length; i++) {
+            if (buf.get(inicio + i) != valor[i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean esEspacio(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static String texto(ByteBuffer buf, int inicio, int fin) {
+        byte[] b = new byte[fin - inicio];
+        buf.get(inicio, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    // Resultado de leer un bloque: sus movimientos repartidos por partición
+    private static final class Bloque {
+        final Parte[] partes;
+        final Conteo conteo = new Conteo();
+        long lineas;
+        long primeraLinea;
+
+        Bloque(int particiones) {
+            partes = new Parte[particiones];
+            for (int i = 0; i < particiones; i++) partes[i] = new Parte();
+        }
+    }
+
+    // Movimientos de una partición dentro de un bloque, en arreglos paralelos
+    private static final class Parte {
+        CuentaBancaria[] cuentas = new CuentaBancaria[256];
+        byte[] tipos = new byte[256];
+        long[] montos = new long[256];
+        // Número de línea dentro del bloque
+        long[] lineas = new long[256];
+        int cantidad;
+
+        void agregar(CuentaBancaria c, byte tipo, long monto, long linea) {
+            if (cantidad == montos.length) {
+                int n = cantidad * 2;
+                cuentas = Arrays.copyOf(cuentas, n);
+                tipos = Arrays.copyOf(tipos, n);
+                montos = Arrays.copyOf(montos, n);
+                lineas = Arrays.copyOf(lineas, n);
+            }
+            cuentas[cantidad] = c;
+            tipos[cantidad] = tipo;
+            montos[cantidad] = monto;
+            lineas[cantidad] = linea;
+            cantidad++;
+        }
+    }
+
+    // Aceptados y rechazos de una tarea; los ejemplos se guardan por número de línea
+    private static final class Conteo {
+        long aceptados;
+        final Map<String, Long> porMotivo = new HashMap<>();
+        final TreeMap<Long, String> ejemplos = new TreeMap<>();
+
+        void rechazar(String motivo, long linea, String detalle) {
+            rechazar(motivo);
+            agregarEjemplo(linea, motivo + ": " + detalle);
+        }
+
+        // Sólo cuenta el rechazo, para no armar el detalle de los que no se guardan
+        void rechazar(String motivo) {
+            porMotivo.merge(motivo, 1L, Long::sum);
+        }
+
+        boolean guardaEjemplo(long linea) {
+            return ejemplos.size() < MAX_EJEMPLOS || linea < ejemplos.lastKey();
+        }
+
+        // desplazamiento: número de la línea anterior al bloque, para los ejemplos con numeración local
+        void sumar(Conteo otro, long desplazamiento) {
+            aceptados += otro.aceptados;
+            otro.porMotivo.forEach((m, n) -> porMotivo.merge(m, n, Long::sum));
+            otro.ejemplos.forEach((l, d) -> agregarEjemplo(l + desplazamiento, d));
+        }
+
+        long rechazados() {
+            long n = 0;
+            for (long v : porMotivo.values()) n += v;
+            return n;
+        }
+
+        Map<String, Long> motivosOrdenados() {
+            Map<String, Long> ordenados = new LinkedHashMap<>();
+            porMotivo.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .forEach(e -> ordenados.put(e.getKey(), e.getValue()));
+            return ordenados;
+        }
+
+        List<String> ejemplos() {
+            List<String> lista = new ArrayList<>(ejemplos.size());
+            ejemplos.forEach((l, d) -> lista.add("línea " + l + ": " + d));
+            return lista;
+        }
+
+        private void agregarEjemplo(long linea, String detalle) {
+            if (!guardaEjemplo(linea)) return;
+            ejemplos.put(linea, detalle);
+            if (ejemplos.size() > MAX_EJEMPLOS) ejemplos.pollLastEntry();
+        }
+    }
+}
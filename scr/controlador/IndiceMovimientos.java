@@ -0,0 +1,364 @@
+package scr.controlador;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice secundario en disco (número de cuenta → posiciones en el archivo) para un
+ * archivo de log de movimientos. Permite leer el historial de una sola cuenta con
+ * lecturas posicionadas en vez de recorrer el archivo completo.
+ *
+ * <p>El índice se guarda junto al log con extensión {@code .idx} como una secuencia
+ * de registros {@code [short largoCuenta][bytes cuenta][long posicion]}. Al abrirse se
+ * carga en memoria; si falta, está dañado o no coincide con el log, se reconstruye
+ * leyendo el log, y si el log tiene líneas más nuevas que el índice sólo se indexa
+ * esa cola.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class IndiceMovimientos implements AutoCloseable {
+
+    private static final int TAMANIO_BUFFER = 16 * 1024;
+    private static final int LECTURA_LINEA = 512;
+
+    private final Path log;
+    private final Path indice;
+    private final Map<String, Posiciones> posiciones;
+    private final ByteBuffer pendiente;
+    private FileChannel canalIndice;
+
+    /**
+     * Abre el índice del archivo de log indicado, reconstruyéndolo si hace falta.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivoLog Ruta del archivo de log (ej. "depositos.txt").
+     * @throws IOException si no puede leerse el log o escribirse el índice.
+     */
+    public IndiceMovimientos(String archivoLog) throws IOException {
+        this.log = Paths.get(archivoLog);
+        this.indice = Paths.get(archivoLog + ".idx");
+        this.posiciones = new HashMap<>();
+        this.pendiente = ByteBuffer.allocate(TAMANIO_BUFFER);
+        abrir();
+    }
+
+    /**
+     * Registra que la línea de la cuenta comienza en la posición indicada del log.
+     * La entrada queda disponible de inmediato y se persiste en el próximo {@link #persistir()}.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numeroCuenta Número de cuenta de la línea.
+     * @param posicion Posición (en bytes) del inicio de la línea en el log.
+     * @throws IOException si falla la escritura del índice.
+     */
+    public synchronized void agregar(String numeroCuenta, long posicion) throws IOException {
+        byte[] cuenta = numeroCuenta.getBytes(StandardCharsets.UTF_8);
+        if (pendiente.remaining() < 2 + cuenta.length + 8) persistir();
+        pendiente.putShort((short) cuenta.length);
+        pendiente.put(cuenta);
+        pendiente.putLong(posicion);
+        posiciones.computeIfAbsent(numeroCuenta, k -> new Posiciones()).agregar(posicion);
+    }
+
+    /**
+     * Devuelve las posiciones de las líneas de una cuenta, en orden de escritura.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numeroCuenta Número de cuenta.
+     * @return Arreglo de posiciones (vacío si la cuenta no tiene movimientos).
+     */
+    public synchronized long[] posicionesDe(String numeroCuenta) {
+        Posiciones p = posiciones.get(numeroCuenta);
+        return p == null ? new long[0] : Arrays.copyOf(p.datos, p.tamanio);
+    }
+
+    /**
+     * Lee del log sólo las líneas de la cuenta indicada, usando lecturas posicionadas.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numeroCuenta Número de cuenta.
+     * @return Líneas de la cuenta (sin el salto de línea final).
+     * @throws IOException si falla la lectura del log.
+     */
+    public List<String> leerLineas(String numeroCuenta) throws IOException {
+        List<String> lineas = new ArrayList<>();
+        recorrerLineas(numeroCuenta, (buf, inicio, fin) -> {
+            byte[] b = new byte[fin - inicio];
+            buf.get(inicio, b);
+            lineas.add(new String(b, StandardCharsets.UTF_8));
+        });
+        return lineas;
+    }
+
+    /**
+     * Entrega al visitante, como bytes, cada línea de la cuenta indicada usando
+     * lecturas posicionadas sobre un único buffer reutilizado.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numeroCuenta Número de cuenta.
+     * @param visitante Receptor de cada línea.
+     * @throws IOException si falla la lectura del log.
+     */
+    public void recorrerLineas(String numeroCuenta, VisitanteLinea visitante) throws IOException {
+        long[] pos = posicionesDe(numeroCuenta);
+        if (pos.length == 0 || !Files.exists(log)) return;
+        try (FileChannel canal = FileChannel.open(log, StandardOpenOption.READ)) {
+            recorrerLineas(canal, pos, visitante);
+        }
+    }
+
+    /**
+     * Entrega al visitante las líneas que comienzan en las posiciones indicadas de un
+     * canal ya abierto (ej. abierto antes de que el log fuera renombrado).
+     *
+     * @param canal Canal del log.
+     * @param pos Posiciones de inicio de las líneas, obtenidas con {@link #posicionesDe}.
+     * @param visitante Receptor de cada línea.
+     * @throws IOException si falla la lectura.
+     */
+    static void recorrerLineas(FileChannel canal, long[] pos, VisitanteLinea visitante) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(LECTURA_LINEA);
+        for (long p : pos) {
+            buf.clear();
+            int leidos = canal.read(buf, p);
+            if (leidos <= 0) continue;
+            int fin = -1;
+            for (int i = 0; i < leidos; i++) {
+                if (buf.get(i) == '\n') { fin = i; break; }
+            }
+            if (fin >= 0 || p + leidos >= canal.size()) {
+                visitante.visitar(buf, 0, fin >= 0 ? fin : leidos);
+            } else {
+                // Línea más larga que el buffer: se lee completa aparte
+                byte[] linea = leerLinea(canal, p, ByteBuffer.allocate(LECTURA_LINEA));
+                if (linea != null) visitante.visitar(ByteBuffer.wrap(linea), 0, linea.length);
+            }
+        }
+    }
+
+    /**
+     * @return Cuentas con al menos una línea en el log.
+     */
+    synchronized List<String> getCuentas() {
+        return new ArrayList<>(posiciones.keySet());
+    }
+
+    /**
+     * @return Cantidad de líneas indexadas.
+     */
+    synchronized long getRegistros() {
+        long n = 0;
+        for (Posiciones p : posiciones.values()) n += p.tamanio;
+        return n;
+    }
+
+    /**
+     * @return {@code {posición de la primera línea, posición de la última}}, o null si no hay líneas.
+     */
+    synchronized long[] getExtremos() {
+        if (posiciones.isEmpty()) return null;
+        long primera = Long.MAX_VALUE;
+        long ultima = -1;
+        for (Posiciones p : posiciones.values()) {
+            primera = Math.min(primera, p.datos[0]);
+            ultima = Math.max(ultima, p.datos[p.tamanio - 1]);
+        }
+        return new long[] { primera, ultima };
+    }
+
+    /**
+     * Escribe en disco las entradas pendientes del índice.
+     *
+     * @author Juan
+     * @version 1.0
+     * @throws IOException si falla la escritura.
+     */
+    public synchronized void persistir() throws IOException {
+        if (pendiente.position() == 0 || canalIndice == null) return;
+        pendiente.flip();
+        while (pendiente.hasRemaining()) {
+            canalIndice.write(pendiente);
+        }
+        pendiente.clear();
+    }
+
+    /**
+     * Persiste lo pendiente y cierra el archivo del índice.
+     *
+     * @author Juan
+     * @version 1.0
+     * @throws IOException si falla la escritura o el cierre.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (canalIndice == null) return;
+        try {
+            persistir();
+        } finally {
+            canalIndice.close();
+            canalIndice = null;
+        }
+    }
+
+    private void abrir() throws IOException {
+        long tamanioLog = Files.exists(log) ? Files.size(log) : 0;
+        long finIndexado = -1;
+        if (Files.exists(indice)) {
+            try {
+                finIndexado = cargar(tamanioLog);
+            } catch (IOException e) {
+                // Índice dañado: se descarta y se reconstruye
+                finIndexado = -1;
+            }
+        }
+        boolean reconstruir = finIndexado < 0 || finIndexado > tamanioLog;
+        if (reconstruir) {
+            posiciones.clear();
+            finIndexado = 0;
+            canalIndice = FileChannel.open(indice, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } else {
+            canalIndice = FileChannel.open(indice, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        if (finIndexado < tamanioLog) {
+            indexarDesde(finIndexado);
+        }
+        persistir();
+    }
+
+    // Carga el índice y devuelve hasta qué byte del log cubre, o -1 si no coincide con el log
+    private long cargar(long tamanioLog) throws IOException {
+        long ultima = -1;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indice)))) {
+            while (true) {
+                int largo;
+                try {
+                    largo = in.readUnsignedShort();
+                } catch (EOFException fin) {
+                    break;
+                }
+                byte[] cuenta = new byte[largo];
+                in.readFully(cuenta);
+                long posicion = in.readLong();
+                if (posicion <= ultima || posicion >= tamanioLog) return -1;
+                ultima = posicion;
+                posiciones.computeIfAbsent(new String(cuenta, StandardCharsets.UTF_8), k -> new Posiciones()).agregar(posicion);
+            }
+        }
+        if (ultima < 0) return 0;
+        // El fin de lo indexado es el fin de la última línea conocida
+        try (FileChannel canal = FileChannel.open(log, StandardOpenOption.READ)) {
+            byte[] linea = leerLinea(canal, ultima, ByteBuffer.allocate(LECTURA_LINEA));
+            if (linea == null) return -1;
+            long fin = ultima + linea.length;
+            return fin < tamanioLog ? fin + 1 : fin;
+        }
+    }
+
+    // Recorre el log desde 'inicio' agregando al índice cada línea con cuenta reconocible
+    private void indexarDesde(long inicio) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(log), 64 * 1024)) {
+            long saltados = 0;
+            while (saltados < inicio) {
+                long s = in.skip(inicio - saltados);
+                if (s <= 0) return;
+                saltados += s;
+            }
+            byte[] linea = new byte[LECTURA_LINEA];
+            int largo = 0;
+            long posicion = inicio;
+            long inicioLinea = inicio;
+            int b;
+            while ((b = in.read()) != -1) {
+                posicion++;
+                if (b == '\n') {
+                    indexarLinea(linea, largo, inicioLinea);
+                    largo = 0;
+                    inicioLinea = posicion;
+                    continue;
+                }
+                if (largo == linea.length) linea = Arrays.copyOf(linea, largo * 2);
+                linea[largo++] = (byte) b;
+            }
+            if (largo > 0) indexarLinea(linea, largo, inicioLinea);
+        }
+    }
+
+    private void indexarLinea(byte[] linea, int largo, long posicion) throws IOException {
+        String cuenta = extraerCuenta(new String(linea, 0, largo, StandardCharsets.UTF_8));
+        if (cuenta != null) agregar(cuenta, posicion);
+    }
+
+    /**
+     * Extrae el número de cuenta de una línea de log, o null si la línea no tiene el formato esperado.
+     */
+    static String extraerCuenta(String linea) {
+        int i = linea.indexOf("| Cuenta:");
+        if (i < 0) return null;
+        i += "| Cuenta:".length();
+        int fin = linea.indexOf('|', i);
+        if (fin < 0) return null;
+        String cuenta = linea.substring(i, fin).trim();
+        return cuenta.isEmpty() ? null : cuenta;
+    }
+
+    // Lee la línea que comienza en 'posicion' (sin '\n' ni '\r' final), o null si está fuera del archivo
+    static byte[] leerLinea(FileChannel canal, long posicion, ByteBuffer buf) throws IOException {
+        byte[] linea = new byte[0];
+        long p = posicion;
+        while (true) {
+            buf.clear();
+            int leidos = canal.read(buf, p);
+            if (leidos <= 0) return p == posicion ? null : recortar(linea);
+            buf.flip();
+            int base = linea.length;
+            for (int i = 0; i < leidos; i++) {
+                if (buf.get(i) == '\n') {
+                    linea = Arrays.copyOf(linea, base + i);
+                    buf.get(linea, base, i);
+                    return recortar(linea);
+                }
+            }
+            linea = Arrays.copyOf(linea, base + leidos);
+            buf.get(linea, base, leidos);
+            p += leidos;
+        }
+    }
+
+    private static byte[] recortar(byte[] linea) {
+        int n = linea.length;
+        if (n > 0 && linea[n - 1] == '\r') return Arrays.copyOf(linea, n - 1);
+        return linea;
+    }
+
+    // Lista creciente de posiciones de una cuenta
+    private static class Posiciones {
+        long[] datos = new long[4];
+        int tamanio;
+
+        void agregar(long posicion) {
+            if (tamanio == datos.length) datos = Arrays.copyOf(datos, tamanio * 2);
+            datos[tamanio++] = posicion;
+        }
+    }
+}
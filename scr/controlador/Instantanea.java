@@ -0,0 +1,192 @@
+package scr.controlador;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instantánea del estado de las cuentas ({@code instantanea.txt}): configuración,
+ * saldo y contadores de cada cuenta, junto con la posición de los logs y del
+ * {@link CatalogoCuentas} en el momento en que se tomó. Al iniciar se carga la
+ * instantánea y sólo se reproduce lo registrado después, así el tiempo de arranque
+ * no crece con el historial.
+ *
+ * <pre>
+ * INSTANTANEA  1
+ * BACKEND      GestorArchivos
+ * POSICIONES   p1  p2 ...
+ * CATALOGO     posicion
+ * CUENTA       (campos del catálogo)  saldo  retirosDelMes
+ * SINCATALOGO  numero  saldo
+ * FIN          cantidad de líneas CUENTA y SINCATALOGO
+ * </pre>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class Instantanea {
+
+    /** Archivo usado por defecto. */
+    public static final String ARCHIVO_POR_DEFECTO = "instantanea.txt";
+
+    private static final String VERSION = "1";
+
+    private final String backend;
+    private final long[] posiciones;
+    private final long posicionCatalogo;
+    private final List<CuentaBancaria> cuentas;
+    private final Map<String, Long> sinCatalogo;
+
+    private Instantanea(String backend, long[] posiciones, long posicionCatalogo,
+                        List<CuentaBancaria> cuentas, Map<String, Long> sinCatalogo) {
+        this.backend = backend;
+        this.posiciones = posiciones;
+        this.posicionCatalogo = posicionCatalogo;
+        this.cuentas = cuentas;
+        this.sinCatalogo = sinCatalogo;
+    }
+
+    /**
+     * Arma el contenido de una instantánea. Debe llamarse sin operaciones en curso,
+     * para que los saldos correspondan exactamente a las posiciones indicadas.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param backend Nombre del backend de persistencia.
+     * @param posiciones Posición de los logs ({@link Persistencia#posicion()}).
+     * @param posicionCatalogo Posición del catálogo de cuentas.
+     * @param cuentas Cuentas en memoria.
+     * @param sinCatalogo Cuentas que sólo aparecen en los logs, con su último saldo.
+     * @return Contenido a guardar con {@link #guardar}.
+     */
+    static byte[] serializar(String backend, long[] posiciones, long posicionCatalogo,
+                             List<CuentaBancaria> cuentas, Map<String, Long> sinCatalogo) {
+        StringBuilder sb = new StringBuilder(128 + cuentas.size() * 64);
+        sb.append("INSTANTANEA\t").append(VERSION).append('\n');
+        sb.append("BACKEND\t").append(backend).append('\n');
+        sb.append("POSICIONES");
+        for (long p : posiciones) sb.append('\t').append(p);
+        sb.append('\n');
+        sb.append("CATALOGO\t").append(posicionCatalogo).append('\n');
+        for (CuentaBancaria c : cuentas) {
+            int retirosMes = c instanceof CuentaAhorros ? ((CuentaAhorros) c).getRetirosRealizadosEsteMes() : 0;
+            sb.append("CUENTA\t").append(CatalogoCuentas.describir(c))
+              .append('\t').append(c.getSaldo()).append('\t').append(retirosMes).append('\n');
+        }
+        for (Map.Entry<String, Long> e : sinCatalogo.entrySet()) {
+            sb.append("SINCATALOGO\t").append(e.getKey()).append('\t').append(e.getValue()).append('\n');
+        }
+        sb.append("FIN\t").append(cuentas.size() + sinCatalogo.size()).append('\n');
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Guarda el contenido en un archivo temporal, lo fuerza a disco y lo renombra
+     * sobre el archivo final, de modo que una caída nunca deja una instantánea a medias.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Ruta de la instantánea.
+     * @param contenido Contenido de {@link #serializar}.
+     * @throws IOException si falla la escritura o el renombrado.
+     */
+    static void guardar(String archivo, byte[] contenido) throws IOException {
+        Path destino = Paths.get(archivo);
+        Path temporal = Paths.get(archivo + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer b = ByteBuffer.wrap(contenido);
+            while (b.hasRemaining()) canal.write(b);
+            canal.force(true);
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Carga una instantánea.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Ruta de la instantánea.
+     * @return La instantánea, o null si el archivo no existe.
+     * @throws IOException si no puede leerse o su contenido no es válido.
+     */
+    static Instantanea cargar(String archivo) throws IOException {
+        Path ruta = Paths.get(archivo);
+        if (!Files.exists(ruta)) return null;
+        String backend = null;
+        long[] posiciones = null;
+        long posicionCatalogo = -1;
+        List<CuentaBancaria> cuentas = new ArrayList<>();
+        Map<String, Long> sinCatalogo = new HashMap<>();
+        boolean fin = false;
+        try (BufferedReader br = Files.newBufferedReader(ruta, StandardCharsets.UTF_8)) {
+            String linea = br.readLine();
+            if (linea == null || !linea.equals("INSTANTANEA\t" + VERSION)) {
+                throw new IOException(archivo + " no es una instantánea válida.");
+            }
+            while (!fin && (linea = br.readLine()) != null) {
+                String[] campos = linea.split("\t", -1);
+                try {
+                    switch (campos[0]) {
+                        case "BACKEND":
+                            backend = campos[1];
+                            break;
+                        case "POSICIONES":
+                            posiciones = new long[campos.length - 1];
+                            for (int i = 1; i < campos.length; i++) posiciones[i - 1] = Long.parseLong(campos[i]);
+                            break;
+                        case "CATALOGO":
+                            posicionCatalogo = Long.parseLong(campos[1]);
+                            break;
+                        case "CUENTA":
+                            CuentaBancaria c = CatalogoCuentas.interpretar(campos, 1);
+                            if (c == null) throw new IOException("Cuenta inválida en " + archivo + ": " + linea);
+                            int n = 1 + CatalogoCuentas.cantidadCampos(campos[1]);
+                            c.restaurarSaldo(Long.parseLong(campos[n]));
+                            if (c instanceof CuentaAhorros) {
+                                ((CuentaAhorros) c).setRetirosRealizadosEsteMes(Integer.parseInt(campos[n + 1]));
+                            }
+                            cuentas.add(c);
+                            break;
+                        case "SINCATALOGO":
+                            sinCatalogo.put(campos[1], Long.parseLong(campos[2]));
+                            break;
+                        case "FIN":
+                            if (Long.parseLong(campos[1]) != cuentas.size() + sinCatalogo.size()) {
+                                throw new IOException("Cantidad de cuentas incorrecta en " + archivo);
+                            }
+                            fin = true;
+                            break;
+                        default:
+                            throw new IOException("Línea inválida en " + archivo + ": " + linea);
+                    }
+                } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                    throw new IOException("Línea inválida en " + archivo + ": " + linea, e);
+                }
+            }
+        }
+        if (!fin || backend == null || posiciones == null || posicionCatalogo < 0) {
+            throw new IOException("Instantánea incompleta: " + archivo);
+        }
+        return new Instantanea(backend, posiciones, posicionCatalogo, cuentas, sinCatalogo);
+    }
+
+    public String getBackend() { return backend; }
+    public long[] getPosiciones() { return posiciones; }
+    public long getPosicionCatalogo() { return posicionCatalogo; }
+    public List<CuentaBancaria> getCuentas() { return cuentas; }
+    public Map<String, Long> getSinCatalogo() { return sinCatalogo; }
+}
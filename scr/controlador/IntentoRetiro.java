@@ -0,0 +1,39 @@
+package scr.controlador;
+import scr.model.ResultadoRetiro;
+
+/**
+ * Resultado de {@link BancoController#intentarRetirarAsync} junto con el saldo que
+ * quedó en la cuenta, leído con la cuenta bloqueada en la misma operación (así no se
+ * mezcla con otra operación posterior sobre la cuenta).
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class IntentoRetiro {
+    private final ResultadoRetiro resultado;
+    private final long saldo;
+
+    /**
+     * @param resultado {@link ResultadoRetiro#REALIZADO} o el motivo del rechazo.
+     * @param saldo Saldo luego del retiro (o al rechazarlo), en centavos; 0 si la cuenta no existe.
+     */
+    public IntentoRetiro(ResultadoRetiro resultado, long saldo) {
+        this.resultado = resultado;
+        this.saldo = saldo;
+    }
+
+    public ResultadoRetiro getResultado() { return resultado; }
+    public long getSaldo() { return saldo; }
+
+    /**
+     * @return true si el retiro se realizó.
+     */
+    public boolean isRealizado() {
+        return resultado.isRealizado();
+    }
+
+    @Override
+    public String toString() {
+        return resultado.getDescripcion() + " (saldo " + saldo + ")";
+    }
+}
@@ -0,0 +1,358 @@
+package scr.controlador;
+import scr.excepciones.LineaInvalidaException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lector secuencial de un archivo de log de movimientos que entrega los registros
+ * de a uno ({@link Iterator} o {@link Stream}) sin cargar el archivo en memoria.
+ *
+ * <p>El archivo se recorre mediante ventanas mapeadas en memoria de tamaño fijo,
+ * así que el uso de heap no depende del tamaño del archivo. Las líneas con formato
+ * inválido lanzan {@link LineaInvalidaException} en modo estricto; en modo tolerante
+ * se saltan y quedan contabilizadas en {@link #getLineasInvalidas()} y
+ * {@link #getErrores()}.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class LectorMovimientos implements Iterator<MovimientoLog>, AutoCloseable {
+
+    private static final long TAMANIO_VENTANA = 64L * 1024 * 1024;
+    private static final int MAX_ERRORES_GUARDADOS = 100;
+    private static final int LECTURA_LINEA = 512;
+    // Con más de 1 línea de la cuenta cada tantas del archivo conviene leerlo de corrido
+    private static final int DENSIDAD_MAXIMA_INDICE = 8;
+    private static final byte[] DEPOSITO = "DEPOSITO".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RETIRO = "RETIRO".getBytes(StandardCharsets.US_ASCII);
+
+    private final String archivo;
+    private final FileChannel canal;
+    private final long tamanio;
+    private final String cuentaFiltro;
+    private final byte[] bytesFiltro;
+    private final boolean estricto;
+    private final ParserLineaMovimiento parser;
+    // Inicio de cada línea a leer, o null para recorrer el archivo entero
+    private final long[] posiciones;
+    private int siguientePosicion;
+
+    private ByteBuffer ventana;
+    // Buffer de las lecturas posicionadas
+    private ByteBuffer lectura;
+    private long inicioVentana;
+    private int pos;
+    private long numeroLinea;
+    private MovimientoLog siguiente;
+
+    private long lineasInvalidas;
+    private final List<String> errores;
+
+    /**
+     * Abre el archivo para lectura. Si el archivo no existe el lector queda vacío.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Ruta del archivo de log.
+     * @param cuentaFiltro Número de cuenta a filtrar, o null para leer todas.
+     * @param estricto true para lanzar {@link LineaInvalidaException} ante una línea inválida.
+     * @throws IOException si el archivo existe pero no puede abrirse.
+     */
+    public LectorMovimientos(String archivo, String cuentaFiltro, boolean estricto) throws IOException {
+        this(archivo, cuentaFiltro, estricto, 0);
+    }
+
+    /**
+     * Abre el archivo para lectura a partir de una posición (que debe ser el inicio de una línea).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Ruta del archivo de log.
+     * @param cuentaFiltro Número de cuenta a filtrar, o null para leer todas.
+     * @param estricto true para lanzar {@link LineaInvalidaException} ante una línea inválida.
+     * @param desde Posición en bytes desde donde leer.
+     * @throws IOException si el archivo existe pero no puede abrirse.
+     */
+    public LectorMovimientos(String archivo, String cuentaFiltro, boolean estricto, long desde) throws IOException {
+        this(archivo, cuentaFiltro, estricto, desde, null);
+    }
+
+    /**
+     * Lee sólo las líneas que comienzan en las posiciones indicadas (ej. las de una
+     * cuenta según su {@link IndiceMovimientos}), con lecturas posicionadas en lugar de
+     * recorrer el archivo. Si el archivo no existe el lector queda vacío.
+     *
+     * @param archivo Ruta del archivo de log.
+     * @param posiciones Inicio de cada línea, en orden creciente.
+     * @param cuentaFiltro Número de cuenta a filtrar, o null para leer todas.
+     * @param desde Se saltean las posiciones anteriores a esta.
+     * @throws IOException si el archivo existe pero no puede abrirse.
+     */
+    LectorMovimientos(String archivo, long[] posiciones, String cuentaFiltro, long desde) throws IOException {
+        this(archivo, cuentaFiltro, false, 0, posiciones);
+        int primera = Arrays.binarySearch(posiciones, desde);
+        this.siguientePosicion = canal == null ? posiciones.length : primera >= 0 ? primera : -primera - 1;
+    }
+
+    /**
+     * Abre un lector de las líneas de una cuenta: por sus posiciones si son pocas frente
+     * al total del archivo, o recorriéndolo entero si la cuenta ocupa buena parte de él
+     * (una lectura por línea costaría más que leerlo de corrido).
+     *
+     * @param archivo Ruta del archivo de log.
+     * @param posiciones Inicio de cada línea de la cuenta, en orden creciente.
+     * @param registros Cantidad de líneas del archivo.
+     * @param numeroCuenta Número de cuenta.
+     * @param desde Posición en bytes desde donde leer.
+     * @return El lector, en modo tolerante.
+     * @throws IOException si el archivo existe pero no puede abrirse.
+     */
+    static LectorMovimientos deCuenta(String archivo, long[] posiciones, long registros, String numeroCuenta,
+                                      long desde) throws IOException {
+        if ((long) posiciones.length * DENSIDAD_MAXIMA_INDICE > registros) {
+            return new LectorMovimientos(archivo, numeroCuenta, false, desde);
+        }
+        return new LectorMovimientos(archivo, posiciones, numeroCuenta, desde);
+    }
+
+    private LectorMovimientos(String archivo, String cuentaFiltro, boolean estricto, long desde, long[] posiciones)
+            throws IOException {
+        Path ruta = Paths.get(archivo);
+        this.archivo = archivo;
+        this.canal = Files.exists(ruta) ? FileChannel.open(ruta, StandardOpenOption.READ) : null;
+        this.tamanio = canal == null ? 0 : canal.size();
+        this.cuentaFiltro = cuentaFiltro;
+        this.bytesFiltro = cuentaFiltro == null ? null : cuentaFiltro.getBytes(StandardCharsets.UTF_8);
+        this.estricto = estricto;
+        this.parser = new ParserLineaMovimiento();
+        this.errores = new ArrayList<>();
+        this.posiciones = posiciones;
+        this.inicioVentana = Math.max(0, desde);
+        this.pos = 0;
+    }
+
+    /**
+     * Lee los movimientos de un contenido ya cargado en memoria (ej. un bloque
+     * descomprimido de un segmento archivado) en lugar de un archivo.
+     *
+     * @param nombre Nombre con el que se informan los errores.
+     * @param contenido Líneas completas, desde la posición 0 hasta el límite.
+     * @param posicionBase Posición que tenía el contenido en su archivo original.
+     * @param cuentaFiltro Número de cuenta a filtrar, o null para leer todas.
+     * @param desde Posición (en el archivo original) desde donde leer.
+     */
+    LectorMovimientos(String nombre, ByteBuffer contenido, long posicionBase, String cuentaFiltro, long desde) {
+        this.archivo = nombre;
+        this.canal = null;
+        this.tamanio = posicionBase + contenido.limit();
+        this.cuentaFiltro = cuentaFiltro;
+        this.bytesFiltro = cuentaFiltro == null ? null : cuentaFiltro.getBytes(StandardCharsets.UTF_8);
+        this.estricto = false;
+        this.parser = new ParserLineaMovimiento();
+        this.errores = new ArrayList<>();
+        this.posiciones = null;
+        this.ventana = contenido;
+        this.inicioVentana = posicionBase;
+        this.pos = (int) Math.min(contenido.limit(), Math.max(0, desde - posicionBase));
+    }
+
+    /**
+     * Abre el archivo como un {@link Stream} que cierra el archivo al cerrarse.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Ruta del archivo de log.
+     * @param cuentaFiltro Número de cuenta a filtrar, o null para leer todas.
+     * @param estricto true para lanzar {@link LineaInvalidaException} ante una línea inválida.
+     * @return Stream perezoso de movimientos.
+     * @throws IOException si el archivo existe pero no puede abrirse.
+     */
+    public static Stream<MovimientoLog> stream(String archivo, String cuentaFiltro, boolean estricto) throws IOException {
+        LectorMovimientos lector = new LectorMovimientos(archivo, cuentaFiltro, estricto);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(lector,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(lector::close);
+    }
+
+    /**
+     * Recorre el lector de depósitos y el de retiros intercalando sus movimientos por
+     * fecha, para reproducirlos en el orden en que ocurrieron. Como la fecha tiene
+     * precisión de segundos, en un mismo segundo el orden se deduce de los saldos de
+     * cada cuenta (ver {@link MezclaMovimientos}, que intercala cualquier cantidad).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param a Lector de depósitos.
+     * @param b Lector de retiros.
+     * @param visitante Recibe cada movimiento.
+     */
+    public static void intercalar(LectorMovimientos a, LectorMovimientos b, Consumer<MovimientoLog> visitante) {
+        intercalar((Iterator<MovimientoLog>) a, b, visitante);
+    }
+
+    /**
+     * Igual que {@link #intercalar(LectorMovimientos, LectorMovimientos, Consumer)} para
+     * cualquier par de recorridos ordenados por fecha (ej. varios segmentos seguidos).
+     *
+     * @param a Movimientos de depósitos.
+     * @param b Movimientos de retiros.
+     * @param visitante Recibe cada movimiento.
+     */
+    static void intercalar(Iterator<MovimientoLog> a, Iterator<MovimientoLog> b, Consumer<MovimientoLog> visitante) {
+        MezclaMovimientos.recorrer(Arrays.asList(a, b), visitante);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (siguiente == null) avanzar();
+        return siguiente != null;
+    }
+
+    @Override
+    public MovimientoLog next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        MovimientoLog m = siguiente;
+        siguiente = null;
+        return m;
+    }
+
+    /**
+     * @return Cantidad de líneas inválidas encontradas hasta ahora (modo tolerante).
+     */
+    public long getLineasInvalidas() {
+        return lineasInvalidas;
+    }
+
+    /**
+     * @return Descripción de las primeras líneas inválidas encontradas.
+     */
+    public List<String> getErrores() {
+        return Collections.unmodifiableList(errores);
+    }
+
+    /**
+     * Cierra el archivo. Las ventanas mapeadas se liberan con el recolector de basura.
+     */
+    @Override
+    public void close() {
+        ventana = null;
+        if (canal == null) return;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Busca la próxima línea válida (de la cuenta filtrada) y la deja en 'siguiente'
+    private void avanzar() {
+        if (posiciones != null) {
+            avanzarPorPosiciones();
+            return;
+        }
+        while (siguiente == null && inicioVentana + pos < tamanio) {
+            if (ventana == null || pos >= ventana.limit()) mapear(inicioVentana + pos);
+            int limite = ventana.limit();
+            int fin = -1;
+            for (int i = pos; i < limite; i++) {
+                if (ventana.get(i) == '\n') { fin = i; break; }
+            }
+            if (fin < 0) {
+                boolean ultimaVentana = inicioVentana + limite >= tamanio;
+                if (!ultimaVentana) {
+                    // La línea continúa en la próxima ventana: se vuelve a mapear desde su inicio
+                    if (pos == 0) throw new LineaInvalidaException(archivo, numeroLinea + 1, "línea demasiado larga");
+                    mapear(inicioVentana + pos);
+                    continue;
+                }
+                fin = limite; // última línea sin salto de línea
+            }
+            procesar(pos, fin);
+            pos = fin + 1;
+        }
+    }
+
+    // Cada línea se lee aparte y pasa a ser la ventana, así las posiciones siguen siendo las del archivo
+    private void avanzarPorPosiciones() {
+        while (siguiente == null && siguientePosicion < posiciones.length) {
+            long p = posiciones[siguientePosicion++];
+            byte[] linea;
+            try {
+                if (lectura == null) lectura = ByteBuffer.allocate(LECTURA_LINEA);
+                linea = IndiceMovimientos.leerLinea(canal, p, lectura);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al leer " + archivo, e);
+            }
+            if (linea == null) continue;
+            ventana = ByteBuffer.wrap(linea);
+            inicioVentana = p;
+            procesar(0, linea.length);
+        }
+    }
+
+    private void procesar(int inicio, int fin) {
+        numeroLinea++;
+        if (estaVacia(inicio, fin)) return;
+        int r = parser.parsear(ventana, inicio, fin, bytesFiltro);
+        if (r == ParserLineaMovimiento.OTRA_CUENTA) return;
+        if (r == ParserLineaMovimiento.INVALIDA) {
+            String contenido = texto(inicio, fin);
+            if (estricto) throw new LineaInvalidaException(archivo, numeroLinea, contenido);
+            lineasInvalidas++;
+            if (errores.size() < MAX_ERRORES_GUARDADOS) errores.add("línea " + numeroLinea + ": " + contenido);
+            return;
+        }
+        String cuenta = cuentaFiltro != null ? cuentaFiltro : texto(parser.getInicioCuenta(), parser.getFinCuenta());
+        siguiente = new MovimientoLog(cuenta, tipo(), parser.getMontoCentavos(),
+                parser.getSaldoCentavos(), parser.getFecha(), inicioVentana + inicio);
+    }
+
+    // Evita crear un String nuevo para los tipos conocidos
+    private String tipo() {
+        if (parser.tipoEs(ventana, DEPOSITO)) return "DEPOSITO";
+        if (parser.tipoEs(ventana, RETIRO)) return "RETIRO";
+        return texto(parser.getInicioTipo(), parser.getFinTipo());
+    }
+
+    private boolean estaVacia(int inicio, int fin) {
+        for (int i = inicio; i < fin; i++) {
+            byte b = ventana.get(i);
+            if (b != ' ' && b != '\t' && b != '\r') return false;
+        }
+        return true;
+    }
+
+    private String texto(int inicio, int fin) {
+        byte[] b = new byte[fin - inicio];
+        ventana.get(inicio, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private void mapear(long desde) {
+        try {
+            long largo = Math.min(TAMANIO_VENTANA, tamanio - desde);
+            ventana = canal.map(FileChannel.MapMode.READ_ONLY, desde, largo);
+            inicioVentana = desde;
+            pos = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer " + archivo, e);
+        }
+    }
+}
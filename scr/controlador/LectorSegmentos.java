@@ -0,0 +1,83 @@
+package scr.controlador;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Recorre en orden varias partes de un log segmentado (segmentos cerrados, bloques de
+ * segmentos comprimidos y el archivo activo) como si fueran un solo lector. Cada parte
+ * se abre recién cuando se llega a ella.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+final class LectorSegmentos implements Iterator<MovimientoLog>, AutoCloseable {
+
+    /**
+     * Parte del log que se abre al llegar a ella.
+     */
+    interface Fuente {
+        LectorMovimientos abrir() throws IOException;
+    }
+
+    private final List<Fuente> fuentes;
+    private final Runnable alCerrar;
+    private int siguienteFuente;
+    private LectorMovimientos actual;
+    private long lineasInvalidas;
+    private boolean cerrado;
+
+    /**
+     * @param fuentes Partes del log, en orden.
+     * @param alCerrar Se ejecuta una vez al cerrar (ej. liberar el lock de lectura).
+     */
+    LectorSegmentos(List<Fuente> fuentes, Runnable alCerrar) {
+        this.fuentes = fuentes;
+        this.alCerrar = alCerrar;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (actual == null || !actual.hasNext()) {
+            if (actual != null) {
+                lineasInvalidas += actual.getLineasInvalidas();
+                actual.close();
+                actual = null;
+            }
+            if (cerrado || siguienteFuente == fuentes.size()) return false;
+            try {
+                actual = fuentes.get(siguienteFuente++).abrir();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public MovimientoLog next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return actual.next();
+    }
+
+    /**
+     * @return Cantidad de líneas inválidas encontradas hasta ahora.
+     */
+    long getLineasInvalidas() {
+        return lineasInvalidas + (actual != null ? actual.getLineasInvalidas() : 0);
+    }
+
+    @Override
+    public void close() {
+        if (cerrado) return;
+        cerrado = true;
+        try {
+            if (actual != null) actual.close();
+        } finally {
+            actual = null;
+            if (alCerrar != null) alCerrar.run();
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package scr.controlador;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Un log de movimientos de texto (ej. {@code depositos.txt}) dividido en segmentos: se
+ * escribe siempre en el archivo activo, que se cierra como {@link SegmentoLog} al cambiar
+ * el día o al superar un tamaño. Las lecturas por periodo o por cuenta saltean los
+ * segmentos que según su cabecera no tienen nada que aportar, y los segmentos viejos
+ * pueden comprimirse sin detener las escrituras.
+ *
+ * <p>Las escrituras y la rotación se sincronizan con el monitor del objeto. Los lectores
+ * toman el lock de lectura de {@code archivos} mientras recorren los segmentos; la
+ * compresión toma el de escritura sólo para reemplazar un segmento en la lista, así que
+ * nunca se borra el texto de un segmento que se está leyendo. El orden es siempre
+ * primero el lock y después el monitor.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+final class LogSegmentado {
+
+    private static final long SEGUNDOS_DIA = 86_400;
+    private static final long SIN_DIA = Long.MIN_VALUE;
+
+    private final String archivo;
+    private final String base;
+    private final ModoDurabilidad modo;
+    private final int maxRegistrosGrupo;
+    private final long intervaloGrupoMs;
+    private final long maximoBytes;
+    private final int diasSinComprimir;
+    private final Executor compactador;
+
+    private final ReentrantReadWriteLock archivos = new ReentrantReadWriteLock();
+    // Una compresión a la vez (la manual y la de fondo)
+    private final Object compresion = new Object();
+
+    // Protegidos por el monitor del objeto
+    private EscritorDiario escritor;
+    private IndiceMovimientos indice;
+    private long secuenciaActiva;
+    private long finDia = SIN_DIA;
+    // Lista inmutable; se reemplaza entera bajo el monitor
+    private volatile List<SegmentoLog> segmentos;
+
+    /**
+     * @param archivo Log activo (ej. "depositos.txt"); los segmentos usan el nombre sin extensión.
+     * @param modo Modo de durabilidad del escritor.
+     * @param maxRegistrosGrupo En modo GRUPO, registros acumulados antes de escribir.
+     * @param intervaloGrupoMs En modo GRUPO, milisegundos máximos antes de escribir.
+     * @param maximoBytes Tamaño del archivo activo a partir del cual se rota.
+     * @param diasSinComprimir Días que se dejan sin comprimir tras cada rotación (0 para no comprimir).
+     * @param compactador Donde se comprimen los segmentos viejos; null si no se comprime al rotar.
+     */
+    LogSegmentado(String archivo, ModoDurabilidad modo, int maxRegistrosGrupo, long intervaloGrupoMs,
+                  long maximoBytes, int diasSinComprimir, Executor compactador) {
+        this.archivo = archivo;
+        this.base = archivo.endsWith(".txt") ? archivo.substring(0, archivo.length() - 4) : archivo;
+        this.modo = modo;
+        this.maxRegistrosGrupo = maxRegistrosGrupo;
+        this.intervaloGrupoMs = intervaloGrupoMs;
+        this.maximoBytes = maximoBytes;
+        this.diasSinComprimir = diasSinComprimir;
+        this.compactador = compactador;
+        List<SegmentoLog> lista;
+        try {
+            lista = SegmentoLog.listar(base);
+        } catch (IOException e) {
+            Metricas.global().errorES("No se pudieron leer los segmentos de " + archivo + ": " + e.getMessage());
+            lista = new ArrayList<>();
+        }
+        this.segmentos = Collections.unmodifiableList(lista);
+        this.secuenciaActiva = lista.isEmpty() ? 1 : lista.get(lista.size() - 1).getSecuencia() + 1;
+        this.indice = abrirIndice(archivo);
+    }
+
+    private static IndiceMovimientos abrirIndice(String archivo) {
+        try {
+            return new IndiceMovimientos(archivo);
+        } catch (IOException e) {
+            Metricas.global().errorES("No se pudo abrir el índice de " + archivo + ", se leerá el archivo completo: " + e.getMessage());
+            return null;
+        }
+    }
+
+    String getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * @return Segmentos cerrados, en orden.
+     */
+    List<SegmentoLog> getSegmentos() {
+        return segmentos;
+    }
+
+    /**
+     * Escribe un movimiento según el modo de durabilidad, rotando antes si hace falta.
+     *
+     * @return Posición de la línea en el archivo activo.
+     * @throws IOException si falla la escritura.
+     */
+    synchronized long escribir(LocalDateTime fecha, String numeroCuenta, String tipoMovimiento,
+                               long monto, long saldoFinal) throws IOException {
+        EscritorDiario e = escritorParaEscribir(fecha);
+        long posicion = e.escribir(fecha, numeroCuenta, tipoMovimiento, monto, saldoFinal);
+        if (indice != null) indice.agregar(numeroCuenta, posicion);
+        return posicion;
+    }
+
+    /**
+     * Agrega un movimiento al grupo en curso (ver {@link EscritorDiario#agregar}); el
+     * grupo se cierra con {@link #terminarGrupo()}. Para que el grupo no se mezcle con
+     * otras escrituras, quien llama debe tener el monitor del log.
+     *
+     * @return Posición de la línea en el archivo activo.
+     * @throws IOException si falla la escritura.
+     */
+    synchronized long agregar(LocalDateTime fecha, String numeroCuenta, String tipoMovimiento,
+                              long monto, long saldoFinal) throws IOException {
+        EscritorDiario e = escritorParaEscribir(fecha);
+        long posicion = e.agregar(fecha, numeroCuenta, tipoMovimiento, monto, saldoFinal);
+        if (indice != null) indice.agregar(numeroCuenta, posicion);
+        return posicion;
+    }
+
+    synchronized void terminarGrupo() throws IOException {
+        if (escritor != null) escritor.terminarGrupo();
+    }
+
+    private EscritorDiario escritor() throws IOException {
+        if (escritor == null) escritor = new EscritorDiario(archivo, modo, maxRegistrosGrupo, intervaloGrupoMs);
+        return escritor;
+    }
+
+    // Rota si la línea es de otro día que la primera del archivo activo o si el archivo llegó al máximo
+    private EscritorDiario escritorParaEscribir(LocalDateTime fecha) throws IOException {
+        long segundos = fecha.toEpochSecond(ZoneOffset.UTC);
+        long tamanio = escritor().getTamanio();
+        if (tamanio == 0) {
+            finDia = finDelDia(segundos);
+            return escritor;
+        }
+        if (finDia == SIN_DIA) finDia = finDelDia(primeraFecha(segundos));
+        if (segundos >= finDia || tamanio >= maximoBytes) {
+            try {
+                rotar();
+            } catch (IOException e) {
+                // Se sigue escribiendo en el archivo activo; se reintenta en la próxima escritura
+                Metricas.global().errorES("No se pudo rotar " + archivo + ": " + e.getMessage());
+                if (indice == null) indice = abrirIndice(archivo);
+            }
+            finDia = finDelDia(segundos);
+        }
+        return escritor();
+    }
+
+    private static long finDelDia(long segundos) {
+        return Math.floorDiv(segundos, SEGUNDOS_DIA) * SEGUNDOS_DIA + SEGUNDOS_DIA;
+    }
+
+    // Fecha de la primera línea del archivo activo (al abrir un log que ya tenía movimientos)
+    private long primeraFecha(long porDefecto) {
+        long[] fecha = { porDefecto };
+        ParserLineaMovimiento parser = new ParserLineaMovimiento();
+        try (FileChannel canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ)) {
+            IndiceMovimientos.recorrerLineas(canal, new long[] { 0 }, (buf, inicio, fin) -> {
+                if (parser.parsear(buf, inicio, fin, null) == ParserLineaMovimiento.VALIDA) fecha[0] = parser.getEpochSegundos();
+            });
+        } catch (IOException e) {
+            // Sin fecha: se toma la de la línea que se va a escribir
+        }
+        return fecha[0];
+    }
+
+    /**
+     * Cierra el archivo activo como un nuevo segmento (si tiene movimientos) y empieza
+     * uno vacío.
+     *
+     * @throws IOException si falla el cierre o el renombre.
+     */
+    synchronized void rotar() throws IOException {
+        if (escritor != null) {
+            escritor.close();
+            escritor = null;
+        }
+        IndiceMovimientos cerrado = indice;
+        indice = null;
+        if (cerrado != null) cerrado.close();
+        Path ruta = Paths.get(archivo);
+        if (!Files.exists(ruta) || Files.size(ruta) == 0) {
+            indice = abrirIndice(archivo);
+            return;
+        }
+        SegmentoLog s = SegmentoLog.sellar(base, secuenciaActiva, archivo, cerrado);
+        List<SegmentoLog> lista = new ArrayList<>(segmentos);
+        lista.add(s);
+        segmentos = Collections.unmodifiableList(lista);
+        secuenciaActiva++;
+        indice = abrirIndice(archivo);
+        if (compactador != null && diasSinComprimir > 0) {
+            compactador.execute(() -> compactar(LocalDate.now().minusDays(diasSinComprimir)));
+        }
+    }
+
+    /**
+     * Comprime los segmentos de texto cuyo último movimiento es anterior al día indicado.
+     * Las escrituras siguen mientras tanto; sólo se esperan las lecturas en curso antes
+     * de reemplazar cada segmento.
+     *
+     * @param antesDe Primer día que no se comprime.
+     * @return Cantidad de segmentos comprimidos.
+     */
+    int compactar(LocalDate antesDe) {
+        long limite = antesDe.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        int n = 0;
+        synchronized (compresion) {
+            for (SegmentoLog s : segmentos) {
+                if (s.isComprimido() || s.getHasta() >= limite) continue;
+                SegmentoLog comprimido;
+                try {
+                    comprimido = s.comprimir();
+                } catch (IOException e) {
+                    Metricas.global().errorES("No se pudo comprimir " + s.getArchivo() + ": " + e.getMessage());
+                    continue;
+                }
+                archivos.writeLock().lock();
+                try {
+                    synchronized (this) {
+                        List<SegmentoLog> lista = new ArrayList<>(segmentos);
+                        lista.set(lista.indexOf(s), comprimido);
+                        segmentos = Collections.unmodifiableList(lista);
+                    }
+                } finally {
+                    archivos.writeLock().unlock();
+                }
+                // Los lectores que empiecen desde ahora ya usan el archivo comprimido
+                s.borrarTexto();
+                n++;
+            }
+        }
+        return n;
+    }
+
+    // Antes de leer se vuelca lo pendiente: primero el log y luego el índice, así el índice nunca apunta a datos no escritos
+    private synchronized void volcar() {
+        try {
+            if (escritor != null) escritor.volcar();
+            if (indice != null) indice.persistir();
+        } catch (IOException e) {
+            Metricas.global().errorES("Error al escribir en el archivo de log " + archivo + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe y fuerza a disco el archivo activo y luego guarda su índice. Si falla el
+     * índice sólo se cuenta: se rearma leyendo el archivo.
+     *
+     * @throws UncheckedIOException si falla la escritura o el fsync del archivo (el
+     *                              índice no se guarda, para no apuntar a datos no escritos).
+     */
+    synchronized void confirmar() {
+        try {
+            if (escritor != null) escritor.confirmar();
+        } catch (IOException e) {
+            Metricas.global().errorES("Error al confirmar el archivo de log " + archivo + ": " + e.getMessage());
+            throw new UncheckedIOException("Error al confirmar el archivo de log " + archivo, e);
+        }
+        try {
+            if (indice != null) indice.persistir();
+        } catch (IOException e) {
+            Metricas.global().errorES("Error al escribir el índice de movimientos: " + e.getMessage());
+        }
+    }
+
+    synchronized void cerrar() {
+        if (escritor != null) {
+            try {
+                escritor.close();
+            } catch (IOException e) {
+                Metricas.global().errorES("Error al cerrar el archivo de log " + archivo + ": " + e.getMessage());
+            }
+            escritor = null;
+        }
+        if (indice != null) {
+            try {
+                indice.close();
+            } catch (IOException e) {
+                Metricas.global().errorES("Error al cerrar el índice de movimientos: " + e.getMessage());
+            }
+            indice = null;
+        }
+        for (SegmentoLog s : segmentos) s.cerrarIndice();
+    }
+
+    /**
+     * @return {@code {segmento activo, bytes del archivo activo}}, incluyendo lo pendiente.
+     */
+    synchronized long[] posicion() {
+        volcar();
+        long tamanio;
+        if (escritor != null) {
+            tamanio = escritor.getTamanio();
+        } else {
+            try {
+                Path ruta = Paths.get(archivo);
+                tamanio = Files.exists(ruta) ? Files.size(ruta) : 0;
+            } catch (IOException e) {
+                Metricas.global().errorES("Error al leer el tamaño de " + archivo + ": " + e.getMessage());
+                tamanio = 0;
+            }
+        }
+        return new long[] { secuenciaActiva, tamanio };
+    }
+
+    /**
+     * @return true si todavía no se cerró ningún segmento.
+     */
+    boolean sinSegmentos() {
+        return segmentos.isEmpty();
+    }
+
+    synchronized long getSecuenciaActiva() {
+        return secuenciaActiva;
+    }
+
+    /**
+     * Abre un lector de los movimientos desde una posición, salteando los segmentos que
+     * no tienen movimientos en el periodo o de la cuenta. Si la cuenta tiene pocas líneas,
+     * los segmentos de texto y el archivo activo se leen por su índice. El lector debe
+     * cerrarse en el mismo hilo (libera el lock de lectura).
+     *
+     * @param secuencia Segmento de la posición (0 para leer desde el principio).
+     * @param posicion Bytes dentro de ese segmento.
+     * @param numeroCuenta Cuenta a filtrar, o null para todas.
+     * @param desde Inicio del periodo (segundos de hora local).
+     * @param hasta Fin del periodo (inclusive).
+     * @return Lector de los segmentos y del archivo activo, en orden.
+     * @throws IOException si no puede abrirse el archivo activo o un segmento comprimido.
+     */
+    LectorSegmentos abrir(long secuencia, long posicion, String numeroCuenta, long desde, long hasta) throws IOException {
+        archivos.readLock().lock();
+        LectorMovimientos activo = null;
+        try {
+            List<SegmentoLog> lista;
+            synchronized (this) {
+                volcar();
+                lista = segmentos;
+                // El archivo activo se abre ya: después de una rotación su nombre es el de otro archivo
+                if (secuencia <= secuenciaActiva) {
+                    long desdeActivo = secuencia == secuenciaActiva ? posicion : 0;
+                    activo = numeroCuenta != null && indice != null
+                            ? LectorMovimientos.deCuenta(archivo, indice.posicionesDe(numeroCuenta), indice.getRegistros(),
+                                    numeroCuenta, desdeActivo)
+                            : new LectorMovimientos(archivo, numeroCuenta, false, desdeActivo);
+                }
+            }
+            List<LectorSegmentos.Fuente> fuentes = new ArrayList<>();
+            for (SegmentoLog s : lista) {
+                if (s.getSecuencia() < secuencia || !s.solapa(desde, hasta)) continue;
+                if (numeroCuenta != null && !s.puedeContener(numeroCuenta)) continue;
+                s.agregarFuentes(fuentes, numeroCuenta, s.getSecuencia() == secuencia ? posicion : 0);
+            }
+            LectorMovimientos ultimo = activo;
+            if (ultimo != null) fuentes.add(() -> ultimo);
+            return new LectorSegmentos(fuentes, () -> {
+                try {
+                    if (ultimo != null) ultimo.close();
+                } finally {
+                    archivos.readLock().unlock();
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            if (activo != null) activo.close();
+            archivos.readLock().unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Abre un lector de todos los movimientos de un log (segmentos cerrados y archivo
+     * activo) sin abrirlo para escritura, ej. para convertirlo a otro formato. No debe
+     * haber otro proceso escribiendo o comprimiendo el log mientras tanto.
+     *
+     * @param archivo Log activo (ej. "depositos.txt").
+     * @return Lector de todo el log, en orden.
+     * @throws IOException si algún segmento no puede leerse.
+     */
+    static LectorSegmentos leerCompleto(String archivo) throws IOException {
+        String base = archivo.endsWith(".txt") ? archivo.substring(0, archivo.length() - 4) : archivo;
+        List<LectorSegmentos.Fuente> fuentes = new ArrayList<>();
+        for (SegmentoLog s : SegmentoLog.listar(base)) s.agregarFuentes(fuentes, null, 0);
+        fuentes.add(() -> new LectorMovimientos(archivo, null, false));
+        return new LectorSegmentos(fuentes, null);
+    }
+
+    /**
+     * Carga los movimientos de una cuenta de todos los segmentos que pueden tenerlos:
+     * con el índice en los de texto y en el archivo activo, y descomprimiendo sólo los
+     * bloques de la cuenta en los comprimidos. Las líneas inválidas se informan por System.err.
+     *
+     * @param numeroCuenta Número de cuenta.
+     * @return Movimientos de la cuenta en el orden del log.
+     * @throws UncheckedIOException si el log no pudo leerse completo.
+     */
+    List<MovimientoLog> leerCuenta(String numeroCuenta) {
+        List<MovimientoLog> resultado = new ArrayList<>();
+        long[] invalidas = { 0 };
+        FileChannel canal = null;
+        long[] posiciones = null;
+        LectorMovimientos activo = null;
+        archivos.readLock().lock();
+        try {
+            List<SegmentoLog> lista;
+            synchronized (this) {
+                volcar();
+                lista = segmentos;
+                Path ruta = Paths.get(archivo);
+                if (indice != null) {
+                    posiciones = indice.posicionesDe(numeroCuenta);
+                    if (posiciones.length > 0 && Files.exists(ruta)) canal = FileChannel.open(ruta, StandardOpenOption.READ);
+                } else {
+                    activo = new LectorMovimientos(archivo, numeroCuenta, false);
+                }
+            }
+            for (SegmentoLog s : lista) {
+                if (!s.puedeContener(numeroCuenta)) continue;
+                IndiceMovimientos i = s.isComprimido() ? null : s.indice();
+                if (i != null && leerConIndice(s.getArchivo(), numeroCuenta, resultado, invalidas,
+                        v -> i.recorrerLineas(numeroCuenta, v))) continue;
+                List<LectorSegmentos.Fuente> fuentes = new ArrayList<>();
+                s.agregarFuentes(fuentes, numeroCuenta, 0);
+                leerTodo(new LectorSegmentos(fuentes, null), resultado, invalidas);
+            }
+            if (canal != null) {
+                FileChannel c = canal;
+                long[] p = posiciones;
+                leerConIndice(archivo, numeroCuenta, resultado, invalidas, v -> IndiceMovimientos.recorrerLineas(c, p, v));
+            } else if (activo != null) {
+                LectorMovimientos a = activo;
+                leerTodo(new LectorSegmentos(Collections.singletonList(() -> a), null), resultado, invalidas);
+            }
+        } catch (IOException e) {
+            Metricas.global().errorES("Error al leer el archivo de log " + archivo + ": " + e.getMessage());
+            throw new UncheckedIOException("Error al leer el archivo de log " + archivo, e);
+        } catch (UncheckedIOException e) {
+            Metricas.global().errorES("Error al leer el archivo de log " + archivo + ": " + e.getMessage());
+            throw e;
+        } finally {
+            try {
+                if (canal != null) canal.close();
+            } catch (IOException e) {
+                // Sólo lectura: no hay nada pendiente
+            }
+            if (activo != null) activo.close();
+            archivos.readLock().unlock();
+        }
+        if (invalidas[0] > 0) {
+            System.err.println("Se ignoraron " + invalidas[0] + " líneas inválidas de la cuenta " + numeroCuenta + " en " + archivo);
+        }
+        return resultado;
+    }
+
+    private interface LecturaIndice {
+        void recorrer(VisitanteLinea visitante) throws IOException;
+    }
+
+    // false si la lectura por índice falló (y se descartó lo que llegó a leer)
+    private static boolean leerConIndice(String nombre, String numeroCuenta, List<MovimientoLog> resultado,
+                                         long[] invalidas, LecturaIndice lectura) {
+        int antes = resultado.size();
+        long invalidasAntes = invalidas[0];
+        // Formato esperado: yyyy-MM-dd HH:mm:ss | Cuenta: <num> | Tipo: <tipo> | Monto: $<monto> | Saldo Final: $<saldo>
+        ParserLineaMovimiento parser = new ParserLineaMovimiento();
+        byte[] cuenta = numeroCuenta.getBytes(StandardCharsets.UTF_8);
+        try {
+            lectura.recorrer((buf, inicio, fin) -> {
+                int r = parser.parsear(buf, inicio, fin, cuenta);
+                if (r == ParserLineaMovimiento.INVALIDA) invalidas[0]++;
+                if (r != ParserLineaMovimiento.VALIDA) return;
+                String tipo = new String(bytes(buf, parser.getInicioTipo(), parser.getFinTipo()), StandardCharsets.UTF_8);
+                resultado.add(new MovimientoLog(numeroCuenta, tipo, parser.getMontoCentavos(),
+                        parser.getSaldoCentavos(), parser.getFecha(), -1));
+            });
+            return true;
+        } catch (IOException e) {
+            Metricas.global().errorES("Error al leer " + nombre + " mediante el índice: " + e.getMessage());
+            resultado.subList(antes, resultado.size()).clear();
+            invalidas[0] = invalidasAntes;
+            return false;
+        }
+    }
+
+    private static void leerTodo(LectorSegmentos lector, List<MovimientoLog> resultado, long[] invalidas) {
+        try {
+            while (lector.hasNext()) resultado.add(lector.next());
+            invalidas[0] += lector.getLineasInvalidas();
+        } finally {
+            lector.close();
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer buf, int inicio, int fin) {
+        byte[] b = new byte[fin - inicio];
+        buf.get(inicio, b);
+        return b;
+    }
+}
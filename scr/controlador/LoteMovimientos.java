@@ -0,0 +1,86 @@
+package scr.controlador;
+import java.util.Arrays;
+
+/**
+ * Lote de movimientos a registrar juntos con {@link Persistencia#registrarLote}.
+ * Los campos se guardan en arreglos paralelos que se reutilizan entre lotes, así
+ * que acumular movimientos no crea un objeto por cada uno.
+ *
+ * <p>Una instancia no es segura para uso concurrente.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class LoteMovimientos {
+
+    private String[] tipos;
+    private String[] cuentas;
+    private long[] montos;
+    private long[] saldos;
+    private int tamanio;
+
+    /**
+     * @param capacidad Cantidad de movimientos que entran sin agrandar los arreglos.
+     */
+    public LoteMovimientos(int capacidad) {
+        int n = Math.max(1, capacidad);
+        this.tipos = new String[n];
+        this.cuentas = new String[n];
+        this.montos = new long[n];
+        this.saldos = new long[n];
+        this.tamanio = 0;
+    }
+
+    /**
+     * Agrega un movimiento al final del lote.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param tipoMovimiento "DEPOSITO", "RETIRO", "INTERES" o "MANTENIMIENTO".
+     * @param numeroCuenta El número de la cuenta.
+     * @param monto Cantidad del movimiento en centavos.
+     * @param saldoFinal Saldo de la cuenta después del movimiento, en centavos.
+     */
+    public void agregar(String tipoMovimiento, String numeroCuenta, long monto, long saldoFinal) {
+        if (tamanio == montos.length) {
+            int n = tamanio * 2;
+            tipos = Arrays.copyOf(tipos, n);
+            cuentas = Arrays.copyOf(cuentas, n);
+            montos = Arrays.copyOf(montos, n);
+            saldos = Arrays.copyOf(saldos, n);
+        }
+        tipos[tamanio] = tipoMovimiento;
+        cuentas[tamanio] = numeroCuenta;
+        montos[tamanio] = monto;
+        saldos[tamanio] = saldoFinal;
+        tamanio++;
+    }
+
+    /**
+     * Vacía el lote para reutilizarlo.
+     */
+    public void limpiar() {
+        Arrays.fill(cuentas, 0, tamanio, null);
+        tamanio = 0;
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    public String getTipo(int i) {
+        return tipos[i];
+    }
+
+    public String getNumeroCuenta(int i) {
+        return cuentas[i];
+    }
+
+    public long getMonto(int i) {
+        return montos[i];
+    }
+
+    public long getSaldoFinal(int i) {
+        return saldos[i];
+    }
+}
@@ -0,0 +1,256 @@
+package scr.controlador;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.CuentaCorriente;
+import scr.model.CuentaEmpresarial;
+import scr.model.ResultadoRetiro;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Métricas del sistema: operaciones por tipo de movimiento y de cuenta, retiros
+ * rechazados por motivo, errores de E/S y latencias ({@link HistogramaLatencia}) de
+ * depósitos, retiros, transferencias, escrituras y consultas de los logs.
+ *
+ * <p>Hay una sola instancia por proceso ({@link #global()}), compartida por el
+ * controlador y los backends de persistencia. Registrar no toma locks ni crea
+ * objetos ({@link LongAdder} y contadores atómicos), así que puede quedar activo en
+ * producción. Se consulta por JMX ({@link #registrarJmx()}) o con un volcado
+ * periódico a un archivo de texto ({@link #iniciarVolcado(String, long)}).</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class Metricas implements MetricasMXBean {
+
+    /** Nombre con el que se registra el MXBean. */
+    public static final String NOMBRE_JMX = "scr.banco:type=Metricas";
+    /** Archivo de volcado por defecto. */
+    public static final String ARCHIVO_POR_DEFECTO = "metricas.txt";
+
+    private static final String[] TIPOS_MOVIMIENTO = { "DEPOSITO", "RETIRO", "INTERES", "MANTENIMIENTO", "TRANSFERENCIA" };
+    private static final String[] TIPOS_CUENTA = { "CuentaCorriente", "CuentaAhorros", "CuentaEmpresarial", "Otra" };
+    private static final ResultadoRetiro[] MOTIVOS = ResultadoRetiro.values();
+
+    private static final Metricas GLOBAL = new Metricas();
+
+    private final LongAdder[][] operaciones = new LongAdder[TIPOS_MOVIMIENTO.length][TIPOS_CUENTA.length];
+    private final LongAdder[] rechazos = new LongAdder[MOTIVOS.length];
+    private final LongAdder erroresES = new LongAdder();
+
+    final HistogramaLatencia deposito = new HistogramaLatencia();
+    final HistogramaLatencia retiro = new HistogramaLatencia();
+    final HistogramaLatencia transferencia = new HistogramaLatencia();
+    // Registro de un movimiento en el backend (incluye el fsync en modo FSYNC)
+    final HistogramaLatencia escritura = new HistogramaLatencia();
+    final HistogramaLatencia escrituraLote = new HistogramaLatencia();
+    // Lectura de los movimientos de una cuenta desde los logs
+    final HistogramaLatencia consulta = new HistogramaLatencia();
+
+    private ScheduledExecutorService volcado;
+
+    private Metricas() {
+        for (LongAdder[] fila : operaciones) {
+            for (int j = 0; j < fila.length; j++) fila[j] = new LongAdder();
+        }
+        for (int i = 0; i < rechazos.length; i++) rechazos[i] = new LongAdder();
+    }
+
+    /**
+     * @return Las métricas del proceso.
+     */
+    public static Metricas global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Registra el MXBean de las métricas en el servidor de la plataforma. Si ya estaba
+     * registrado no hace nada.
+     *
+     * @author Juan
+     * @version 1.0
+     */
+    public static synchronized void registrarJmx() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            if (!servidor.isRegistered(nombre)) servidor.registerMBean(GLOBAL, nombre);
+        } catch (JMException e) {
+            System.err.println("No se pudieron publicar las métricas por JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cuenta una operación realizada.
+     *
+     * @param tipoMovimiento "DEPOSITO", "RETIRO", "INTERES", "MANTENIMIENTO" o
+     *                       "TRANSFERENCIA" (otros se ignoran).
+     * @param cuenta Cuenta sobre la que se hizo (en las transferencias, la de origen).
+     */
+    public void operacion(String tipoMovimiento, CuentaBancaria cuenta) {
+        int i = indiceMovimiento(tipoMovimiento);
+        if (i >= 0) operaciones[i][indiceCuenta(cuenta)].increment();
+    }
+
+    /**
+     * Cuenta un retiro o una transferencia rechazados.
+     *
+     * @param motivo Motivo del rechazo.
+     */
+    public void rechazo(ResultadoRetiro motivo) {
+        rechazos[motivo.ordinal()].increment();
+    }
+
+    /**
+     * Cuenta un error de lectura o escritura de los archivos y lo informa por System.err.
+     *
+     * @param mensaje Descripción del error.
+     */
+    public void errorES(String mensaje) {
+        erroresES.increment();
+        System.err.println(mensaje);
+    }
+
+    private static int indiceMovimiento(String tipo) {
+        for (int i = 0; i < TIPOS_MOVIMIENTO.length; i++) {
+            if (TIPOS_MOVIMIENTO[i].equals(tipo)) return i;
+        }
+        return -1;
+    }
+
+    private static int indiceCuenta(CuentaBancaria cuenta) {
+        if (cuenta instanceof CuentaCorriente) return 0;
+        if (cuenta instanceof CuentaAhorros) return 1;
+        if (cuenta instanceof CuentaEmpresarial) return 2;
+        return 3;
+    }
+
+    @Override
+    public Map<String, Long> getOperaciones() {
+        Map<String, Long> resultado = new LinkedHashMap<>();
+        for (int i = 0; i < TIPOS_MOVIMIENTO.length; i++) {
+            for (int j = 0; j < TIPOS_CUENTA.length; j++) {
+                long n = operaciones[i][j].sum();
+                if (n > 0) resultado.put(TIPOS_MOVIMIENTO[i] + "/" + TIPOS_CUENTA[j], n);
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public Map<String, Long> getRechazos() {
+        Map<String, Long> resultado = new LinkedHashMap<>();
+        for (ResultadoRetiro motivo : MOTIVOS) {
+            if (!motivo.isRealizado()) resultado.put(motivo.name(), rechazos[motivo.ordinal()].sum());
+        }
+        return resultado;
+    }
+
+    @Override
+    public long getErroresES() {
+        return erroresES.sum();
+    }
+
+    @Override
+    public Map<String, ResumenLatencia> getLatencias() {
+        Map<String, ResumenLatencia> resultado = new LinkedHashMap<>();
+        resultado.put("deposito", deposito.resumen());
+        resultado.put("retiro", retiro.resumen());
+        resultado.put("transferencia", transferencia.resumen());
+        resultado.put("escritura", escritura.resumen());
+        resultado.put("escrituraLote", escrituraLote.resumen());
+        resultado.put("consulta", consulta.resumen());
+        return resultado;
+    }
+
+    @Override
+    public String getResumen() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Métricas al ").append(LocalDateTime.now().withNano(0)).append('\n');
+        sb.append("Operaciones:\n");
+        for (Map.Entry<String, Long> e : getOperaciones().entrySet()) {
+            sb.append("  ").append(e.getKey()).append(": ").append(e.getValue()).append('\n');
+        }
+        sb.append("Retiros y transferencias rechazados:\n");
+        for (Map.Entry<String, Long> e : getRechazos().entrySet()) {
+            sb.append("  ").append(e.getKey()).append(": ").append(e.getValue()).append('\n');
+        }
+        sb.append("Errores de E/S: ").append(getErroresES()).append('\n');
+        sb.append("Latencias:\n");
+        for (Map.Entry<String, ResumenLatencia> e : getLatencias().entrySet()) {
+            sb.append("  ").append(e.getKey()).append(": ").append(e.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void reiniciar() {
+        for (LongAdder[] fila : operaciones) {
+            for (LongAdder a : fila) a.reset();
+        }
+        for (LongAdder a : rechazos) a.reset();
+        erroresES.reset();
+        deposito.reiniciar();
+        retiro.reiniciar();
+        transferencia.reiniciar();
+        escritura.reiniciar();
+        escrituraLote.reiniciar();
+        consulta.reiniciar();
+    }
+
+    /**
+     * Escribe el resumen en un archivo, reemplazando el contenido anterior (primero en
+     * un temporal, para que quien lo lea nunca vea un volcado a medias).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Archivo de destino.
+     * @throws IOException si falla la escritura.
+     */
+    public void volcar(String archivo) throws IOException {
+        Path destino = Paths.get(archivo);
+        Path temporal = Paths.get(archivo + ".tmp");
+        Files.write(temporal, getResumen().getBytes(StandardCharsets.UTF_8));
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Vuelca el resumen al archivo cada {@code intervaloMs} milisegundos desde un hilo
+     * daemon. Si el volcado ya estaba activo no hace nada.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param archivo Archivo de destino.
+     * @param intervaloMs Intervalo entre volcados; 0 para no activarlo.
+     */
+    public synchronized void iniciarVolcado(String archivo, long intervaloMs) {
+        if (volcado != null || intervaloMs <= 0) return;
+        volcado = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metricas");
+            t.setDaemon(true);
+            return t;
+        });
+        volcado.scheduleWithFixedDelay(() -> {
+            try {
+                volcar(archivo);
+            } catch (IOException e) {
+                System.err.println("Error al volcar las métricas en " + archivo + ": " + e.getMessage());
+            }
+        }, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+}
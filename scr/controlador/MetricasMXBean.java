@@ -0,0 +1,41 @@
+package scr.controlador;
+import java.util.Map;
+
+/**
+ * Vista JMX de {@link Metricas} (se registra como {@value Metricas#NOMBRE_JMX}).
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public interface MetricasMXBean {
+
+    /**
+     * @return Operaciones realizadas por "TIPO/TipoDeCuenta" (ej. "RETIRO/CuentaAhorros").
+     */
+    Map<String, Long> getOperaciones();
+
+    /**
+     * @return Retiros y transferencias rechazados por motivo.
+     */
+    Map<String, Long> getRechazos();
+
+    /**
+     * @return Errores de lectura o escritura de los archivos de movimientos.
+     */
+    long getErroresES();
+
+    /**
+     * @return Latencias por operación (depósito, retiro, transferencia, escritura y consulta de logs).
+     */
+    Map<String, ResumenLatencia> getLatencias();
+
+    /**
+     * @return Las métricas en el mismo formato que el volcado a archivo.
+     */
+    String getResumen();
+
+    /**
+     * Pone en cero contadores e histogramas.
+     */
+    void reiniciar();
+}
@@ -0,0 +1,160 @@
+package scr.controlador;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Intercala por fecha varios recorridos de movimientos, cada uno ya ordenado (ej. el log
+ * de depósitos y el de retiros, o uno por tipo de movimiento), y los entrega como una sola
+ * secuencia cronológica. Guarda el próximo movimiento de cada recorrido y el último saldo
+ * entregado de cada cuenta, así que la memoria depende de la cantidad de cuentas y no de
+ * la de movimientos.
+ *
+ * <p>La fecha tiene precisión de segundos, y con mucha actividad una cuenta puede tener
+ * varios movimientos en el mismo segundo repartidos entre los recorridos. Entre los
+ * movimientos con la misma fecha va primero el que continúa el último saldo entregado de
+ * su cuenta (un débito que baja más que su monto, por una comisión, cuenta como
+ * continuación dudosa); si ninguno lo hace, el recorrido anterior en la lista.</p>
+ *
+ * <p>Si los recorridos son {@link AutoCloseable}, {@link #close()} los cierra.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class MezclaMovimientos implements Iterator<MovimientoLog>, AutoCloseable {
+
+    private final List<? extends Iterator<MovimientoLog>> fuentes;
+    private final PriorityQueue<Cabeza> cabezas;
+    private final Map<String, Long> ultimoSaldo = new HashMap<>();
+    private final List<Cabeza> empates = new ArrayList<>();
+
+    /**
+     * @author Juan
+     * @version 1.0
+     * @param fuentes Recorridos ordenados por fecha; en un empate que los saldos no
+     *                resuelven tiene prioridad el primero.
+     */
+    public MezclaMovimientos(List<? extends Iterator<MovimientoLog>> fuentes) {
+        this.fuentes = fuentes;
+        this.cabezas = new PriorityQueue<>(Math.max(1, fuentes.size()), (x, y) -> {
+            int c = x.movimiento.getFecha().compareTo(y.movimiento.getFecha());
+            return c != 0 ? c : Integer.compare(x.fuente, y.fuente);
+        });
+        for (int i = 0; i < fuentes.size(); i++) avanzar(new Cabeza(i));
+    }
+
+    /**
+     * Intercala los recorridos y entrega cada movimiento al visitante.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param fuentes Recorridos ordenados por fecha.
+     * @param visitante Recibe cada movimiento, en orden cronológico.
+     */
+    public static void recorrer(List<? extends Iterator<MovimientoLog>> fuentes, Consumer<MovimientoLog> visitante) {
+        new MezclaMovimientos(fuentes).forEachRemaining(visitante);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !cabezas.isEmpty();
+    }
+
+    @Override
+    public MovimientoLog next() {
+        Cabeza x = cabezas.poll();
+        if (x == null) throw new NoSuchElementException();
+        Cabeza y = cabezas.peek();
+        if (y != null && y.movimiento.getFecha().equals(x.movimiento.getFecha())) x = elegir(x);
+        MovimientoLog m = x.movimiento;
+        ultimoSaldo.put(m.getNumeroCuenta(), m.getSaldoFinal());
+        avanzar(x);
+        return m;
+    }
+
+    // Entre las cabezas con la fecha de x (que son las primeras de la cola), la que continúa su cuenta
+    private Cabeza elegir(Cabeza x) {
+        empates.clear();
+        empates.add(x);
+        while (!cabezas.isEmpty() && cabezas.peek().movimiento.getFecha().equals(x.movimiento.getFecha())) {
+            empates.add(cabezas.poll());
+        }
+        Cabeza mejor = x;
+        int puntajeMejor = puntaje(x.movimiento);
+        for (int i = 1; i < empates.size(); i++) {
+            Cabeza c = empates.get(i);
+            int p = puntaje(c.movimiento);
+            // Sin saldo anterior conocido (ej. al reproducir desde una instantánea) se comparan entre sí
+            boolean antes = p == 0 && puntajeMejor == 0
+                    && c.movimiento.getNumeroCuenta().equals(mejor.movimiento.getNumeroCuenta())
+                    && continua(c.movimiento.getSaldoFinal(), mejor.movimiento) && !continua(mejor.movimiento.getSaldoFinal(), c.movimiento);
+            if (p > puntajeMejor || antes) {
+                mejor = c;
+                puntajeMejor = p;
+            }
+        }
+        for (Cabeza c : empates) {
+            if (c != mejor) cabezas.add(c);
+        }
+        return mejor;
+    }
+
+    // 2 si el movimiento continúa exactamente el último saldo de su cuenta, 1 si es un débito
+    // que baja más que su monto (comisión), 0 si no lo continúa o no se conoce el saldo
+    private int puntaje(MovimientoLog m) {
+        Long anterior = ultimoSaldo.get(m.getNumeroCuenta());
+        if (anterior == null) return 0;
+        if (continua(anterior, m)) return 2;
+        return !AgregadosCuenta.esCredito(m.getTipo()) && anterior - m.getMonto() > m.getSaldoFinal() ? 1 : 0;
+    }
+
+    private static boolean continua(long saldoAnterior, MovimientoLog m) {
+        long efecto = AgregadosCuenta.esCredito(m.getTipo()) ? m.getMonto() : -m.getMonto();
+        return saldoAnterior + efecto == m.getSaldoFinal();
+    }
+
+    private void avanzar(Cabeza c) {
+        Iterator<MovimientoLog> it = fuentes.get(c.fuente);
+        if (!it.hasNext()) return;
+        c.movimiento = it.next();
+        cabezas.add(c);
+    }
+
+    /**
+     * Cierra los recorridos que sean {@link AutoCloseable}.
+     */
+    @Override
+    public void close() {
+        RuntimeException error = null;
+        for (Iterator<MovimientoLog> it : fuentes) {
+            if (!(it instanceof AutoCloseable)) continue;
+            try {
+                ((AutoCloseable) it).close();
+            } catch (Exception e) {
+                RuntimeException r = e instanceof RuntimeException ? (RuntimeException) e
+                        : e instanceof IOException ? new UncheckedIOException((IOException) e) : new IllegalStateException(e);
+                if (error == null) error = r;
+                else error.addSuppressed(r);
+            }
+        }
+        cabezas.clear();
+        if (error != null) throw error;
+    }
+
+    // Próximo movimiento de una fuente
+    private static final class Cabeza {
+        final int fuente;
+        MovimientoLog movimiento;
+
+        Cabeza(int fuente) {
+            this.fuente = fuente;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package scr.controlador;
+
+/**
+ * Modos de durabilidad soportados por {@link EscritorDiario}.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public enum ModoDurabilidad {
+    /** Cada movimiento se escribe al archivo inmediatamente (sin fsync). */
+    POR_OPERACION,
+    /** Los movimientos se agrupan y se escriben cada N registros o cada N milisegundos. */
+    GRUPO,
+    /** Cada movimiento se escribe y se fuerza a disco (fsync) antes de retornar. */
+    FSYNC
+}
@@ -0,0 +1,60 @@
+package scr.controlador;
+import scr.model.Deposito;
+import scr.model.Movimiento;
+import scr.model.Retiro;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento leído de un archivo de log, con todos los campos de la línea.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class MovimientoLog {
+    private final String numeroCuenta;
+    private final String tipo;
+    private final long monto;
+    private final long saldoFinal;
+    private final LocalDateTime fecha;
+    private final long posicion;
+
+    /**
+     * @param numeroCuenta Número de cuenta.
+     * @param tipo Tipo de movimiento (ej. "DEPOSITO").
+     * @param monto Monto del movimiento en centavos.
+     * @param saldoFinal Saldo registrado luego del movimiento, en centavos.
+     * @param fecha Fecha del movimiento.
+     * @param posicion Posición (en bytes) de la línea dentro del archivo.
+     */
+    public MovimientoLog(String numeroCuenta, String tipo, long monto, long saldoFinal,
+                         LocalDateTime fecha, long posicion) {
+        this.numeroCuenta = numeroCuenta;
+        this.tipo = tipo;
+        this.monto = monto;
+        this.saldoFinal = saldoFinal;
+        this.fecha = fecha;
+        this.posicion = posicion;
+    }
+
+    /**
+     * Convierte el registro al objeto del modelo según su tipo.
+     * @param secuencia Posición entre los movimientos del mismo tipo de la cuenta (ver {@link Movimiento#getSecuencia()}).
+     * @return Un {@link Deposito} o un {@link Retiro}; null si el tipo no es reconocido.
+     */
+    public Movimiento aMovimiento(long secuencia) {
+        if (tipo.equals("DEPOSITO") || tipo.equals("INTERES") || tipo.equals("TRANSFERENCIA_RECIBIDA")) {
+            return new Deposito(monto, fecha, secuencia);
+        }
+        if (tipo.equals("RETIRO") || tipo.equals("MANTENIMIENTO") || tipo.equals("TRANSFERENCIA_ENVIADA")) {
+            return new Retiro(monto, fecha, secuencia);
+        }
+        return null;
+    }
+
+    public String getNumeroCuenta() { return numeroCuenta; }
+    public String getTipo() { return tipo; }
+    public long getMonto() { return monto; }
+    public long getSaldoFinal() { return saldoFinal; }
+    public LocalDateTime getFecha() { return fecha; }
+    public long getPosicion() { return posicion; }
+}
@@ -0,0 +1,290 @@
+package scr.controlador;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+/**
+ * Parser escrito a mano para las líneas de los logs de movimientos:
+ * {@code yyyy-MM-dd HH:mm:ss | Cuenta: <num> | Tipo: <tipo> | Monto: $<monto> | Saldo Final: $<saldo>}.
+ *
+ * <p>Trabaja directamente sobre los bytes de un {@link ByteBuffer} sin crear
+ * objetos intermedios: los campos quedan en atributos primitivos de la instancia,
+ * que se reutiliza entre líneas. Si se indica una cuenta a filtrar, las líneas de
+ * otras cuentas se descartan luego de leer sólo el campo de cuenta.</p>
+ *
+ * <p>Una instancia no es segura para uso concurrente.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class ParserLineaMovimiento {
+
+    /** La línea es válida y (si había filtro) pertenece a la cuenta buscada. */
+    public static final int VALIDA = 0;
+    /** La línea pertenece a otra cuenta; el resto de los campos no se leyó. */
+    public static final int OTRA_CUENTA = 1;
+    /** La línea no tiene el formato esperado. */
+    public static final int INVALIDA = 2;
+
+    private static final byte[] CUENTA = { 'C', 'u', 'e', 'n', 't', 'a', ':' };
+    private static final byte[] TIPO = { 'T', 'i', 'p', 'o', ':' };
+    private static final byte[] MONTO = { 'M', 'o', 'n', 't', 'o', ':' };
+    private static final byte[] SALDO = { 'S', 'a', 'l', 'd', 'o', ' ', 'F', 'i', 'n', 'a', 'l', ':' };
+
+    // Campos de la última línea parseada
+    private int anio, mes, dia, hora, minuto, segundo;
+    private int inicioCuenta, finCuenta;
+    private int inicioTipo, finTipo;
+    private long montoCentavos;
+    private long saldoCentavos;
+
+    // Posición de lectura dentro de la línea actual
+    private int pos;
+
+    /**
+     * Parsea la línea contenida en {@code buf[inicio, fin)}.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param buf Buffer con los bytes de la línea (no se modifica su posición).
+     * @param inicio Índice del primer byte de la línea.
+     * @param fin Índice siguiente al último byte (sin incluir el salto de línea).
+     * @param cuentaFiltro Bytes del número de cuenta buscado, o null para aceptar cualquiera.
+     * @return {@link #VALIDA}, {@link #OTRA_CUENTA} o {@link #INVALIDA}.
+     */
+    public int parsear(ByteBuffer buf, int inicio, int fin, byte[] cuentaFiltro) {
+        while (fin > inicio && esEspacio(buf.get(fin - 1))) fin--;
+        pos = inicio;
+        if (!leerFecha(buf, fin)) return INVALIDA;
+
+        // Cuenta
+        if (!leerEtiqueta(buf, fin, CUENTA)) return INVALIDA;
+        inicioCuenta = pos;
+        finCuenta = finCampo(buf, fin);
+        if (finCuenta <= inicioCuenta) return INVALIDA;
+        if (cuentaFiltro != null && !igual(buf, inicioCuenta, finCuenta, cuentaFiltro)) return OTRA_CUENTA;
+
+        // Tipo
+        if (!leerEtiqueta(buf, fin, TIPO)) return INVALIDA;
+        inicioTipo = pos;
+        finTipo = finCampo(buf, fin);
+
+        // Monto
+        if (!leerEtiqueta(buf, fin, MONTO)) return INVALIDA;
+        if (pos < fin && buf.get(pos) == '$') pos++;
+        montoCentavos = leerCentavos(buf, fin);
+        if (montoCentavos == Long.MIN_VALUE) return INVALIDA;
+
+        // Saldo final
+        if (!leerEtiqueta(buf, fin, SALDO)) return INVALIDA;
+        if (pos < fin && buf.get(pos) == '$') pos++;
+        saldoCentavos = leerCentavos(buf, fin);
+        if (saldoCentavos == Long.MIN_VALUE) return INVALIDA;
+        return VALIDA;
+    }
+
+    /**
+     * @return Fecha de la última línea válida como segundos desde 1970-01-01T00:00:00 (hora local sin zona).
+     */
+    public long getEpochSegundos() {
+        return diasDesdeEpoch(anio, mes, dia) * 86_400L + hora * 3_600L + minuto * 60L + segundo;
+    }
+
+    /**
+     * @return Fecha de la última línea válida.
+     */
+    public LocalDateTime getFecha() {
+        return LocalDateTime.of(anio, mes, dia, hora, minuto, segundo);
+    }
+
+    public long getMontoCentavos() {
+        return montoCentavos;
+    }
+
+    public long getSaldoCentavos() {
+        return saldoCentavos;
+    }
+
+    /**
+     * @return Índice (dentro del buffer) del primer byte del número de cuenta.
+     */
+    public int getInicioCuenta() {
+        return inicioCuenta;
+    }
+
+    /**
+     * @return Índice (dentro del buffer) siguiente al último byte del número de cuenta.
+     */
+    public int getFinCuenta() {
+        return finCuenta;
+    }
+
+    /**
+     * @return Índice (dentro del buffer) del primer byte del tipo de movimiento.
+     */
+    public int getInicioTipo() {
+        return inicioTipo;
+    }
+
+    /**
+     * @return Índice (dentro del buffer) siguiente al último byte del tipo de movimiento.
+     */
+    public int getFinTipo() {
+        return finTipo;
+    }
+
+    /**
+     * Indica si el tipo de la última línea es igual al dado (ej. "DEPOSITO").
+     *
+     * @param buf Buffer de la línea parseada.
+     * @param tipo Bytes ASCII del tipo esperado.
+     * @return true si coincide.
+     */
+    public boolean tipoEs(ByteBuffer buf, byte[] tipo) {
+        return igual(buf, inicioTipo, finTipo, tipo);
+    }
+
+    // yyyy-MM-dd HH:mm:ss
+    private boolean leerFecha(ByteBuffer buf, int fin) {
+        while (pos < fin && esEspacio(buf.get(pos))) pos++;
+        if (fin - pos < 19) return false;
+        int p = pos;
+        anio = digitos(buf, p, 4);
+        mes = digitos(buf, p + 5, 2);
+        dia = digitos(buf, p + 8, 2);
+        hora = digitos(buf, p + 11, 2);
+        minuto = digitos(buf, p + 14, 2);
+        segundo = digitos(buf, p + 17, 2);
+        if (anio < 0 || mes < 1 || mes > 12 || dia < 1 || dia > 31 || hora < 0 || hora > 23
+                || minuto < 0 || minuto > 59 || segundo < 0 || segundo > 59) return false;
+        if (buf.get(p + 4) != '-' || buf.get(p + 7) != '-' || buf.get(p + 10) != ' '
+                || buf.get(p + 13) != ':' || buf.get(p + 16) != ':') return false;
+        if (dia > diasDelMes(anio, mes)) return false;
+        pos = p + 19;
+        return true;
+    }
+
+    // Avanza hasta el siguiente '|' y espera la etiqueta indicada; deja 'pos' al inicio del valor
+    private boolean leerEtiqueta(ByteBuffer buf, int fin, byte[] etiqueta) {
+        while (pos < fin && buf.get(pos) != '|') pos++;
+        if (pos >= fin) return false;
+        pos++;
+        while (pos < fin && esEspacio(buf.get(pos))) pos++;
+        if (fin - pos < etiqueta.length) return false;
+        for (int i = 0; i < etiqueta.length; i++) {
+            if (buf.get(pos + i) != etiqueta[i]) return false;
+        }
+        pos += etiqueta.length;
+        while (pos < fin && esEspacio(buf.get(pos))) pos++;
+        return true;
+    }
+
+    // Devuelve el fin del valor actual (antes de los espacios que preceden al siguiente '|')
+    private int finCampo(ByteBuffer buf, int fin) {
+        int p = pos;
+        while (p < fin && buf.get(p) != '|') p++;
+        int f = p;
+        while (f > pos && esEspacio(buf.get(f - 1))) f--;
+        pos = p;
+        return f;
+    }
+
+    // Lee el monto hasta el siguiente '|' (o el fin de la línea); Long.MIN_VALUE si es inválido
+    private long leerCentavos(ByteBuffer buf, int fin) {
+        int p = pos;
+        while (p < fin && buf.get(p) != '|') p++;
+        long centavos = centavos(buf, pos, p);
+        pos = p;
+        return centavos;
+    }
+
+    /**
+     * Lee un decimal con hasta 2 decimales (redondeando el tercero) como centavos.
+     * Se admiten espacios al final del rango.
+     *
+     * @param buf Buffer con el texto.
+     * @param inicio Índice del primer byte del número.
+     * @param fin Índice siguiente al último byte del campo.
+     * @return Monto en centavos, o Long.MIN_VALUE si el campo no es un número válido.
+     */
+    static long centavos(ByteBuffer buf, int inicio, int fin) {
+        int p = inicio;
+        boolean negativo = false;
+        if (p < fin && buf.get(p) == '-') {
+            negativo = true;
+            p++;
+        }
+        long entero = 0;
+        int cifras = 0;
+        while (p < fin) {
+            int d = buf.get(p) - '0';
+            if (d < 0 || d > 9) break;
+            entero = entero * 10 + d;
+            cifras++;
+            p++;
+        }
+        long decimales = 0;
+        if (p < fin && buf.get(p) == '.') {
+            p++;
+            int n = 0;
+            while (p < fin) {
+                int d = buf.get(p) - '0';
+                if (d < 0 || d > 9) break;
+                if (n < 2) decimales = decimales * 10 + d;
+                else if (n == 2 && d >= 5) decimales++;
+                n++;
+                cifras++;
+                p++;
+            }
+            if (n == 1) decimales *= 10;
+        }
+        if (cifras == 0) return Long.MIN_VALUE;
+        while (p < fin && esEspacio(buf.get(p))) p++;
+        if (p < fin) return Long.MIN_VALUE;
+        long centavos = entero * 100 + decimales;
+        return negativo ? -centavos : centavos;
+    }
+
+    private static int digitos(ByteBuffer buf, int p, int n) {
+        int v = 0;
+        for (int i = 0; i < n; i++) {
+            int d = buf.get(p + i) - '0';
+            if (d < 0 || d > 9) return -1;
+            v = v * 10 + d;
+        }
+        return v;
+    }
+
+    private static boolean igual(ByteBuffer buf, int inicio, int fin, byte[] valor) {
+        if (fin - inicio != valor.length) return false;
+        for (int i = 0; i < valor.length; i++) {
+            if (buf.get(inicio + i) != valor[i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean esEspacio(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static int diasDelMes(int anio, int mes) {
+        switch (mes) {
+            case 2:
+                boolean bisiesto = (anio % 4 == 0 && anio % 100 != 0) || anio % 400 == 0;
+                return bisiesto ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Días desde 1970-01-01 del calendario gregoriano proléptico
+    static long diasDesdeEpoch(int anio, int mes, int dia) {
+        long y = mes <= 2 ? anio - 1 : anio;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153 * (mes + (mes > 2 ? -3 : 9)) + 2) / 5 + dia - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146_097 + doe - 719_468;
+    }
+}
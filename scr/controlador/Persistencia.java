@@ -0,0 +1,120 @@
+package scr.controlador;
+import scr.model.FuenteMovimientos;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Backend de persistencia de movimientos usado por {@link BancoController}.
+ * Implementaciones: {@link GestorArchivos} (logs de texto) y {@link DiarioBinario}
+ * (diario binario de registros de tamaño fijo). Como {@link FuenteMovimientos} sirve
+ * el historial completo de cada cuenta.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public interface Persistencia extends FuenteMovimientos {
+
+    /**
+     * Registra un movimiento.
+     *
+     * @param tipoMovimiento "DEPOSITO", "RETIRO", "INTERES" o "MANTENIMIENTO".
+     * @param numeroCuenta El número de la cuenta.
+     * @param monto Cantidad del movimiento en centavos.
+     * @param saldoFinal Saldo de la cuenta después del movimiento, en centavos.
+     */
+    void registrarMovimiento(String tipoMovimiento, String numeroCuenta, long monto, long saldoFinal);
+
+    /**
+     * Registra un lote de movimientos en orden. Las implementaciones escriben el lote
+     * completo de una vez, aplicando el modo de durabilidad una sola vez al final.
+     *
+     * @param lote Movimientos a registrar.
+     */
+    default void registrarLote(LoteMovimientos lote) {
+        for (int i = 0; i < lote.tamanio(); i++) {
+            registrarMovimiento(lote.getTipo(i), lote.getNumeroCuenta(i), lote.getMonto(i), lote.getSaldoFinal(i));
+        }
+    }
+
+    /**
+     * Registra una transferencia como dos movimientos enlazados: "TRANSFERENCIA_ENVIADA"
+     * en la cuenta de origen y "TRANSFERENCIA_RECIBIDA" en la de destino. Por defecto se
+     * escriben juntos como un lote; {@link DiarioBinario} además los valida como una
+     * unidad al recuperarse.
+     *
+     * @param origen Cuenta debitada.
+     * @param destino Cuenta acreditada.
+     * @param monto Monto transferido en centavos.
+     * @param saldoOrigen Saldo final de la cuenta de origen (incluye la comisión, si hubo).
+     * @param saldoDestino Saldo final de la cuenta de destino.
+     */
+    default void registrarTransferencia(String origen, String destino, long monto, long saldoOrigen, long saldoDestino) {
+        LoteMovimientos lote = new LoteMovimientos(2);
+        lote.agregar("TRANSFERENCIA_ENVIADA", origen, monto, saldoOrigen);
+        lote.agregar("TRANSFERENCIA_RECIBIDA", destino, monto, saldoDestino);
+        registrarLote(lote);
+    }
+
+    /**
+     * Escribe y fuerza a disco los movimientos pendientes.
+     */
+    void confirmar();
+
+    /**
+     * Igual que {@link #confirmar()} pero sin obligar a esperar: el futuro se completa
+     * cuando todo lo registrado hasta ahora está en disco. Por defecto confirma en el
+     * momento; {@link DiarioAsincronico} agrupa los pedidos en una sola confirmación.
+     *
+     * @return Futuro que se completa al confirmar.
+     */
+    default CompletableFuture<Void> confirmarAsync() {
+        confirmar();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Confirma lo pendiente y libera los archivos abiertos.
+     */
+    void cerrar();
+
+    /**
+     * Recorre todos los movimientos guardados en el orden en que fueron registrados.
+     * Se usa para reconstruir el estado al iniciar.
+     *
+     * @param visitante Recibe cada movimiento.
+     * @throws java.io.UncheckedIOException si los movimientos no pudieron leerse completos.
+     */
+    void reproducir(Consumer<MovimientoLog> visitante);
+
+    /**
+     * Devuelve la posición actual del almacenamiento (luego de escribir lo pendiente),
+     * para reproducir más tarde sólo lo registrado a partir de ella.
+     *
+     * @return Posición opaca; su contenido depende de la implementación.
+     */
+    long[] posicion();
+
+    /**
+     * Igual que {@link #reproducir(Consumer)} pero a partir de una posición obtenida con {@link #posicion()}.
+     *
+     * @param posicion Posición desde donde reproducir.
+     * @param visitante Recibe cada movimiento.
+     * @throws java.io.UncheckedIOException si los movimientos no pudieron leerse completos.
+     */
+    void reproducirDesde(long[] posicion, Consumer<MovimientoLog> visitante);
+
+    /**
+     * Recorre en orden cronológico todos los movimientos de una cuenta, con su saldo
+     * final. Por defecto filtra {@link #reproducir(Consumer)}; las implementaciones con
+     * búsqueda por cuenta la redefinen.
+     *
+     * @param numeroCuenta Número de cuenta.
+     * @param visitante Recibe cada movimiento de la cuenta.
+     * @throws java.io.UncheckedIOException si los movimientos no pudieron leerse completos.
+     */
+    default void recorrerCuenta(String numeroCuenta, Consumer<MovimientoLog> visitante) {
+        reproducir(m -> {
+            if (m.getNumeroCuenta().equals(numeroCuenta)) visitante.accept(m);
+        });
+    }
+}
@@ -0,0 +1,255 @@
+package scr.controlador;
+import scr.model.CuentaBancaria;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Registro en memoria de las cuentas indexado por número de cuenta.
+ * Los números de 6 dígitos (los que genera el sistema) se guardan en una tabla
+ * hash de claves int con direccionamiento abierto, de modo que la búsqueda es O(1)
+ * sin crear objetos. Números con otro formato (ej. cuentas antiguas "1001") se
+ * guardan en un mapa auxiliar.
+ *
+ * <p>Es seguro para uso concurrente: las búsquedas toman un lock de lectura
+ * compartido y sólo el alta de cuentas toma el lock de escritura.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class RegistroCuentas {
+
+    /** Cantidad de números de cuenta posibles con 6 dígitos. */
+    public static final int ESPACIO_NUMEROS = 1_000_000;
+
+    private static final int VACIO = -1;
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    // Tabla hash de claves primitivas (sin eliminación: las cuentas no se borran)
+    private int[] claves;
+    private CuentaBancaria[] valores;
+    private int ocupados;
+
+    // Cuentas con números que no son de 6 dígitos
+    private final Map<String, CuentaBancaria> otras;
+
+    // Cuentas en orden de registro
+    private final List<CuentaBancaria> cuentas;
+
+    // Generador congruencial de periodo completo sobre [0, ESPACIO_NUMEROS):
+    // recorre cada número una sola vez, así que nunca repite ni se degrada al llenarse.
+    private static final int MULTIPLICADOR = 7_421;   // (a - 1) divisible por 2, 4 y 5
+    private static final int INCREMENTO = 295_837;    // coprimo con 2 y 5
+    private int semilla;
+    private int generados;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public RegistroCuentas() {
+        this.claves = new int[CAPACIDAD_INICIAL];
+        Arrays.fill(this.claves, VACIO);
+        this.valores = new CuentaBancaria[CAPACIDAD_INICIAL];
+        this.ocupados = 0;
+        this.otras = new HashMap<>();
+        this.cuentas = new ArrayList<>();
+        this.semilla = (int) (Math.random() * ESPACIO_NUMEROS);
+        this.generados = 0;
+    }
+
+    /**
+     * Agrega una cuenta al registro.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param cuenta Cuenta a registrar.
+     * @throws IllegalArgumentException si ya existe una cuenta con el mismo número.
+     */
+    public void registrar(CuentaBancaria cuenta) {
+        String numero = cuenta.getNumeroCuenta();
+        lock.writeLock().lock();
+        try {
+            if (buscarSinLock(numero) != null) {
+                throw new IllegalArgumentException("Ya existe una cuenta con número " + numero);
+            }
+            int clave = claveDe(numero);
+            int reservada = clave >= 0 ? ranura(clave) : -1;
+            if (reservada >= 0) {
+                valores[reservada] = cuenta;
+            } else if (clave >= 0) {
+                if ((ocupados + 1) * 2 > claves.length) redimensionar();
+                insertar(clave, cuenta);
+            } else {
+                otras.put(numero, cuenta);
+            }
+            cuentas.add(cuenta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marca un número de cuenta como usado sin registrar una cuenta, para que
+     * {@link #generarNumero()} no lo entregue (ej. cuentas que sólo existen en los logs).
+     * Una cuenta registrada luego con ese número ocupa la reserva.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numero Número de cuenta a reservar.
+     */
+    public void reservar(String numero) {
+        int clave = claveDe(numero);
+        if (clave < 0) return; // generarNumero sólo entrega números de 6 dígitos
+        lock.writeLock().lock();
+        try {
+            if (ranura(clave) >= 0) return;
+            if ((ocupados + 1) * 2 > claves.length) redimensionar();
+            insertar(clave, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca una cuenta por número.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param numero Número de cuenta.
+     * @return La cuenta encontrada, o null si no existe.
+     */
+    public CuentaBancaria buscar(String numero) {
+        if (numero == null) return null;
+        lock.readLock().lock();
+        try {
+            return buscarSinLock(numero);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private CuentaBancaria buscarSinLock(String numero) {
+        int clave = claveDe(numero);
+        if (clave < 0) return otras.get(numero);
+        int i = ranura(clave);
+        return i < 0 ? null : valores[i];
+    }
+
+    /**
+     * Genera un número de cuenta de 6 dígitos que no está registrado.
+     * Cada número del espacio se visita una sola vez, por lo que el costo total
+     * de generar todas las cuentas posibles es lineal. Un número entregado no vuelve a
+     * entregarse aunque nunca se registre, así que debe pedirse recién después de
+     * validar los datos de la cuenta.
+     *
+     * @author Juan
+     * @version 1.0
+     * @return Número de cuenta libre con padding de ceros (ej. "004217").
+     * @throws IllegalStateException si ya no quedan números disponibles.
+     */
+    public String generarNumero() {
+        lock.writeLock().lock();
+        try {
+            while (generados < ESPACIO_NUMEROS) {
+                semilla = (int) (((long) MULTIPLICADOR * semilla + INCREMENTO) % ESPACIO_NUMEROS);
+                generados++;
+                if (!contieneClave(semilla)) {
+                    return formatear(semilla);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        throw new IllegalStateException("No quedan números de cuenta disponibles.");
+    }
+
+    /**
+     * @return Cantidad de cuentas registradas.
+     */
+    public int tamanio() {
+        lock.readLock().lock();
+        try {
+            return cuentas.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Copia de la lista de cuentas en orden de registro.
+     */
+    public List<CuentaBancaria> getCuentas() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(cuentas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Devuelve el número como clave int si tiene exactamente 6 dígitos, o -1 si no.
+    private static int claveDe(String numero) {
+        if (numero.length() != 6) return -1;
+        int v = 0;
+        for (int i = 0; i < 6; i++) {
+            char ch = numero.charAt(i);
+            if (ch < '0' || ch > '9') return -1;
+            v = v * 10 + (ch - '0');
+        }
+        return v;
+    }
+
+    private static String formatear(int clave) {
+        char[] cs = new char[6];
+        for (int i = 5; i >= 0; i--) {
+            cs[i] = (char) ('0' + clave % 10);
+            clave /= 10;
+        }
+        return new String(cs);
+    }
+
+    private static int mezclar(int clave) {
+        int h = clave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private boolean contieneClave(int clave) {
+        return ranura(clave) >= 0;
+    }
+
+    // Índice de la clave en la tabla, o -1 si no está
+    private int ranura(int clave) {
+        int mascara = claves.length - 1;
+        int i = mezclar(clave) & mascara;
+        while (claves[i] != VACIO) {
+            if (claves[i] == clave) return i;
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    private void insertar(int clave, CuentaBancaria cuenta) {
+        int mascara = claves.length - 1;
+        int i = mezclar(clave) & mascara;
+        while (claves[i] != VACIO) {
+            i = (i + 1) & mascara;
+        }
+        claves[i] = clave;
+        valores[i] = cuenta;
+        ocupados++;
+    }
+
+    private void redimensionar() {
+        int[] viejasClaves = claves;
+        CuentaBancaria[] viejosValores = valores;
+        claves = new int[viejasClaves.length * 2];
+        Arrays.fill(claves, VACIO);
+        valores = new CuentaBancaria[viejasClaves.length * 2];
+        ocupados = 0;
+        for (int i = 0; i < viejasClaves.length; i++) {
+            if (viejasClaves[i] != VACIO) insertar(viejasClaves[i], viejosValores[i]);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package scr.controlador;
+import scr.model.Dinero;
+import java.time.YearMonth;
+
+/**
+ * Resultado de una ejecución del cierre mensual.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class ResumenCierre {
+    private final YearMonth periodo;
+    private final long cuentasProcesadas;
+    private final long cuentasOmitidas;
+    private final long errores;
+    private final long totalIntereses;
+    private final long totalMantenimiento;
+    private final boolean completo;
+    private final long duracionMs;
+
+    /**
+     * @param periodo Mes cerrado.
+     * @param cuentasProcesadas Cuentas cerradas en esta ejecución.
+     * @param cuentasOmitidas Cuentas que ya estaban cerradas para el periodo.
+     * @param errores Cuentas que fallaron.
+     * @param totalIntereses Intereses acreditados en centavos.
+     * @param totalMantenimiento Mantenimiento cobrado en centavos (positivo).
+     * @param completo false si la ejecución fue interrumpida antes de terminar.
+     * @param duracionMs Duración de la ejecución en milisegundos.
+     */
+    public ResumenCierre(YearMonth periodo, long cuentasProcesadas, long cuentasOmitidas, long errores,
+                         long totalIntereses, long totalMantenimiento, boolean completo, long duracionMs) {
+        this.periodo = periodo;
+        this.cuentasProcesadas = cuentasProcesadas;
+        this.cuentasOmitidas = cuentasOmitidas;
+        this.errores = errores;
+        this.totalIntereses = totalIntereses;
+        this.totalMantenimiento = totalMantenimiento;
+        this.completo = completo;
+        this.duracionMs = duracionMs;
+    }
+
+    public YearMonth getPeriodo() { return periodo; }
+    public long getCuentasProcesadas() { return cuentasProcesadas; }
+    public long getCuentasOmitidas() { return cuentasOmitidas; }
+    public long getErrores() { return errores; }
+    public long getTotalIntereses() { return totalIntereses; }
+    public long getTotalMantenimiento() { return totalMantenimiento; }
+    public boolean isCompleto() { return completo; }
+    public long getDuracionMs() { return duracionMs; }
+
+    @Override
+    public String toString() {
+        return "Cierre " + periodo + (completo ? "" : " (INTERRUMPIDO, puede reanudarse)")
+                + ": procesadas=" + cuentasProcesadas
+                + ", ya cerradas=" + cuentasOmitidas
+                + ", errores=" + errores
+                + ", intereses=$" + Dinero.formatear(totalIntereses)
+                + ", mantenimiento=$" + Dinero.formatear(totalMantenimiento)
+                + ", duración=" + duracionMs + " ms";
+    }
+}
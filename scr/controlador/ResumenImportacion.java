@@ -0,0 +1,72 @@
+package scr.controlador;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de una importación de movimientos ({@link ImportadorMovimientos}).
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class ResumenImportacion {
+    private final String archivo;
+    private final long lineas;
+    private final long aceptados;
+    private final long rechazados;
+    private final Map<String, Long> rechazosPorMotivo;
+    private final List<String> ejemplosRechazo;
+    private final long duracionMs;
+
+    /**
+     * @param archivo Archivo importado.
+     * @param lineas Líneas leídas (sin contar las vacías ni el encabezado).
+     * @param aceptados Movimientos aplicados y registrados.
+     * @param rechazados Movimientos rechazados.
+     * @param rechazosPorMotivo Cantidad de rechazos por motivo, de mayor a menor.
+     * @param ejemplosRechazo Detalle de los primeros rechazos, con su número de línea.
+     * @param duracionMs Duración de la importación en milisegundos.
+     */
+    public ResumenImportacion(String archivo, long lineas, long aceptados, long rechazados,
+                              Map<String, Long> rechazosPorMotivo, List<String> ejemplosRechazo, long duracionMs) {
+        this.archivo = archivo;
+        this.lineas = lineas;
+        this.aceptados = aceptados;
+        this.rechazados = rechazados;
+        this.rechazosPorMotivo = rechazosPorMotivo;
+        this.ejemplosRechazo = ejemplosRechazo;
+        this.duracionMs = duracionMs;
+    }
+
+    public String getArchivo() { return archivo; }
+    public long getLineas() { return lineas; }
+    public long getAceptados() { return aceptados; }
+    public long getRechazados() { return rechazados; }
+    public Map<String, Long> getRechazosPorMotivo() { return rechazosPorMotivo; }
+    public List<String> getEjemplosRechazo() { return ejemplosRechazo; }
+    public long getDuracionMs() { return duracionMs; }
+
+    /**
+     * @return Líneas procesadas por segundo.
+     */
+    public long getLineasPorSegundo() {
+        return duracionMs == 0 ? lineas * 1000 : lineas * 1000 / duracionMs;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Importación de ").append(archivo)
+          .append(": líneas=").append(lineas)
+          .append(", aceptados=").append(aceptados)
+          .append(", rechazados=").append(rechazados)
+          .append(", duración=").append(duracionMs).append(" ms")
+          .append(" (").append(getLineasPorSegundo()).append(" líneas/s)");
+        for (Map.Entry<String, Long> e : rechazosPorMotivo.entrySet()) {
+            sb.append("\n  ").append(e.getKey()).append(": ").append(e.getValue());
+        }
+        for (String ejemplo : ejemplosRechazo) {
+            sb.append("\n  - ").append(ejemplo);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package scr.controlador;
+
+/**
+ * Resumen de un {@link HistogramaLatencia}. Los tiempos están en nanosegundos; los
+ * percentiles son el valor más alto de su cubeta (error relativo menor al 3%).
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class ResumenLatencia {
+    private final long cantidad;
+    private final double media;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long maximo;
+
+    /**
+     * @param cantidad Mediciones registradas.
+     * @param media Media en nanosegundos.
+     * @param p50 Mediana en nanosegundos.
+     * @param p90 Percentil 90 en nanosegundos.
+     * @param p99 Percentil 99 en nanosegundos.
+     * @param p999 Percentil 99,9 en nanosegundos.
+     * @param maximo Máximo en nanosegundos.
+     */
+    public ResumenLatencia(long cantidad, double media, long p50, long p90, long p99, long p999, long maximo) {
+        this.cantidad = cantidad;
+        this.media = media;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.maximo = maximo;
+    }
+
+    public long getCantidad() { return cantidad; }
+    public double getMedia() { return media; }
+    public long getP50() { return p50; }
+    public long getP90() { return p90; }
+    public long getP99() { return p99; }
+    public long getP999() { return p999; }
+    public long getMaximo() { return maximo; }
+
+    @Override
+    public String toString() {
+        return "n=" + cantidad
+                + " media=" + micros((long) media)
+                + " p50=" + micros(p50)
+                + " p90=" + micros(p90)
+                + " p99=" + micros(p99)
+                + " p99.9=" + micros(p999)
+                + " max=" + micros(maximo);
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1fus", nanos / 1000.0);
+    }
+}
@@ -0,0 +1,560 @@
+package scr.controlador;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Segmento cerrado de un log de movimientos de texto. Al rotar, el log activo (ej.
+ * {@code depositos.txt}) pasa a ser {@code depositos.000001.txt}, conserva su índice
+ * ({@code .txt.idx}) y recibe una cabecera {@code depositos.000001.seg} con el rango de
+ * fechas, la cantidad de registros y un {@link FiltroBloom} de las cuentas. Con la
+ * cabecera, las lecturas por fecha o por cuenta saltean el segmento sin abrirlo.
+ *
+ * <p>Un segmento puede comprimirse en {@code depositos.000001.arc}: el mismo texto en
+ * bloques de ~{@value #TAMANIO_BLOQUE} bytes comprimidos por separado, con la cabecera
+ * al principio y al final una tabla de bloques y de los bloques en los que aparece cada
+ * cuenta. Leer una cuenta descomprime sólo sus bloques. Como el contenido es el mismo,
+ * las posiciones dentro del segmento siguen siendo válidas.</p>
+ *
+ * <p>Los segmentos no cambian después de cerrados: sólo se reemplaza el texto por el
+ * archivo comprimido, que se escribe aparte y se renombra al terminar.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+final class SegmentoLog {
+
+    /** Bytes de texto por bloque comprimido (los bloques terminan en fin de línea). */
+    static final int TAMANIO_BLOQUE = 16 * 1024;
+
+    private static final int MAGIA_CABECERA = 0x53425347; // "SBSG"
+    private static final int MAGIA_ARCHIVO = 0x5342415a; // "SBAZ"
+    private static final short VERSION = 1;
+
+    private final String base;
+    private final long secuencia;
+    private final boolean comprimido;
+    // Fechas de la primera y la última línea, en segundos de hora local (como ParserLineaMovimiento)
+    private final long desde;
+    private final long hasta;
+    private final long registros;
+    private final long tamanio;
+    private final FiltroBloom cuentas;
+
+    // Segmento de texto: índice abierto la primera vez que se busca una cuenta
+    private IndiceMovimientos indice;
+    // Segmento comprimido: tablas cargadas la primera vez que se leen
+    private long[] origenBloques;
+    private int[] largoBloques;
+    private long[] posicionBloques;
+    private int[] comprimidoBloques;
+    private Map<String, int[]> bloquesPorCuenta;
+
+    private SegmentoLog(String base, long secuencia, boolean comprimido, long desde, long hasta,
+                        long registros, long tamanio, FiltroBloom cuentas) {
+        this.base = base;
+        this.secuencia = secuencia;
+        this.comprimido = comprimido;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.registros = registros;
+        this.tamanio = tamanio;
+        this.cuentas = cuentas;
+    }
+
+    /**
+     * Cierra el log activo como el segmento {@code secuencia}: escribe su cabecera y lo
+     * renombra junto con su índice. El escritor y el índice ya deben estar cerrados.
+     *
+     * @param base Nombre del log sin extensión (ej. "depositos").
+     * @param secuencia Número del segmento.
+     * @param archivo Log activo.
+     * @param indice Índice del log activo (ya cerrado), o null para leer el log completo.
+     * @return El segmento.
+     * @throws IOException si falla la lectura o alguno de los renombres.
+     */
+    static SegmentoLog sellar(String base, long secuencia, String archivo, IndiceMovimientos indice) throws IOException {
+        Path activo = Paths.get(archivo);
+        SegmentoLog s = null;
+        if (indice != null) s = resumirConIndice(base, secuencia, activo, indice);
+        if (s == null) s = resumirLeyendo(base, secuencia, archivo);
+        s.escribirCabecera();
+        // Un corte antes de mover el texto deja una cabecera sin texto, que se descarta al
+        // listar; el log activo se queda sin índice y se vuelve a indexar al abrirlo
+        Path idx = Paths.get(archivo + ".idx");
+        if (Files.exists(idx)) Files.move(idx, s.ruta(".txt.idx"), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(activo, s.ruta(".txt"), StandardCopyOption.ATOMIC_MOVE);
+        return s;
+    }
+
+    // Toma del índice las cuentas y la cantidad de líneas, y lee sólo la primera y la última
+    private static SegmentoLog resumirConIndice(String base, long secuencia, Path archivo, IndiceMovimientos indice)
+            throws IOException {
+        long[] extremos = indice.getExtremos();
+        long tamanio = Files.size(archivo);
+        if (extremos == null) return null;
+        long[] fechas = new long[2];
+        int[] leidas = { 0 };
+        ParserLineaMovimiento parser = new ParserLineaMovimiento();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            IndiceMovimientos.recorrerLineas(canal, extremos, (buf, inicio, fin) -> {
+                if (leidas[0] < 2 && parser.parsear(buf, inicio, fin, null) == ParserLineaMovimiento.VALIDA) {
+                    fechas[leidas[0]] = parser.getEpochSegundos();
+                }
+                leidas[0]++;
+            });
+        }
+        if (leidas[0] < 2 || fechas[0] == 0 || fechas[1] == 0) return null;
+        List<String> lista = indice.getCuentas();
+        FiltroBloom filtro = new FiltroBloom(lista.size());
+        for (String c : lista) filtro.agregar(c);
+        return new SegmentoLog(base, secuencia, false, fechas[0], fechas[1], indice.getRegistros(), tamanio, filtro);
+    }
+
+    private static SegmentoLog resumirLeyendo(String base, long secuencia, String archivo) throws IOException {
+        long minimo = Long.MAX_VALUE;
+        long maximo = Long.MIN_VALUE;
+        long n = 0;
+        Set<String> vistas = new HashSet<>();
+        try (LectorMovimientos lector = new LectorMovimientos(archivo, null, false)) {
+            while (lector.hasNext()) {
+                MovimientoLog m = lector.next();
+                long s = m.getFecha().toEpochSecond(ZoneOffset.UTC);
+                minimo = Math.min(minimo, s);
+                maximo = Math.max(maximo, s);
+                vistas.add(m.getNumeroCuenta());
+                n++;
+            }
+        }
+        FiltroBloom filtro = new FiltroBloom(vistas.size());
+        for (String c : vistas) filtro.agregar(c);
+        if (n == 0) minimo = maximo = 0;
+        return new SegmentoLog(base, secuencia, false, minimo, maximo, n, Files.size(Paths.get(archivo)), filtro);
+    }
+
+    /**
+     * Devuelve los segmentos cerrados de un log, en orden. Completa o descarta lo que
+     * haya quedado a medias por un corte: cabeceras sin texto, texto sin cabecera o
+     * texto ya comprimido.
+     *
+     * @param base Nombre del log sin extensión.
+     * @return Segmentos ordenados por número.
+     * @throws IOException si algún segmento no puede leerse.
+     */
+    static List<SegmentoLog> listar(String base) throws IOException {
+        Path ruta = Paths.get(base);
+        Path dir = ruta.getParent() == null ? Paths.get(".") : ruta.getParent();
+        Pattern patron = Pattern.compile(Pattern.quote(ruta.getFileName().toString()) + "\\.(\\d{6,})\\.(txt|seg|arc)");
+        TreeMap<Long, Set<String>> encontrados = new TreeMap<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(dir)) {
+            for (Path p : archivos) {
+                Matcher m = patron.matcher(p.getFileName().toString());
+                if (m.matches()) encontrados.computeIfAbsent(Long.parseLong(m.group(1)), k -> new HashSet<>()).add(m.group(2));
+            }
+        }
+        List<SegmentoLog> segmentos = new ArrayList<>();
+        for (Map.Entry<Long, Set<String>> e : encontrados.entrySet()) {
+            long secuencia = e.getKey();
+            Set<String> ext = e.getValue();
+            SegmentoLog s;
+            if (ext.contains("arc")) {
+                s = abrirComprimido(base, secuencia);
+                // La compresión terminó pero no llegó a borrar el texto
+                if (ext.contains("txt") || ext.contains("seg")) s.borrarTexto();
+            } else if (ext.contains("txt")) {
+                s = ext.contains("seg") ? leerCabecera(base, secuencia) : null;
+                if (s == null) {
+                    s = resumirLeyendo(base, secuencia, nombre(base, secuencia, ".txt"));
+                    s.escribirCabecera();
+                }
+            } else {
+                Files.deleteIfExists(Paths.get(nombre(base, secuencia, ".seg")));
+                Files.deleteIfExists(Paths.get(nombre(base, secuencia, ".txt.idx")));
+                continue;
+            }
+            segmentos.add(s);
+        }
+        return segmentos;
+    }
+
+    static String nombre(String base, long secuencia, String extension) {
+        return base + "." + String.format("%06d", secuencia) + extension;
+    }
+
+    private Path ruta(String extension) {
+        return Paths.get(nombre(base, secuencia, extension));
+    }
+
+    private void escribirDatos(DataOutputStream salida) throws IOException {
+        salida.writeLong(desde);
+        salida.writeLong(hasta);
+        salida.writeLong(registros);
+        salida.writeLong(tamanio);
+        cuentas.escribir(salida);
+    }
+
+    private static SegmentoLog leerDatos(DataInputStream entrada, String base, long secuencia, boolean comprimido)
+            throws IOException {
+        long desde = entrada.readLong();
+        long hasta = entrada.readLong();
+        long registros = entrada.readLong();
+        long tamanio = entrada.readLong();
+        return new SegmentoLog(base, secuencia, comprimido, desde, hasta, registros, tamanio, FiltroBloom.leer(entrada));
+    }
+
+    private void escribirCabecera() throws IOException {
+        Path destino = ruta(".seg");
+        Path tmp = Paths.get(destino + ".tmp");
+        try (OutputStream archivo = Files.newOutputStream(tmp);
+             DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(archivo))) {
+            salida.writeInt(MAGIA_CABECERA);
+            salida.writeShort(VERSION);
+            escribirDatos(salida);
+        }
+        Files.move(tmp, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // null si la cabecera está dañada (se vuelve a armar leyendo el texto)
+    private static SegmentoLog leerCabecera(String base, long secuencia) {
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(Paths.get(nombre(base, secuencia, ".seg")))))) {
+            if (entrada.readInt() != MAGIA_CABECERA || entrada.readShort() != VERSION) return null;
+            return leerDatos(entrada, base, secuencia, false);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static SegmentoLog abrirComprimido(String base, long secuencia) throws IOException {
+        String archivo = nombre(base, secuencia, ".arc");
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(archivo))))) {
+            if (entrada.readInt() != MAGIA_ARCHIVO || entrada.readShort() != VERSION) {
+                throw new IOException(archivo + " no es un segmento comprimido.");
+            }
+            return leerDatos(entrada, base, secuencia, true);
+        }
+    }
+
+    long getSecuencia() { return secuencia; }
+    boolean isComprimido() { return comprimido; }
+    long getDesde() { return desde; }
+    long getHasta() { return hasta; }
+    long getRegistros() { return registros; }
+    long getTamanio() { return tamanio; }
+
+    /**
+     * @return Nombre del archivo con los datos del segmento ({@code .txt} o {@code .arc}).
+     */
+    String getArchivo() {
+        return nombre(base, secuencia, comprimido ? ".arc" : ".txt");
+    }
+
+    /**
+     * @param desdeSegundos Inicio del periodo (segundos de hora local).
+     * @param hastaSegundos Fin del periodo (inclusive).
+     * @return false si ningún movimiento del segmento puede estar en el periodo.
+     */
+    boolean solapa(long desdeSegundos, long hastaSegundos) {
+        return registros > 0 && hasta >= desdeSegundos && desde <= hastaSegundos;
+    }
+
+    /**
+     * @param numeroCuenta Número de cuenta.
+     * @return false si la cuenta seguro no tiene movimientos en el segmento.
+     */
+    boolean puedeContener(String numeroCuenta) {
+        return registros > 0 && cuentas.puedeContener(numeroCuenta);
+    }
+
+    /**
+     * @return El índice por cuenta de un segmento de texto, o null si no puede abrirse.
+     */
+    synchronized IndiceMovimientos indice() {
+        if (comprimido) throw new IllegalStateException("El segmento " + getArchivo() + " está comprimido.");
+        if (indice == null) {
+            try {
+                indice = new IndiceMovimientos(getArchivo());
+            } catch (IOException e) {
+                Metricas.global().errorES("No se pudo abrir el índice de " + getArchivo() + ": " + e.getMessage());
+            }
+        }
+        return indice;
+    }
+
+    /**
+     * Agrega las fuentes que leen el segmento a partir de una posición.
+     *
+     * @param fuentes Lista de destino.
+     * @param numeroCuenta Cuenta a filtrar, o null para todas.
+     * @param posicion Posición (en el texto) desde donde leer.
+     * @throws IOException si falta el segmento o no pueden leerse las tablas del segmento comprimido.
+     */
+    void agregarFuentes(List<LectorSegmentos.Fuente> fuentes, String numeroCuenta, long posicion) throws IOException {
+        if (!comprimido) {
+            String archivo = getArchivo();
+            // El lector toma un archivo ausente como vacío, pero un segmento cerrado siempre existe
+            if (!Files.exists(ruta(".txt"))) throw new NoSuchFileException(archivo);
+            IndiceMovimientos i = numeroCuenta == null ? null : indice();
+            if (i != null) {
+                long[] posiciones = i.posicionesDe(numeroCuenta);
+                fuentes.add(() -> LectorMovimientos.deCuenta(archivo, posiciones, registros, numeroCuenta, posicion));
+            } else {
+                fuentes.add(() -> new LectorMovimientos(archivo, numeroCuenta, false, posicion));
+            }
+            return;
+        }
+        cargarTablas();
+        int[] bloques;
+        if (numeroCuenta == null) {
+            bloques = new int[origenBloques.length];
+            for (int i = 0; i < bloques.length; i++) bloques[i] = i;
+        } else {
+            bloques = bloquesPorCuenta.getOrDefault(numeroCuenta, new int[0]);
+        }
+        for (int b : bloques) {
+            if (origenBloques[b] + largoBloques[b] <= posicion) continue;
+            fuentes.add(() -> new LectorMovimientos(getArchivo(), leerBloque(b), origenBloques[b], numeroCuenta, posicion));
+        }
+    }
+
+    private synchronized void cargarTablas() throws IOException {
+        if (origenBloques != null) return;
+        try (FileChannel canal = FileChannel.open(ruta(".arc"), StandardOpenOption.READ)) {
+            ByteBuffer fin = ByteBuffer.allocate(8);
+            canal.read(fin, canal.size() - 8);
+            canal.position(fin.getLong(0));
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(Channels.newInputStream(canal)));
+            int n = entrada.readInt();
+            long[] origen = new long[n];
+            int[] largo = new int[n];
+            long[] posicion = new long[n];
+            int[] comprimidos = new int[n];
+            for (int i = 0; i < n; i++) {
+                origen[i] = entrada.readLong();
+                largo[i] = entrada.readInt();
+                posicion[i] = entrada.readLong();
+                comprimidos[i] = entrada.readInt();
+            }
+            int c = entrada.readInt();
+            Map<String, int[]> porCuenta = new HashMap<>(c * 2);
+            for (int i = 0; i < c; i++) {
+                String cuenta = entrada.readUTF();
+                int[] bloques = new int[entrada.readInt()];
+                for (int j = 0; j < bloques.length; j++) bloques[j] = entrada.readInt();
+                porCuenta.put(cuenta, bloques);
+            }
+            largoBloques = largo;
+            posicionBloques = posicion;
+            comprimidoBloques = comprimidos;
+            bloquesPorCuenta = porCuenta;
+            origenBloques = origen;
+        }
+    }
+
+    private ByteBuffer leerBloque(int b) throws IOException {
+        ByteBuffer datos = ByteBuffer.allocate(comprimidoBloques[b]);
+        try (FileChannel canal = FileChannel.open(ruta(".arc"), StandardOpenOption.READ)) {
+            while (datos.hasRemaining()) {
+                if (canal.read(datos, posicionBloques[b] + datos.position()) < 0) {
+                    throw new IOException(getArchivo() + " está truncado.");
+                }
+            }
+        }
+        byte[] texto = new byte[largoBloques[b]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(datos.array());
+            int n = 0;
+            while (n < texto.length && !inflater.finished()) n += inflater.inflate(texto, n, texto.length - n);
+            if (n != texto.length) throw new IOException("Bloque " + b + " de " + getArchivo() + " dañado.");
+        } catch (DataFormatException e) {
+            throw new IOException("Bloque " + b + " de " + getArchivo() + " dañado: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(texto);
+    }
+
+    /**
+     * Escribe la versión comprimida de un segmento de texto ({@code .arc}). No modifica
+     * ni borra el texto: eso lo hace {@link #borrarTexto()} cuando nadie lo lee.
+     *
+     * @return El segmento comprimido.
+     * @throws IOException si falla la lectura o la escritura.
+     */
+    SegmentoLog comprimir() throws IOException {
+        if (comprimido) return this;
+        SegmentoLog nuevo = new SegmentoLog(base, secuencia, true, desde, hasta, registros, tamanio, cuentas);
+        Path tmp = Paths.get(nombre(base, secuencia, ".arc.tmp"));
+        List<long[]> tabla = new ArrayList<>();
+        Map<String, ListaBloques> porCuenta = new HashMap<>();
+        try (FileChannel origen = FileChannel.open(ruta(".txt"), StandardOpenOption.READ);
+             FileChannel destino = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteArrayOutputStream cabecera = new ByteArrayOutputStream();
+            DataOutputStream c = new DataOutputStream(cabecera);
+            c.writeInt(MAGIA_ARCHIVO);
+            c.writeShort(VERSION);
+            escribirDatos(c);
+            c.flush();
+            escribir(destino, ByteBuffer.wrap(cabecera.toByteArray()));
+
+            Deflater deflater = new Deflater();
+            ParserLineaMovimiento parser = new ParserLineaMovimiento();
+            byte[] texto = new byte[TAMANIO_BLOQUE];
+            byte[] salida = new byte[TAMANIO_BLOQUE + 1024];
+            long leido = 0;
+            int guardados = 0;
+            try {
+                while (leido < tamanio) {
+                    // Se acumula hasta completar el bloque y se corta en el último fin de línea
+                    int n = guardados;
+                    while (n < texto.length && leido + n < tamanio) {
+                        int r = origen.read(ByteBuffer.wrap(texto, n, texto.length - n), leido + n);
+                        if (r < 0) break;
+                        n += r;
+                    }
+                    int largo = n;
+                    if (leido + n < tamanio) {
+                        while (largo > 0 && texto[largo - 1] != '\n') largo--;
+                        if (largo == 0) {
+                            // Línea más larga que el bloque: se agranda
+                            texto = Arrays.copyOf(texto, texto.length * 2);
+                            guardados = n;
+                            continue;
+                        }
+                    }
+                    int bloque = tabla.size();
+                    registrarCuentas(texto, largo, parser, bloque, porCuenta);
+                    deflater.reset();
+                    deflater.setInput(texto, 0, largo);
+                    deflater.finish();
+                    int comprimidos = 0;
+                    while (!deflater.finished()) {
+                        if (comprimidos == salida.length) salida = Arrays.copyOf(salida, salida.length * 2);
+                        comprimidos += deflater.deflate(salida, comprimidos, salida.length - comprimidos);
+                    }
+                    long posicion = destino.position();
+                    escribir(destino, ByteBuffer.wrap(salida, 0, comprimidos));
+                    tabla.add(new long[] { leido, largo, posicion, comprimidos });
+                    // Lo que sigue al último fin de línea pasa al próximo bloque
+                    System.arraycopy(texto, largo, texto, 0, n - largo);
+                    guardados = n - largo;
+                    leido += largo;
+                }
+            } finally {
+                deflater.end();
+            }
+
+            long posicionTabla = destino.position();
+            OutputStream canal = Channels.newOutputStream(destino);
+            DataOutputStream t = new DataOutputStream(new BufferedOutputStream(canal));
+            t.writeInt(tabla.size());
+            for (long[] b : tabla) {
+                t.writeLong(b[0]);
+                t.writeInt((int) b[1]);
+                t.writeLong(b[2]);
+                t.writeInt((int) b[3]);
+            }
+            t.writeInt(porCuenta.size());
+            for (Map.Entry<String, ListaBloques> e : porCuenta.entrySet()) {
+                t.writeUTF(e.getKey());
+                t.writeInt(e.getValue().tamanio);
+                for (int i = 0; i < e.getValue().tamanio; i++) t.writeInt(e.getValue().datos[i]);
+            }
+            t.writeLong(posicionTabla);
+            t.flush();
+            destino.force(true);
+        }
+        Files.move(tmp, ruta(".arc"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return nuevo;
+    }
+
+    private static void escribir(FileChannel canal, ByteBuffer datos) throws IOException {
+        while (datos.hasRemaining()) canal.write(datos);
+    }
+
+    private static void registrarCuentas(byte[] texto, int largo, ParserLineaMovimiento parser, int bloque,
+                                         Map<String, ListaBloques> porCuenta) {
+        ByteBuffer buf = ByteBuffer.wrap(texto, 0, largo);
+        int inicio = 0;
+        for (int i = 0; i <= largo; i++) {
+            if (i < largo && texto[i] != '\n') continue;
+            if (i > inicio && parser.parsear(buf, inicio, i, null) == ParserLineaMovimiento.VALIDA) {
+                String cuenta = new String(texto, parser.getInicioCuenta(), parser.getFinCuenta() - parser.getInicioCuenta(),
+                        java.nio.charset.StandardCharsets.UTF_8);
+                porCuenta.computeIfAbsent(cuenta, k -> new ListaBloques()).agregar(bloque);
+            }
+            inicio = i + 1;
+        }
+    }
+
+    /**
+     * Borra el texto, la cabecera y el índice de un segmento ya comprimido. Quien llama
+     * debe asegurarse de que nadie los esté leyendo.
+     */
+    synchronized void borrarTexto() {
+        cerrarIndice();
+        for (String ext : new String[] { ".txt", ".seg", ".txt.idx" }) {
+            try {
+                Files.deleteIfExists(ruta(ext));
+            } catch (IOException e) {
+                Metricas.global().errorES("No se pudo borrar " + ruta(ext) + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Cierra el índice de un segmento de texto, si se abrió.
+     */
+    synchronized void cerrarIndice() {
+        if (indice == null) return;
+        try {
+            indice.close();
+        } catch (IOException e) {
+            Metricas.global().errorES("Error al cerrar el índice de " + getArchivo() + ": " + e.getMessage());
+        }
+        indice = null;
+    }
+
+    // Bloques (sin repetir) en los que aparece una cuenta, en orden
+    private static final class ListaBloques {
+        int[] datos = new int[2];
+        int tamanio;
+
+        void agregar(int bloque) {
+            if (tamanio > 0 && datos[tamanio - 1] == bloque) return;
+            if (tamanio == datos.length) datos = Arrays.copyOf(datos, tamanio * 2);
+            datos[tamanio++] = bloque;
+        }
+    }
+}
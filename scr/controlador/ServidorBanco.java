@@ -0,0 +1,327 @@
+package scr.controlador;
+import scr.excepciones.OperacionInvalidaException;
+import scr.excepciones.SaldoInsuficienteException;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.CuentaCorriente;
+import scr.model.CuentaEmpresarial;
+import scr.model.Dinero;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor TCP (sólo en la interfaz local) que atiende a varios clientes a la vez
+ * con un protocolo de texto por líneas y traduce cada pedido a una operación de
+ * {@link BancoController}. Cada conexión se atiende en su propio hilo: virtual si la
+ * JVM los ofrece (Java 21 o superior) y de plataforma si no.
+ *
+ * <p>Pedidos (montos con hasta dos decimales, ej. {@code 150.25}):</p>
+ * <pre>
+ * ABRIR &lt;CORRIENTE|AHORROS|EMPRESARIAL&gt; &lt;saldoInicial&gt; &lt;titular&gt;  → OK &lt;numero&gt;
+ * DEPOSITAR &lt;cuenta&gt; &lt;monto&gt;                                → OK &lt;saldo&gt;
+ * RETIRAR &lt;cuenta&gt; &lt;monto&gt;                                  → OK &lt;saldo&gt;
+ * TRANSFERIR &lt;origen&gt; &lt;destino&gt; &lt;monto&gt;                     → OK &lt;saldo de origen&gt;
+ * SALDO &lt;cuenta&gt;                                           → OK &lt;saldo&gt;
+ * PING                                                     → OK
+ * SALIR                                                    (cierra la conexión)
+ * </pre>
+ * <p>Si el pedido no puede realizarse la respuesta es {@code ERROR <motivo>}. Las
+ * respuestas se envían en el mismo orden que los pedidos, por lo que un cliente puede
+ * mandar varios sin esperar.</p>
+ *
+ * <p>Uso por línea de comandos: {@code java scr.controlador.ServidorBanco [puerto]}
+ * ({@value #PUERTO_POR_DEFECTO} por defecto; {@code -Dbanco.persistencia=binaria}
+ * usa el diario binario y {@code -Dbanco.particiones=N} el modo particionado con
+ * {@link DiarioParticionado}).</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class ServidorBanco implements AutoCloseable {
+
+    /** Puerto usado por defecto. */
+    public static final int PUERTO_POR_DEFECTO = 7070;
+
+    private static final int MAXIMO_ESPERA_CONEXION = 4096;
+
+    private final BancoController banco;
+    private final ServerSocket servidor;
+    private final ExecutorService conexiones;
+    private final Set<Socket> abiertas = ConcurrentHashMap.newKeySet();
+    private final Thread aceptador;
+    private volatile boolean cerrado;
+
+    /**
+     * Abre el puerto en la interfaz local y empieza a aceptar conexiones.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param banco Controlador que ejecuta las operaciones.
+     * @param puerto Puerto TCP; 0 para elegir uno libre (ver {@link #getPuerto()}).
+     * @throws IOException si el puerto no puede abrirse.
+     */
+    public ServidorBanco(BancoController banco, int puerto) throws IOException {
+        this.banco = banco;
+        this.servidor = new ServerSocket(puerto, MAXIMO_ESPERA_CONEXION, InetAddress.getLoopbackAddress());
+        this.conexiones = crearEjecutor("conexion");
+        this.aceptador = new Thread(this::aceptar, "servidor-banco");
+        this.aceptador.setDaemon(true);
+        this.aceptador.start();
+    }
+
+    /**
+     * Crea un ejecutor que corre cada tarea en un hilo nuevo: virtual si la JVM lo
+     * permite ({@code Executors.newVirtualThreadPerTaskExecutor}, Java 21+) y, si no,
+     * un hilo daemon de plataforma.
+     *
+     * @param nombre Nombre de los hilos de plataforma.
+     * @return El ejecutor.
+     */
+    static ExecutorService crearEjecutor(String nombre) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, nombre);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * @return Puerto en el que escucha el servidor.
+     */
+    public int getPuerto() {
+        return servidor.getLocalPort();
+    }
+
+    /**
+     * Deja de aceptar conexiones y cierra las abiertas. No cierra el controlador.
+     *
+     * @author Juan
+     * @version 1.0
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        try {
+            servidor.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el servidor: " + e.getMessage());
+        }
+        for (Socket s : abiertas) cerrar(s);
+        conexiones.shutdown();
+    }
+
+    /**
+     * Espera a que el servidor se cierre.
+     *
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void esperar() throws InterruptedException {
+        aceptador.join();
+    }
+
+    private void aceptar() {
+        while (!cerrado) {
+            try {
+                Socket s = servidor.accept();
+                s.setTcpNoDelay(true);
+                abiertas.add(s);
+                conexiones.execute(() -> atender(s));
+            } catch (IOException e) {
+                if (!cerrado) System.err.println("Error al aceptar una conexión: " + e.getMessage());
+            }
+        }
+    }
+
+    private void atender(Socket s) {
+        try (BufferedReader entrada = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             Writer salida = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            StringBuilder respuesta = new StringBuilder(64);
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                if (linea.trim().equalsIgnoreCase("SALIR")) break;
+                respuesta.setLength(0);
+                responder(linea, respuesta);
+                salida.append(respuesta).append('\n');
+                // Si el cliente ya mandó más pedidos, las respuestas se envían juntas
+                if (!entrada.ready()) salida.flush();
+            }
+        } catch (SocketException e) {
+            // Conexión cerrada por el cliente o por close()
+        } catch (IOException e) {
+            if (!cerrado) System.err.println("Error en la conexión con " + s.getRemoteSocketAddress() + ": " + e.getMessage());
+        } finally {
+            abiertas.remove(s);
+            cerrar(s);
+        }
+    }
+
+    /**
+     * Ejecuta un pedido y escribe la respuesta (sin el salto de línea).
+     *
+     * @param linea Pedido recibido.
+     * @param respuesta Destino de la respuesta.
+     */
+    void responder(String linea, StringBuilder respuesta) {
+        String[] partes = linea.trim().split("\\s+");
+        String comando = partes[0].toUpperCase();
+        try {
+            switch (comando) {
+                case "DEPOSITAR": {
+                    exigir(partes, 3);
+                    ok(respuesta).append(' ');
+                    Dinero.agregar(respuesta, esperar(banco.depositarAsync(partes[1], monto(partes[2]))));
+                    break;
+                }
+                case "RETIRAR": {
+                    exigir(partes, 3);
+                    IntentoRetiro intento = esperar(banco.intentarRetirarAsync(partes[1], monto(partes[2])));
+                    if (!intento.isRealizado()) {
+                        error(respuesta, intento.getResultado().getDescripcion());
+                        break;
+                    }
+                    // El saldo que dejó este retiro, no el de una operación posterior
+                    ok(respuesta).append(' ');
+                    Dinero.agregar(respuesta, intento.getSaldo());
+                    break;
+                }
+                case "TRANSFERIR": {
+                    exigir(partes, 4);
+                    long saldo = banco.transferir(partes[1], partes[2], monto(partes[3]));
+                    ok(respuesta).append(' ');
+                    Dinero.agregar(respuesta, saldo);
+                    break;
+                }
+                case "SALDO": {
+                    exigir(partes, 2);
+                    CuentaBancaria c = banco.buscarCuenta(partes[1]);
+                    if (c == null) {
+                        error(respuesta, "Cuenta no encontrada: " + partes[1]);
+                        break;
+                    }
+                    ok(respuesta).append(' ');
+                    Dinero.agregar(respuesta, c.getSaldo());
+                    break;
+                }
+                case "ABRIR": {
+                    exigir(partes, 4);
+                    long saldoInicial = Dinero.parsear(partes[2]);
+                    if (saldoInicial < 0) throw new IllegalArgumentException("El saldo inicial no puede ser negativo.");
+                    String titular = linea.trim().split("\\s+", 4)[3];
+                    // El número se genera después de validar el pedido: cada número se
+                    // entrega una sola vez, aunque la cuenta no llegue a abrirse
+                    CuentaBancaria cuenta;
+                    switch (partes[1].toUpperCase()) {
+                        case "CORRIENTE": cuenta = new CuentaCorriente(titular, banco.generarNumeroCuenta()); break;
+                        case "AHORROS": cuenta = new CuentaAhorros(titular, banco.generarNumeroCuenta()); break;
+                        case "EMPRESARIAL": cuenta = new CuentaEmpresarial(titular, banco.generarNumeroCuenta()); break;
+                        default:
+                            error(respuesta, "Tipo de cuenta inválido: " + partes[1]);
+                            return;
+                    }
+                    banco.abrirCuenta(cuenta, saldoInicial);
+                    ok(respuesta).append(' ').append(cuenta.getNumeroCuenta());
+                    break;
+                }
+                case "PING":
+                    ok(respuesta);
+                    break;
+                default:
+                    error(respuesta, "Pedido desconocido: " + partes[0]);
+            }
+        } catch (OperacionInvalidaException | SaldoInsuficienteException | IllegalArgumentException | IllegalStateException e) {
+            // NumberFormatException (montos) es una IllegalArgumentException
+            respuesta.setLength(0);
+            error(respuesta, e.getMessage());
+        } catch (ArithmeticException e) {
+            respuesta.setLength(0);
+            error(respuesta, "Monto fuera de rango.");
+        } catch (UncheckedIOException e) {
+            // El movimiento no pudo escribirse en los logs: la operación no se aplicó
+            respuesta.setLength(0);
+            error(respuesta, e.getMessage());
+        } catch (CompletionException e) {
+            // Falla de la operación en el hilo de la partición (ej. al registrar el movimiento)
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            respuesta.setLength(0);
+            error(respuesta, causa.getMessage() != null ? causa.getMessage() : causa.toString());
+        }
+    }
+
+    // El hilo de la conexión espera el resultado; en modo particionado la operación
+    // corre en el hilo de la partición de la cuenta
+    private static <T> T esperar(CompletableFuture<T> futuro) throws OperacionInvalidaException {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof OperacionInvalidaException) throw (OperacionInvalidaException) e.getCause();
+            throw e;
+        }
+    }
+
+    private static void exigir(String[] partes, int cantidad) {
+        if (partes.length < cantidad) throw new IllegalArgumentException("Faltan argumentos para " + partes[0].toUpperCase() + ".");
+    }
+
+    // Las cuentas ignoran los montos no positivos, pero el movimiento quedaría en los logs
+    private static long monto(String texto) {
+        long monto = Dinero.parsear(texto);
+        if (monto <= 0) throw new IllegalArgumentException("El monto debe ser positivo: " + texto);
+        return monto;
+    }
+
+    private static StringBuilder ok(StringBuilder respuesta) {
+        return respuesta.append("OK");
+    }
+
+    private static void error(StringBuilder respuesta, String motivo) {
+        respuesta.append("ERROR ").append(motivo);
+    }
+
+    private static void cerrar(Socket s) {
+        try {
+            s.close();
+        } catch (IOException e) {
+            // Ya no se puede hacer nada con la conexión
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int puerto = args.length > 0 ? Integer.parseInt(args[0]) : PUERTO_POR_DEFECTO;
+        int particiones = Integer.getInteger("banco.particiones", 0);
+        Persistencia persistencia = particiones > 0 ? new DiarioParticionado(particiones)
+                : "binaria".equals(System.getProperty("banco.persistencia")) ? new DiarioBinario() : new GestorArchivos();
+        // -Dbanco.asincronico=true registra los movimientos desde un hilo escritor (ver DiarioAsincronico)
+        if (Boolean.getBoolean("banco.asincronico")) {
+            persistencia = new DiarioAsincronico(persistencia, DiarioAsincronico.CAPACIDAD_POR_DEFECTO);
+        }
+        BancoController banco = new BancoController(persistencia, particiones);
+        ServidorBanco servidor = new ServidorBanco(banco, puerto);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.close();
+            banco.cerrar();
+        }));
+        System.out.println("Servidor escuchando en " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + servidor.getPuerto()
+                + " (" + banco.getCuentas().size() + " cuentas)");
+        servidor.esperar();
+    }
+}
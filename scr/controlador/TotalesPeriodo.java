@@ -0,0 +1,66 @@
+package scr.controlador;
+import scr.model.Dinero;
+import java.time.LocalDate;
+
+/**
+ * Totales de una cuenta en un periodo de días: créditos (depósitos, intereses y
+ * transferencias recibidas), débitos (retiros, mantenimiento y transferencias enviadas)
+ * y los saldos al comienzo y al final del periodo.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class TotalesPeriodo {
+    private final String numeroCuenta;
+    private final LocalDate desde;
+    private final LocalDate hasta;
+    private final long saldoInicial;
+    private final long saldoFinal;
+    private final long creditos;
+    private final long debitos;
+    private final long cantidadCreditos;
+    private final long cantidadDebitos;
+
+    /**
+     * @param numeroCuenta Número de cuenta.
+     * @param desde Primer día del periodo.
+     * @param hasta Último día del periodo (inclusive).
+     * @param saldoInicial Saldo al cierre del día anterior a {@code desde}, en centavos.
+     * @param saldoFinal Saldo al cierre de {@code hasta}, en centavos.
+     * @param creditos Suma de los créditos en centavos.
+     * @param debitos Suma de los débitos en centavos (positiva).
+     * @param cantidadCreditos Cantidad de créditos.
+     * @param cantidadDebitos Cantidad de débitos.
+     */
+    public TotalesPeriodo(String numeroCuenta, LocalDate desde, LocalDate hasta, long saldoInicial, long saldoFinal,
+                          long creditos, long debitos, long cantidadCreditos, long cantidadDebitos) {
+        this.numeroCuenta = numeroCuenta;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.saldoInicial = saldoInicial;
+        this.saldoFinal = saldoFinal;
+        this.creditos = creditos;
+        this.debitos = debitos;
+        this.cantidadCreditos = cantidadCreditos;
+        this.cantidadDebitos = cantidadDebitos;
+    }
+
+    public String getNumeroCuenta() { return numeroCuenta; }
+    public LocalDate getDesde() { return desde; }
+    public LocalDate getHasta() { return hasta; }
+    public long getSaldoInicial() { return saldoInicial; }
+    public long getSaldoFinal() { return saldoFinal; }
+    public long getCreditos() { return creditos; }
+    public long getDebitos() { return debitos; }
+    public long getCantidadCreditos() { return cantidadCreditos; }
+    public long getCantidadDebitos() { return cantidadDebitos; }
+
+    @Override
+    public String toString() {
+        return "Cuenta " + numeroCuenta + " del " + desde + " al " + hasta
+                + ": saldo inicial=$" + Dinero.formatear(saldoInicial)
+                + ", créditos=$" + Dinero.formatear(creditos) + " (" + cantidadCreditos + ")"
+                + ", débitos=$" + Dinero.formatear(debitos) + " (" + cantidadDebitos + ")"
+                + ", saldo final=$" + Dinero.formatear(saldoFinal);
+    }
+}
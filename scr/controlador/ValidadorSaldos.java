@@ -0,0 +1,141 @@
+package scr.controlador;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Verifica la cadena de saldos de los logs: recibe los movimientos en orden (ej. de
+ * {@link Persistencia#reproducir} o {@link Persistencia#recorrerCuenta}), aplica cada
+ * uno al saldo anterior de su cuenta y anota una {@link DiscrepanciaSaldo} cuando el
+ * saldo final registrado no coincide. Las cuentas empiezan con saldo 0.
+ *
+ * <p>Después de una discrepancia la cuenta sigue desde el saldo registrado: un monto mal
+ * registrado se informa una vez y un saldo mal registrado dos (en su línea y en la
+ * siguiente de la cuenta). Sólo guarda el último saldo de cada cuenta, no los
+ * movimientos.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class ValidadorSaldos implements Consumer<MovimientoLog> {
+
+    /** Discrepancias que se guardan con detalle (las demás sólo se cuentan). */
+    public static final int MAXIMO_DISCREPANCIAS_GUARDADAS = 100;
+
+    private final ToLongFunction<String> comisionRetiro;
+    private final Map<String, Long> saldos = new HashMap<>();
+    private final Set<String> cuentasConDiscrepancias = new HashSet<>();
+    private final List<DiscrepanciaSaldo> discrepancias = new ArrayList<>();
+    private long movimientos;
+    private long cantidadDiscrepancias;
+
+    /**
+     * Crea un validador para cuentas sin comisión por retiro.
+     */
+    public ValidadorSaldos() {
+        this(numeroCuenta -> 0);
+    }
+
+    /**
+     * @author Juan
+     * @version 1.0
+     * @param comisionRetiro Comisión (en centavos) que cobra cada cuenta en los retiros y
+     *                       transferencias enviadas, que el log no incluye en el monto.
+     */
+    public ValidadorSaldos(ToLongFunction<String> comisionRetiro) {
+        this.comisionRetiro = comisionRetiro;
+    }
+
+    /**
+     * Aplica un movimiento y lo compara con el saldo registrado.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param m Movimiento, en orden cronológico dentro de su cuenta.
+     */
+    @Override
+    public void accept(MovimientoLog m) {
+        movimientos++;
+        String cuenta = m.getNumeroCuenta();
+        Long previo = saldos.get(cuenta);
+        long anterior = previo == null ? 0 : previo;
+        long esperado = saldoEsperado(anterior, m);
+        if (m.getSaldoFinal() != esperado) {
+            cantidadDiscrepancias++;
+            cuentasConDiscrepancias.add(cuenta);
+            if (discrepancias.size() < MAXIMO_DISCREPANCIAS_GUARDADAS) {
+                discrepancias.add(new DiscrepanciaSaldo(cuenta, m.getFecha(), m.getTipo(), m.getMonto(),
+                        anterior, esperado, m.getSaldoFinal(), m.getPosicion()));
+            }
+        }
+        saldos.put(cuenta, m.getSaldoFinal());
+    }
+
+    /**
+     * @author Juan
+     * @version 1.0
+     * @param anterior Saldo anterior de la cuenta, en centavos.
+     * @param m Movimiento.
+     * @return Saldo que debería quedar luego del movimiento, en centavos.
+     */
+    public long saldoEsperado(long anterior, MovimientoLog m) {
+        if (AgregadosCuenta.esCredito(m.getTipo())) return anterior + m.getMonto();
+        long comision = m.getTipo().equals("RETIRO") || m.getTipo().equals("TRANSFERENCIA_ENVIADA")
+                ? comisionRetiro.applyAsLong(m.getNumeroCuenta()) : 0;
+        return anterior - m.getMonto() - comision;
+    }
+
+    public long getMovimientos() { return movimientos; }
+    public long getCantidadDiscrepancias() { return cantidadDiscrepancias; }
+
+    /**
+     * @return Cantidad de cuentas con movimientos.
+     */
+    public int getCuentas() {
+        return saldos.size();
+    }
+
+    /**
+     * @return Cantidad de cuentas con al menos una discrepancia.
+     */
+    public int getCuentasConDiscrepancias() {
+        return cuentasConDiscrepancias.size();
+    }
+
+    /**
+     * @return Las primeras {@value #MAXIMO_DISCREPANCIAS_GUARDADAS} discrepancias, en orden.
+     */
+    public List<DiscrepanciaSaldo> getDiscrepancias() {
+        return Collections.unmodifiableList(discrepancias);
+    }
+
+    /**
+     * @param numeroCuenta Número de cuenta.
+     * @return Último saldo registrado de la cuenta, o null si no tuvo movimientos.
+     */
+    public Long getSaldo(String numeroCuenta) {
+        return saldos.get(numeroCuenta);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Validación de saldos: movimientos=").append(movimientos)
+          .append(", cuentas=").append(saldos.size())
+          .append(", discrepancias=").append(cantidadDiscrepancias)
+          .append(" en ").append(cuentasConDiscrepancias.size()).append(" cuentas");
+        for (DiscrepanciaSaldo d : discrepancias) {
+            sb.append("\n  - ").append(d);
+        }
+        if (cantidadDiscrepancias > discrepancias.size()) {
+            sb.append("\n  ... y ").append(cantidadDiscrepancias - discrepancias.size()).append(" más");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package scr.controlador;
+import java.nio.ByteBuffer;
+
+/**
+ * Recibe las líneas de un archivo de log como rangos de bytes, sin convertirlas a String.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public interface VisitanteLinea {
+    /**
+     * @param buf Buffer que contiene la línea.
+     * @param inicio Índice del primer byte de la línea.
+     * @param fin Índice siguiente al último byte (sin el salto de línea).
+     */
+    void visitar(ByteBuffer buf, int inicio, int fin);
+}
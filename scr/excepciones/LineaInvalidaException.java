@@ -0,0 +1,36 @@
+package scr.excepciones;
+/**
+ * Excepción lanzada al leer un archivo de log cuando una línea no tiene
+ * el formato esperado. Es no comprobada porque se produce mientras se
+ * recorre el archivo con un iterador o un stream.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public class LineaInvalidaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String archivo;
+    private final long numeroLinea;
+
+    /**
+     * Constructor que recibe la ubicación de la línea inválida.
+     * @param archivo Archivo que se estaba leyendo.
+     * @param numeroLinea Número de línea (comenzando en 1).
+     * @param contenido Contenido de la línea, para el mensaje de error.
+     */
+    public LineaInvalidaException(String archivo, long numeroLinea, String contenido) {
+        super("Línea " + numeroLinea + " inválida en " + archivo + ": " + contenido);
+        this.archivo = archivo;
+        this.numeroLinea = numeroLinea;
+    }
+
+    public String getArchivo() {
+        return archivo;
+    }
+
+    public long getNumeroLinea() {
+        return numeroLinea;
+    }
+}
@@ -3,11 +3,15 @@ package scr.excepciones;
  * Excepción lanzada cuando una operación viola una regla de negocio
  * específica de la cuenta (ej. límite de retiro).
  * Está diseñada para encadenar otras excepciones como su causa.
+ * Puede crearse sin pila de llamadas (propiedad {@code banco.excepciones.sinTraza}).
  *
  * @author Juan
  * @version 1.0
  */
 public class OperacionInvalidaException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
     /**
      * Constructor que permite encadenar una causa raíz (otra excepción).
      * @param mensaje Descripción del error de operación.
@@ -15,7 +19,7 @@ public class OperacionInvalidaException extends Exception {
      * @throws Throwable cuando la causa es nula (delegado al padre si aplica).
      */
     public OperacionInvalidaException(String mensaje, Throwable causa) {
-        super(mensaje, causa);
+        super(mensaje, causa, true, Trazas.CAPTURAR);
     }
 
     /**
@@ -23,6 +27,6 @@ public class OperacionInvalidaException extends Exception {
      * @param mensaje Descripción del error de operación.
      */
     public OperacionInvalidaException(String mensaje) {
-        super(mensaje);
+        super(mensaje, null, true, Trazas.CAPTURAR);
     }
 }
@@ -2,16 +2,58 @@ package scr.excepciones;
 /**
  * Excepción lanzada cuando una operación (retiro) no puede realizarse
  * debido a que el saldo de la cuenta es insuficiente.
+ * Puede crearse sin pila de llamadas (propiedad {@code banco.excepciones.sinTraza}).
  *
  * @author Juan
  * @version 1.0
  */
 public class SaldoInsuficienteException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long montoSolicitado;
+    private final long saldoDisponible;
+
     /**
      * Constructor que recibe el mensaje de error.
      * @param mensaje Descripción del error.
      */
     public SaldoInsuficienteException(String mensaje) {
-        super(mensaje);
+        super(mensaje, null, true, Trazas.CAPTURAR);
+        this.montoSolicitado = 0;
+        this.saldoDisponible = 0;
+    }
+
+    /**
+     * Constructor que recibe los montos involucrados (en centavos).
+     * @param montoSolicitado Monto que se intentó retirar.
+     * @param saldoDisponible Saldo de la cuenta al momento del retiro.
+     */
+    public SaldoInsuficienteException(long montoSolicitado, long saldoDisponible) {
+        // El mensaje se arma recién cuando se pide (ver getMessage)
+        super(null, null, true, Trazas.CAPTURAR);
+        this.montoSolicitado = montoSolicitado;
+        this.saldoDisponible = saldoDisponible;
+    }
+
+    @Override
+    public String getMessage() {
+        String mensaje = super.getMessage();
+        if (mensaje != null) return mensaje;
+        return "El saldo es insuficiente para el retiro de: " + scr.model.Dinero.formatear(montoSolicitado);
+    }
+
+    /**
+     * @return Monto solicitado en centavos (0 si no se indicó).
+     */
+    public long getMontoSolicitado() {
+        return montoSolicitado;
+    }
+
+    /**
+     * @return Saldo disponible en centavos (0 si no se indicó).
+     */
+    public long getSaldoDisponible() {
+        return saldoDisponible;
     }
 }
\ No newline at end of file
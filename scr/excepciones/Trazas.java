@@ -0,0 +1,18 @@
+package scr.excepciones;
+/**
+ * Configuración de las excepciones de negocio ({@link OperacionInvalidaException} y
+ * {@link SaldoInsuficienteException}). Con {@code -Dbanco.excepciones.sinTraza=true}
+ * se crean sin capturar la pila de llamadas, lo que abarata los rechazos cuando son
+ * frecuentes; a cambio, {@code printStackTrace} sólo muestra el mensaje.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+final class Trazas {
+
+    /** true si las excepciones de negocio capturan la pila de llamadas. */
+    static final boolean CAPTURAR = !Boolean.getBoolean("banco.excepciones.sinTraza");
+
+    private Trazas() {
+    }
+}
@@ -16,6 +16,8 @@ public class CuentaAhorros extends CuentaBancaria {
     private double tasaInteresMensual;
     private int cantidadRetirosMes;
     private int retirosRealizadosEsteMes;
+    // Retiros del mes antes del último reinicio, por si el cierre se deshace
+    private int retirosAntesDelReinicio;
 
     /**
      * Constructor por defecto para CuentaAhorros.
@@ -45,37 +47,84 @@ public class CuentaAhorros extends CuentaBancaria {
 
     /**
      * Intenta retirar del ahorro y contabiliza retiros mensuales.
-     * @param monto Cantidad a retirar.
+     * @param monto Cantidad a retirar en centavos.
      * @throws OperacionInvalidaException Cuando no es posible retirar (encadena causa si aplica).
      */
     @Override
-    public void retirar(double monto) throws OperacionInvalidaException {
-        try {
-            // Si existe un límite de retiros gratuitos, podríamos aplicar comisión o denegar
-            // Aquí solo contabilizamos retiros para futuras reglas
-            super.retirar(monto);
-            this.retirosRealizadosEsteMes++;
-        } catch (SaldoInsuficienteException e) {
-            throw new OperacionInvalidaException("No se pudo realizar el retiro en CuentaAhorros.", e);
+    public synchronized void retirar(long monto) throws OperacionInvalidaException {
+        if (intentarRetirar(monto) == ResultadoRetiro.SALDO_INSUFICIENTE) {
+            throw new OperacionInvalidaException("No se pudo realizar el retiro en CuentaAhorros.",
+                    new SaldoInsuficienteException(monto, this.saldo));
         }
     }
 
+    /**
+     * Retira del ahorro y contabiliza el retiro mensual, sin lanzar excepciones.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param monto Cantidad a retirar en centavos.
+     * @return {@link ResultadoRetiro#REALIZADO} o el motivo del rechazo.
+     */
+    @Override
+    public synchronized ResultadoRetiro intentarRetirar(long monto) {
+        // Si existe un límite de retiros gratuitos, podríamos aplicar comisión o denegar
+        // Aquí solo contabilizamos retiros para futuras reglas
+        ResultadoRetiro resultado = super.intentarRetirar(monto);
+        if (resultado.isRealizado()) this.retirosRealizadosEsteMes++;
+        return resultado;
+    }
+
     /**
      * Calcula e incorpora los intereses mensuales al saldo.
+     * @return Intereses generados en centavos.
      */
     @Override
-    public void calcularIntereses() {
-        double intereses = this.saldo * this.tasaInteresMensual;
+    public synchronized long calcularIntereses() {
+        long intereses = Dinero.aplicarTasa(this.saldo, this.tasaInteresMensual);
         this.saldo += intereses;
-        System.out.printf("Cuenta Ahorros %s: Se generaron $%.2f de intereses. Nuevo saldo: $%.2f\n",
-                this.numeroCuenta, intereses, this.saldo);
+        return intereses;
+    }
+
+    /**
+     * Reinicia el contador de retiros del mes.
+     */
+    @Override
+    protected synchronized void reiniciarMes() {
+        this.retirosAntesDelReinicio = this.retirosRealizadosEsteMes;
+        this.retirosRealizadosEsteMes = 0;
+    }
+
+    /**
+     * Vuelve al contador de retiros que había antes del último reinicio.
+     */
+    @Override
+    protected synchronized void deshacerReinicioMes() {
+        this.retirosRealizadosEsteMes = this.retirosAntesDelReinicio;
+    }
+
+    /**
+     * Descuenta un retiro deshecho del contador del mes.
+     */
+    @Override
+    protected synchronized void descontarRetiro() {
+        this.retirosRealizadosEsteMes--;
+    }
+
+    /**
+     * Cuenta un retiro reaplicado desde los logs al recuperar el estado.
+     */
+    @Override
+    protected synchronized void contarRetiroRecuperado() {
+        this.retirosRealizadosEsteMes++;
     }
 
     public double getTasaInteresMensual() { return tasaInteresMensual; }
-    public void setTasaInteresMensual(double tasa) { this.tasaInteresMensual = tasa; }
+    public synchronized void setTasaInteresMensual(double tasa) { this.tasaInteresMensual = tasa; }
     public int getCantidadRetirosMes() { return cantidadRetirosMes; }
-    public void setCantidadRetirosMes(int cantidad) { this.cantidadRetirosMes = cantidad; }
-    public int getRetirosRealizadosEsteMes() { return retirosRealizadosEsteMes; }
+    public synchronized void setCantidadRetirosMes(int cantidad) { this.cantidadRetirosMes = cantidad; }
+    public synchronized int getRetirosRealizadosEsteMes() { return retirosRealizadosEsteMes; }
+    public synchronized void setRetirosRealizadosEsteMes(int cantidad) { this.retirosRealizadosEsteMes = cantidad; }
 
 }
 
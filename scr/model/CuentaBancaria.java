@@ -2,25 +2,51 @@ package scr.model;
 
 import scr.excepciones.SaldoInsuficienteException;
 import scr.excepciones.OperacionInvalidaException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Clase abstracta base para todos los tipos de cuentas bancarias.
  * Gestiona los atributos comunes y la lógica básica.
  *
+ * <p>Las operaciones que leen o modifican el saldo se sincronizan sobre la propia
+ * cuenta, de modo que cuentas distintas pueden operarse en paralelo y las reglas de
+ * cada subclase (comisión, límite, contador de retiros) se evalúan de forma atómica
+ * junto con la validación del saldo. Las subclases que redefinen estos métodos
+ * también deben declararlos {@code synchronized}.</p>
+ *
+ * <p>Los movimientos se guardan en memoria según una {@link PoliticaHistorial}
+ * (por defecto, todos) con una fila por movimiento en {@link HistorialMovimientos}. Si se configura una {@link FuenteMovimientos},
+ * {@link #getDepositos()} y {@link #getRetiros()} devuelven el historial completo
+ * leyendo de ella los movimientos que ya no están en memoria. Qué movimientos de la
+ * memoria figuran ya en la fuente lo indica quien los registra
+ * ({@link #marcarRegistrados()}); no se deduce comparando montos ni fechas.</p>
+ *
  * @author Juan
  * @version 1.0
  */
 public abstract class CuentaBancaria {
+    private static volatile long[] desfaseZona = { 0, Long.MIN_VALUE };
+    // Lecturas de la fuente sin bloquear la cuenta antes de leerla con la cuenta bloqueada
+    private static final int REINTENTOS_LECTURA = 3;
+
     // Atributos protegidos para acceso en subclases
     protected String titular;
-    protected double saldo;
+    protected long saldo; // en centavos (ver {@link Dinero})
     protected String numeroCuenta;
 
-    // Movimientos almacenados en memoria (depósitos y retiros)
-    protected List<Deposito> depositos;
-    protected List<Retiro> retiros;
+    // Movimientos recientes almacenados en memoria (depósitos y retiros, por columnas)
+    protected HistorialMovimientos movimientos;
+    // Historial completo; null si sólo se usa lo que está en memoria
+    private FuenteMovimientos fuente;
 
     /**
      * Constructor para inicializar una cuenta.
@@ -33,9 +59,8 @@ public abstract class CuentaBancaria {
     public CuentaBancaria(String titular, String numeroCuenta) {
         this.titular = titular;
         this.numeroCuenta = numeroCuenta;
-        this.saldo = 0.0;
-        this.depositos = new ArrayList<>();
-        this.retiros = new ArrayList<>();
+        this.saldo = 0;
+        this.movimientos = new HistorialMovimientos(PoliticaHistorial.ILIMITADA);
     }
 
     /**
@@ -43,13 +68,12 @@ public abstract class CuentaBancaria {
      *
      * @author Juan
      * @version 1.0
-     * @param monto Cantidad a depositar. Debe ser positivo.
+     * @param monto Cantidad a depositar en centavos. Debe ser positivo.
      */
-    public void depositar(double monto) {
+    public synchronized void depositar(long monto) {
         if (monto > 0) {
             this.saldo += monto;
-            Deposito d = new Deposito(monto);
-            this.depositos.add(d);
+            this.movimientos.agregar(HistorialMovimientos.DEPOSITO, ahora(), monto);
         }
     }
 
@@ -59,36 +83,159 @@ public abstract class CuentaBancaria {
      *
      * @author Juan
      * @version 1.0
-     * @param monto Cantidad a retirar.
+     * @param monto Cantidad a retirar en centavos.
      * @throws SaldoInsuficienteException Si el saldo es menor al monto solicitado.
      */
-    public void retirar(double monto) throws SaldoInsuficienteException, OperacionInvalidaException {
-        if (monto > 0) {
-            if (this.saldo >= monto) {
-                this.saldo -= monto;
-                Retiro r = new Retiro(monto);
-                this.retiros.add(r);
-            } else {
-                throw new SaldoInsuficienteException("El saldo es insuficiente para el retiro de: " + monto);
-            }
+    public synchronized void retirar(long monto) throws SaldoInsuficienteException, OperacionInvalidaException {
+        if (intentarRetirar(monto) == ResultadoRetiro.SALDO_INSUFICIENTE) {
+            throw new SaldoInsuficienteException(monto, this.saldo);
         }
     }
 
+    /**
+     * Igual que {@link #retirar(long)} pero informa el rechazo en el resultado en lugar
+     * de lanzar una excepción, sin crear objetos. Las subclases aplican aquí sus reglas
+     * (comisión, límite, contadores) y {@code retirar} las traduce a excepciones.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param monto Cantidad a retirar en centavos.
+     * @return {@link ResultadoRetiro#REALIZADO} o el motivo del rechazo.
+     */
+    public synchronized ResultadoRetiro intentarRetirar(long monto) {
+        if (monto <= 0) return ResultadoRetiro.MONTO_INVALIDO;
+        return debitar(monto, 0);
+    }
+
+    /**
+     * Descuenta del saldo el monto más un cargo (ej. una comisión) y guarda en el
+     * historial sólo el monto, igual que los logs, que registran el monto pedido.
+     * Debe llamarse con la cuenta bloqueada.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param monto Cantidad retirada en centavos.
+     * @param cargo Cargo adicional en centavos, que sólo se refleja en el saldo.
+     * @return {@link ResultadoRetiro#REALIZADO} o {@link ResultadoRetiro#SALDO_INSUFICIENTE}.
+     */
+    protected ResultadoRetiro debitar(long monto, long cargo) {
+        if (this.saldo < monto + cargo) return ResultadoRetiro.SALDO_INSUFICIENTE;
+        this.saldo -= monto + cargo;
+        this.movimientos.agregar(HistorialMovimientos.RETIRO, ahora(), monto);
+        return ResultadoRetiro.REALIZADO;
+    }
+
     /**
      * Método abstracto que obliga a las subclases a implementar su
      * propia lógica de cálculo de intereses o comisiones.
      *
      * @author Juan
      * @version 1.0
+     * @return Variación del saldo en centavos (positiva por intereses, negativa por cobros).
+     */
+    public abstract long calcularIntereses();
+
+    /**
+     * Aplica el cierre de mes: intereses o mantenimiento y reinicio de los contadores mensuales.
+     *
+     * @author Juan
+     * @version 1.0
+     * @return Variación del saldo en centavos.
+     */
+    public synchronized long aplicarCierreMensual() {
+        long variacion = calcularIntereses();
+        reiniciarMes();
+        return variacion;
+    }
+
+    /**
+     * Reinicia los contadores que se llevan por mes. Por defecto no hay ninguno.
+     */
+    protected void reiniciarMes() {
+    }
+
+    /**
+     * Deshace el último depósito o retiro cuando su movimiento no pudo registrarse en
+     * los logs: vuelve al saldo anterior, lo quita del historial en memoria y, si era
+     * un retiro, lo descuenta de los contadores del mes. Debe llamarse con la cuenta
+     * bloqueada desde la operación, así ningún otro movimiento quedó en el medio.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param saldoAnterior Saldo antes de la operación, en centavos.
+     */
+    public synchronized void deshacerUltimo(long saldoAnterior) {
+        if (movimientos.quitarUltimo() == HistorialMovimientos.RETIRO) descontarRetiro();
+        this.saldo = saldoAnterior;
+    }
+
+    /**
+     * Descuenta de los contadores del mes un retiro deshecho. Por defecto no hace nada.
+     */
+    protected void descontarRetiro() {
+    }
+
+    /**
+     * Deshace un cierre mensual que no pudo registrarse en los logs: vuelve al saldo
+     * anterior y a los contadores del mes que tenía la cuenta antes del cierre.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param saldoAnterior Saldo antes del cierre, en centavos.
+     */
+    public synchronized void deshacerCierreMensual(long saldoAnterior) {
+        this.saldo = saldoAnterior;
+        deshacerReinicioMes();
+    }
+
+    /**
+     * Vuelve los contadores mensuales a como estaban antes del último {@link #reiniciarMes()}.
+     * Por defecto no hay ninguno.
+     */
+    protected void deshacerReinicioMes() {
+    }
+
+    /**
+     * Reaplica un movimiento leído de los logs al recuperar el estado: fija el saldo
+     * registrado y actualiza los contadores mensuales, sin volver a validar reglas.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param tipo Tipo del movimiento ("DEPOSITO", "RETIRO", "INTERES" o "MANTENIMIENTO").
+     * @param saldoFinal Saldo registrado luego del movimiento, en centavos.
+     */
+    public synchronized void recuperarMovimiento(String tipo, long saldoFinal) {
+        this.saldo = saldoFinal;
+        if (tipo.equals("RETIRO") || tipo.equals("TRANSFERENCIA_ENVIADA")) {
+            contarRetiroRecuperado();
+        } else if (tipo.equals("INTERES") || tipo.equals("MANTENIMIENTO")) {
+            reiniciarMes();
+        }
+    }
+
+    /**
+     * Contabiliza un retiro reaplicado por {@link #recuperarMovimiento}. Por defecto no hace nada.
+     */
+    protected void contarRetiroRecuperado() {
+    }
+
+    /**
+     * Fija el saldo al restaurar la cuenta desde una instantánea.
+     * @param saldo Saldo en centavos.
      */
-    public abstract void calcularIntereses();
+    public synchronized void restaurarSaldo(long saldo) {
+        this.saldo = saldo;
+    }
 
     // Getters
     public String getTitular() {
         return titular;
     }
 
-    public double getSaldo() {
+    /**
+     * @return Saldo actual en centavos.
+     */
+    public synchronized long getSaldo() {
         return saldo;
     }
 
@@ -96,11 +243,151 @@ public abstract class CuentaBancaria {
         return numeroCuenta;
     }
 
+    /**
+     * Configura cuántos movimientos se conservan en memoria y de dónde leer el resto.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param politica Política de retención en memoria.
+     * @param fuente Historial completo de la cuenta, o null para usar sólo la memoria.
+     */
+    public synchronized void configurarHistorial(PoliticaHistorial politica, FuenteMovimientos fuente) {
+        this.movimientos.setPolitica(politica);
+        this.fuente = fuente;
+    }
+
+    /**
+     * Indica que los movimientos en memoria ya figuran en la {@link FuenteMovimientos}:
+     * desde ahora {@link #getDepositos()} y {@link #getRetiros()} los toman de ella.
+     * Quien registra las operaciones lo llama con la cuenta bloqueada, justo después
+     * de registrarlas.
+     *
+     * @author Juan
+     * @version 1.0
+     */
+    public synchronized void marcarRegistrados() {
+        movimientos.marcarRegistrados();
+    }
+
+    /**
+     * Devuelve los depósitos en orden cronológico, numerados desde 0 (ver
+     * {@link Movimiento#getSecuencia()}). Si hay una {@link FuenteMovimientos}
+     * configurada se lee de ella el historial completo, sin bloquear la cuenta, y se
+     * le agregan los depósitos en memoria que todavía no se registraron. Si mientras
+     * se leía se registró un movimiento de la cuenta, la lectura se repite.
+     *
+     * @return Copia de la lista de depósitos.
+     */
     public List<Deposito> getDepositos() {
-        return depositos;
+        return historial(HistorialMovimientos.DEPOSITO, f -> f.cargarDepositosParaCuenta(numeroCuenta), Deposito::new);
     }
 
+    /**
+     * Devuelve los retiros en orden cronológico, igual que {@link #getDepositos()}.
+     *
+     * @return Copia de la lista de retiros.
+     */
     public List<Retiro> getRetiros() {
-        return retiros;
+        return historial(HistorialMovimientos.RETIRO, f -> f.cargarRetirosParaCuenta(numeroCuenta), Retiro::new);
+    }
+
+    private <T extends Movimiento> List<T> historial(byte tipo, Function<FuenteMovimientos, List<T>> cargar,
+                                                     Fabrica<T> fabrica) {
+        for (int intento = 0; ; intento++) {
+            FuenteMovimientos f;
+            long registrados;
+            synchronized (this) {
+                f = fuente;
+                if (f == null) {
+                    List<T> lista = new ArrayList<>(movimientos.contar(tipo));
+                    agregarEnMemoria(lista, tipo, 0, movimientos.descartados(tipo), fabrica);
+                    return lista;
+                }
+                if (intento == REINTENTOS_LECTURA) {
+                    List<T> lista = cargar.apply(f);
+                    agregarEnMemoria(lista, tipo, movimientos.primeroSinRegistrar(), lista.size(), fabrica);
+                    return lista;
+                }
+                registrados = movimientos.registrados();
+            }
+            List<T> lista = cargar.apply(f);
+            synchronized (this) {
+                if (fuente == f && movimientos.registrados() == registrados) {
+                    agregarEnMemoria(lista, tipo, movimientos.primeroSinRegistrar(), lista.size(), fabrica);
+                    return lista;
+                }
+            }
+        }
+    }
+
+    // Agrega los movimientos del tipo desde la posición indicada, numerándolos a partir
+    // de 'secuencia'. Debe llamarse con la cuenta bloqueada
+    private <T extends Movimiento> void agregarEnMemoria(List<T> lista, byte tipo, int desde, long secuencia,
+                                                         Fabrica<T> fabrica) {
+        for (int i = desde; i < movimientos.tamanio(); i++) {
+            if (movimientos.getTipo(i) != tipo) continue;
+            lista.add(fabrica.crear(movimientos.getMonto(i), fecha(movimientos.getFecha(i)), secuencia++));
+        }
+    }
+
+    // Constructor de Deposito o Retiro
+    private interface Fabrica<T extends Movimiento> {
+        T crear(long monto, LocalDateTime fecha, long secuencia);
+    }
+
+    /**
+     * @return Cantidad de depósitos y retiros conservados en memoria.
+     */
+    public synchronized int getMovimientosEnMemoria() {
+        return movimientos.tamanio();
+    }
+
+    /**
+     * Recorre en orden cronológico los movimientos en memoria mediante una única
+     * {@link VistaMovimiento} reutilizada (no debe guardarse fuera del visitante).
+     * La cuenta queda bloqueada durante el recorrido.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param visitante Recibe la vista posicionada en cada movimiento.
+     */
+    public synchronized void recorrerMovimientos(Consumer<? super VistaMovimiento> visitante) {
+        VistaMovimiento vista = new VistaMovimiento();
+        long[] secuencia = { movimientos.descartados(HistorialMovimientos.DEPOSITO),
+                movimientos.descartados(HistorialMovimientos.RETIRO) };
+        for (int i = 0; i < movimientos.tamanio(); i++) {
+            vista.mover(movimientos, i, secuencia[movimientos.getTipo(i)]++);
+            visitante.accept(vista);
+        }
+    }
+
+    /**
+     * @param tipo {@link HistorialMovimientos#DEPOSITO} o {@link HistorialMovimientos#RETIRO}.
+     * @return Suma en centavos de los movimientos de ese tipo conservados en memoria.
+     */
+    public synchronized long sumarEnMemoria(byte tipo) {
+        return movimientos.sumar(tipo);
+    }
+
+    // Hora local en segundos, igual que LocalDateTime.now().toEpochSecond(UTC) pero sin
+    // crear objetos: el desfase de la zona se recalcula sólo al pasar su próxima transición
+    private static long ahora() {
+        long ms = System.currentTimeMillis();
+        long[] d = desfaseZona;
+        if (ms >= d[1]) desfaseZona = d = calcularDesfase(ms);
+        return Math.floorDiv(ms, 1000) + d[0];
+    }
+
+    // {desfase en segundos, milisegundos hasta los que es válido}
+    private static long[] calcularDesfase(long ms) {
+        ZoneRules reglas = ZoneId.systemDefault().getRules();
+        Instant instante = Instant.ofEpochMilli(ms);
+        ZoneOffsetTransition siguiente = reglas.nextTransition(instante);
+        long hasta = siguiente == null ? Long.MAX_VALUE : siguiente.toEpochSecond() * 1000;
+        return new long[] { reglas.getOffset(instante).getTotalSeconds(), hasta };
+    }
+
+    private static LocalDateTime fecha(long segundos) {
+        return LocalDateTime.ofEpochSecond(segundos, 0, ZoneOffset.UTC);
     }
 }
@@ -9,8 +9,8 @@ import scr.excepciones.OperacionInvalidaException;
  */
 public class CuentaCorriente extends CuentaBancaria {
     
-    // Comisión por retiro específica de esta cuenta
-    private double comisionRetiro;
+    // Comisión por retiro específica de esta cuenta (en centavos)
+    private long comisionRetiro;
     /**
      * Constructor de CuentaCorriente.
      *
@@ -21,10 +21,17 @@ public class CuentaCorriente extends CuentaBancaria {
      */
     public CuentaCorriente(String titular, String numeroCuenta) {
         super(titular, numeroCuenta);
-        this.comisionRetiro = 5.0; // valor por defecto si no se especifica
+        this.comisionRetiro = Dinero.unidades(5); // valor por defecto si no se especifica
     }
 
-    public CuentaCorriente(String titular, String numeroCuenta, double comisionRetiro) {
+    /**
+     * Constructor de CuentaCorriente con comisión explícita.
+     *
+     * @param titular Nombre del titular.
+     * @param numeroCuenta Número de cuenta.
+     * @param comisionRetiro Comisión por retiro en centavos.
+     */
+    public CuentaCorriente(String titular, String numeroCuenta, long comisionRetiro) {
         super(titular, numeroCuenta);
         this.comisionRetiro = comisionRetiro;
     }
@@ -34,41 +41,54 @@ public class CuentaCorriente extends CuentaBancaria {
      *
      * @author Juan
      * @version 1.0
-     * @param monto Cantidad a retirar.
+     * @param monto Cantidad a retirar en centavos.
      * @throws OperacionInvalidaException Si el saldo es insuficiente para cubrir monto + comisión.
      */
     @Override
-    public void retirar(double monto) throws OperacionInvalidaException {
-    double montoTotal = monto + this.comisionRetiro;
-        
-        try {
-            // Se usa la lógica de validación de la clase base
-            super.retirar(montoTotal);
-        } catch (SaldoInsuficienteException e) {
+    public synchronized void retirar(long monto) throws OperacionInvalidaException {
+        if (intentarRetirar(monto) == ResultadoRetiro.SALDO_INSUFICIENTE) {
             // Implementación de Excepción Encadenada (Control de Error en Cascada)
-            String mensaje = "Fallo en el retiro. Saldo requerido para " + monto + " más comisión de " + this.comisionRetiro + " es insuficiente.";
-            throw new OperacionInvalidaException(mensaje, e);
+            SaldoInsuficienteException causa = new SaldoInsuficienteException(monto + this.comisionRetiro, this.saldo);
+            String mensaje = "Fallo en el retiro. Saldo requerido para " + Dinero.formatear(monto) + " más comisión de "
+                    + Dinero.formatear(this.comisionRetiro) + " es insuficiente.";
+            throw new OperacionInvalidaException(mensaje, causa);
         }
     }
 
+    /**
+     * Retira el monto más la comisión fija sin lanzar excepciones.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param monto Cantidad a retirar en centavos.
+     * @return {@link ResultadoRetiro#REALIZADO} o el motivo del rechazo.
+     */
+    @Override
+    public synchronized ResultadoRetiro intentarRetirar(long monto) {
+        if (monto <= 0) return ResultadoRetiro.MONTO_INVALIDO;
+        // La comisión se descuenta del saldo pero el historial guarda el monto, como los logs
+        return debitar(monto, this.comisionRetiro);
+    }
+
     /**
      * Implementación de calcularIntereses: la cuenta corriente no genera intereses,
      * pero sí podría cobrar un mantenimiento, que aquí simulamos como una deducción.
      *
      * @author Juan
      * @version 1.0
+     * @return Mantenimiento cobrado, como variación negativa en centavos.
      */
     @Override
-    public void calcularIntereses() {
-        double mantenimiento = 10.0;
+    public synchronized long calcularIntereses() {
+        long mantenimiento = Dinero.unidades(10);
         this.saldo -= mantenimiento;
-        System.out.println("Cuenta Corriente " + this.numeroCuenta + ": Se cobró $" + mantenimiento + " por mantenimiento. Nuevo saldo: " + this.saldo);
+        return -mantenimiento;
     }
 
-    public double getComisionRetiro() {
+    public long getComisionRetiro() {
         return comisionRetiro;
     }
-    public void setComisionRetiro(double comisionRetiro) {
+    public synchronized void setComisionRetiro(long comisionRetiro) {
         this.comisionRetiro = comisionRetiro;
     }
 }
\ No newline at end of file
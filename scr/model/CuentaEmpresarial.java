@@ -9,7 +9,7 @@ import scr.excepciones.OperacionInvalidaException;
  */
 public class CuentaEmpresarial extends CuentaBancaria {
     
-    private double limiteRetiro;
+    private long limiteRetiro; // en centavos
     private String gestorAsignado;
     private static final double TASA_INTERES_EMPRESARIAL = 0.001; // 0.1%
 
@@ -20,7 +20,7 @@ public class CuentaEmpresarial extends CuentaBancaria {
      */
     public CuentaEmpresarial(String titular, String numeroCuenta) {
         super(titular, numeroCuenta);
-        this.limiteRetiro = 5000.0;
+        this.limiteRetiro = Dinero.unidades(5000);
         this.gestorAsignado = "";
     }
 
@@ -28,10 +28,10 @@ public class CuentaEmpresarial extends CuentaBancaria {
      * Constructor parametrizado de CuentaEmpresarial.
      * @param titular Nombre del titular.
      * @param numeroCuenta Número de la cuenta.
-     * @param limiteRetiro Límite máximo de retiro por operación.
+     * @param limiteRetiro Límite máximo de retiro por operación, en centavos.
      * @param gestorAsignado Nombre del gestor asignado.
      */
-    public CuentaEmpresarial(String titular, String numeroCuenta, double limiteRetiro, String gestorAsignado) {
+    public CuentaEmpresarial(String titular, String numeroCuenta, long limiteRetiro, String gestorAsignado) {
         super(titular, numeroCuenta);
         this.limiteRetiro = limiteRetiro;
         this.gestorAsignado = gestorAsignado;
@@ -48,35 +48,47 @@ public class CuentaEmpresarial extends CuentaBancaria {
      * @throws OperacionInvalidaException Si el monto excede el límite o el saldo es insuficiente.
      */
     @Override
-    public void retirar(double monto) throws OperacionInvalidaException {
-        if (monto > this.limiteRetiro) {
-            // Lanza OperacionInvalidaException SIN causa encadenada
-            throw new OperacionInvalidaException("El retiro de $" + monto +
-                " excede el límite máximo por operación de $" + this.limiteRetiro);
+    public synchronized void retirar(long monto) throws OperacionInvalidaException {
+        switch (intentarRetirar(monto)) {
+            case LIMITE_EXCEDIDO:
+                // Lanza OperacionInvalidaException SIN causa encadenada
+                throw new OperacionInvalidaException("El retiro de $" + Dinero.formatear(monto) +
+                    " excede el límite máximo por operación de $" + Dinero.formatear(this.limiteRetiro));
+            case SALDO_INSUFICIENTE:
+                // Lanza OperacionInvalidaException CON causa encadenada
+                String mensaje = "El retiro es válido por monto, pero el saldo es insuficiente.";
+                throw new OperacionInvalidaException(mensaje, new SaldoInsuficienteException(monto, this.saldo));
+            default:
+                break;
         }
+    }
 
-        try {
-            // Llama al método base, que lanzará SaldoInsuficienteException si es necesario
-            super.retirar(monto);
-        } catch (SaldoInsuficienteException e) {
-            // Lanza OperacionInvalidaException CON causa encadenada
-            String mensaje = "El retiro es válido por monto, pero el saldo es insuficiente.";
-            throw new OperacionInvalidaException(mensaje, e);
-        }
+    /**
+     * Retira un monto validando el límite por operación, sin lanzar excepciones.
+     *
+     * @author Juan
+     * @version 1.0
+     * @param monto Cantidad a retirar en centavos.
+     * @return {@link ResultadoRetiro#REALIZADO} o el motivo del rechazo.
+     */
+    @Override
+    public synchronized ResultadoRetiro intentarRetirar(long monto) {
+        if (monto > this.limiteRetiro) return ResultadoRetiro.LIMITE_EXCEDIDO;
+        return super.intentarRetirar(monto);
     }
     /**
      * Implementación de calcularIntereses: genera un interés bajo.
+     * @return Intereses generados en centavos.
      */
     @Override
-    public void calcularIntereses() {
-        double interesesGanados = this.saldo * TASA_INTERES_EMPRESARIAL;
+    public synchronized long calcularIntereses() {
+        long interesesGanados = Dinero.aplicarTasa(this.saldo, TASA_INTERES_EMPRESARIAL);
         this.saldo += interesesGanados;
-        System.out.printf("Cuenta Empresarial %s: Se generaron $%.2f de intereses. Nuevo saldo: $%.2f\n", 
-        this.numeroCuenta, interesesGanados, this.saldo);
+        return interesesGanados;
     }
 
-    public double getLimiteRetiro() { return limiteRetiro; }
-    public void setLimiteRetiro(double limite) { this.limiteRetiro = limite; }
+    public long getLimiteRetiro() { return limiteRetiro; }
+    public synchronized void setLimiteRetiro(long limite) { this.limiteRetiro = limite; }
     public String getGestorAsignado() { return gestorAsignado; }
     public void setGestorAsignado(String gestor) { this.gestorAsignado = gestor; }
 }
\ No newline at end of file
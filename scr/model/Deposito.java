@@ -8,17 +8,26 @@ package scr.model;
  */
 public class Deposito extends Movimiento {
     /**
-     * @param monto Importe del depósito.
+     * @param monto Importe del depósito en centavos.
      */
-    public Deposito(double monto) {
+    public Deposito(long monto) {
         super(monto);
     }
 
     /**
-     * @param monto Importe del depósito.
+     * @param monto Importe del depósito en centavos.
      * @param fecha Fecha del depósito.
      */
-    public Deposito(double monto, java.time.LocalDateTime fecha) {
+    public Deposito(long monto, java.time.LocalDateTime fecha) {
         super(monto, fecha);
     }
+
+    /**
+     * @param monto Importe del depósito en centavos.
+     * @param fecha Fecha del depósito.
+     * @param secuencia Posición entre los depósitos de la cuenta, o -1.
+     */
+    public Deposito(long monto, java.time.LocalDateTime fecha, long secuencia) {
+        super(monto, fecha, secuencia);
+    }
 }
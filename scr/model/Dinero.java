@@ -0,0 +1,106 @@
+package scr.model;
+
+/**
+ * Utilidades para montos de dinero representados como {@code long} en centavos.
+ * Usar enteros evita los errores de redondeo de {@code double} (ej. 0.1 + 0.2)
+ * y las operaciones no crean objetos, a diferencia de {@code BigDecimal}.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class Dinero {
+
+    /** Centavos por unidad monetaria. */
+    public static final long CENTAVOS = 100;
+
+    private Dinero() {
+    }
+
+    /**
+     * Convierte unidades enteras a centavos (ej. 5 → 500).
+     * @param unidades Monto en unidades.
+     * @return Monto en centavos.
+     */
+    public static long unidades(long unidades) {
+        return Math.multiplyExact(unidades, CENTAVOS);
+    }
+
+    /**
+     * Interpreta un texto decimal como centavos. Acepta signo, un '$' inicial y
+     * hasta dos decimales (ej. "1250", "-3.5", "$99.99").
+     *
+     * @author Juan
+     * @version 1.0
+     * @param texto Texto a interpretar.
+     * @return Monto en centavos.
+     * @throws NumberFormatException si el texto no es un monto válido.
+     */
+    public static long parsear(String texto) {
+        String t = texto.trim();
+        int i = 0;
+        boolean negativo = false;
+        if (i < t.length() && (t.charAt(i) == '-' || t.charAt(i) == '+')) {
+            negativo = t.charAt(i) == '-';
+            i++;
+        }
+        if (i < t.length() && t.charAt(i) == '$') i++;
+        long entero = 0;
+        int cifras = 0;
+        while (i < t.length() && Character.isDigit(t.charAt(i))) {
+            entero = Math.addExact(Math.multiplyExact(entero, 10), t.charAt(i) - '0');
+            cifras++;
+            i++;
+        }
+        long decimales = 0;
+        if (i < t.length() && t.charAt(i) == '.') {
+            i++;
+            int n = 0;
+            while (i < t.length() && Character.isDigit(t.charAt(i))) {
+                if (n == 2) throw new NumberFormatException("Más de dos decimales: " + texto);
+                decimales = decimales * 10 + (t.charAt(i) - '0');
+                n++;
+                cifras++;
+                i++;
+            }
+            if (n == 1) decimales *= 10;
+        }
+        if (cifras == 0 || i != t.length()) throw new NumberFormatException("Monto inválido: " + texto);
+        long centavos = Math.addExact(Math.multiplyExact(entero, CENTAVOS), decimales);
+        return negativo ? -centavos : centavos;
+    }
+
+    /**
+     * Formatea centavos con dos decimales (ej. 123456 → "1234.56", -5 → "-0.05").
+     * @param centavos Monto en centavos.
+     * @return Texto con dos decimales.
+     */
+    public static String formatear(long centavos) {
+        StringBuilder sb = new StringBuilder(24);
+        agregar(sb, centavos);
+        return sb.toString();
+    }
+
+    /**
+     * Agrega el monto formateado con dos decimales al final del {@link StringBuilder}.
+     * @param sb Destino.
+     * @param centavos Monto en centavos.
+     */
+    public static void agregar(StringBuilder sb, long centavos) {
+        if (centavos < 0) sb.append('-');
+        long entero = Math.abs(centavos / CENTAVOS);
+        long resto = Math.abs(centavos % CENTAVOS);
+        sb.append(entero).append('.');
+        if (resto < 10) sb.append('0');
+        sb.append(resto);
+    }
+
+    /**
+     * Aplica una tasa (ej. 0.02 para 2%) a un monto, redondeando al centavo más cercano.
+     * @param centavos Monto base en centavos.
+     * @param tasa Tasa a aplicar.
+     * @return Monto resultante en centavos.
+     */
+    public static long aplicarTasa(long centavos, double tasa) {
+        return Math.round(centavos * tasa);
+    }
+}
@@ -0,0 +1,27 @@
+package scr.model;
+
+import java.util.List;
+
+/**
+ * Origen del historial completo de movimientos de una cuenta (ej. los logs), usado
+ * cuando la cuenta sólo conserva en memoria los movimientos recientes. Las listas
+ * devueltas son nuevas (quien llama puede modificarlas) y cada movimiento lleva como
+ * secuencia su posición en ella ({@link Movimiento#getSecuencia()}).
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public interface FuenteMovimientos {
+
+    /**
+     * @param numeroCuenta Número de cuenta a filtrar.
+     * @return Depósitos (incluye intereses) registrados para la cuenta, en orden cronológico.
+     */
+    List<Deposito> cargarDepositosParaCuenta(String numeroCuenta);
+
+    /**
+     * @param numeroCuenta Número de cuenta a filtrar.
+     * @return Retiros (incluye mantenimiento) registrados para la cuenta, en orden cronológico.
+     */
+    List<Retiro> cargarRetirosParaCuenta(String numeroCuenta);
+}
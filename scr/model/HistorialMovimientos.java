@@ -0,0 +1,232 @@
+package scr.model;
+
+/**
+ * Buffer circular de movimientos recientes guardado por columnas: arreglos
+ * paralelos de fechas (segundos desde 1970 sin zona), montos (centavos) y tipos,
+ * sin un objeto por movimiento. Crece a demanda hasta el máximo de la
+ * {@link PoliticaHistorial} y luego descarta los más antiguos.
+ *
+ * <p>Para recorrerlo sin crear objetos se usa {@link VistaMovimiento}, y las sumas
+ * ({@link #sumar(byte)}) recorren un único arreglo de forma secuencial.</p>
+ *
+ * <p>Lleva además cuántos movimientos de cada tipo se descartaron, para numerar los
+ * que quedan (ver {@link Movimiento#getSecuencia()}), y hasta qué movimiento figuran
+ * ya en la {@link FuenteMovimientos} de la cuenta ({@link #marcarRegistrados()}).</p>
+ *
+ * <p>No es seguro para uso concurrente: la cuenta dueña lo protege con su monitor.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class HistorialMovimientos {
+
+    /** Tipo de los depósitos. */
+    public static final byte DEPOSITO = 0;
+    /** Tipo de los retiros. */
+    public static final byte RETIRO = 1;
+
+    private static final int CAPACIDAD_INICIAL = 4;
+
+    private PoliticaHistorial politica;
+    private long[] fechas;
+    private long[] montos;
+    private byte[] tipos;
+    private int inicio;
+    private int tamanio;
+    private long descartados;
+    private final long[] descartadosPorTipo = new long[2];
+    // Movimientos agregados (contando los descartados) que ya figuran en la fuente
+    private long registrados;
+
+    /**
+     * @param politica Política de retención.
+     */
+    public HistorialMovimientos(PoliticaHistorial politica) {
+        this.politica = politica;
+        this.fechas = new long[Math.min(CAPACIDAD_INICIAL, politica.getMaxMovimientos())];
+        this.montos = new long[fechas.length];
+        this.tipos = new byte[fechas.length];
+    }
+
+    /**
+     * Agrega un movimiento al final, descartando los que quedan fuera de la política.
+     * @param tipo {@link #DEPOSITO} o {@link #RETIRO}.
+     * @param fecha Segundos desde 1970-01-01T00:00:00 (hora local sin zona).
+     * @param monto Monto en centavos.
+     */
+    public void agregar(byte tipo, long fecha, long monto) {
+        if (tamanio == politica.getMaxMovimientos()) {
+            descartarPrimero();
+        } else if (tamanio == fechas.length) {
+            crecer();
+        }
+        int i = indice(tamanio);
+        fechas[i] = fecha;
+        montos[i] = monto;
+        tipos[i] = tipo;
+        tamanio++;
+        descartarVencidos(fecha);
+    }
+
+    /**
+     * Quita el último movimiento agregado (ej. uno que no pudo registrarse en los logs).
+     * Los que se descartaron al agregarlo no vuelven: siguen contados en
+     * {@link #descartados()}, así la numeración del resto no cambia.
+     * @return Tipo del movimiento quitado.
+     * @throws IllegalStateException si no hay movimientos en memoria.
+     */
+    public byte quitarUltimo() {
+        if (tamanio == 0) throw new IllegalStateException("No hay movimientos en memoria");
+        tamanio--;
+        return tipos[indice(tamanio)];
+    }
+
+    /**
+     * Cambia la política, descartando lo que ya no entra.
+     * @param politica Nueva política.
+     */
+    public void setPolitica(PoliticaHistorial politica) {
+        this.politica = politica;
+        while (tamanio > politica.getMaxMovimientos()) descartarPrimero();
+        if (tamanio > 0) descartarVencidos(getFecha(tamanio - 1));
+        int capacidad = Math.min(Math.max(tamanio, CAPACIDAD_INICIAL), politica.getMaxMovimientos());
+        if (capacidad < fechas.length) redimensionar(capacidad);
+    }
+
+    /**
+     * @return Cantidad de movimientos en memoria.
+     */
+    public int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * @return Cantidad de movimientos descartados desde la creación.
+     */
+    public long descartados() {
+        return descartados;
+    }
+
+    /**
+     * @param tipo {@link #DEPOSITO} o {@link #RETIRO}.
+     * @return Cantidad de movimientos de ese tipo descartados desde la creación.
+     */
+    public long descartados(byte tipo) {
+        return descartadosPorTipo[tipo];
+    }
+
+    /**
+     * Indica que todos los movimientos agregados hasta ahora figuran en la fuente.
+     */
+    public void marcarRegistrados() {
+        registrados = descartados + tamanio;
+    }
+
+    /**
+     * @return Cantidad de movimientos agregados (contando los descartados) que figuran en la fuente.
+     */
+    public long registrados() {
+        return registrados;
+    }
+
+    /**
+     * @return Posición en memoria del primer movimiento que no figura en la fuente
+     *         ({@link #tamanio()} si figuran todos).
+     */
+    public int primeroSinRegistrar() {
+        return (int) Math.max(0, registrados - descartados);
+    }
+
+    /**
+     * @param i Posición, siendo 0 el movimiento más antiguo en memoria.
+     * @return Fecha en segundos desde 1970 (hora local sin zona).
+     */
+    public long getFecha(int i) {
+        return fechas[indice(i)];
+    }
+
+    /**
+     * @param i Posición, siendo 0 el movimiento más antiguo en memoria.
+     * @return Monto en centavos.
+     */
+    public long getMonto(int i) {
+        return montos[indice(i)];
+    }
+
+    /**
+     * @param i Posición, siendo 0 el movimiento más antiguo en memoria.
+     * @return {@link #DEPOSITO} o {@link #RETIRO}.
+     */
+    public byte getTipo(int i) {
+        return tipos[indice(i)];
+    }
+
+    /**
+     * @param tipo {@link #DEPOSITO} o {@link #RETIRO}.
+     * @return Cantidad de movimientos de ese tipo en memoria.
+     */
+    public int contar(byte tipo) {
+        int n = 0;
+        for (int i = 0; i < tamanio; i++) {
+            if (tipos[indice(i)] == tipo) n++;
+        }
+        return n;
+    }
+
+    /**
+     * Suma los montos de un tipo recorriendo las columnas de tipo y monto.
+     * @param tipo {@link #DEPOSITO} o {@link #RETIRO}.
+     * @return Suma en centavos de los movimientos de ese tipo en memoria.
+     */
+    public long sumar(byte tipo) {
+        long total = 0;
+        // Dos tramos contiguos del buffer circular, sin calcular el índice por elemento
+        int fin = Math.min(inicio + tamanio, fechas.length);
+        for (int i = inicio; i < fin; i++) {
+            if (tipos[i] == tipo) total += montos[i];
+        }
+        int resto = tamanio - (fin - inicio);
+        for (int i = 0; i < resto; i++) {
+            if (tipos[i] == tipo) total += montos[i];
+        }
+        return total;
+    }
+
+    private int indice(int i) {
+        int j = inicio + i;
+        return j < fechas.length ? j : j - fechas.length;
+    }
+
+    private void descartarPrimero() {
+        descartadosPorTipo[tipos[inicio]]++;
+        inicio = indice(1);
+        tamanio--;
+        descartados++;
+    }
+
+    private void descartarVencidos(long ultimaFecha) {
+        long ventana = politica.getVentanaSegundos();
+        if (ventana == Long.MAX_VALUE) return;
+        while (tamanio > 1 && ultimaFecha - fechas[inicio] > ventana) descartarPrimero();
+    }
+
+    private void crecer() {
+        long nueva = Math.min((long) fechas.length * 2, politica.getMaxMovimientos());
+        redimensionar((int) Math.max(nueva, fechas.length + 1));
+    }
+
+    private void redimensionar(int capacidad) {
+        long[] f = new long[capacidad];
+        long[] m = new long[capacidad];
+        byte[] t = new byte[capacidad];
+        for (int i = 0; i < tamanio; i++) {
+            f[i] = getFecha(i);
+            m[i] = getMonto(i);
+            t[i] = getTipo(i);
+        }
+        fechas = f;
+        montos = m;
+        tipos = t;
+        inicio = 0;
+    }
+}
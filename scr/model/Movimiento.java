@@ -5,37 +5,80 @@ import java.time.LocalDateTime;
 /**
  * Representa un movimiento genérico en la cuenta (depósito o retiro).
  *
+ * <p>Cada movimiento lleva su número de secuencia: la posición que ocupa entre los
+ * movimientos de su mismo tipo en el historial de la cuenta (0 el primero). Dos
+ * movimientos son iguales si son del mismo tipo y tienen la misma secuencia, así dos
+ * depósitos distintos del mismo monto y en el mismo segundo no se confunden. Un
+ * movimiento sin secuencia (-1) sólo es igual a sí mismo.</p>
+ *
+ * <p>La fecha se guarda con precisión de segundos, igual que en los logs.</p>
+ *
  * @author Juan
  * @version 1.0
  */
 public abstract class Movimiento {
-    protected double monto;
+    // Monto en centavos (ver {@link Dinero})
+    protected long monto;
     protected LocalDateTime fecha;
+    protected long secuencia;
 
     /**
-     * Crea un movimiento con fecha actual.
-     * @param monto Importe del movimiento.
+     * Crea un movimiento con fecha actual y sin secuencia.
+     * @param monto Importe del movimiento en centavos.
      */
-    public Movimiento(double monto) {
-        this.monto = monto;
-        this.fecha = LocalDateTime.now();
+    public Movimiento(long monto) {
+        this(monto, LocalDateTime.now(), -1);
     }
 
     /**
-     * Crea un movimiento con fecha explícita (útil al cargar desde archivo).
-     * @param monto Importe del movimiento.
+     * Crea un movimiento con fecha explícita y sin secuencia.
+     * @param monto Importe del movimiento en centavos.
      * @param fecha Fecha y hora del movimiento.
      */
-    public Movimiento(double monto, LocalDateTime fecha) {
+    public Movimiento(long monto, LocalDateTime fecha) {
+        this(monto, fecha, -1);
+    }
+
+    /**
+     * Crea un movimiento del historial de una cuenta (útil al cargar desde archivo).
+     * @param monto Importe del movimiento en centavos.
+     * @param fecha Fecha y hora del movimiento.
+     * @param secuencia Posición entre los movimientos del mismo tipo de la cuenta, o -1.
+     */
+    public Movimiento(long monto, LocalDateTime fecha, long secuencia) {
         this.monto = monto;
-        this.fecha = fecha;
+        this.fecha = fecha.withNano(0);
+        this.secuencia = secuencia;
     }
 
-    public double getMonto() {
+    /**
+     * @return Importe del movimiento en centavos.
+     */
+    public long getMonto() {
         return monto;
     }
 
     public LocalDateTime getFecha() {
         return fecha;
     }
+
+    /**
+     * @return Posición entre los movimientos del mismo tipo de la cuenta, o -1 si no se conoce.
+     */
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || o.getClass() != getClass()) return false;
+        Movimiento m = (Movimiento) o;
+        return secuencia >= 0 && secuencia == m.secuencia;
+    }
+
+    @Override
+    public int hashCode() {
+        return secuencia >= 0 ? 31 * getClass().hashCode() + Long.hashCode(secuencia) : System.identityHashCode(this);
+    }
 }
@@ -0,0 +1,59 @@
+package scr.model;
+
+import java.time.Duration;
+
+/**
+ * Define cuántos movimientos conserva en memoria cada cuenta: los últimos N y/o
+ * los de una ventana de tiempo. Los movimientos descartados siguen disponibles a
+ * través de la {@link FuenteMovimientos} de la cuenta.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class PoliticaHistorial {
+
+    /** Conserva todos los movimientos en memoria (comportamiento sin fuente externa). */
+    public static final PoliticaHistorial ILIMITADA = new PoliticaHistorial(Integer.MAX_VALUE, null);
+
+    private final int maxMovimientos;
+    private final long ventanaSegundos;
+
+    /**
+     * @param maxMovimientos Cantidad máxima de movimientos (depósitos y retiros) en memoria.
+     * @param ventana Antigüedad máxima de un movimiento en memoria, o null para no limitarla.
+     * @throws IllegalArgumentException si maxMovimientos no es positivo o la ventana es negativa.
+     */
+    public PoliticaHistorial(int maxMovimientos, Duration ventana) {
+        if (maxMovimientos <= 0) throw new IllegalArgumentException("La cantidad máxima debe ser positiva.");
+        if (ventana != null && ventana.isNegative()) throw new IllegalArgumentException("La ventana no puede ser negativa.");
+        this.maxMovimientos = maxMovimientos;
+        this.ventanaSegundos = ventana == null ? Long.MAX_VALUE : ventana.getSeconds();
+    }
+
+    /**
+     * @param n Cantidad de movimientos a conservar.
+     * @return Política que conserva los últimos n movimientos.
+     */
+    public static PoliticaHistorial ultimos(int n) {
+        return new PoliticaHistorial(n, null);
+    }
+
+    /**
+     * @param ventana Antigüedad máxima.
+     * @return Política que conserva los movimientos más recientes que la ventana.
+     */
+    public static PoliticaHistorial ventana(Duration ventana) {
+        return new PoliticaHistorial(Integer.MAX_VALUE, ventana);
+    }
+
+    public int getMaxMovimientos() {
+        return maxMovimientos;
+    }
+
+    /**
+     * @return Ventana en segundos, o {@code Long.MAX_VALUE} si no hay límite de tiempo.
+     */
+    public long getVentanaSegundos() {
+        return ventanaSegundos;
+    }
+}
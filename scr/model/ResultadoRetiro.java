@@ -0,0 +1,39 @@
+package scr.model;
+
+/**
+ * Resultado de {@link CuentaBancaria#intentarRetirar(long)}: indica si el retiro se
+ * realizó y, si no, el motivo. Permite rechazar retiros sin crear excepciones, por
+ * ejemplo al procesar muchos movimientos seguidos.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public enum ResultadoRetiro {
+    /** El retiro se realizó. */
+    REALIZADO("Retiro realizado"),
+    /** El saldo (más la comisión, si corresponde) no alcanza; equivale a {@code SaldoInsuficienteException}. */
+    SALDO_INSUFICIENTE("Saldo insuficiente"),
+    /** El monto supera el límite por operación de la cuenta. */
+    LIMITE_EXCEDIDO("Límite por operación excedido"),
+    /** El monto no es positivo; la cuenta no se modifica. */
+    MONTO_INVALIDO("Monto inválido"),
+    /** No existe una cuenta con el número indicado (sólo lo devuelve el controlador). */
+    CUENTA_INEXISTENTE("Cuenta no encontrada");
+
+    private final String descripcion;
+
+    ResultadoRetiro(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * @return true si el retiro se realizó.
+     */
+    public boolean isRealizado() {
+        return this == REALIZADO;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -8,17 +8,26 @@ package scr.model;
  */
 public class Retiro extends Movimiento {
     /**
-     * @param monto Importe del retiro.
+     * @param monto Importe del retiro en centavos.
      */
-    public Retiro(double monto) {
+    public Retiro(long monto) {
         super(monto);
     }
 
     /**
-     * @param monto Importe del retiro.
+     * @param monto Importe del retiro en centavos.
      * @param fecha Fecha del retiro.
      */
-    public Retiro(double monto, java.time.LocalDateTime fecha) {
+    public Retiro(long monto, java.time.LocalDateTime fecha) {
         super(monto, fecha);
     }
+
+    /**
+     * @param monto Importe del retiro en centavos.
+     * @param fecha Fecha del retiro.
+     * @param secuencia Posición entre los retiros de la cuenta, o -1.
+     */
+    public Retiro(long monto, java.time.LocalDateTime fecha, long secuencia) {
+        super(monto, fecha, secuencia);
+    }
 }
@@ -0,0 +1,75 @@
+package scr.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Vista reutilizable (flyweight) de un movimiento guardado en un
+ * {@link HistorialMovimientos}. Permite recorrer el historial con el mismo código
+ * que lee {@link #getMonto()} y {@link #getFecha()} de un {@link Movimiento}, sin
+ * crear un objeto por elemento.
+ *
+ * <p>La misma instancia se reposiciona en cada paso del recorrido, por lo que no
+ * debe guardarse ni compararse; para conservar un movimiento se usa {@link #copiar()}.</p>
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class VistaMovimiento extends Movimiento {
+
+    private static final LocalDateTime SIN_FECHA = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private HistorialMovimientos historial;
+    private int posicion;
+
+    VistaMovimiento() {
+        super(0, SIN_FECHA);
+    }
+
+    void mover(HistorialMovimientos historial, int posicion, long secuencia) {
+        this.historial = historial;
+        this.posicion = posicion;
+        this.secuencia = secuencia;
+    }
+
+    @Override
+    public long getMonto() {
+        return historial.getMonto(posicion);
+    }
+
+    /**
+     * @return Fecha del movimiento (crea un {@link LocalDateTime}; ver {@link #getFechaSegundos()}).
+     */
+    @Override
+    public LocalDateTime getFecha() {
+        return LocalDateTime.ofEpochSecond(getFechaSegundos(), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return Fecha en segundos desde 1970-01-01T00:00:00 (hora local sin zona), sin crear objetos.
+     */
+    public long getFechaSegundos() {
+        return historial.getFecha(posicion);
+    }
+
+    public boolean esDeposito() {
+        return historial.getTipo(posicion) == HistorialMovimientos.DEPOSITO;
+    }
+
+    /**
+     * @return Un {@link Deposito} o {@link Retiro} independiente de la vista.
+     */
+    public Movimiento copiar() {
+        return esDeposito() ? new Deposito(getMonto(), getFecha(), secuencia) : new Retiro(getMonto(), getFecha(), secuencia);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+}
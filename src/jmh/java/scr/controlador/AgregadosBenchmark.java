@@ -0,0 +1,101 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.Deposito;
+import scr.model.Retiro;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totales del mes de una cuenta con un historial largo: a partir de los
+ * {@link AgregadosCuenta} frente a recorrer sus movimientos en los logs, ya sea con
+ * {@link Persistencia#recorrerCuenta} o cargando los depósitos y retiros como hacían
+ * los reportes antes de los agregados.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgregadosBenchmark {
+
+    @Param({"binaria", "texto"})
+    public String backend;
+
+    @Param({"20000", "200000"})
+    public int movimientos;
+
+    private Persistencia persistencia;
+    private AgregadosMovimientos agregados;
+    private YearMonth mes;
+
+    @Setup
+    public void preparar() {
+        ArchivosPrueba.limpiar();
+        persistencia = ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO);
+        LoteMovimientos lote = new LoteMovimientos(4096);
+        long saldo = 0;
+        for (int i = 0; i < movimientos; i++) {
+            long monto = 100 + i % 97;
+            boolean deposito = i % 3 != 0;
+            saldo += deposito ? monto : -monto;
+            lote.agregar(deposito ? "DEPOSITO" : "RETIRO", "000001", monto, saldo);
+            if (lote.tamanio() == 4096) {
+                persistencia.registrarLote(lote);
+                lote.limpiar();
+            }
+        }
+        persistencia.registrarLote(lote);
+        persistencia.confirmar();
+        agregados = new AgregadosMovimientos(persistencia);
+        agregados.obtener("000001");
+        mes = YearMonth.now();
+    }
+
+    @TearDown
+    public void cerrar() {
+        persistencia.cerrar();
+    }
+
+    @Benchmark
+    public TotalesPeriodo agregados() {
+        return agregados.obtener("000001").totales(mes.atDay(1), mes.atEndOfMonth());
+    }
+
+    @Benchmark
+    public long recorrer() {
+        long[] suma = new long[2];
+        persistencia.recorrerCuenta("000001", m -> {
+            if (!YearMonth.from(m.getFecha()).equals(mes)) return;
+            if (AgregadosCuenta.esCredito(m.getTipo())) suma[0] += m.getMonto();
+            else suma[1] += m.getMonto();
+        });
+        return suma[0] - suma[1];
+    }
+
+    @Benchmark
+    public long cargar() {
+        long total = 0;
+        for (Deposito d : persistencia.cargarDepositosParaCuenta("000001")) {
+            if (YearMonth.from(d.getFecha()).equals(mes)) total += d.getMonto();
+        }
+        for (Retiro r : persistencia.cargarRetirosParaCuenta("000001")) {
+            if (YearMonth.from(r.getFecha()).equals(mes)) total -= r.getMonto();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,73 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BancoController#buscarCuenta} con distintas cantidades de cuentas, buscando
+ * números existentes en orden aleatorio.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuscarCuentaBenchmark {
+
+    @Param({"10000", "100000", "900000"})
+    public int cuentas;
+
+    private BancoController controlador;
+    private String[] numeros;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        ArchivosPrueba.limpiar();
+        controlador = new BancoController(ArchivosPrueba.backend("binaria", ModoDurabilidad.GRUPO),
+                "cuentas.txt", "instantanea.txt", 0);
+        numeros = new String[cuentas];
+        for (int i = 0; i < cuentas; i++) {
+            CuentaBancaria c = new CuentaAhorros("Medición", controlador.generarNumeroCuenta());
+            controlador.abrirCuenta(c, 0);
+            numeros[i] = c.getNumeroCuenta();
+        }
+        // Orden aleatorio, para no recorrer la tabla en el orden en que se llenó
+        SplittableRandom azar = new SplittableRandom(42);
+        for (int i = numeros.length - 1; i > 0; i--) {
+            int j = azar.nextInt(i + 1);
+            String t = numeros[i];
+            numeros[i] = numeros[j];
+            numeros[j] = t;
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        controlador.cerrar();
+    }
+
+    @Benchmark
+    public CuentaBancaria buscarCuenta() {
+        String numero = numeros[siguiente];
+        siguiente = siguiente + 1 == numeros.length ? 0 : siguiente + 1;
+        return controlador.buscarCuenta(numero);
+    }
+}
@@ -0,0 +1,120 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas del historial con un acceso desparejo entre cuentas, contra el backend
+ * directo y a través de la {@link CacheHistoriales}: la cuenta de rango k se elige con
+ * probabilidad proporcional a 1/k^s (distribución de Zipf), así unas pocas cuentas
+ * reciben la mayoría de las consultas. Una parte de las operaciones son depósitos,
+ * que la cache tiene que agregar a los historiales que guarda.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheHistorialesBenchmark {
+
+    private static final int CUENTAS = 1000;
+    private static final int MOVIMIENTOS_POR_CUENTA = 200;
+    private static final int PORCENTAJE_DEPOSITOS = 5;
+
+    @Param({"binaria", "texto"})
+    public String backend;
+
+    @Param({"1.0"})
+    public double exponente;
+
+    @Param({"2097152"})
+    public long limiteBytes;
+
+    private Persistencia persistencia;
+    private CacheHistoriales cache;
+    private final String[] cuentas = new String[CUENTAS];
+    private final long[] saldos = new long[CUENTAS];
+    private double[] acumulada;
+    private SplittableRandom azar;
+
+    @Setup
+    public void preparar() {
+        ArchivosPrueba.limpiar();
+        persistencia = ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO);
+        for (int i = 0; i < CUENTAS; i++) cuentas[i] = String.format("M%06d", i);
+        LoteMovimientos lote = new LoteMovimientos(CUENTAS);
+        for (int j = 0; j < MOVIMIENTOS_POR_CUENTA; j++) {
+            lote.limpiar();
+            for (int i = 0; i < CUENTAS; i++) {
+                saldos[i] += 1000;
+                lote.agregar("DEPOSITO", cuentas[i], 1000, saldos[i]);
+            }
+            persistencia.registrarLote(lote);
+        }
+        persistencia.confirmar();
+        cache = new CacheHistoriales(persistencia, limiteBytes);
+        acumulada = zipf(CUENTAS, exponente);
+        azar = new SplittableRandom(42);
+    }
+
+    @TearDown
+    public void cerrar() {
+        persistencia.cerrar();
+    }
+
+    @Benchmark
+    public long directo() {
+        return operar(persistencia);
+    }
+
+    @Benchmark
+    public long conCache() {
+        return operar(cache);
+    }
+
+    // Un depósito o una consulta del historial completo de una cuenta elegida al azar
+    private long operar(Persistencia p) {
+        int i = elegir();
+        if (azar.nextInt(100) < PORCENTAJE_DEPOSITOS) {
+            saldos[i] += 100;
+            p.registrarMovimiento("DEPOSITO", cuentas[i], 100, saldos[i]);
+            return 0;
+        }
+        long[] leidos = new long[1];
+        p.recorrerCuenta(cuentas[i], m -> leidos[0]++);
+        return leidos[0];
+    }
+
+    // Probabilidad acumulada de los rangos 1..n con exponente s
+    private static double[] zipf(int n, double s) {
+        double[] acumulada = new double[n];
+        double suma = 0;
+        for (int k = 1; k <= n; k++) {
+            suma += 1 / Math.pow(k, s);
+            acumulada[k - 1] = suma;
+        }
+        for (int i = 0; i < n; i++) acumulada[i] /= suma;
+        return acumulada;
+    }
+
+    private int elegir() {
+        int i = Arrays.binarySearch(acumulada, azar.nextDouble());
+        return Math.min(i >= 0 ? i : -i - 1, acumulada.length - 1);
+    }
+}
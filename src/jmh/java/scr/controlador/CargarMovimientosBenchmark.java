@@ -0,0 +1,83 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.Deposito;
+import scr.model.Retiro;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code cargarDepositosParaCuenta} y {@code cargarRetirosParaCuenta} de una cuenta
+ * elegida al azar, sobre logs generados con la misma cantidad de depósitos y retiros
+ * por cuenta.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CargarMovimientosBenchmark {
+
+    @Param({"texto", "binaria"})
+    public String backend;
+
+    @Param({"1000"})
+    public int cuentas;
+
+    @Param({"100"})
+    public int movimientosPorCuenta;
+
+    private Persistencia persistencia;
+    private String[] numeros;
+    private final SplittableRandom azar = new SplittableRandom(42);
+
+    @Setup
+    public void preparar() {
+        ArchivosPrueba.limpiar();
+        persistencia = ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO);
+        numeros = new String[cuentas];
+        long[] saldos = new long[cuentas];
+        for (int i = 0; i < cuentas; i++) numeros[i] = String.format("%06d", i);
+        LoteMovimientos lote = new LoteMovimientos(cuentas);
+        for (int j = 0; j < movimientosPorCuenta; j++) {
+            lote.limpiar();
+            boolean deposito = j % 2 == 0;
+            for (int i = 0; i < cuentas; i++) {
+                saldos[i] += deposito ? 1000 : -500;
+                lote.agregar(deposito ? "DEPOSITO" : "RETIRO", numeros[i], deposito ? 1000 : 500, saldos[i]);
+            }
+            persistencia.registrarLote(lote);
+        }
+        persistencia.confirmar();
+    }
+
+    @TearDown
+    public void cerrar() {
+        persistencia.cerrar();
+    }
+
+    @Benchmark
+    public List<Deposito> cargarDepositosParaCuenta() {
+        return persistencia.cargarDepositosParaCuenta(numeros[azar.nextInt(numeros.length)]);
+    }
+
+    @Benchmark
+    public List<Retiro> cargarRetirosParaCuenta() {
+        return persistencia.cargarRetirosParaCuenta(numeros[azar.nextInt(numeros.length)]);
+    }
+}
@@ -0,0 +1,92 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.CuentaAhorros;
+import scr.model.Dinero;
+import scr.model.ResultadoRetiro;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento del modo con locks según la cantidad de hilos: cada operación deposita
+ * o retira (mitad y mitad) en una cuenta al azar entre 1024. Con el backend "nula"
+ * se mide sólo el bloqueo por cuenta; con "binaria" se incluye la escritura del diario.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrenciaBenchmark {
+
+    private static final int CUENTAS = 1024;
+
+    @Param({"nula", "binaria"})
+    public String backend;
+
+    private BancoController controlador;
+    private final String[] numeros = new String[CUENTAS];
+
+    @Setup
+    public void preparar() {
+        ArchivosPrueba.limpiar();
+        controlador = new BancoController(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO),
+                "cuentas.txt", "instantanea.txt", 0);
+        for (int i = 0; i < CUENTAS; i++) {
+            CuentaAhorros c = new CuentaAhorros("Medición", controlador.generarNumeroCuenta(), 0.01, Integer.MAX_VALUE);
+            controlador.abrirCuenta(c, Dinero.unidades(1_000_000_000));
+            numeros[i] = c.getNumeroCuenta();
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        controlador.cerrar();
+    }
+
+    private long operar() throws Exception {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        String numero = numeros[azar.nextInt(CUENTAS)];
+        if (azar.nextBoolean()) return controlador.depositar(numero, 100);
+        return controlador.intentarRetirar(numero, 100) == ResultadoRetiro.REALIZADO ? 1 : 0;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long hilos1() throws Exception {
+        return operar();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public long hilos2() throws Exception {
+        return operar();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long hilos4() throws Exception {
+        return operar();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long hilos8() throws Exception {
+        return operar();
+    }
+}
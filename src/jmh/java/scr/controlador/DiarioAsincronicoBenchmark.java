@@ -0,0 +1,81 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.CuentaAhorros;
+import scr.model.Dinero;
+import scr.model.ResultadoRetiro;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de depósitos y retiros (mitad y mitad, en una cuenta al azar entre 1024)
+ * con el backend sincrónico y detrás de un {@link DiarioAsincronico}. Con capacidad 0
+ * se registra en el backend directamente; con una cola chica el disco no da abasto y
+ * se mide la contrapresión, en la que quien registra escribe él mismo lo encolado.
+ * Se usa {@link Mode#SampleTime} para ver los percentiles además del promedio.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class DiarioAsincronicoBenchmark {
+
+    private static final int CUENTAS = 1024;
+
+    @Param({"texto", "binaria"})
+    public String backend;
+
+    @Param({"FSYNC", "POR_OPERACION"})
+    public ModoDurabilidad modo;
+
+    @Param({"0", "64", "8192"})
+    public int capacidad;
+
+    private BancoController controlador;
+    private DiarioAsincronico diario;
+    private final String[] numeros = new String[CUENTAS];
+
+    @Setup
+    public void preparar() {
+        ArchivosPrueba.limpiar();
+        Persistencia persistencia = ArchivosPrueba.backend(backend, modo);
+        if (capacidad > 0) persistencia = diario = new DiarioAsincronico(persistencia, capacidad);
+        controlador = new BancoController(persistencia, "cuentas.txt", "instantanea.txt", 0);
+        for (int i = 0; i < CUENTAS; i++) {
+            CuentaAhorros c = new CuentaAhorros("Medición", controlador.generarNumeroCuenta(), 0.01, Integer.MAX_VALUE);
+            controlador.abrirCuenta(c, Dinero.unidades(1_000_000_000));
+            numeros[i] = c.getNumeroCuenta();
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        if (diario != null) System.out.println(diario);
+        controlador.cerrar();
+    }
+
+    @Benchmark
+    public long operar() throws Exception {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        String numero = numeros[azar.nextInt(CUENTAS)];
+        if (azar.nextBoolean()) return controlador.depositar(numero, 100);
+        return controlador.intentarRetirar(numero, 100) == ResultadoRetiro.REALIZADO ? 1 : 0;
+    }
+}
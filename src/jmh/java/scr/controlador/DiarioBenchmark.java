@@ -0,0 +1,86 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Escritura de 100000 movimientos con el diario binario y con los logs de texto: la
+ * duración y, como contador auxiliar, los bytes en disco por movimiento.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DiarioBenchmark {
+
+    private static final int MOVIMIENTOS = 100_000;
+
+    @Param({"texto", "binaria"})
+    public String backend;
+
+    @Param({"GRUPO", "POR_OPERACION"})
+    public ModoDurabilidad modo;
+
+    private final String[] cuentas = new String[1000];
+
+    /** Bytes en disco por movimiento de la última escritura. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Tamanio {
+        public double bytesPorMovimiento;
+    }
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        ArchivosPrueba.limpiar();
+        for (int i = 0; i < cuentas.length; i++) cuentas[i] = String.format("%06d", i);
+    }
+
+    @Benchmark
+    public void escribir(Tamanio tamanio) {
+        Persistencia p = ArchivosPrueba.backend(backend, modo);
+        long saldo = 0;
+        for (int j = 0; j < MOVIMIENTOS; j++) {
+            saldo += 100;
+            p.registrarMovimiento(j % 2 == 0 ? "DEPOSITO" : "RETIRO", cuentas[j % cuentas.length], 100, saldo);
+        }
+        p.cerrar();
+        tamanio.bytesPorMovimiento = (double) bytesDeLogs() / MOVIMIENTOS;
+    }
+
+    // Logs y diario, sin los índices
+    private static long bytesDeLogs() {
+        try (Stream<Path> archivos = Files.list(Paths.get(""))) {
+            long total = 0;
+            for (Path p : (Iterable<Path>) archivos::iterator) {
+                String nombre = p.getFileName().toString();
+                if (nombre.endsWith(".txt") || nombre.endsWith(".wal")) total += Files.size(p);
+            }
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
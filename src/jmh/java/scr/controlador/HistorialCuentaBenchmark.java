@@ -0,0 +1,137 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.Deposito;
+import scr.model.PoliticaHistorial;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CuentaBancaria#getDepositos()} de una cuenta con un historial largo en los
+ * logs y algunos depósitos en memoria sin registrar, frente a la fusión anterior que
+ * comparaba el historial con la memoria como multiconjunto de (monto, fecha). Ambas
+ * leen el historial del backend en cada llamada (sin {@link CacheHistoriales}).
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistorialCuentaBenchmark {
+
+    @Param({"binaria", "texto"})
+    public String backend;
+
+    @Param({"100000", "1000000"})
+    public int movimientos;
+
+    @Param({"0", "256"})
+    public int sinRegistrar;
+
+    private Persistencia persistencia;
+    private CuentaBancaria cuenta;
+
+    @Setup
+    public void preparar() {
+        ArchivosPrueba.limpiar();
+        persistencia = ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO);
+        LoteMovimientos lote = new LoteMovimientos(4096);
+        long saldo = 0;
+        for (int i = 0; i < movimientos; i++) {
+            saldo += 100 + i % 7;
+            lote.agregar("DEPOSITO", "000001", 100 + i % 7, saldo);
+            if (lote.tamanio() == 4096) {
+                persistencia.registrarLote(lote);
+                lote.limpiar();
+            }
+        }
+        persistencia.registrarLote(lote);
+        persistencia.confirmar();
+        cuenta = new CuentaAhorros("Prueba", "000001", 0.01, 3);
+        cuenta.configurarHistorial(PoliticaHistorial.ultimos(256), persistencia);
+        // Depositados en memoria pero no en los logs
+        for (int i = 0; i < sinRegistrar; i++) cuenta.depositar(100 + i % 7);
+    }
+
+    @TearDown
+    public void cerrar() {
+        persistencia.cerrar();
+    }
+
+    @Benchmark
+    public List<Deposito> porRegistro() {
+        return cuenta.getDepositos();
+    }
+
+    @Benchmark
+    public List<Deposito> porValor() {
+        List<Deposito> historial = persistencia.cargarDepositosParaCuenta("000001");
+        List<Deposito> recientes = new ArrayList<>();
+        cuenta.recorrerMovimientos(v -> {
+            if (v.esDeposito()) recientes.add((Deposito) v.copiar());
+        });
+        return fusionarPorValor(historial, recientes);
+    }
+
+    // La fusión que usaba CuentaBancaria antes de numerar los movimientos
+    private static List<Deposito> fusionarPorValor(List<Deposito> historial, List<Deposito> recientes) {
+        Map<Clave, Integer> sinEmparejar = new HashMap<>(historial.size() * 2);
+        for (Deposito m : historial) sinEmparejar.merge(new Clave(m.getMonto(), m.getFecha()), 1, Integer::sum);
+        boolean agregados = false;
+        for (Deposito m : recientes) {
+            Clave k = new Clave(m.getMonto(), m.getFecha());
+            Integer n = sinEmparejar.get(k);
+            if (n == null) {
+                historial.add(m);
+                agregados = true;
+            } else if (n == 1) {
+                sinEmparejar.remove(k);
+            } else {
+                sinEmparejar.put(k, n - 1);
+            }
+        }
+        if (agregados) historial.sort(Comparator.comparing(Deposito::getFecha));
+        return historial;
+    }
+
+    private static final class Clave {
+        private final long monto;
+        private final LocalDateTime fecha;
+
+        Clave(long monto, LocalDateTime fecha) {
+            this.monto = monto;
+            this.fecha = fecha;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Clave && ((Clave) o).monto == monto && ((Clave) o).fecha.equals(fecha);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(monto) + fecha.hashCode();
+        }
+    }
+}
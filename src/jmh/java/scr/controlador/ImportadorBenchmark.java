@@ -0,0 +1,88 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.CuentaAhorros;
+import scr.model.Dinero;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importación de un archivo de movimientos ({@link ImportadorMovimientos}) con uno y
+ * varios hilos: mitad líneas CSV y mitad en el formato de los logs, sobre 10.000
+ * cuentas, con algunos retiros rechazados por saldo. El backend "nula" mide sólo la
+ * lectura y la aplicación; "binaria" suma la escritura de los lotes.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ImportadorBenchmark {
+
+    private static final int CUENTAS = 10_000;
+    private static final String ARCHIVO = "importar.txt";
+
+    @Param({"1000000"})
+    public int lineas;
+
+    @Param({"1", "4"})
+    public int hilos;
+
+    @Param({"nula", "binaria"})
+    public String backend;
+
+    private Persistencia persistencia;
+    private ImportadorMovimientos importador;
+
+    @Setup
+    public void preparar() throws IOException {
+        ArchivosPrueba.limpiar();
+        SplittableRandom azar = new SplittableRandom(42);
+        try (BufferedWriter w = Files.newBufferedWriter(Paths.get(ARCHIVO), StandardCharsets.US_ASCII)) {
+            w.write("cuenta,tipo,monto\n");
+            for (int i = 0; i < lineas; i++) {
+                String numero = String.format("%06d", azar.nextInt(CUENTAS) + 1);
+                String monto = Dinero.formatear(azar.nextInt(1, 100_000));
+                if (i % 2 == 0) {
+                    w.write(numero + "," + (azar.nextInt(3) == 0 ? "RETIRO" : "DEPOSITO") + "," + monto + "\n");
+                } else {
+                    w.write("2024-03-01 12:00:00 | Cuenta: " + numero + " | Tipo: "
+                            + (azar.nextInt(3) == 0 ? "RETIRO" : "DEPOSITO") + " | Monto: $" + monto + " | Saldo Final: $0.00\n");
+                }
+            }
+        }
+        RegistroCuentas registro = new RegistroCuentas();
+        for (int i = 1; i <= CUENTAS; i++) registro.registrar(new CuentaAhorros("Medición", String.format("%06d", i)));
+        persistencia = ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO);
+        importador = new ImportadorMovimientos(registro, persistencia, hilos);
+    }
+
+    @TearDown
+    public void cerrar() {
+        persistencia.cerrar();
+    }
+
+    @Benchmark
+    public long importar() throws IOException {
+        return importador.importar(ARCHIVO).getAceptados();
+    }
+}
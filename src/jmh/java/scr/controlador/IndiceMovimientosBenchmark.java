@@ -0,0 +1,91 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.Deposito;
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Historial de una cuenta en un log de texto grande: recorriendo el log completo
+ * (como antes del índice) y con las posiciones del índice por cuenta. Con los valores
+ * por defecto el log tiene unos 90 MB; para un log de varios GB, ej.
+ * {@code -p movimientos=40000000}.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndiceMovimientosBenchmark {
+
+    @Param({"1000000"})
+    public int movimientos;
+
+    @Param({"10000"})
+    public int cuentas;
+
+    private GestorArchivos gestor;
+    private String[] numeros;
+    private final SplittableRandom azar = new SplittableRandom(42);
+
+    @Setup
+    public void preparar() {
+        ArchivosPrueba.limpiar();
+        // Un solo segmento, sin rotar por tamaño
+        gestor = new GestorArchivos(ModoDurabilidad.GRUPO, 1000, 0, Long.MAX_VALUE, 0);
+        numeros = new String[cuentas];
+        for (int i = 0; i < cuentas; i++) numeros[i] = String.format("%06d", i);
+        long[] saldos = new long[cuentas];
+        LoteMovimientos lote = new LoteMovimientos(1000);
+        SplittableRandom generador = new SplittableRandom(7);
+        for (int j = 0; j < movimientos; j++) {
+            int i = generador.nextInt(cuentas);
+            saldos[i] += 1000;
+            lote.agregar("DEPOSITO", numeros[i], 1000, saldos[i]);
+            if (lote.tamanio() == 1000) {
+                gestor.registrarLote(lote);
+                lote.limpiar();
+            }
+        }
+        gestor.registrarLote(lote);
+        gestor.confirmar();
+    }
+
+    @TearDown
+    public void cerrar() {
+        gestor.cerrar();
+    }
+
+    @Benchmark
+    public long recorridoCompleto() throws IOException {
+        long leidos = 0;
+        try (LectorMovimientos lector = new LectorMovimientos("depositos.txt", numeros[azar.nextInt(cuentas)], false)) {
+            while (lector.hasNext()) {
+                lector.next();
+                leidos++;
+            }
+        }
+        return leidos;
+    }
+
+    @Benchmark
+    public List<Deposito> conIndice() {
+        return gestor.cargarDepositosParaCuenta(numeros[azar.nextInt(cuentas)]);
+    }
+}
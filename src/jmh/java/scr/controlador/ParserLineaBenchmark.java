@@ -0,0 +1,99 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.Dinero;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de 10000 líneas de log filtrando por cuenta: con {@link ParserLineaMovimiento}
+ * sobre los bytes y con el método anterior (split con expresión regular, replace,
+ * Double.parseDouble y LocalDateTime.parse sobre cada línea). {@code porcentajeCuenta}
+ * es la proporción de líneas de la cuenta buscada.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserLineaBenchmark {
+
+    private static final int LINEAS = 10_000;
+    private static final String CUENTA = "004217";
+    private static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Param({"10", "100"})
+    public int porcentajeCuenta;
+
+    private String[] lineas;
+    private ByteBuffer buf;
+    private int[] inicios;
+    private int[] fines;
+    private final ParserLineaMovimiento parser = new ParserLineaMovimiento();
+    private final byte[] cuenta = CUENTA.getBytes(StandardCharsets.UTF_8);
+
+    @Setup
+    public void preparar() {
+        SplittableRandom azar = new SplittableRandom(42);
+        lineas = new String[LINEAS];
+        inicios = new int[LINEAS];
+        fines = new int[LINEAS];
+        StringBuilder sb = new StringBuilder();
+        long saldo = 0;
+        LocalDateTime fecha = LocalDateTime.of(2024, 10, 1, 9, 0);
+        for (int i = 0; i < LINEAS; i++) {
+            String numero = azar.nextInt(100) < porcentajeCuenta ? CUENTA : String.format("%06d", azar.nextInt(1_000_000));
+            long monto = 1 + azar.nextInt(1_000_000);
+            saldo += monto;
+            lineas[i] = fecha.plusSeconds(i).format(FORMATO) + " | Cuenta: " + numero + " | Tipo: DEPOSITO | Monto: $"
+                    + Dinero.formatear(monto) + " | Saldo Final: $" + Dinero.formatear(saldo);
+            inicios[i] = sb.length();
+            sb.append(lineas[i]);
+            fines[i] = sb.length();
+            sb.append('\n');
+        }
+        buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public long parser() {
+        long suma = 0;
+        for (int i = 0; i < LINEAS; i++) {
+            if (parser.parsear(buf, inicios[i], fines[i], cuenta) != ParserLineaMovimiento.VALIDA) continue;
+            suma += parser.getMontoCentavos() + parser.getEpochSegundos();
+        }
+        return suma;
+    }
+
+    @Benchmark
+    public long anterior() {
+        long suma = 0;
+        for (String l : lineas) {
+            String[] partes = l.split("\\s\\|\\s");
+            String cuentaLinea = partes[1].trim().replace("Cuenta:", "").trim();
+            if (!cuentaLinea.equals(CUENTA)) continue;
+            double monto = Double.parseDouble(partes[3].trim().replace("Monto: $", "").trim());
+            LocalDateTime fecha = LocalDateTime.parse(partes[0].trim(), FORMATO);
+            suma += Math.round(monto * 100) + fecha.toEpochSecond(ZoneOffset.UTC);
+        }
+        return suma;
+    }
+}
@@ -0,0 +1,87 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.CuentaAhorros;
+import scr.model.Dinero;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modo con locks ({@code particiones = 0}) frente al particionado, con 4 clientes
+ * sobre 1000 cuentas y el diario binario en modo GRUPO (uno por partición en el modo
+ * particionado): llamadas síncronas y tandas de {@value #EN_VUELO} operaciones
+ * asíncronas en vuelo. Cada operación deposita o retira (mitad y mitad).
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ParticionesBenchmark {
+
+    private static final int CUENTAS = 1000;
+    private static final int EN_VUELO = 64;
+
+    @Param({"0", "4"})
+    public int particiones;
+
+    private BancoController controlador;
+    private final String[] numeros = new String[CUENTAS];
+
+    @Setup
+    public void preparar() throws Exception {
+        ArchivosPrueba.limpiar();
+        Persistencia persistencia = particiones == 0
+                ? ArchivosPrueba.backend("binaria", ModoDurabilidad.GRUPO)
+                : new DiarioParticionado("movimientos", particiones, ModoDurabilidad.GRUPO, 1000, 0);
+        controlador = new BancoController(persistencia, "cuentas.txt", "instantanea.txt", 0, particiones);
+        for (int i = 0; i < CUENTAS; i++) {
+            CuentaAhorros c = new CuentaAhorros("Medición", controlador.generarNumeroCuenta(), 0.01, Integer.MAX_VALUE);
+            controlador.abrirCuenta(c, Dinero.unidades(1_000_000_000));
+            numeros[i] = c.getNumeroCuenta();
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        controlador.cerrar();
+    }
+
+    @Benchmark
+    public long sincronico() throws Exception {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        String numero = numeros[azar.nextInt(CUENTAS)];
+        if (azar.nextBoolean()) return controlador.depositar(numero, 100);
+        return controlador.intentarRetirar(numero, 100).isRealizado() ? 1 : 0;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EN_VUELO)
+    public void asincronico() {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        CompletableFuture<?>[] enVuelo = new CompletableFuture<?>[EN_VUELO];
+        for (int i = 0; i < EN_VUELO; i++) {
+            String numero = numeros[azar.nextInt(CUENTAS)];
+            enVuelo[i] = azar.nextBoolean() ? controlador.depositarAsync(numero, 100) : controlador.intentarRetirarAsync(numero, 100);
+        }
+        CompletableFuture.allOf(enVuelo).join();
+    }
+}
@@ -0,0 +1,117 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.CuentaCorriente;
+import scr.model.Dinero;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creación del controlador sobre un historial de 1000 cuentas que crece, con la
+ * instantánea del final del historial y 1000 movimientos escritos después, o sin
+ * instantánea. Con ella la duración debería mantenerse casi igual al crecer el
+ * historial; el contador auxiliar suma los movimientos reproducidos en cada medición.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RecuperacionBenchmark {
+
+    private static final int CUENTAS = 1000;
+    private static final int COLA = 1000;
+    private static final Path INSTANTANEA = Paths.get("instantanea.txt");
+
+    @Param({"10000", "100000", "1000000"})
+    public int historial;
+
+    @Param({"texto", "binaria"})
+    public String backend;
+
+    @Param({"true", "false"})
+    public boolean conInstantanea;
+
+    // Instantánea tomada antes de la cola; cada cierre la reemplaza y hay que restaurarla
+    private byte[] instantanea;
+    private BancoController controlador;
+
+    /** Movimientos reproducidos en la última recuperación. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Reproducidos {
+        public long movimientos;
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        ArchivosPrueba.limpiar();
+        BancoController inicial = abrir();
+        for (int i = 0; i < CUENTAS; i++) {
+            inicial.abrirCuenta(new CuentaCorriente("Medición", String.format("%06d", i + 1)), Dinero.unidades(100));
+        }
+        inicial.cerrar();
+
+        long[] saldos = new long[CUENTAS];
+        Arrays.fill(saldos, Dinero.unidades(100));
+        escribir(saldos, historial);
+        // Al cerrar se guarda la instantánea con todo el historial
+        abrir().cerrar();
+        instantanea = Files.readAllBytes(INSTANTANEA);
+        escribir(saldos, COLA);
+    }
+
+    // Movimientos escritos directamente en los logs, sin pasar por el controlador
+    private void escribir(long[] saldos, int movimientos) {
+        Persistencia p = ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO);
+        for (int j = 0; j < movimientos; j++) {
+            int i = j % CUENTAS;
+            saldos[i] += 100;
+            p.registrarMovimiento("DEPOSITO", String.format("%06d", i + 1), 100, saldos[i]);
+        }
+        p.cerrar();
+    }
+
+    @Setup(Level.Invocation)
+    public void restaurarInstantanea() throws IOException {
+        if (conInstantanea) Files.write(INSTANTANEA, instantanea);
+        else Files.deleteIfExists(INSTANTANEA);
+    }
+
+    @TearDown(Level.Invocation)
+    public void cerrar() {
+        controlador.cerrar();
+    }
+
+    @Benchmark
+    public long recuperar(Reproducidos reproducidos) {
+        controlador = abrir();
+        reproducidos.movimientos = controlador.getMovimientosRecuperados();
+        return controlador.getDuracionRecuperacionMs();
+    }
+
+    private BancoController abrir() {
+        return new BancoController(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO),
+                "cuentas.txt", "instantanea.txt", 0);
+    }
+}
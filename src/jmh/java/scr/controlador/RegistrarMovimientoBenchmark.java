@@ -0,0 +1,60 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Persistencia#registrarMovimiento} en los backends de texto y binario, con
+ * escritura por operación y agrupada. Los movimientos se reparten entre 1000 cuentas.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistrarMovimientoBenchmark {
+
+    @Param({"texto", "binaria"})
+    public String backend;
+
+    @Param({"POR_OPERACION", "GRUPO"})
+    public ModoDurabilidad modo;
+
+    private Persistencia persistencia;
+    private final String[] cuentas = new String[1000];
+    private long saldo;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        ArchivosPrueba.limpiar();
+        persistencia = ArchivosPrueba.backend(backend, modo);
+        for (int i = 0; i < cuentas.length; i++) cuentas[i] = String.format("%06d", i);
+    }
+
+    @TearDown
+    public void cerrar() {
+        persistencia.cerrar();
+    }
+
+    @Benchmark
+    public void registrarMovimiento() {
+        saldo += 100;
+        persistencia.registrarMovimiento("DEPOSITO", cuentas[siguiente], 100, saldo);
+        siguiente = siguiente + 1 == cuentas.length ? 0 : siguiente + 1;
+    }
+}
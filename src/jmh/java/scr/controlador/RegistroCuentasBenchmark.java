@@ -0,0 +1,77 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RegistroCuentas} con 10k, 100k y 900k cuentas: búsqueda de números
+ * existentes y alta de todas las cuentas desde un registro vacío (generar el número y
+ * registrar), que debe crecer en forma lineal aunque el espacio de números se llene.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistroCuentasBenchmark {
+
+    @Param({"10000", "100000", "900000"})
+    public int cuentas;
+
+    private RegistroCuentas registro;
+    private String[] numeros;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        registro = new RegistroCuentas();
+        numeros = new String[cuentas];
+        for (int i = 0; i < cuentas; i++) {
+            numeros[i] = registro.generarNumero();
+            registro.registrar(new CuentaAhorros("Medición", numeros[i]));
+        }
+        SplittableRandom azar = new SplittableRandom(42);
+        for (int i = numeros.length - 1; i > 0; i--) {
+            int j = azar.nextInt(i + 1);
+            String t = numeros[i];
+            numeros[i] = numeros[j];
+            numeros[j] = t;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public CuentaBancaria buscar() {
+        String numero = numeros[siguiente];
+        siguiente = siguiente + 1 == numeros.length ? 0 : siguiente + 1;
+        return registro.buscar(numero);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public RegistroCuentas crearTodas() {
+        RegistroCuentas nuevo = new RegistroCuentas();
+        for (int i = 0; i < cuentas; i++) {
+            nuevo.registrar(new CuentaAhorros("Medición", nuevo.generarNumero()));
+        }
+        return nuevo;
+    }
+}
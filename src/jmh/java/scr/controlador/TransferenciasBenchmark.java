@@ -0,0 +1,99 @@
+package scr.controlador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.excepciones.OperacionInvalidaException;
+import scr.excepciones.SaldoInsuficienteException;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.CuentaCorriente;
+import scr.model.Dinero;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transferencias con competencia: 64 cuentas, con el 90% de los extremos en 4 cuentas
+ * muy usadas, en ambos sentidos. Los saldos iniciales son bajos, así que buena parte
+ * de las transferencias se rechaza por saldo (como en el escenario original, con
+ * excepciones). Mide transferencias por milisegundo con 1 y 8 hilos.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferenciasBenchmark {
+
+    private static final int CUENTAS = 64;
+    private static final int CALIENTES = 4;
+
+    @Param({"nula", "binaria", "texto"})
+    public String backend;
+
+    private BancoController controlador;
+    private final String[] numeros = new String[CUENTAS];
+
+    @Setup
+    public void preparar() {
+        ArchivosPrueba.limpiar();
+        controlador = new BancoController(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO),
+                "cuentas.txt", "instantanea.txt", 0);
+        for (int i = 0; i < CUENTAS; i++) {
+            String numero = controlador.generarNumeroCuenta();
+            CuentaBancaria c = i % 2 == 0
+                    ? new CuentaCorriente("Medición", numero, 5)
+                    : new CuentaAhorros("Medición", numero, 0.01, Integer.MAX_VALUE);
+            controlador.abrirCuenta(c, Dinero.unidades(100));
+            numeros[i] = numero;
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        controlador.cerrar();
+    }
+
+    private static int extremo(ThreadLocalRandom azar) {
+        return azar.nextInt(10) < 9 ? azar.nextInt(CALIENTES) : azar.nextInt(CUENTAS);
+    }
+
+    // 1 si se realizó, 0 si se rechazó
+    private int transferir() {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        int a = extremo(azar);
+        int b = extremo(azar);
+        if (a == b) b = (b + 1) % CUENTAS;
+        try {
+            controlador.transferir(numeros[a], numeros[b], 1 + azar.nextInt((int) Dinero.unidades(50)));
+            return 1;
+        } catch (SaldoInsuficienteException | OperacionInvalidaException e) {
+            return 0;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int hilos1() {
+        return transferir();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int hilos8() {
+        return transferir();
+    }
+}
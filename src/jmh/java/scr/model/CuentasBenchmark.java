@@ -0,0 +1,68 @@
+package scr.model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Depósito y retiro en memoria para cada tipo de cuenta, con las reglas propias de
+ * cada subclase (comisión, límite por operación, cantidad de retiros).
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CuentasBenchmark {
+
+    // Alcanza para cualquier cantidad de retiros de una medición
+    private static final long SALDO_INICIAL = Dinero.unidades(1_000_000_000_000L);
+
+    @Param({"CORRIENTE", "AHORROS", "EMPRESARIAL"})
+    public String tipo;
+
+    private CuentaBancaria cuenta;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        switch (tipo) {
+            case "CORRIENTE":
+                cuenta = new CuentaCorriente("Medición", "000001");
+                break;
+            case "AHORROS":
+                cuenta = new CuentaAhorros("Medición", "000002", 0.02, Integer.MAX_VALUE);
+                break;
+            default:
+                cuenta = new CuentaEmpresarial("Medición", "000003");
+                break;
+        }
+        // Como en el controlador: la memoria guarda sólo los últimos movimientos
+        cuenta.configurarHistorial(PoliticaHistorial.ultimos(512), null);
+        cuenta.depositar(SALDO_INICIAL);
+    }
+
+    @Benchmark
+    public long depositar() {
+        cuenta.depositar(100);
+        return cuenta.getSaldo();
+    }
+
+    @Benchmark
+    public long retirar() throws Exception {
+        cuenta.retirar(100);
+        return cuenta.getSaldo();
+    }
+}
@@ -0,0 +1,120 @@
+package scr.model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montos en centavos ({@code long} y {@link Dinero}) frente a {@code double} y
+ * {@link BigDecimal}, sobre 1000 montos: suma de saldos con una tasa aplicada, formato
+ * con dos decimales (como en los logs) y lectura del texto.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DineroBenchmark {
+
+    private static final int MONTOS = 1000;
+    private static final double TASA = 0.015;
+    private static final BigDecimal TASA_DECIMAL = BigDecimal.valueOf(TASA);
+
+    private final long[] centavos = new long[MONTOS];
+    private final double[] dobles = new double[MONTOS];
+    private final BigDecimal[] decimales = new BigDecimal[MONTOS];
+    private final String[] textos = new String[MONTOS];
+    private final StringBuilder sb = new StringBuilder(64);
+
+    @Setup
+    public void preparar() {
+        SplittableRandom azar = new SplittableRandom(42);
+        for (int i = 0; i < MONTOS; i++) {
+            centavos[i] = azar.nextLong(1, 100_000_000);
+            dobles[i] = centavos[i] / 100.0;
+            decimales[i] = BigDecimal.valueOf(centavos[i], 2);
+            textos[i] = Dinero.formatear(centavos[i]);
+        }
+    }
+
+    @Benchmark
+    public long sumarCentavos() {
+        long saldo = 0;
+        for (long c : centavos) saldo += c + Dinero.aplicarTasa(c, TASA);
+        return saldo;
+    }
+
+    @Benchmark
+    public double sumarDouble() {
+        double saldo = 0;
+        for (double d : dobles) saldo += d + d * TASA;
+        return saldo;
+    }
+
+    @Benchmark
+    public BigDecimal sumarBigDecimal() {
+        BigDecimal saldo = BigDecimal.ZERO;
+        for (BigDecimal d : decimales) saldo = saldo.add(d).add(d.multiply(TASA_DECIMAL).setScale(2, RoundingMode.HALF_UP));
+        return saldo;
+    }
+
+    @Benchmark
+    public int formatearCentavos() {
+        int largo = 0;
+        for (long c : centavos) {
+            sb.setLength(0);
+            Dinero.agregar(sb, c);
+            largo += sb.length();
+        }
+        return largo;
+    }
+
+    @Benchmark
+    public int formatearDouble() {
+        int largo = 0;
+        for (double d : dobles) largo += String.format("%.2f", d).length();
+        return largo;
+    }
+
+    @Benchmark
+    public int formatearBigDecimal() {
+        int largo = 0;
+        for (BigDecimal d : decimales) largo += d.toPlainString().length();
+        return largo;
+    }
+
+    @Benchmark
+    public long leerCentavos() {
+        long suma = 0;
+        for (String t : textos) suma += Dinero.parsear(t);
+        return suma;
+    }
+
+    @Benchmark
+    public double leerDouble() {
+        double suma = 0;
+        for (String t : textos) suma += Double.parseDouble(t);
+        return suma;
+    }
+
+    @Benchmark
+    public BigDecimal leerBigDecimal() {
+        BigDecimal suma = BigDecimal.ZERO;
+        for (String t : textos) suma = suma.add(new BigDecimal(t));
+        return suma;
+    }
+}
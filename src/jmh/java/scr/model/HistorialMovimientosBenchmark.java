@@ -0,0 +1,101 @@
+package scr.model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Historial por columnas ({@link HistorialMovimientos}) frente a la representación
+ * anterior con un objeto por movimiento: suma de todo el historial, recorrido con
+ * {@link VistaMovimiento} y agregado de un movimiento con el buffer lleno.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistorialMovimientosBenchmark {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"2000000"})
+    public int movimientos;
+
+    private HistorialMovimientos columnas;
+    private List<Deposito> depositos;
+    private List<Retiro> retiros;
+    private CuentaBancaria cuenta;
+    private HistorialMovimientos lleno;
+    private long fecha;
+
+    @Setup
+    public void preparar() {
+        columnas = new HistorialMovimientos(PoliticaHistorial.ILIMITADA);
+        depositos = new ArrayList<>();
+        retiros = new ArrayList<>();
+        cuenta = new CuentaAhorros("Medición", "000001", 0.02, Integer.MAX_VALUE);
+        for (int i = 0; i < movimientos; i++) {
+            long monto = 100 + i % 97;
+            if (i % 3 == 0) {
+                columnas.agregar(HistorialMovimientos.RETIRO, i, monto);
+                retiros.add(new Retiro(monto, INICIO.plusSeconds(i)));
+            } else {
+                columnas.agregar(HistorialMovimientos.DEPOSITO, i, monto);
+                depositos.add(new Deposito(monto, INICIO.plusSeconds(i)));
+                cuenta.depositar(monto);
+            }
+        }
+        lleno = new HistorialMovimientos(PoliticaHistorial.ultimos(512));
+        for (int i = 0; i < 512; i++) lleno.agregar(HistorialMovimientos.DEPOSITO, i, 100);
+    }
+
+    @Benchmark
+    public long sumarColumnas() {
+        return columnas.sumar(HistorialMovimientos.DEPOSITO);
+    }
+
+    @Benchmark
+    public long sumarObjetos() {
+        long total = 0;
+        for (Deposito d : depositos) total += d.getMonto();
+        return total;
+    }
+
+    @Benchmark
+    public long recorrerVista() {
+        long[] total = { 0 };
+        cuenta.recorrerMovimientos(v -> {
+            if (v.esDeposito()) total[0] += v.getMonto();
+        });
+        return total[0];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void agregarColumnas() {
+        lleno.agregar(HistorialMovimientos.DEPOSITO, fecha++, 100);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void agregarObjeto(Blackhole bh) {
+        // La representación anterior creaba un Deposito con su LocalDateTime por movimiento
+        bh.consume(new Deposito(100, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,79 @@
+package scr.model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scr.excepciones.OperacionInvalidaException;
+import scr.excepciones.SaldoInsuficienteException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retiros que siempre se rechazan (saldo cero, o monto sobre el límite en la
+ * empresarial): {@code retirar} con excepciones, con excepciones sin pila de llamadas
+ * ({@code -Dbanco.excepciones.sinTraza=true}) e {@code intentarRetirar}. Para ver la
+ * memoria por operación se agrega {@code -prof gc}.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetirosRechazadosBenchmark {
+
+    @Param({"CORRIENTE", "AHORROS", "EMPRESARIAL"})
+    public String tipo;
+
+    private CuentaBancaria cuenta;
+    private long monto;
+
+    @Setup
+    public void preparar() {
+        switch (tipo) {
+            case "CORRIENTE":
+                cuenta = new CuentaCorriente("Medición", "000001");
+                monto = 100;
+                break;
+            case "AHORROS":
+                cuenta = new CuentaAhorros("Medición", "000002", 0.02, Integer.MAX_VALUE);
+                monto = 100;
+                break;
+            default:
+                cuenta = new CuentaEmpresarial("Medición", "000003", Dinero.unidades(100), "Gestor");
+                cuenta.depositar(Dinero.unidades(1000));
+                monto = Dinero.unidades(500);
+                break;
+        }
+    }
+
+    @Benchmark
+    public Object retirar() {
+        try {
+            cuenta.retirar(monto);
+            return null;
+        } catch (OperacionInvalidaException | SaldoInsuficienteException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dbanco.excepciones.sinTraza=true")
+    public Object retirarSinTraza() {
+        return retirar();
+    }
+
+    @Benchmark
+    public ResultadoRetiro intentarRetirar() {
+        return cuenta.intentarRetirar(monto);
+    }
+}
@@ -0,0 +1,143 @@
+package scr.controlador;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import scr.excepciones.OperacionInvalidaException;
+import scr.excepciones.SaldoInsuficienteException;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaCorriente;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas de las consultas por periodo ({@link BancoController#totales},
+ * {@link BancoController#saldoAl} y {@link BancoController#mayoresMovimientos}): los
+ * agregados dan lo mismo que sumar los movimientos de los logs, tanto los que se
+ * actualizan con cada operación como los que se arman de nuevo al reiniciar.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class AgregadosTest {
+
+    private static final int OPERACIONES = 2000;
+
+    private BancoController controlador;
+    private Persistencia persistencia;
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    @AfterEach
+    void cerrar() {
+        if (controlador != null) controlador.cerrar();
+    }
+
+    private void abrir(String backend) {
+        persistencia = ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO);
+        controlador = new BancoController(persistencia, "cuentas.txt", "instantanea.txt", 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"texto", "binaria"})
+    void losAgregadosCoincidenConLosLogs(String backend) throws Exception {
+        abrir(backend);
+        controlador.abrirCuenta(new CuentaCorriente("Prueba", "000001", 50), 10_000);
+        controlador.abrirCuenta(new CuentaAhorros("Prueba", "000002", 0.01, Integer.MAX_VALUE), 10_000);
+        // Se arman antes de operar, así lo que sigue se suma movimiento a movimiento
+        controlador.totales("000001", YearMonth.now());
+        SplittableRandom azar = new SplittableRandom(7);
+        for (int i = 0; i < OPERACIONES; i++) {
+            long monto = 1 + azar.nextInt(5_000);
+            try {
+                switch (azar.nextInt(3)) {
+                    case 0:
+                        controlador.depositar("000001", monto);
+                        break;
+                    case 1:
+                        controlador.retirar("000001", monto);
+                        break;
+                    default:
+                        if (azar.nextBoolean()) controlador.transferir("000001", "000002", monto);
+                        else controlador.transferir("000002", "000001", monto);
+                }
+            } catch (SaldoInsuficienteException | OperacionInvalidaException e) {
+                // Rechazo esperado: no llega a los logs
+            }
+        }
+        Consulta viva = consultar();
+        assertEquals(recorrer(persistencia), viva);
+
+        controlador.cerrar();
+        abrir(backend);
+        assertEquals(viva, consultar());
+    }
+
+    // Lo que devuelven los agregados del controlador para la cuenta 000001
+    private Consulta consultar() throws OperacionInvalidaException {
+        LocalDate hoy = LocalDate.now();
+        TotalesPeriodo t = controlador.totales("000001", hoy.minusYears(1), hoy.plusDays(1));
+        List<Long> mayores = new ArrayList<>();
+        for (MovimientoLog m : controlador.mayoresMovimientos("000001", YearMonth.now(), 5)) mayores.add(m.getMonto());
+        return new Consulta(t.getCreditos(), t.getDebitos(), t.getCantidadCreditos(), t.getCantidadDebitos(),
+                t.getSaldoFinal(), controlador.saldoAl("000001", hoy.plusDays(1)), mayores);
+    }
+
+    // Lo mismo sumando los movimientos de los logs uno por uno
+    private static Consulta recorrer(Persistencia persistencia) {
+        long[] suma = new long[5];
+        List<MovimientoLog> mes = new ArrayList<>();
+        YearMonth actual = YearMonth.now();
+        persistencia.recorrerCuenta("000001", m -> {
+            if (AgregadosCuenta.esCredito(m.getTipo())) {
+                suma[0] += m.getMonto();
+                suma[2]++;
+            } else {
+                suma[1] += m.getMonto();
+                suma[3]++;
+            }
+            suma[4] = m.getSaldoFinal();
+            if (YearMonth.from(m.getFecha()).equals(actual)) mes.add(m);
+        });
+        mes.sort(Comparator.comparingLong(MovimientoLog::getMonto).reversed());
+        List<Long> mayores = new ArrayList<>();
+        for (int i = 0; i < Math.min(5, mes.size()); i++) mayores.add(mes.get(i).getMonto());
+        return new Consulta(suma[0], suma[1], suma[2], suma[3], suma[4], suma[4], mayores);
+    }
+
+    private static final class Consulta {
+        private final long[] valores;
+        private final List<Long> mayores;
+
+        Consulta(long creditos, long debitos, long cantidadCreditos, long cantidadDebitos, long saldoFinal,
+                 long saldoAl, List<Long> mayores) {
+            this.valores = new long[] { creditos, debitos, cantidadCreditos, cantidadDebitos, saldoFinal, saldoAl };
+            this.mayores = mayores;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Consulta && Arrays.equals(((Consulta) o).valores, valores)
+                    && ((Consulta) o).mayores.equals(mayores);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(valores) * 31 + mayores.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(valores) + " mayores " + mayores;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package scr.controlador;
+import scr.model.Deposito;
+import scr.model.Retiro;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Utilidades compartidas por las pruebas y las mediciones: los backends escriben sus
+ * logs en el directorio actual, que el build fija en {@code target/pruebas} o
+ * {@code target/jmh}.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+public final class ArchivosPrueba {
+
+    private ArchivosPrueba() {
+    }
+
+    /**
+     * Borra los archivos del directorio actual (logs, índices, diarios, catálogo e
+     * instantánea de una ejecución anterior).
+     *
+     * @author Juan
+     * @version 1.0
+     * @throws IllegalStateException si el directorio actual es el del proyecto.
+     */
+    public static void limpiar() {
+        Path actual = Paths.get("").toAbsolutePath();
+        if (Files.exists(actual.resolve("pom.xml")) || Files.isDirectory(actual.resolve("scr"))) {
+            throw new IllegalStateException("Las pruebas deben ejecutarse fuera del directorio del proyecto: " + actual);
+        }
+        try (Stream<Path> archivos = Files.list(actual)) {
+            for (Path p : (Iterable<Path>) archivos::iterator) {
+                if (Files.isRegularFile(p)) Files.delete(p);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Crea un backend por nombre: "texto" ({@link GestorArchivos}), "binaria"
+     * ({@link DiarioBinario} sobre {@code prueba.wal}) o "nula" (no guarda nada, para
+     * medir sin el costo de escribir).
+     *
+     * @author Juan
+     * @version 1.0
+     * @param nombre "texto", "binaria" o "nula".
+     * @param modo Modo de durabilidad.
+     * @return El backend, escribiendo en el directorio actual.
+     */
+    public static Persistencia backend(String nombre, ModoDurabilidad modo) {
+        try {
+            switch (nombre) {
+                case "texto":
+                    return new GestorArchivos(modo, 1000, 0);
+                case "binaria":
+                    return new DiarioBinario("prueba.wal", modo, 1000, 0);
+                case "nula":
+                    return new Nula();
+                default:
+                    throw new IllegalArgumentException("Backend desconocido: " + nombre);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Backend que descarta los movimientos
+    private static final class Nula implements Persistencia {
+        @Override public void registrarMovimiento(String tipo, String numeroCuenta, long monto, long saldoFinal) { }
+        @Override public void confirmar() { }
+        @Override public void cerrar() { }
+        @Override public void reproducir(Consumer<MovimientoLog> visitante) { }
+        @Override public long[] posicion() { return new long[0]; }
+        @Override public void reproducirDesde(long[] posicion, Consumer<MovimientoLog> visitante) { }
+        @Override public List<Deposito> cargarDepositosParaCuenta(String numeroCuenta) { return new ArrayList<>(); }
+        @Override public List<Retiro> cargarRetirosParaCuenta(String numeroCuenta) { return new ArrayList<>(); }
+    }
+}
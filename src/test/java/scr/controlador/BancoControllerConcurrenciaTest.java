@@ -0,0 +1,96 @@
+package scr.controlador;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.CuentaCorriente;
+import scr.model.CuentaEmpresarial;
+import scr.model.Dinero;
+import scr.model.ResultadoRetiro;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prueba de carga del modo con locks: varios hilos depositan y retiran sobre las
+ * mismas cuentas y al final ningún saldo perdió una actualización, ni en memoria ni
+ * en la cadena de saldos del log.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class BancoControllerConcurrenciaTest {
+
+    private static final int HILOS = 8;
+    private static final int OPERACIONES_POR_HILO = 20_000;
+    private static final long SALDO_INICIAL = Dinero.unidades(1_000);
+
+    private BancoController controlador;
+    private final List<CuentaBancaria> cuentas = new ArrayList<>();
+
+    @BeforeEach
+    void preparar() {
+        ArchivosPrueba.limpiar();
+        controlador = new BancoController(ArchivosPrueba.backend("binaria", ModoDurabilidad.GRUPO),
+                "cuentas.txt", "instantanea.txt", 0);
+        for (int i = 0; i < 4; i++) {
+            cuentas.add(new CuentaCorriente("Prueba", controlador.generarNumeroCuenta(), 50));
+            cuentas.add(new CuentaAhorros("Prueba", controlador.generarNumeroCuenta(), 0.01, Integer.MAX_VALUE));
+            cuentas.add(new CuentaEmpresarial("Prueba", controlador.generarNumeroCuenta(), Dinero.unidades(100), "Gestor"));
+        }
+        for (CuentaBancaria c : cuentas) controlador.abrirCuenta(c, SALDO_INICIAL);
+    }
+
+    @AfterEach
+    void cerrar() {
+        controlador.cerrar();
+    }
+
+    @Test
+    void noSePierdenActualizaciones() throws Exception {
+        // Variación de saldo esperada por cuenta según los resultados de cada operación
+        AtomicLongArray variaciones = new AtomicLongArray(cuentas.size());
+        List<Thread> hilos = new ArrayList<>();
+        List<Throwable> errores = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            SplittableRandom azar = new SplittableRandom(h);
+            Thread t = new Thread(() -> {
+                for (int j = 0; j < OPERACIONES_POR_HILO; j++) {
+                    int i = azar.nextInt(cuentas.size());
+                    CuentaBancaria c = cuentas.get(i);
+                    // Montos hasta 150: los retiros a veces superan el límite de la empresarial
+                    long monto = 1 + azar.nextInt((int) Dinero.unidades(150));
+                    try {
+                        if (azar.nextBoolean()) {
+                            controlador.depositar(c.getNumeroCuenta(), monto);
+                            variaciones.addAndGet(i, monto);
+                        } else if (controlador.intentarRetirar(c.getNumeroCuenta(), monto) == ResultadoRetiro.REALIZADO) {
+                            long comision = c instanceof CuentaCorriente ? ((CuentaCorriente) c).getComisionRetiro() : 0;
+                            variaciones.addAndGet(i, -(monto + comision));
+                        }
+                    } catch (Exception e) {
+                        synchronized (errores) {
+                            errores.add(e);
+                        }
+                    }
+                }
+            });
+            hilos.add(t);
+            t.start();
+        }
+        for (Thread t : hilos) t.join();
+        assertEquals(List.of(), errores);
+
+        for (int i = 0; i < cuentas.size(); i++) {
+            assertEquals(SALDO_INICIAL + variaciones.get(i), cuentas.get(i).getSaldo(),
+                    "Cuenta " + cuentas.get(i).getNumeroCuenta());
+        }
+        controlador.confirmarMovimientos().join();
+        ValidadorSaldos validador = controlador.validarSaldos();
+        assertEquals(0, validador.getCantidadDiscrepancias(), validador.toString());
+        assertEquals(cuentas.size(), validador.getCuentas());
+    }
+}
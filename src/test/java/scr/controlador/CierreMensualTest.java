@@ -0,0 +1,84 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.CuentaCorriente;
+import scr.model.Dinero;
+import java.time.YearMonth;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link CierreMensual}: el avance se deduce de los movimientos de cierre
+ * registrados en los logs, así que repetir un cierre interrumpido (también después de
+ * reiniciar) no aplica dos veces los intereses ni el mantenimiento.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class CierreMensualTest {
+
+    private static final YearMonth OCTUBRE = YearMonth.of(2024, 10);
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    private static BancoController abrir(String backend) {
+        return new BancoController(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO), "cuentas.txt", "instantanea.txt", 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"texto", "binaria"})
+    void repetirElCierreNoLoAplicaDosVeces(String backend) throws Exception {
+        BancoController controlador = abrir(backend);
+        CuentaBancaria ahorros = new CuentaAhorros("Prueba", "000001", 0.01, 3);
+        CuentaBancaria sinSaldo = new CuentaAhorros("Prueba", "000002", 0.01, 3);
+        CuentaBancaria corriente = new CuentaCorriente("Prueba", "000003");
+        controlador.abrirCuenta(ahorros, Dinero.unidades(1000));
+        controlador.abrirCuenta(sinSaldo, 0);
+        controlador.abrirCuenta(corriente, Dinero.unidades(1000));
+
+        // Una ejecución interrumpida que sólo llegó a cerrar la primera cuenta
+        ResumenCierre parcial = new CierreMensual(controlador.getCacheHistoriales(), OCTUBRE).ejecutar(List.of(ahorros), 1);
+        assertEquals(1, parcial.getCuentasProcesadas());
+        controlador.cerrar();
+
+        controlador = abrir(backend);
+        assertEquals(Dinero.unidades(1010), controlador.buscarCuenta("000001").getSaldo());
+        ResumenCierre resumen = controlador.ejecutarCierreMensual(OCTUBRE);
+        assertEquals(2, resumen.getCuentasProcesadas());
+        assertEquals(1, resumen.getCuentasOmitidas());
+        assertTrue(resumen.isCompleto());
+        assertEquals(Dinero.unidades(1010), controlador.buscarCuenta("000001").getSaldo());
+        assertEquals(0, controlador.buscarCuenta("000002").getSaldo());
+        assertEquals(Dinero.unidades(990), controlador.buscarCuenta("000003").getSaldo());
+
+        // Repetir el cierre completo no cambia nada
+        resumen = controlador.ejecutarCierreMensual(OCTUBRE);
+        assertEquals(0, resumen.getCuentasProcesadas());
+        assertEquals(3, resumen.getCuentasOmitidas());
+        controlador.cerrar();
+
+        controlador = abrir(backend);
+        assertEquals(Dinero.unidades(1010), controlador.buscarCuenta("000001").getSaldo());
+        assertEquals(Dinero.unidades(990), controlador.buscarCuenta("000003").getSaldo());
+        assertEquals(0, controlador.validarSaldos().getCantidadDiscrepancias());
+        controlador.cerrar();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"texto", "binaria"})
+    void losMovimientosDeOtroPeriodoNoCuentan(String backend) throws Exception {
+        BancoController controlador = abrir(backend);
+        controlador.abrirCuenta(new CuentaCorriente("Prueba", "000001"), Dinero.unidades(1000));
+        assertEquals(1, controlador.ejecutarCierreMensual(OCTUBRE.minusMonths(1)).getCuentasProcesadas());
+        assertEquals(1, controlador.ejecutarCierreMensual(OCTUBRE).getCuentasProcesadas());
+        assertEquals(Dinero.unidades(980), controlador.buscarCuenta("000001").getSaldo());
+        controlador.cerrar();
+    }
+}
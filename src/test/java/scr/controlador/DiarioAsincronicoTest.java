@@ -0,0 +1,172 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import scr.model.Deposito;
+import scr.model.Retiro;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link DiarioAsincronico}: con la cola llena quien registra escribe él
+ * mismo lo encolado (sin quedar girando) y el orden se conserva; un grupo que el
+ * backend rechaza no detiene al resto ni se cuenta como escrito; y las fallas de E/S
+ * de los backends llegan a la confirmación.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class DiarioAsincronicoTest {
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    @Test
+    void conLaColaLlenaSeEscribeEnOrdenSinBloquear() throws Exception {
+        int hilos = 4;
+        int porHilo = 500;
+        Memoria memoria = new Memoria(1);
+        DiarioAsincronico diario = new DiarioAsincronico(memoria, 16);
+        List<Thread> productores = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            String cuenta = "C" + h;
+            Object monitor = new Object();
+            Thread t = new Thread(() -> {
+                for (int i = 1; i <= porHilo; i++) {
+                    // Como el controlador: se registra con la cuenta bloqueada
+                    synchronized (monitor) {
+                        diario.registrarMovimiento("DEPOSITO", cuenta, 1, i);
+                    }
+                }
+            });
+            productores.add(t);
+            t.start();
+        }
+        for (Thread t : productores) {
+            t.join(60_000);
+            assertFalse(t.isAlive(), "Un productor quedó esperando la cola");
+        }
+        diario.confirmar();
+        assertTrue(diario.getEsperasColaLlena() > 0);
+        assertEquals(hilos * porHilo, diario.getEscritos());
+        assertEquals(0, diario.getFallidos());
+        for (int h = 0; h < hilos; h++) assertEquals(porHilo, memoria.saldosDe("C" + h).size());
+        for (int h = 0; h < hilos; h++) {
+            List<Long> saldos = memoria.saldosDe("C" + h);
+            for (int i = 0; i < porHilo; i++) assertEquals(i + 1, saldos.get(i), "Cuenta C" + h);
+        }
+        diario.cerrar();
+    }
+
+    @Test
+    void unGrupoRechazadoNoDetieneElResto() {
+        Memoria memoria = new Memoria(0);
+        DiarioAsincronico diario = new DiarioAsincronico(memoria, 64);
+        diario.registrarMovimiento("DEPOSITO", "A", 1, 1);
+        LoteMovimientos lote = new LoteMovimientos(2);
+        lote.agregar("DEPOSITO", "B", 1, 1);
+        lote.agregar("DEPOSITO", Memoria.RECHAZADA, 1, 1);
+        diario.registrarLote(lote);
+        diario.registrarMovimiento("DEPOSITO", "A", 1, 2);
+        diario.registrarTransferencia("A", "C", 1, 1, 1);
+
+        CompletionException e = assertThrows(CompletionException.class, () -> diario.confirmarAsync().join());
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertEquals(List.of(1L, 2L, 1L), memoria.saldosDe("A"));
+        assertEquals(List.of(1L), memoria.saldosDe("C"));
+        assertEquals(List.of(), memoria.saldosDe("B"));
+        assertEquals(4, diario.getEscritos());
+        assertEquals(2, diario.getFallidos());
+        // La falla se informa una sola vez
+        diario.confirmar();
+        diario.cerrar();
+    }
+
+    @Test
+    void lasFallasDeEscrituraLleganALaConfirmacion() throws IOException {
+        DiarioBinario binario = new DiarioBinario("prueba.wal", ModoDurabilidad.POR_OPERACION, 1, 0);
+        binario.cerrar();
+        assertThrows(UncheckedIOException.class, () -> binario.registrarMovimiento("DEPOSITO", "A", 1, 1));
+
+        Memoria memoria = new Memoria(0);
+        memoria.fallarConfirmacion = true;
+        DiarioAsincronico diario = new DiarioAsincronico(memoria, 64);
+        diario.registrarMovimiento("DEPOSITO", "A", 1, 1);
+        CompletableFuture<Void> confirmacion = diario.confirmarAsync();
+        CompletionException e = assertThrows(CompletionException.class, confirmacion::join);
+        assertInstanceOf(UncheckedIOException.class, e.getCause());
+        memoria.fallarConfirmacion = false;
+        diario.confirmar();
+        diario.cerrar();
+    }
+
+    // Backend en memoria que tarda en escribir cada grupo y rechaza los lotes con la cuenta RECHAZADA
+    private static final class Memoria implements Persistencia {
+        static final String RECHAZADA = "RECHAZADA";
+
+        private final long demoraMs;
+        private final List<String> cuentas = new ArrayList<>();
+        private final List<Long> saldos = new ArrayList<>();
+        volatile boolean fallarConfirmacion;
+
+        Memoria(long demoraMs) {
+            this.demoraMs = demoraMs;
+        }
+
+        synchronized List<Long> saldosDe(String cuenta) {
+            List<Long> resultado = new ArrayList<>();
+            for (int i = 0; i < cuentas.size(); i++) {
+                if (cuentas.get(i).equals(cuenta)) resultado.add(saldos.get(i));
+            }
+            return resultado;
+        }
+
+        @Override
+        public void registrarMovimiento(String tipo, String numeroCuenta, long monto, long saldoFinal) {
+            LoteMovimientos lote = new LoteMovimientos(1);
+            lote.agregar(tipo, numeroCuenta, monto, saldoFinal);
+            registrarLote(lote);
+        }
+
+        @Override
+        public synchronized void registrarLote(LoteMovimientos lote) {
+            for (int i = 0; i < lote.tamanio(); i++) {
+                if (lote.getNumeroCuenta(i).equals(RECHAZADA)) throw new IllegalArgumentException("Cuenta rechazada");
+            }
+            if (demoraMs > 0) {
+                try {
+                    Thread.sleep(demoraMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (int i = 0; i < lote.tamanio(); i++) {
+                cuentas.add(lote.getNumeroCuenta(i));
+                saldos.add(lote.getSaldoFinal(i));
+            }
+        }
+
+        @Override
+        public void confirmar() {
+            if (fallarConfirmacion) throw new UncheckedIOException(new IOException("disco lleno"));
+        }
+
+        @Override public void cerrar() { }
+        @Override public void reproducir(Consumer<MovimientoLog> visitante) { }
+        @Override public long[] posicion() { return new long[0]; }
+        @Override public void reproducirDesde(long[] posicion, Consumer<MovimientoLog> visitante) { }
+        @Override public List<Deposito> cargarDepositosParaCuenta(String numeroCuenta) { return new ArrayList<>(); }
+        @Override public List<Retiro> cargarRetirosParaCuenta(String numeroCuenta) { return new ArrayList<>(); }
+    }
+}
@@ -0,0 +1,123 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.CuentaCorriente;
+import scr.model.Dinero;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas del {@link DiarioBinario}: el controlador recupera los saldos reproduciendo
+ * el diario, y la conversión de los logs de texto al diario y de vuelta conserva
+ * todos los movimientos.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class DiarioBinarioTest {
+
+    private static final int CUENTAS = 20;
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    private static BancoController abrir(String backend) {
+        return new BancoController(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO), "cuentas.txt", "instantanea.txt", 0);
+    }
+
+    // Depósitos, retiros y transferencias al azar; devuelve los saldos finales
+    private static Map<String, Long> operar(BancoController controlador) {
+        List<String> numeros = new ArrayList<>();
+        for (int i = 0; i < CUENTAS; i++) {
+            CuentaBancaria c = i % 2 == 0 ? new CuentaCorriente("Prueba", controlador.generarNumeroCuenta())
+                    : new CuentaAhorros("Prueba", controlador.generarNumeroCuenta(), 0.01, Integer.MAX_VALUE);
+            controlador.abrirCuenta(c, Dinero.unidades(500));
+            numeros.add(c.getNumeroCuenta());
+        }
+        SplittableRandom azar = new SplittableRandom(42);
+        for (int j = 0; j < 5000; j++) {
+            String numero = numeros.get(azar.nextInt(CUENTAS));
+            long monto = 1 + azar.nextInt(10_000);
+            try {
+                switch (azar.nextInt(3)) {
+                    case 0:
+                        controlador.depositar(numero, monto);
+                        break;
+                    case 1:
+                        controlador.intentarRetirar(numero, monto);
+                        break;
+                    default:
+                        String destino = numeros.get(azar.nextInt(CUENTAS));
+                        if (!destino.equals(numero)) controlador.transferir(numero, destino, monto);
+                        break;
+                }
+            } catch (Exception e) {
+                // Rechazos por saldo: no cambian nada
+            }
+        }
+        Map<String, Long> saldos = new HashMap<>();
+        for (String n : numeros) saldos.put(n, controlador.buscarCuenta(n).getSaldo());
+        return saldos;
+    }
+
+    @Test
+    void recuperaLosSaldosReproduciendoElDiario() throws IOException {
+        BancoController controlador = abrir("binaria");
+        Map<String, Long> saldos = operar(controlador);
+        controlador.cerrar();
+
+        // Sin instantánea se reproduce el diario completo
+        Files.delete(Paths.get("instantanea.txt"));
+        controlador = abrir("binaria");
+        for (Map.Entry<String, Long> e : saldos.entrySet()) {
+            assertEquals(e.getValue(), controlador.buscarCuenta(e.getKey()).getSaldo(), "Cuenta " + e.getKey());
+        }
+        assertEquals(0, controlador.validarSaldos().getCantidadDiscrepancias());
+        controlador.cerrar();
+    }
+
+    @Test
+    void conversionTextoBinarioTextoConservaLosMovimientos() throws IOException {
+        BancoController controlador = abrir("texto");
+        operar(controlador);
+        controlador.cerrar();
+
+        long aBinario = ConversorDiario.textoABinario("depositos.txt", "retiros.txt", "convertido.wal");
+        long aTexto = ConversorDiario.binarioATexto("convertido.wal", "depositos2.txt", "retiros2.txt");
+        assertEquals(aBinario, aTexto);
+        List<String> depositos = leer("depositos.txt");
+        List<String> retiros = leer("retiros.txt");
+        assertEquals(depositos.size() + retiros.size(), aBinario);
+        assertEquals(depositos, leer("depositos2.txt"));
+        assertEquals(retiros, leer("retiros2.txt"));
+    }
+
+    // Las mitades de una transferencia se convierten como depósito y retiro (ver ConversorDiario)
+    private static String tipoConvertido(String tipo) {
+        if (tipo.equals("TRANSFERENCIA_ENVIADA")) return "RETIRO";
+        if (tipo.equals("TRANSFERENCIA_RECIBIDA")) return "DEPOSITO";
+        return tipo;
+    }
+
+    private static List<String> leer(String archivo) throws IOException {
+        List<String> movimientos = new ArrayList<>();
+        try (LectorMovimientos lector = new LectorMovimientos(archivo, null, true)) {
+            while (lector.hasNext()) {
+                MovimientoLog m = lector.next();
+                movimientos.add(m.getFecha() + " " + m.getNumeroCuenta() + " " + tipoConvertido(m.getTipo()) + " " + m.getMonto() + " " + m.getSaldoFinal());
+            }
+        }
+        return movimientos;
+    }
+}
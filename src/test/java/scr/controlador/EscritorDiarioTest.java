@@ -0,0 +1,62 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link EscritorDiario} con campos largos o no ASCII: la línea se mide
+ * completa antes de escribirla, así nunca desborda el buffer ni deja un registro a
+ * medias.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class EscritorDiarioTest {
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2024, 3, 1, 12, 0, 0);
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    @Test
+    void unaCuentaLargoNoAsciiCercaDelFinDelBufferNoDesborda() throws Exception {
+        String larga = "ñ".repeat(7_000);
+        try (EscritorDiario escritor = new EscritorDiario("diario.txt", ModoDurabilidad.GRUPO, Integer.MAX_VALUE, 0)) {
+            // Unos 53 KB en el buffer de 64 KB: quedan menos bytes libres que los de la cuenta larga
+            for (int i = 0; i < 600; i++) escritor.agregar(FECHA, "000001", "DEPOSITO", 100, 100);
+            escritor.agregar(FECHA, larga, "DEPOSITO", 100, 100);
+            escritor.agregar(FECHA, "000001", "RETIRO", 100, 0);
+        }
+        List<String> lineas = Files.readAllLines(Paths.get("diario.txt"), StandardCharsets.UTF_8);
+        assertEquals(602, lineas.size());
+        assertEquals("2024-03-01 12:00:00 | Cuenta: " + larga + " | Tipo: DEPOSITO | Monto: $1.00 | Saldo Final: $1.00",
+                lineas.get(600));
+        for (String l : lineas) assertTrue(l.contains(" | Saldo Final: $"), l);
+    }
+
+    @Test
+    void unaLineaQueNoEntraSeRechazaSinEscribirNada() throws Exception {
+        try (EscritorDiario escritor = new EscritorDiario("diario.txt", ModoDurabilidad.POR_OPERACION, 1, 0)) {
+            escritor.escribir(FECHA, "000001", "DEPOSITO", 100, 100);
+            long tamanio = escritor.getTamanio();
+            assertThrows(IllegalArgumentException.class,
+                    () -> escritor.escribir(FECHA, "9".repeat(70_000), "DEPOSITO", 100, 200));
+            assertThrows(IllegalArgumentException.class,
+                    () -> escritor.escribir(FECHA, "0000\n01", "DEPOSITO", 100, 200));
+            assertEquals(tamanio, escritor.getTamanio());
+            escritor.escribir(FECHA, "000001", "RETIRO", 100, 0);
+        }
+        List<String> lineas = Files.readAllLines(Paths.get("diario.txt"), StandardCharsets.UTF_8);
+        assertEquals(2, lineas.size());
+        assertTrue(lineas.get(1).endsWith("| Tipo: RETIRO | Monto: $1.00 | Saldo Final: $0.00"), lineas.get(1));
+    }
+}
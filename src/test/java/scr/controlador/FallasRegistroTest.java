@@ -0,0 +1,184 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.CuentaCorriente;
+import scr.model.Deposito;
+import scr.model.Dinero;
+import scr.model.ResultadoRetiro;
+import scr.model.Retiro;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de las operaciones del controlador cuando su movimiento no puede escribirse
+ * en los logs: la cuenta queda como estaba, así que reintentar aplica la operación una
+ * sola vez, el historial no pierde ni inventa movimientos y al reiniciar se recuperan
+ * los mismos saldos.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class FallasRegistroTest {
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    private static BancoController reabrir(Persistencia persistencia) {
+        return new BancoController(persistencia, "cuentas.txt", "instantanea.txt", 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"texto", "binaria"})
+    void unaOperacionQueNoSeRegistraNoSeAplica(String backend) throws Exception {
+        Intermitente persistencia = new Intermitente(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO));
+        BancoController controlador = reabrir(persistencia);
+        CuentaAhorros ahorros = new CuentaAhorros("Prueba", "000001", 0.01, 10);
+        CuentaCorriente corriente = new CuentaCorriente("Prueba", "000002", 50);
+        controlador.abrirCuenta(ahorros, Dinero.unidades(100));
+        controlador.abrirCuenta(corriente, Dinero.unidades(100));
+        controlador.retirar("000001", Dinero.unidades(10));
+
+        persistencia.fallar = true;
+        assertThrows(UncheckedIOException.class, () -> controlador.depositar("000001", Dinero.unidades(5)));
+        assertThrows(UncheckedIOException.class, () -> controlador.retirar("000001", Dinero.unidades(5)));
+        assertThrows(UncheckedIOException.class, () -> controlador.intentarRetirar("000002", Dinero.unidades(5)));
+        assertThrows(UncheckedIOException.class, () -> controlador.transferir("000002", "000001", Dinero.unidades(5)));
+        assertEquals(Dinero.unidades(90), ahorros.getSaldo());
+        assertEquals(Dinero.unidades(100), corriente.getSaldo());
+        assertEquals(1, ahorros.getRetirosRealizadosEsteMes());
+        assertEquals(2, ahorros.getMovimientosEnMemoria());
+        assertEquals(1, corriente.getMovimientosEnMemoria());
+
+        // Reintentos que sí se registran: cada operación se aplica una vez
+        persistencia.fallar = false;
+        controlador.depositar("000001", Dinero.unidades(5));
+        assertEquals(ResultadoRetiro.REALIZADO, controlador.intentarRetirar("000002", Dinero.unidades(5)));
+        controlador.transferir("000002", "000001", Dinero.unidades(5));
+        assertEquals(Dinero.unidades(100), ahorros.getSaldo());
+        assertEquals(Dinero.unidades(89), corriente.getSaldo());
+        // Las transferencias figuran como depósito en el destino y retiro en el origen
+        assertEquals(montos(Dinero.unidades(100), Dinero.unidades(5), Dinero.unidades(5)), depositos(ahorros));
+        assertEquals(montos(Dinero.unidades(10)), retiros(ahorros));
+        assertEquals(montos(Dinero.unidades(5), Dinero.unidades(5)), retiros(corriente));
+        controlador.cerrar();
+
+        // Sin instantánea del mismo backend: los saldos salen de reproducir los logs
+        BancoController reiniciado = reabrir(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO));
+        assertEquals(Dinero.unidades(100), reiniciado.buscarCuenta("000001").getSaldo());
+        assertEquals(Dinero.unidades(89), reiniciado.buscarCuenta("000002").getSaldo());
+        reiniciado.cerrar();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"texto", "binaria"})
+    void unaCuentaCuyoDepositoInicialNoSeRegistraNoSeAbre(String backend) {
+        Intermitente persistencia = new Intermitente(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO));
+        BancoController controlador = reabrir(persistencia);
+        persistencia.fallar = true;
+        assertThrows(UncheckedIOException.class,
+                () -> controlador.abrirCuenta(new CuentaCorriente("Prueba", "000001"), Dinero.unidades(100)));
+        assertNull(controlador.buscarCuenta("000001"));
+        persistencia.fallar = false;
+        controlador.abrirCuenta(new CuentaCorriente("Prueba", "000001"), Dinero.unidades(100));
+        controlador.cerrar();
+
+        BancoController reiniciado = reabrir(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO));
+        assertEquals(Dinero.unidades(100), reiniciado.buscarCuenta("000001").getSaldo());
+        reiniciado.cerrar();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"texto", "binaria"})
+    void unCierreQueNoSeRegistraSeDeshaceYQuedaPendiente(String backend) throws Exception {
+        Intermitente persistencia = new Intermitente(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO));
+        BancoController controlador = reabrir(persistencia);
+        CuentaAhorros ahorros = new CuentaAhorros("Prueba", "000001", 0.01, 10);
+        controlador.abrirCuenta(ahorros, Dinero.unidades(1000));
+        controlador.retirar("000001", Dinero.unidades(100));
+
+        CierreMensual cierre = new CierreMensual(controlador.getCacheHistoriales(), YearMonth.of(2024, 10));
+        List<CuentaBancaria> cuentas = List.of(ahorros);
+        persistencia.fallar = true;
+        ResumenCierre fallido = cierre.ejecutar(cuentas, 1);
+        assertEquals(0, fallido.getCuentasProcesadas());
+        assertEquals(Dinero.unidades(900), ahorros.getSaldo());
+        assertEquals(1, ahorros.getRetirosRealizadosEsteMes());
+
+        persistencia.fallar = false;
+        ResumenCierre resumen = cierre.ejecutar(cuentas, 1);
+        assertEquals(1, resumen.getCuentasProcesadas());
+        assertEquals(Dinero.unidades(909), ahorros.getSaldo());
+        assertEquals(0, ahorros.getRetirosRealizadosEsteMes());
+        controlador.cerrar();
+
+        BancoController reiniciado = reabrir(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO));
+        assertEquals(Dinero.unidades(909), reiniciado.buscarCuenta("000001").getSaldo());
+        reiniciado.cerrar();
+    }
+
+    private static List<Long> montos(long... montos) {
+        return Arrays.stream(montos).boxed().toList();
+    }
+
+    private static List<Long> depositos(CuentaBancaria c) {
+        return c.getDepositos().stream().map(Deposito::getMonto).toList();
+    }
+
+    private static List<Long> retiros(CuentaBancaria c) {
+        return c.getRetiros().stream().map(Retiro::getMonto).toList();
+    }
+
+    // Backend que, si se pide, falla al escribir sin llegar a escribir nada
+    private static final class Intermitente implements Persistencia {
+        private final Persistencia destino;
+        volatile boolean fallar;
+
+        Intermitente(Persistencia destino) {
+            this.destino = destino;
+        }
+
+        private void verificar() {
+            if (fallar) throw new UncheckedIOException(new IOException("disco lleno"));
+        }
+
+        @Override
+        public void registrarMovimiento(String tipoMovimiento, String numeroCuenta, long monto, long saldoFinal) {
+            verificar();
+            destino.registrarMovimiento(tipoMovimiento, numeroCuenta, monto, saldoFinal);
+        }
+
+        @Override
+        public void registrarLote(LoteMovimientos lote) {
+            verificar();
+            destino.registrarLote(lote);
+        }
+
+        @Override
+        public void registrarTransferencia(String origen, String destinoTransferencia, long monto,
+                                           long saldoOrigen, long saldoDestino) {
+            verificar();
+            destino.registrarTransferencia(origen, destinoTransferencia, monto, saldoOrigen, saldoDestino);
+        }
+
+        @Override public void confirmar() { destino.confirmar(); }
+        @Override public void cerrar() { destino.cerrar(); }
+        @Override public void reproducir(Consumer<MovimientoLog> visitante) { destino.reproducir(visitante); }
+        @Override public long[] posicion() { return destino.posicion(); }
+        @Override public void reproducirDesde(long[] posicion, Consumer<MovimientoLog> visitante) { destino.reproducirDesde(posicion, visitante); }
+        @Override public void recorrerCuenta(String numeroCuenta, Consumer<MovimientoLog> visitante) { destino.recorrerCuenta(numeroCuenta, visitante); }
+        @Override public List<Deposito> cargarDepositosParaCuenta(String numeroCuenta) { return destino.cargarDepositosParaCuenta(numeroCuenta); }
+        @Override public List<Retiro> cargarRetirosParaCuenta(String numeroCuenta) { return destino.cargarRetirosParaCuenta(numeroCuenta); }
+    }
+}
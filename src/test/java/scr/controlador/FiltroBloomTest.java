@@ -0,0 +1,113 @@
+package scr.controlador;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del filtro de cuentas de los segmentos: nunca descarta una cuenta agregada,
+ * los falsos positivos quedan cerca del 1% también con pocas cuentas, se guarda y se
+ * lee sin cambios y los filtros guardados con el hash anterior siguen valiendo.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class FiltroBloomTest {
+
+    private static final int CUENTAS = 10_000;
+
+    private static FiltroBloom lleno() {
+        FiltroBloom filtro = new FiltroBloom(CUENTAS);
+        for (int i = 0; i < CUENTAS; i++) filtro.agregar(String.format("%06d", i));
+        return filtro;
+    }
+
+    @Test
+    void nuncaDescartaUnaCuentaAgregada() {
+        FiltroBloom filtro = lleno();
+        for (int i = 0; i < CUENTAS; i++) assertTrue(filtro.puedeContener(String.format("%06d", i)));
+    }
+
+    @Test
+    void losFalsosPositivosRondanElUnoPorCiento() {
+        FiltroBloom filtro = lleno();
+        int falsos = 0;
+        for (int i = CUENTAS; i < 11 * CUENTAS; i++) if (filtro.puedeContener(String.format("%06d", i))) falsos++;
+        double tasa = falsos / (10.0 * CUENTAS);
+        assertTrue(tasa < 0.02, "Tasa de falsos positivos: " + tasa);
+    }
+
+    @Test
+    void unFiltroChicoTambienDescartaCasiTodasLasAusentes() {
+        // Con pocas cuentas la cantidad de bits es una potencia de 2: cuentan sólo los bits bajos del hash
+        FiltroBloom filtro = new FiltroBloom(10);
+        for (int i = 1; i <= 10; i++) filtro.agregar(String.format("%06d", i));
+        int falsos = 0;
+        for (int i = 11; i <= 10_010; i++) if (filtro.puedeContener(String.format("%06d", i))) falsos++;
+        assertTrue(falsos < 300, "Falsos positivos: " + falsos);
+    }
+
+    @Test
+    void unFiltroGuardadoConElHashAnteriorSigueEncontrandoSusCuentas() throws IOException {
+        long[] bits = new long[2];
+        for (int i = 1; i <= 10; i++) {
+            long h = fnv(String.format("%06d", i));
+            for (int f = 0; f < FiltroBloom.FUNCIONES; f++) {
+                long bit = Math.floorMod((int) h + f * (int) (h >>> 32), 128L);
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream salida = new DataOutputStream(bytes);
+        salida.writeInt(FiltroBloom.FUNCIONES);
+        salida.writeInt(bits.length);
+        for (long b : bits) salida.writeLong(b);
+        FiltroBloom viejo = FiltroBloom.leer(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        for (int i = 1; i <= 10; i++) assertTrue(viejo.puedeContener(String.format("%06d", i)));
+    }
+
+    @Test
+    void unFiltroSinCuentasNoContieneNinguna() {
+        assertFalse(new FiltroBloom(0).puedeContener("000001"));
+        assertFalse(new FiltroBloom(100).puedeContener("000001"));
+    }
+
+    @Test
+    void seGuardaYSeLeeSinCambios() throws IOException {
+        FiltroBloom filtro = lleno();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filtro.escribir(new DataOutputStream(bytes));
+        FiltroBloom leido = FiltroBloom.leer(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        for (int i = 0; i < 2 * CUENTAS; i++) {
+            String cuenta = String.format("%06d", i);
+            assertEquals(filtro.puedeContener(cuenta), leido.puedeContener(cuenta), cuenta);
+        }
+    }
+
+    // Hash de los filtros guardados antes de mezclarlo
+    private static long fnv(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    @Test
+    void rechazaUnFiltroDanado() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream salida = new DataOutputStream(bytes);
+        salida.writeInt(0);
+        salida.writeInt(1);
+        salida.writeLong(0);
+        assertThrows(IOException.class,
+                () -> FiltroBloom.leer(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+}
@@ -0,0 +1,127 @@
+package scr.controlador;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del histograma de latencias: los bordes de las cubetas (0, 31, 32 y
+ * Long.MAX_VALUE), el error relativo de los percentiles frente a los valores exactos y
+ * los registros desde varios hilos.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class HistogramaLatenciaTest {
+
+    // Última cubeta: la de Long.MAX_VALUE
+    private static final int ULTIMA = HistogramaLatencia.indice(Long.MAX_VALUE);
+
+    @Test
+    void losValoresChicosTienenCubetaPropia() {
+        assertEquals(0, HistogramaLatencia.indice(0));
+        assertEquals(31, HistogramaLatencia.indice(31));
+        assertEquals(32, HistogramaLatencia.indice(32));
+        assertEquals(63, HistogramaLatencia.indice(63));
+        // Desde 64 las cubetas pasan a tener dos valores
+        assertEquals(64, HistogramaLatencia.indice(64));
+        assertEquals(64, HistogramaLatencia.indice(65));
+        assertEquals(65, HistogramaLatencia.indice(66));
+        for (int v = 0; v < 64; v++) assertEquals(v, HistogramaLatencia.limiteInferior(v));
+    }
+
+    @Test
+    void cadaCubetaEmpiezaYTerminaDondeDice() {
+        assertEquals(59 * 32 - 1, ULTIMA);
+        assertEquals(Long.MAX_VALUE, HistogramaLatencia.limiteInferior(ULTIMA + 1));
+        for (int i = 0; i <= ULTIMA; i++) {
+            long inferior = HistogramaLatencia.limiteInferior(i);
+            long superior = HistogramaLatencia.limiteInferior(i + 1) - 1;
+            assertEquals(i, HistogramaLatencia.indice(inferior), "Inicio de la cubeta " + i);
+            assertEquals(i, HistogramaLatencia.indice(superior), "Fin de la cubeta " + i);
+            // El ancho de la cubeta es a lo sumo 1/32 de su inicio
+            if (i >= 32) assertTrue((superior - inferior + 1) * 32 <= inferior, "Ancho de la cubeta " + i);
+        }
+        assertEquals(ULTIMA, HistogramaLatencia.indice(Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    void losPercentilesDeUnSoloValorSonEseValor() {
+        for (long v : new long[] { 0, 31, 32, 1_000_000, Long.MAX_VALUE }) {
+            HistogramaLatencia h = new HistogramaLatencia();
+            h.registrar(v);
+            ResumenLatencia r = h.resumen();
+            assertEquals(1, r.getCantidad());
+            assertEquals(v, r.getMaximo());
+            // El valor más alto de su cubeta acotado por el máximo, que es el mismo valor
+            assertEquals(v, r.getP50(), "Valor " + v);
+            assertEquals(v, r.getP999(), "Valor " + v);
+        }
+    }
+
+    @Test
+    void unPercentilEnLaUltimaCubetaEsElMaximo() {
+        long[] copia = new long[ULTIMA + 1];
+        copia[ULTIMA] = 2;
+        assertEquals(Long.MAX_VALUE, HistogramaLatencia.percentil(copia, 2, 50, Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE - 5, HistogramaLatencia.percentil(copia, 2, 99, Long.MAX_VALUE - 5));
+        copia[0] = 2;
+        assertEquals(0, HistogramaLatencia.percentil(copia, 4, 50, Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, HistogramaLatencia.percentil(copia, 4, 51, Long.MAX_VALUE));
+        assertEquals(0, HistogramaLatencia.percentil(new long[ULTIMA + 1], 0, 50, 0));
+    }
+
+    @Test
+    void elErrorDeLosPercentilesEsMenorA3PorCiento() {
+        SplittableRandom azar = new SplittableRandom(17);
+        HistogramaLatencia h = new HistogramaLatencia();
+        long[] valores = new long[200_000];
+        // De 1 µs a 10 s, uniformes en escala logarítmica
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = (long) Math.pow(10, 3 + 7 * azar.nextDouble());
+            h.registrar(valores[i]);
+        }
+        Arrays.sort(valores);
+        ResumenLatencia r = h.resumen();
+        assertEquals(valores.length, r.getCantidad());
+        assertEquals(valores[valores.length - 1], r.getMaximo());
+        assertEquals(Arrays.stream(valores).average().orElseThrow(), r.getMedia(), 1e-6 * r.getMedia());
+        double[] percentiles = { 50, 90, 99, 99.9 };
+        long[] obtenidos = { r.getP50(), r.getP90(), r.getP99(), r.getP999() };
+        for (int i = 0; i < percentiles.length; i++) {
+            long exacto = valores[(int) Math.ceil(percentiles[i] / 100 * valores.length) - 1];
+            // Se informa el valor más alto de la cubeta: nunca por debajo del exacto
+            assertTrue(obtenidos[i] >= exacto, "p" + percentiles[i]);
+            double error = (double) (obtenidos[i] - exacto) / exacto;
+            assertTrue(error < 1.0 / 32, "p" + percentiles[i] + ": " + obtenidos[i] + " frente a " + exacto);
+        }
+    }
+
+    @Test
+    void noSePierdenRegistrosDesdeVariosHilos() throws Exception {
+        HistogramaLatencia h = new HistogramaLatencia();
+        List<Thread> hilos = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long base = t * 1_000L;
+            hilos.add(new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) h.registrar(base + i % 1_000);
+            }));
+        }
+        for (Thread t : hilos) t.start();
+        for (Thread t : hilos) t.join();
+        ResumenLatencia r = h.resumen();
+        assertEquals(400_000, r.getCantidad());
+        assertEquals(3_999, r.getMaximo());
+        assertEquals(1_999.5, r.getMedia(), 1e-9);
+
+        h.reiniciar();
+        assertEquals(0, h.resumen().getCantidad());
+        assertEquals(0, h.resumen().getMaximo());
+        h.registrar(-5);
+        assertEquals(0, h.resumen().getMaximo());
+        assertEquals(0, h.resumen().getP50());
+    }
+}
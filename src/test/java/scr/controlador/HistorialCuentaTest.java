@@ -0,0 +1,147 @@
+package scr.controlador;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.CuentaCorriente;
+import scr.model.Deposito;
+import scr.model.PoliticaHistorial;
+import scr.model.Retiro;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del historial de una cuenta ({@link CuentaBancaria#getDepositos()}): cada
+ * movimiento se identifica por su secuencia, y los de la memoria se agregan al
+ * historial de los logs sólo si todavía no se registraron.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class HistorialCuentaTest {
+
+    private BancoController controlador;
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    @AfterEach
+    void cerrar() {
+        if (controlador != null) controlador.cerrar();
+    }
+
+    private CuentaBancaria abrir(String backend) {
+        controlador = new BancoController(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO), "cuentas.txt", "instantanea.txt", 0);
+        CuentaBancaria cuenta = new CuentaAhorros("Prueba", "000001", 0.01, 3);
+        controlador.abrirCuenta(cuenta, 100);
+        return cuenta;
+    }
+
+    @Test
+    void depositosIgualesEnElMismoSegundoSonDistintos() {
+        CuentaBancaria cuenta = new CuentaAhorros("Prueba", "000001", 0.01, 3);
+        cuenta.depositar(100);
+        cuenta.depositar(100);
+        List<Deposito> depositos = cuenta.getDepositos();
+        assertEquals(2, depositos.size());
+        assertEquals(0, depositos.get(0).getSecuencia());
+        assertEquals(1, depositos.get(1).getSecuencia());
+        assertNotEquals(depositos.get(0), depositos.get(1));
+        assertEquals(depositos, cuenta.getDepositos());
+    }
+
+    @Test
+    void laSecuenciaSigueDespuesDeDescartar() {
+        CuentaBancaria cuenta = new CuentaAhorros("Prueba", "000001", 0.01, 3);
+        cuenta.configurarHistorial(PoliticaHistorial.ultimos(2), null);
+        for (int i = 0; i < 5; i++) cuenta.depositar(100);
+        List<Deposito> depositos = cuenta.getDepositos();
+        assertEquals(2, depositos.size());
+        assertEquals(3, depositos.get(0).getSecuencia());
+        assertEquals(4, depositos.get(1).getSecuencia());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"texto", "binaria"})
+    void losRegistradosNoSeRepitenNiSeConfunden(String backend) throws Exception {
+        CuentaBancaria cuenta = abrir(backend);
+        controlador.depositar("000001", 100);
+        controlador.depositar("000001", 100);
+        List<Deposito> depositos = cuenta.getDepositos();
+        assertEquals(3, depositos.size());
+        assertEquals(3, new HashSet<>(depositos).size());
+        for (int i = 0; i < depositos.size(); i++) assertEquals(i, depositos.get(i).getSecuencia());
+        assertEquals(depositos, cuenta.getDepositos());
+
+        // Un depósito igual que no llegó a los logs se agrega una sola vez, al final
+        cuenta.depositar(100);
+        depositos = cuenta.getDepositos();
+        assertEquals(4, depositos.size());
+        assertEquals(3, depositos.get(3).getSecuencia());
+        assertEquals(depositos, cuenta.getDepositos());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"texto", "binaria"})
+    void losDescartadosSeLeenDeLosLogs(String backend) throws Exception {
+        CuentaBancaria cuenta = abrir(backend);
+        controlador.setPoliticaHistorial(PoliticaHistorial.ultimos(2));
+        for (int i = 1; i <= 10; i++) controlador.depositar("000001", i);
+        List<Deposito> depositos = cuenta.getDepositos();
+        assertEquals(11, depositos.size());
+        for (int i = 1; i <= 10; i++) assertEquals(i, depositos.get(i).getMonto());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"texto", "binaria"})
+    void laComisionNoCambiaElMontoDelRetiro(String backend) throws Exception {
+        controlador = new BancoController(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO), "cuentas.txt", "instantanea.txt", 0);
+        CuentaBancaria cuenta = new CuentaCorriente("Prueba", "000001", 50);
+        controlador.abrirCuenta(cuenta, 1000);
+        controlador.retirar("000001", 100);
+        // Sin registrar: el historial en memoria guarda el mismo monto que los logs
+        cuenta.retirar(100);
+        assertEquals(700, cuenta.getSaldo());
+        List<Retiro> retiros = cuenta.getRetiros();
+        assertEquals(2, retiros.size());
+        assertEquals(100, retiros.get(0).getMonto());
+        assertEquals(100, retiros.get(1).getMonto());
+        assertEquals(1, retiros.get(1).getSecuencia());
+    }
+
+    @Test
+    void leerMientrasSeDepositaNoPierdeNiRepite() throws Exception {
+        CuentaBancaria cuenta = abrir("binaria");
+        int total = 2000;
+        AtomicBoolean terminado = new AtomicBoolean();
+        Thread escritor = new Thread(() -> {
+            try {
+                // Montos distintos: el monto de cada depósito es su posición en el historial
+                for (int i = 1; i <= total; i++) controlador.depositar("000001", i);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                terminado.set(true);
+            }
+        });
+        escritor.start();
+        int anterior = 0;
+        while (!terminado.get()) {
+            List<Deposito> depositos = cuenta.getDepositos();
+            assertTrue(depositos.size() >= anterior);
+            for (int i = 1; i < depositos.size(); i++) assertEquals(i, depositos.get(i).getMonto());
+            anterior = depositos.size();
+        }
+        escritor.join();
+        assertEquals(total + 1, cuenta.getDepositos().size());
+    }
+}
@@ -0,0 +1,246 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import scr.model.CuentaAhorros;
+import scr.model.Dinero;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link ImportadorMovimientos}: las líneas en el borde de un bloque de
+ * 4 MB se leen una sola vez, una línea que excede el máximo se rechaza con su número
+ * de línea global, el encabezado y los dos formatos se reconocen, cada cuenta se
+ * aplica en el orden del archivo y el resultado no depende de la cantidad de hilos.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class ImportadorMovimientosTest {
+
+    private static final int BLOQUE = 4 * 1024 * 1024;
+    // Cuenta que reciben las líneas de relleno (depósitos de un centavo)
+    private static final String RELLENO = "900000";
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    private static RegistroCuentas cuentas(int cantidad) {
+        RegistroCuentas registro = new RegistroCuentas();
+        for (int i = 1; i <= cantidad; i++) registro.registrar(new CuentaAhorros("Prueba", String.format("%06d", i)));
+        registro.registrar(new CuentaAhorros("Prueba", RELLENO));
+        return registro;
+    }
+
+    private static ResumenImportacion importar(RegistroCuentas registro, Contenido contenido, int hilos) throws IOException {
+        contenido.guardar("importar.txt");
+        Persistencia persistencia = ArchivosPrueba.backend("nula", ModoDurabilidad.GRUPO);
+        return new ImportadorMovimientos(registro, persistencia, hilos).importar("importar.txt");
+    }
+
+    private static long saldo(RegistroCuentas registro, String numero) {
+        return registro.buscar(numero).getSaldo();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-2, -1, 0, 1, 2})
+    void lasLineasEnElBordeDeUnBloqueSeLeenUnaVez(int desplazamiento) throws IOException {
+        Contenido c = new Contenido();
+        c.linea("000001,DEPOSITO,1.00");
+        // Con 0 el salto anterior cae en el último byte del bloque; con -1 y -2 la línea
+        // empieza en el bloque anterior y lo cruza
+        c.rellenarHasta(BLOQUE + desplazamiento);
+        c.linea("000001,DEPOSITO,5.00");
+        c.linea("000001,RETIRO,2.00");
+        // Una línea larga que cruza el segundo borde sin pasar el máximo
+        c.rellenarHasta(2L * BLOQUE - 10);
+        c.linea("000002,DEPOSITO,3.00" + " ".repeat(3000));
+        c.linea("000002,DEPOSITO,1.00");
+
+        for (int hilos : new int[] {1, 3}) {
+            RegistroCuentas registro = cuentas(2);
+            ResumenImportacion resumen = importar(registro, c, hilos);
+            assertEquals(c.lineas, resumen.getAceptados(), "hilos=" + hilos);
+            assertEquals(0, resumen.getRechazados(), resumen.toString());
+            assertEquals(Dinero.unidades(4), saldo(registro, "000001"));
+            assertEquals(Dinero.unidades(4), saldo(registro, "000002"));
+            assertEquals(c.relleno, saldo(registro, RELLENO));
+        }
+    }
+
+    @Test
+    void unaLineaQueExcedeElMaximoSeRechazaConSuNumero() throws IOException {
+        Contenido c = new Contenido();
+        c.rellenarHasta(BLOQUE - 100);
+        long larga = c.linea("000001,DEPOSITO,1.00" + " ".repeat(5000));
+        c.linea("000001,DEPOSITO,2.00");
+        c.rellenarHasta(BLOQUE + 20_000);
+
+        RegistroCuentas registro = cuentas(1);
+        ResumenImportacion resumen = importar(registro, c, 2);
+        assertEquals(1, resumen.getRechazados());
+        assertEquals(c.lineas - 1, resumen.getAceptados());
+        assertEquals(List.of("línea " + larga + ": " + ImportadorMovimientos.LINEA_INVALIDA + ": línea demasiado larga"),
+                resumen.getEjemplosRechazo());
+        // El bloque 1 retoma en la línea que sigue a la larga
+        assertEquals(Dinero.unidades(2), saldo(registro, "000001"));
+        assertEquals(c.relleno, saldo(registro, RELLENO));
+    }
+
+    @Test
+    void reconoceElEncabezadoYLosDosFormatos() throws IOException {
+        Contenido c = new Contenido();
+        c.linea("cuenta,tipo,monto");
+        c.linea("000001,DEPOSITO,150.25");
+        c.linea("2024-03-01 12:00:00 | Cuenta: 000001 | Tipo: RETIRO | Monto: $50.25 | Saldo Final: $100.00");
+        c.linea(" 000002 , DEPOSITO , $10 \r");
+        c.linea("");
+        c.linea("cuenta,tipo,monto");
+        c.linea("000001,INTERES,1");
+        c.linea("000001,DEPOSITO,0");
+        c.linea("999999,DEPOSITO,1");
+        c.linea("2024-03-01 12:00:00 | Cuenta: 000002 | Tipo: DEPOSITO | Monto: $5.00 | Saldo Final: $15.00");
+        c.linea("000002,RETIRO,100");
+        c.linea("2024-03-01 12:00:00 | Cuenta: 000002 | Tipo: DEPOSITO");
+
+        RegistroCuentas registro = cuentas(2);
+        ResumenImportacion resumen = importar(registro, c, 2);
+        assertEquals(4, resumen.getAceptados());
+        assertEquals(6, resumen.getRechazados());
+        assertEquals(Dinero.unidades(100), saldo(registro, "000001"));
+        assertEquals(Dinero.unidades(15), saldo(registro, "000002"));
+        assertEquals(Map.of(ImportadorMovimientos.LINEA_INVALIDA, 2L, ImportadorMovimientos.TIPO_NO_SOPORTADO, 1L,
+                ImportadorMovimientos.MONTO_INVALIDO, 1L, ImportadorMovimientos.CUENTA_INEXISTENTE, 1L,
+                "Saldo insuficiente", 1L), resumen.getRechazosPorMotivo());
+        assertEquals(List.of(
+                "línea 6: Línea inválida: cuenta,tipo,monto",
+                "línea 7: Tipo no soportado: 000001,INTERES,1",
+                "línea 8: Monto inválido: 000001,DEPOSITO,0",
+                "línea 9: Cuenta no encontrada: 999999",
+                "línea 11: Saldo insuficiente: 000002: retiro de $100.00 con saldo de $15.00",
+                "línea 12: Línea inválida: 2024-03-01 12:00:00 | Cuenta: 000002 | Tipo: DEPOSITO"),
+                resumen.getEjemplosRechazo());
+    }
+
+    @Test
+    void losEjemplosLlevanElNumeroDeLineaDelArchivo() throws IOException {
+        Contenido c = new Contenido();
+        c.linea("000001,DEPOSITO,1.00");
+        long primera = c.linea("000001,RETIRO,5.00");
+        c.rellenarHasta(BLOQUE + 1000);
+        long segunda = c.linea("basura");
+        c.rellenarHasta(2L * BLOQUE + 1000);
+        long tercera = c.linea("000001,RETIRO,5.00");
+        c.linea("000001,RETIRO,1.00");
+
+        for (int hilos : new int[] {1, 4}) {
+            ResumenImportacion resumen = importar(cuentas(1), c, hilos);
+            assertEquals(c.lineas - 3, resumen.getAceptados());
+            List<String> ejemplos = resumen.getEjemplosRechazo();
+            assertEquals(3, ejemplos.size(), ejemplos.toString());
+            assertTrue(ejemplos.get(0).startsWith("línea " + primera + ": Saldo insuficiente"), ejemplos.get(0));
+            assertEquals("línea " + segunda + ": Línea inválida: basura", ejemplos.get(1));
+            assertTrue(ejemplos.get(2).startsWith("línea " + tercera + ": Saldo insuficiente"), ejemplos.get(2));
+        }
+    }
+
+    @Test
+    void cadaCuentaSeAplicaEnElOrdenDelArchivo() throws IOException {
+        // Cada retiro deja la cuenta en cero: si se aplicara antes de su depósito se rechazaría
+        int cuentas = 8;
+        Contenido c = new Contenido();
+        for (int i = 0; c.texto.length() < 2L * BLOQUE + BLOQUE / 2; i++) {
+            String numero = String.format("%06d", i % cuentas + 1);
+            c.linea(numero + ",DEPOSITO,10");
+            c.linea(numero + ",RETIRO,10");
+        }
+        RegistroCuentas registro = cuentas(cuentas);
+        DiarioBinario diario = new DiarioBinario("orden.wal", ModoDurabilidad.GRUPO, 1000, 0);
+        c.guardar("importar.txt");
+        ResumenImportacion resumen = new ImportadorMovimientos(registro, diario, 4).importar("importar.txt");
+        assertEquals(0, resumen.getRechazados(), resumen.toString());
+        assertEquals(c.lineas, resumen.getAceptados());
+        for (int i = 1; i <= cuentas; i++) assertEquals(0, saldo(registro, String.format("%06d", i)));
+
+        List<Long> saldos = new ArrayList<>();
+        diario.recorrerCuenta("000003", m -> saldos.add(m.getSaldoFinal()));
+        assertEquals(c.lineas / cuentas, saldos.size());
+        for (int i = 0; i < saldos.size(); i++) assertEquals(i % 2 == 0 ? 1000 : 0, saldos.get(i), "movimiento " + i);
+        diario.cerrar();
+    }
+
+    @Test
+    void unHiloYVariosDanElMismoResultado() throws IOException {
+        int cuentas = 200;
+        SplittableRandom azar = new SplittableRandom(7);
+        Contenido c = new Contenido();
+        while (c.texto.length() < 2L * BLOQUE + 12_345) {
+            String numero = String.format("%06d", azar.nextInt(cuentas + 5) + 1);
+            int caso = azar.nextInt(100);
+            if (caso < 55) {
+                c.linea(numero + ",DEPOSITO," + Dinero.formatear(azar.nextInt(1, 50_000)));
+            } else if (caso < 97) {
+                c.linea("2024-03-01 12:00:00 | Cuenta: " + numero + " | Tipo: RETIRO | Monto: $"
+                        + Dinero.formatear(azar.nextInt(1, 60_000)) + " | Saldo Final: $0.00");
+            } else {
+                c.linea(numero + ",TRANSFERENCIA,1");
+            }
+        }
+        RegistroCuentas uno = cuentas(cuentas);
+        RegistroCuentas varios = cuentas(cuentas);
+        ResumenImportacion resumenUno = importar(uno, c, 1);
+        ResumenImportacion resumenVarios = importar(varios, c, 6);
+
+        assertEquals(c.lineas, resumenUno.getLineas());
+        assertEquals(resumenUno.getAceptados(), resumenVarios.getAceptados());
+        assertEquals(resumenUno.getRechazosPorMotivo(), resumenVarios.getRechazosPorMotivo());
+        assertEquals(resumenUno.getEjemplosRechazo(), resumenVarios.getEjemplosRechazo());
+        for (int i = 1; i <= cuentas; i++) {
+            String numero = String.format("%06d", i);
+            assertEquals(saldo(uno, numero), saldo(varios, numero), numero);
+        }
+    }
+
+    // Contenido del archivo a importar (ASCII, así cada carácter ocupa un byte)
+    private static final class Contenido {
+        final StringBuilder texto = new StringBuilder();
+        long lineas;
+        // Líneas (y centavos) depositados en RELLENO
+        long relleno;
+
+        // Devuelve el número de la línea agregada
+        long linea(String linea) {
+            texto.append(linea).append('\n');
+            return ++lineas;
+        }
+
+        // Agrega depósitos a RELLENO hasta que la próxima línea empiece en la posición indicada
+        void rellenarHasta(long posicion) {
+            String base = RELLENO + ",DEPOSITO,0.01";
+            long falta = posicion - texto.length();
+            if (falta < base.length() + 1) throw new IllegalArgumentException("No hay lugar para rellenar hasta " + posicion);
+            while (falta >= 2 * (base.length() + 1)) {
+                linea(base);
+                relleno++;
+                falta -= base.length() + 1;
+            }
+            linea(base + " ".repeat((int) falta - base.length() - 1));
+            relleno++;
+        }
+
+        void guardar(String archivo) throws IOException {
+            Files.writeString(Paths.get(archivo), texto, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import scr.model.Deposito;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del índice por cuenta de los logs de texto: la lectura por índice devuelve
+ * lo mismo que recorrer el log, también después de reconstruir un índice borrado.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class IndiceMovimientosTest {
+
+    private static final int CUENTAS = 50;
+    private static final int MOVIMIENTOS = 5000;
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    @Test
+    void lecturaPorIndiceIgualAlRecorridoCompleto() throws IOException {
+        GestorArchivos gestor = new GestorArchivos(ModoDurabilidad.GRUPO, 100, 0);
+        long[] saldos = new long[CUENTAS];
+        for (int j = 0; j < MOVIMIENTOS; j++) {
+            int i = (j * 7) % CUENTAS;
+            saldos[i] += j + 1;
+            gestor.registrarMovimiento("DEPOSITO", cuenta(i), j + 1, saldos[i]);
+        }
+        verificar(gestor);
+        gestor.cerrar();
+
+        Files.delete(Paths.get("depositos.txt.idx"));
+        gestor = new GestorArchivos(ModoDurabilidad.GRUPO, 100, 0);
+        assertTrue(Files.exists(Paths.get("depositos.txt.idx")));
+        verificar(gestor);
+        gestor.cerrar();
+    }
+
+    private static void verificar(GestorArchivos gestor) throws IOException {
+        for (int i = 0; i < CUENTAS; i++) {
+            List<Long> esperados = new ArrayList<>();
+            List<Long> posiciones = new ArrayList<>();
+            try (LectorMovimientos lector = new LectorMovimientos("depositos.txt", cuenta(i), true)) {
+                while (lector.hasNext()) {
+                    MovimientoLog m = lector.next();
+                    esperados.add(m.getMonto());
+                    posiciones.add(m.getPosicion());
+                }
+            }
+            List<Long> leidos = new ArrayList<>();
+            for (Deposito d : gestor.cargarDepositosParaCuenta(cuenta(i))) leidos.add(d.getMonto());
+            assertEquals(MOVIMIENTOS / CUENTAS, esperados.size());
+            assertEquals(esperados, leidos, "Cuenta " + cuenta(i));
+
+            // El recorrido por cuenta también lee por el índice y conserva las posiciones del log
+            List<Long> recorridos = new ArrayList<>();
+            List<Long> recorridasPosiciones = new ArrayList<>();
+            gestor.recorrerCuenta(cuenta(i), m -> {
+                recorridos.add(m.getMonto());
+                recorridasPosiciones.add(m.getPosicion());
+            });
+            assertEquals(esperados, recorridos, "Cuenta " + cuenta(i));
+            assertEquals(posiciones, recorridasPosiciones, "Cuenta " + cuenta(i));
+        }
+    }
+
+    private static String cuenta(int i) {
+        return String.format("%06d", i);
+    }
+}
@@ -0,0 +1,293 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import scr.model.Deposito;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de los logs de texto divididos en segmentos: la rotación por tamaño y por
+ * día, la reproducción desde una posición tomada antes de rotar (también la posición
+ * de dos valores de antes de los segmentos), la lectura por cuenta después de comprimir
+ * y la compresión mientras otros hilos escriben y leen.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class LogSegmentadoTest {
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2024, 3, 1, 12, 0, 0);
+    private static final int MAXIMO = 1024;
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    @Test
+    void rotaPorTamanioSinPerderNiRepetirLineas() throws IOException {
+        LogSegmentado log = new LogSegmentado("depositos.txt", ModoDurabilidad.POR_OPERACION, 1, 0, MAXIMO, 0, null);
+        for (int i = 1; i <= 100; i++) log.escribir(FECHA, "000001", "DEPOSITO", 1, i);
+        List<SegmentoLog> segmentos = log.getSegmentos();
+        assertTrue(segmentos.size() > 5, "Segmentos: " + segmentos.size());
+        long registros = 0;
+        for (int i = 0; i < segmentos.size(); i++) {
+            SegmentoLog s = segmentos.get(i);
+            assertEquals(i + 1, s.getSecuencia());
+            // Se rota antes de la línea que se escribe con el archivo ya en el máximo
+            assertTrue(s.getTamanio() >= MAXIMO && s.getTamanio() < 2 * MAXIMO, "Tamaño: " + s.getTamanio());
+            assertTrue(Files.exists(Paths.get(SegmentoLog.nombre("depositos", i + 1, ".seg"))));
+            registros += s.getRegistros();
+        }
+        assertEquals(segmentos.size() + 1, log.getSecuenciaActiva());
+        assertEquals(saldos(1, 100), saldos(leer(log, 0, 0)));
+        assertEquals(100 - registros, leer(log, log.getSecuenciaActiva(), 0).size());
+        log.cerrar();
+
+        // Al reabrir se listan los mismos segmentos y se sigue escribiendo en el siguiente
+        LogSegmentado reabierto = new LogSegmentado("depositos.txt", ModoDurabilidad.POR_OPERACION, 1, 0, MAXIMO, 0, null);
+        assertEquals(segmentos.size(), reabierto.getSegmentos().size());
+        for (int i = 101; i <= 150; i++) reabierto.escribir(FECHA, "000001", "DEPOSITO", 1, i);
+        assertEquals(saldos(1, 150), saldos(leer(reabierto, 0, 0)));
+        reabierto.cerrar();
+    }
+
+    @Test
+    void rotaAlCambiarElDia() throws IOException {
+        LogSegmentado log = new LogSegmentado("depositos.txt", ModoDurabilidad.POR_OPERACION, 1, 0, MAXIMO, 0, null);
+        log.escribir(FECHA, "000001", "DEPOSITO", 1, 1);
+        log.escribir(FECHA.plusHours(11), "000001", "DEPOSITO", 1, 2);
+        assertTrue(log.sinSegmentos());
+        log.escribir(FECHA.plusHours(12), "000001", "DEPOSITO", 1, 3);
+        assertEquals(1, log.getSegmentos().size());
+        SegmentoLog s = log.getSegmentos().get(0);
+        assertEquals(2, s.getRegistros());
+        assertTrue(s.solapa(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertFalse(s.solapa(s.getHasta() + 1, Long.MAX_VALUE));
+        assertEquals(saldos(1, 3), saldos(leer(log, 0, 0)));
+        log.cerrar();
+    }
+
+    @Test
+    void reproduceDesdeUnaPosicionTomadaAntesDeRotar() {
+        GestorArchivos gestor = new GestorArchivos(ModoDurabilidad.POR_OPERACION, 1, 0, MAXIMO, 0);
+        for (int i = 1; i <= 10; i++) {
+            gestor.registrarMovimiento("DEPOSITO", "000001", 2, 2 * i);
+            gestor.registrarMovimiento("RETIRO", "000001", 1, 2 * i - 1);
+        }
+        long[] posicion = gestor.posicion();
+        assertEquals(4, posicion.length);
+        for (int i = 11; i <= 110; i++) {
+            gestor.registrarMovimiento("DEPOSITO", "000001", 2, 2 * i);
+            gestor.registrarMovimiento("RETIRO", "000001", 1, 2 * i - 1);
+        }
+        // La posición quedó en segmentos que ya se cerraron
+        assertTrue(gestor.posicion()[0] > posicion[0]);
+        assertTrue(gestor.posicion()[2] > posicion[2]);
+
+        List<MovimientoLog> cola = new ArrayList<>();
+        gestor.reproducirDesde(posicion, cola::add);
+        assertEquals(200, cola.size());
+        List<Long> esperados = new ArrayList<>();
+        for (int i = 11; i <= 110; i++) {
+            esperados.add(2L * i);
+            esperados.add(2L * i - 1);
+        }
+        List<Long> obtenidos = saldos(cola);
+        Collections.sort(esperados);
+        Collections.sort(obtenidos);
+        assertEquals(esperados, obtenidos);
+
+        // Desde la posición actual no queda nada
+        List<MovimientoLog> nada = new ArrayList<>();
+        gestor.reproducirDesde(gestor.posicion(), nada::add);
+        assertEquals(List.of(), nada);
+        gestor.cerrar();
+    }
+
+    @Test
+    void unaPosicionDeDosValoresSoloSeRespetaSinSegmentos() {
+        GestorArchivos gestor = new GestorArchivos(ModoDurabilidad.POR_OPERACION, 1, 0, MAXIMO, 0);
+        for (int i = 1; i <= 5; i++) gestor.registrarMovimiento("DEPOSITO", "000001", 1, i);
+        long[] actual = gestor.posicion();
+        long[] anterior = { actual[1], actual[3] };
+        for (int i = 6; i <= 8; i++) gestor.registrarMovimiento("DEPOSITO", "000001", 1, i);
+        List<MovimientoLog> cola = new ArrayList<>();
+        gestor.reproducirDesde(anterior, cola::add);
+        assertEquals(saldos(6, 8), saldos(cola));
+
+        // Con segmentos cerrados los bytes ya no identifican la línea: se reproduce todo
+        for (int i = 9; i <= 60; i++) gestor.registrarMovimiento("DEPOSITO", "000001", 1, i);
+        List<MovimientoLog> todo = new ArrayList<>();
+        gestor.reproducirDesde(anterior, todo::add);
+        assertEquals(saldos(1, 60), saldos(todo));
+        gestor.cerrar();
+    }
+
+    @Test
+    void leeLasCuentasDespuesDeComprimir() throws IOException {
+        GestorArchivos gestor = new GestorArchivos(ModoDurabilidad.GRUPO, 1000, 0, 64 * 1024, 0);
+        long[] saldos = new long[50];
+        for (int j = 0; j < 5000; j++) {
+            int i = (j * 7) % saldos.length;
+            saldos[i] += j + 1;
+            gestor.registrarMovimiento("DEPOSITO", cuenta(i), j + 1, saldos[i]);
+        }
+        // Una posición dentro de un segmento que se va a comprimir
+        long[] posicion = gestor.posicion();
+        for (int j = 5000; j < 6000; j++) {
+            int i = (j * 7) % saldos.length;
+            saldos[i] += j + 1;
+            gestor.registrarMovimiento("DEPOSITO", cuenta(i), j + 1, saldos[i]);
+        }
+        for (int j = 0; j < 100; j++) gestor.registrarMovimiento("DEPOSITO", "999999", 1, j + 1);
+        gestor.confirmar();
+        List<List<String>> antes = leerCuentas(gestor, saldos.length);
+        List<MovimientoLog> cola = new ArrayList<>();
+        gestor.reproducirDesde(posicion, cola::add);
+        assertEquals(1100, cola.size());
+
+        int comprimidos = gestor.compactarSegmentos(LocalDate.now().plusDays(1));
+        assertTrue(comprimidos > 2, "Comprimidos: " + comprimidos);
+        assertEquals(comprimidos, contar("depositos\\.\\d{6}\\.arc"));
+        assertEquals(0, contar("depositos\\.\\d{6}\\.txt"));
+        assertEquals(antes, leerCuentas(gestor, saldos.length));
+        List<MovimientoLog> despues = new ArrayList<>();
+        gestor.reproducirDesde(posicion, despues::add);
+        assertEquals(texto(cola), texto(despues));
+        gestor.cerrar();
+
+        GestorArchivos reabierto = new GestorArchivos(ModoDurabilidad.GRUPO, 1000, 0, 64 * 1024, 0);
+        assertEquals(antes, leerCuentas(reabierto, saldos.length));
+        for (int i = 0; i < saldos.length; i++) {
+            List<Deposito> depositos = reabierto.cargarDepositosParaCuenta(cuenta(i));
+            assertEquals(saldos[i], depositos.stream().mapToLong(Deposito::getMonto).sum(), cuenta(i));
+        }
+        assertEquals(List.of(), reabierto.cargarDepositosParaCuenta("000404"));
+        reabierto.cerrar();
+    }
+
+    @Test
+    void comprimeMientrasOtrosHilosEscribenYLeen() throws Exception {
+        GestorArchivos gestor = new GestorArchivos(ModoDurabilidad.GRUPO, 100, 0, 16 * 1024, 0);
+        int hilos = 4;
+        int movimientos = 3000;
+        List<Throwable> errores = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> escritores = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            String numero = cuenta(h);
+            escritores.add(new Thread(() -> {
+                try {
+                    for (int i = 1; i <= movimientos; i++) gestor.registrarMovimiento("DEPOSITO", numero, 1, i);
+                } catch (Throwable e) {
+                    errores.add(e);
+                }
+            }));
+        }
+        int[] compresiones = { 0 };
+        Thread compactador = new Thread(() -> {
+            try {
+                while (escritores.stream().anyMatch(Thread::isAlive)) {
+                    compresiones[0] += gestor.compactarSegmentos(LocalDate.now().plusDays(1));
+                }
+            } catch (Throwable e) {
+                errores.add(e);
+            }
+        });
+        Thread lector = new Thread(() -> {
+            try {
+                while (escritores.stream().anyMatch(Thread::isAlive)) {
+                    // Lo leído de una cuenta es siempre un prefijo completo de lo que se escribió
+                    List<MovimientoLog> leidos = new ArrayList<>();
+                    gestor.recorrerCuenta(cuenta(0), leidos::add);
+                    assertEquals(saldos(1, leidos.size()), saldos(leidos));
+                }
+            } catch (Throwable e) {
+                errores.add(e);
+            }
+        });
+        for (Thread t : escritores) t.start();
+        compactador.start();
+        lector.start();
+        for (Thread t : escritores) t.join();
+        compactador.join();
+        lector.join();
+        assertEquals(List.of(), errores);
+
+        compresiones[0] += gestor.compactarSegmentos(LocalDate.now().plusDays(1));
+        assertTrue(compresiones[0] > 0);
+        ValidadorSaldos validador = new ValidadorSaldos();
+        gestor.reproducir(validador);
+        assertEquals((long) hilos * movimientos, validador.getMovimientos());
+        assertEquals(0, validador.getCantidadDiscrepancias(), validador.toString());
+        for (int h = 0; h < hilos; h++) {
+            List<MovimientoLog> cuenta = new ArrayList<>();
+            gestor.recorrerCuenta(cuenta(h), cuenta::add);
+            assertEquals(saldos(1, movimientos), saldos(cuenta));
+        }
+        gestor.cerrar();
+    }
+
+    private static String cuenta(int i) {
+        return String.format("%06d", i + 1);
+    }
+
+    private static List<MovimientoLog> leer(LogSegmentado log, long secuencia, long posicion) throws IOException {
+        List<MovimientoLog> resultado = new ArrayList<>();
+        try (LectorSegmentos lector = log.abrir(secuencia, posicion, null, Long.MIN_VALUE, Long.MAX_VALUE)) {
+            lector.forEachRemaining(resultado::add);
+        }
+        return resultado;
+    }
+
+    private static List<Long> saldos(List<MovimientoLog> movimientos) {
+        List<Long> resultado = new ArrayList<>();
+        for (MovimientoLog m : movimientos) resultado.add(m.getSaldoFinal());
+        return resultado;
+    }
+
+    private static List<Long> saldos(long desde, long hasta) {
+        List<Long> resultado = new ArrayList<>();
+        for (long i = desde; i <= hasta; i++) resultado.add(i);
+        return resultado;
+    }
+
+    private static List<String> texto(List<MovimientoLog> movimientos) {
+        List<String> resultado = new ArrayList<>();
+        for (MovimientoLog m : movimientos) {
+            resultado.add(m.getNumeroCuenta() + " " + m.getTipo() + " " + m.getMonto() + " " + m.getSaldoFinal()
+                    + " " + m.getFecha() + " @" + m.getPosicion());
+        }
+        return resultado;
+    }
+
+    private static List<List<String>> leerCuentas(GestorArchivos gestor, int cuentas) {
+        List<List<String>> resultado = new ArrayList<>();
+        for (int i = 0; i < cuentas; i++) {
+            List<MovimientoLog> movimientos = new ArrayList<>();
+            gestor.recorrerCuenta(cuenta(i), movimientos::add);
+            resultado.add(texto(movimientos));
+        }
+        List<MovimientoLog> ausente = new ArrayList<>();
+        gestor.recorrerCuenta("000404", ausente::add);
+        resultado.add(texto(ausente));
+        return resultado;
+    }
+
+    private static long contar(String patron) throws IOException {
+        try (Stream<Path> archivos = Files.list(Paths.get(""))) {
+            return archivos.filter(p -> p.getFileName().toString().matches(patron)).count();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import scr.excepciones.OperacionInvalidaException;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaCorriente;
+import scr.model.CuentaEmpresarial;
+import scr.model.Dinero;
+import scr.model.ResultadoRetiro;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de los contadores de {@link Metricas}: cada operación realizada se cuenta
+ * una vez por tipo de movimiento y de cuenta, y cada rechazo por su motivo, con o sin
+ * excepciones y en los dos modos del controlador. Las métricas son del proceso, así
+ * que cada prueba parte de cero.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class MetricasTest {
+
+    private final Metricas metricas = Metricas.global();
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+        metricas.reiniciar();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 2})
+    void cuentaLasOperacionesYLosRechazosPorMotivo(int particiones) throws Exception {
+        BancoController controlador = new BancoController(ArchivosPrueba.backend("nula", ModoDurabilidad.GRUPO),
+                "cuentas.txt", "instantanea.txt", 0, particiones);
+        controlador.abrirCuenta(new CuentaCorriente("Prueba", "000001", Dinero.unidades(1)), Dinero.unidades(100));
+        controlador.abrirCuenta(new CuentaAhorros("Prueba", "000002", 0.01, 1), Dinero.unidades(100));
+        controlador.abrirCuenta(new CuentaEmpresarial("Prueba", "000003", Dinero.unidades(50), "Gestor"), Dinero.unidades(100));
+        // El depósito inicial es parte de la apertura, no una operación
+        assertEquals(Map.of(), metricas.getOperaciones());
+
+        controlador.depositar("000001", Dinero.unidades(10));
+        controlador.retirar("000001", Dinero.unidades(10));
+        assertEquals(ResultadoRetiro.REALIZADO, controlador.intentarRetirar("000002", Dinero.unidades(10)));
+        controlador.transferir("000003", "000001", Dinero.unidades(10));
+
+        // Saldo insuficiente, con y sin excepción (la corriente encadena la causa)
+        assertThrows(OperacionInvalidaException.class, () -> controlador.retirar("000001", Dinero.unidades(1_000)));
+        assertEquals(ResultadoRetiro.SALDO_INSUFICIENTE, controlador.intentarRetirar("000001", Dinero.unidades(1_000)));
+        assertThrows(OperacionInvalidaException.class, () -> controlador.transferir("000001", "000003", Dinero.unidades(1_000)));
+        // Límite por operación de la empresarial, con y sin excepción
+        assertEquals(ResultadoRetiro.LIMITE_EXCEDIDO, controlador.intentarRetirar("000003", Dinero.unidades(60)));
+        assertThrows(OperacionInvalidaException.class, () -> controlador.retirar("000003", Dinero.unidades(60)));
+        // Montos no positivos: el retiro no se aplica ni se cuenta como realizado
+        assertEquals(ResultadoRetiro.MONTO_INVALIDO, controlador.intentarRetirar("000001", 0));
+        assertThrows(OperacionInvalidaException.class, () -> controlador.retirar("000001", -Dinero.unidades(5)));
+        assertThrows(OperacionInvalidaException.class, () -> controlador.transferir("000001", "000003", 0));
+        // Cuentas inexistentes
+        assertEquals(ResultadoRetiro.CUENTA_INEXISTENTE, controlador.intentarRetirar("999999", Dinero.unidades(1)));
+        assertThrows(OperacionInvalidaException.class, () -> controlador.retirar("999999", Dinero.unidades(1)));
+
+        assertEquals(Map.of("DEPOSITO/CuentaCorriente", 1L, "RETIRO/CuentaCorriente", 1L, "RETIRO/CuentaAhorros", 1L,
+                "TRANSFERENCIA/CuentaEmpresarial", 1L), metricas.getOperaciones());
+        assertEquals(Map.of("SALDO_INSUFICIENTE", 3L, "LIMITE_EXCEDIDO", 2L, "MONTO_INVALIDO", 3L,
+                "CUENTA_INEXISTENTE", 2L), metricas.getRechazos());
+        assertEquals(Dinero.unidades(109), controlador.buscarCuenta("000001").getSaldo());
+        assertEquals(Dinero.unidades(90), controlador.buscarCuenta("000002").getSaldo());
+        assertEquals(Dinero.unidades(90), controlador.buscarCuenta("000003").getSaldo());
+
+        // Las latencias cuentan también los rechazos de retiros y transferencias
+        assertEquals(1, metricas.getLatencias().get("deposito").getCantidad());
+        assertEquals(8, metricas.getLatencias().get("retiro").getCantidad());
+        assertEquals(2, metricas.getLatencias().get("transferencia").getCantidad());
+        controlador.cerrar();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 2})
+    void reiniciarDejaTodoEnCero(int particiones) throws Exception {
+        BancoController controlador = new BancoController(ArchivosPrueba.backend("nula", ModoDurabilidad.GRUPO),
+                "cuentas.txt", "instantanea.txt", 0, particiones);
+        controlador.abrirCuenta(new CuentaCorriente("Prueba", "000001"), Dinero.unidades(10));
+        controlador.intentarRetirar("000001", Dinero.unidades(100));
+        metricas.errorES("Error de prueba");
+        assertEquals(1, metricas.getErroresES());
+
+        metricas.reiniciar();
+        assertEquals(Map.of(), metricas.getOperaciones());
+        for (long n : metricas.getRechazos().values()) assertEquals(0, n);
+        assertEquals(0, metricas.getErroresES());
+        for (ResumenLatencia r : metricas.getLatencias().values()) assertEquals(0, r.getCantidad());
+        controlador.cerrar();
+    }
+}
@@ -0,0 +1,70 @@
+package scr.controlador;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link ParserLineaMovimiento}.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class ParserLineaMovimientoTest {
+
+    private final ParserLineaMovimiento parser = new ParserLineaMovimiento();
+
+    private int parsear(String linea, String cuenta) {
+        ByteBuffer buf = ByteBuffer.wrap(linea.getBytes(StandardCharsets.UTF_8));
+        return parser.parsear(buf, 0, buf.limit(), cuenta == null ? null : cuenta.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void leeTodosLosCampos() {
+        String linea = "2024-02-29 23:59:58 | Cuenta: 004217 | Tipo: TRANSFERENCIA_ENVIADA | Monto: $1234.5 | Saldo Final: $-0.05  ";
+        assertEquals(ParserLineaMovimiento.VALIDA, parsear(linea, "004217"));
+        LocalDateTime fecha = LocalDateTime.of(2024, 2, 29, 23, 59, 58);
+        assertEquals(fecha, parser.getFecha());
+        assertEquals(fecha.toEpochSecond(ZoneOffset.UTC), parser.getEpochSegundos());
+        assertEquals(123450, parser.getMontoCentavos());
+        assertEquals(-5, parser.getSaldoCentavos());
+        assertEquals("004217", linea.substring(parser.getInicioCuenta(), parser.getFinCuenta()));
+        assertEquals("TRANSFERENCIA_ENVIADA", linea.substring(parser.getInicioTipo(), parser.getFinTipo()));
+        assertTrue(parser.tipoEs(ByteBuffer.wrap(linea.getBytes(StandardCharsets.UTF_8)),
+                "TRANSFERENCIA_ENVIADA".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void redondeaElTercerDecimal() {
+        assertEquals(ParserLineaMovimiento.VALIDA,
+                parsear("2024-01-01 00:00:00 | Cuenta: 1 | Tipo: DEPOSITO | Monto: $0.125 | Saldo Final: $10", null));
+        assertEquals(13, parser.getMontoCentavos());
+        assertEquals(1000, parser.getSaldoCentavos());
+    }
+
+    @Test
+    void descartaOtrasCuentasSinLeerElResto() {
+        // El resto de la línea es inválido: sólo se llega a la cuenta
+        assertEquals(ParserLineaMovimiento.OTRA_CUENTA, parsear("2024-01-01 00:00:00 | Cuenta: 004218 | basura", "004217"));
+        assertEquals(ParserLineaMovimiento.OTRA_CUENTA, parsear("2024-01-01 00:00:00 | Cuenta: 0042170 | basura", "004217"));
+    }
+
+    @Test
+    void rechazaLineasInvalidas() {
+        String[] invalidas = {
+                "",
+                "2024-13-01 00:00:00 | Cuenta: 1 | Tipo: DEPOSITO | Monto: $1.00 | Saldo Final: $1.00",
+                "2023-02-29 00:00:00 | Cuenta: 1 | Tipo: DEPOSITO | Monto: $1.00 | Saldo Final: $1.00",
+                "2024-01-01 00:00:00 | Cuenta:  | Tipo: DEPOSITO | Monto: $1.00 | Saldo Final: $1.00",
+                "2024-01-01 00:00:00 | Cuenta: 1 | Tipo: DEPOSITO | Monto: $1,00 | Saldo Final: $1.00",
+                "2024-01-01 00:00:00 | Cuenta: 1 | Tipo: DEPOSITO | Monto: $ | Saldo Final: $1.00",
+                "2024-01-01 00:00:00 | Cuenta: 1 | Tipo: DEPOSITO | Monto: $1.00",
+        };
+        for (String linea : invalidas) {
+            assertEquals(ParserLineaMovimiento.INVALIDA, parsear(linea, null), linea);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package scr.controlador;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.Dinero;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prueba del modo particionado: varios clientes operan con llamadas síncronas y con
+ * muchas operaciones asíncronas en vuelo; cada saldo refleja todas las operaciones y,
+ * al reiniciar desde el diario por segmentos, se recupera igual.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class ParticionesTest {
+
+    private static final int PARTICIONES = 4;
+    private static final int CUENTAS = 32;
+    private static final int CLIENTES = 4;
+    private static final int OPERACIONES_POR_CLIENTE = 20_000;
+    private static final long SALDO_INICIAL = Dinero.unidades(100);
+
+    private BancoController controlador;
+    private final List<String> numeros = new ArrayList<>();
+
+    @BeforeEach
+    void preparar() throws Exception {
+        ArchivosPrueba.limpiar();
+        controlador = abrir();
+        for (int i = 0; i < CUENTAS; i++) {
+            CuentaBancaria c = new CuentaAhorros("Prueba", controlador.generarNumeroCuenta(), 0.01, Integer.MAX_VALUE);
+            controlador.abrirCuenta(c, SALDO_INICIAL);
+            numeros.add(c.getNumeroCuenta());
+        }
+    }
+
+    @AfterEach
+    void cerrar() {
+        if (controlador != null) controlador.cerrar();
+    }
+
+    private static BancoController abrir() throws Exception {
+        Persistencia diario = new DiarioParticionado("movimientos", PARTICIONES, ModoDurabilidad.GRUPO, 1000, 0);
+        return new BancoController(diario, "cuentas.txt", "instantanea.txt", 0, PARTICIONES);
+    }
+
+    @Test
+    void losSaldosReflejanTodasLasOperaciones() throws Exception {
+        assertEquals(PARTICIONES, controlador.getParticiones());
+        AtomicLongArray variaciones = new AtomicLongArray(CUENTAS);
+        List<Throwable> errores = new ArrayList<>();
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < CLIENTES; h++) {
+            SplittableRandom azar = new SplittableRandom(h);
+            boolean asincronico = h % 2 == 0;
+            Thread t = new Thread(() -> {
+                List<CompletableFuture<?>> enVuelo = new ArrayList<>();
+                try {
+                    for (int j = 0; j < OPERACIONES_POR_CLIENTE; j++) {
+                        int i = azar.nextInt(CUENTAS);
+                        long monto = 1 + azar.nextInt((int) Dinero.unidades(10));
+                        boolean deposito = azar.nextBoolean();
+                        if (!asincronico) {
+                            if (deposito) {
+                                controlador.depositar(numeros.get(i), monto);
+                                variaciones.addAndGet(i, monto);
+                            } else if (controlador.intentarRetirar(numeros.get(i), monto).isRealizado()) {
+                                variaciones.addAndGet(i, -monto);
+                            }
+                            continue;
+                        }
+                        if (deposito) {
+                            enVuelo.add(controlador.depositarAsync(numeros.get(i), monto)
+                                    .thenRun(() -> variaciones.addAndGet(i, monto)));
+                        } else {
+                            enVuelo.add(controlador.intentarRetirarAsync(numeros.get(i), monto).thenAccept(r -> {
+                                if (r.isRealizado()) variaciones.addAndGet(i, -monto);
+                            }));
+                        }
+                        if (enVuelo.size() == 64) {
+                            CompletableFuture.allOf(enVuelo.toArray(new CompletableFuture<?>[0])).join();
+                            enVuelo.clear();
+                        }
+                    }
+                    CompletableFuture.allOf(enVuelo.toArray(new CompletableFuture<?>[0])).join();
+                } catch (Exception e) {
+                    synchronized (errores) {
+                        errores.add(e);
+                    }
+                }
+            });
+            hilos.add(t);
+            t.start();
+        }
+        for (Thread t : hilos) t.join();
+        assertEquals(List.of(), errores);
+
+        for (int i = 0; i < CUENTAS; i++) {
+            assertEquals(SALDO_INICIAL + variaciones.get(i), controlador.buscarCuenta(numeros.get(i)).getSaldo());
+        }
+        controlador.cerrar();
+        controlador = abrir();
+        for (int i = 0; i < CUENTAS; i++) {
+            assertEquals(SALDO_INICIAL + variaciones.get(i), controlador.buscarCuenta(numeros.get(i)).getSaldo(),
+                    "Cuenta " + numeros.get(i) + " al reiniciar");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import scr.model.CuentaCorriente;
+import scr.model.Dinero;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas de la recuperación al crear el controlador: con una instantánea sólo se
+ * reproducen los movimientos escritos después de ella, por largo que sea el historial,
+ * y sin instantánea se reproduce todo y se llega a los mismos saldos.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class RecuperacionTest {
+
+    private static final int CUENTAS = 10;
+    private static final int COLA = 50;
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"texto", "binaria"})
+    void conInstantaneaSoloSeReproduceLaCola(String backend) throws Exception {
+        BancoController controlador = abrir(backend);
+        for (int i = 1; i <= CUENTAS; i++) {
+            controlador.abrirCuenta(new CuentaCorriente("Prueba", cuenta(i)), Dinero.unidades(100));
+        }
+        controlador.cerrar();
+
+        long historial = CUENTAS;
+        for (int movimientos : new int[] { 1_000, 20_000 }) {
+            // El historial crece; al cerrar se guarda la instantánea
+            controlador = abrir(backend);
+            for (int j = 0; j < movimientos; j++) controlador.depositar(cuenta(j % CUENTAS + 1), 1);
+            historial += movimientos;
+            long[] saldos = saldos(controlador);
+            controlador.cerrar();
+
+            // Cola escrita después de la instantánea, como si el proceso se hubiera cortado
+            Persistencia p = ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO);
+            for (int j = 0; j < COLA; j++) {
+                int i = j % CUENTAS;
+                saldos[i] += 2;
+                p.registrarMovimiento("DEPOSITO", cuenta(i + 1), 2, saldos[i]);
+            }
+            p.cerrar();
+            historial += COLA;
+
+            controlador = abrir(backend);
+            assertEquals(COLA, controlador.getMovimientosRecuperados(), "Historial de " + historial);
+            assertEquals(CUENTAS, controlador.getCuentas().size());
+            for (int i = 0; i < CUENTAS; i++) assertEquals(saldos[i], controlador.buscarCuenta(cuenta(i + 1)).getSaldo());
+            controlador.cerrar();
+        }
+
+        // Sin instantánea se reproduce el historial completo
+        Files.delete(Paths.get("instantanea.txt"));
+        BancoController completo = abrir(backend);
+        assertEquals(historial, completo.getMovimientosRecuperados());
+        long[] esperados = new long[CUENTAS];
+        for (int i = 0; i < CUENTAS; i++) {
+            esperados[i] = Dinero.unidades(100) + 20_000 / CUENTAS + 1_000 / CUENTAS + 2 * 2 * COLA / CUENTAS;
+        }
+        assertArrayEquals(esperados, saldos(completo));
+        completo.cerrar();
+
+        // La instantánea que guardó el cierre anterior vuelve a dejar sólo la cola (vacía)
+        completo = abrir(backend);
+        assertEquals(0, completo.getMovimientosRecuperados());
+        completo.cerrar();
+    }
+
+    private static BancoController abrir(String backend) {
+        return new BancoController(ArchivosPrueba.backend(backend, ModoDurabilidad.GRUPO),
+                "cuentas.txt", "instantanea.txt", 0);
+    }
+
+    private static String cuenta(int i) {
+        return String.format("%06d", i);
+    }
+
+    private static long[] saldos(BancoController controlador) {
+        long[] saldos = new long[CUENTAS];
+        for (int i = 0; i < CUENTAS; i++) saldos[i] = controlador.buscarCuenta(cuenta(i + 1)).getSaldo();
+        return saldos;
+    }
+}
@@ -0,0 +1,66 @@
+package scr.controlador;
+import org.junit.jupiter.api.Test;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import java.util.BitSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link RegistroCuentas}: el generador de números recorre todo el espacio
+ * sin repetir aunque el registro esté casi lleno.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class RegistroCuentasTest {
+
+    @Test
+    void generaTodosLosNumerosSinRepetir() {
+        RegistroCuentas registro = new RegistroCuentas();
+        BitSet vistos = new BitSet(RegistroCuentas.ESPACIO_NUMEROS);
+        for (int i = 0; i < RegistroCuentas.ESPACIO_NUMEROS; i++) {
+            String numero = registro.generarNumero();
+            assertEquals(6, numero.length());
+            int clave = Integer.parseInt(numero);
+            assertTrue(!vistos.get(clave), "Número repetido: " + numero);
+            vistos.set(clave);
+            registro.registrar(new CuentaAhorros("Prueba", numero));
+        }
+        assertEquals(RegistroCuentas.ESPACIO_NUMEROS, registro.tamanio());
+        assertThrows(IllegalStateException.class, registro::generarNumero);
+    }
+
+    @Test
+    void noEntregaNumerosReservadosNiRegistrados() {
+        RegistroCuentas registro = new RegistroCuentas();
+        // Ocupa la mitad del espacio: los números pares
+        for (int i = 0; i < RegistroCuentas.ESPACIO_NUMEROS; i += 2) {
+            String numero = String.format("%06d", i);
+            if (i % 4 == 0) registro.registrar(new CuentaAhorros("Prueba", numero));
+            else registro.reservar(numero);
+        }
+        for (int i = 0; i < RegistroCuentas.ESPACIO_NUMEROS / 2; i++) {
+            assertEquals(1, Integer.parseInt(registro.generarNumero()) % 2);
+        }
+        assertThrows(IllegalStateException.class, registro::generarNumero);
+    }
+
+    @Test
+    void buscaNumerosDeSeisDigitosYDeOtrosFormatos() {
+        RegistroCuentas registro = new RegistroCuentas();
+        CuentaBancaria nueva = new CuentaAhorros("Prueba", "004217");
+        CuentaBancaria antigua = new CuentaAhorros("Prueba", "1001");
+        registro.registrar(nueva);
+        registro.registrar(antigua);
+        assertSame(nueva, registro.buscar("004217"));
+        assertSame(antigua, registro.buscar("1001"));
+        assertNull(registro.buscar("4217"));
+        assertNull(registro.buscar("999999"));
+        assertNull(registro.buscar(null));
+        assertThrows(IllegalArgumentException.class, () -> registro.registrar(new CuentaAhorros("Otra", "004217")));
+    }
+}
@@ -0,0 +1,136 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de los segmentos cerrados: la cabecera describe el segmento y le permite a
+ * las lecturas saltearlo, y al listarlos se completa o descarta lo que haya dejado a
+ * medias un corte durante la rotación o la compresión.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class SegmentoLogTest {
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2024, 3, 1, 12, 0, 0);
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    // Dos segmentos de 100 líneas de las cuentas 000001 a 000010
+    private static List<SegmentoLog> escribirSegmentos() throws IOException {
+        LogSegmentado log = new LogSegmentado("depositos.txt", ModoDurabilidad.GRUPO, 1000, 0, Long.MAX_VALUE, 0, null);
+        for (int s = 0; s < 2; s++) {
+            for (int i = 0; i < 100; i++) {
+                log.escribir(FECHA.plusMinutes(s * 100 + i), String.format("%06d", i % 10 + 1), "DEPOSITO", 1, i + 1);
+            }
+            log.rotar();
+        }
+        log.cerrar();
+        return log.getSegmentos();
+    }
+
+    @Test
+    void laCabeceraDescribeElSegmento() throws IOException {
+        SegmentoLog s = escribirSegmentos().get(0);
+        assertEquals(1, s.getSecuencia());
+        assertEquals(100, s.getRegistros());
+        assertEquals(Files.size(Paths.get("depositos.000001.txt")), s.getTamanio());
+        assertEquals(FECHA.toEpochSecond(ZoneOffset.UTC), s.getDesde());
+        assertEquals(FECHA.plusMinutes(99).toEpochSecond(ZoneOffset.UTC), s.getHasta());
+        assertTrue(s.solapa(s.getHasta(), Long.MAX_VALUE));
+        assertFalse(s.solapa(s.getHasta() + 1, Long.MAX_VALUE));
+        assertFalse(s.solapa(Long.MIN_VALUE, s.getDesde() - 1));
+        for (int i = 1; i <= 10; i++) assertTrue(s.puedeContener(String.format("%06d", i)));
+        // Con 10 bits por cuenta casi todas las ausentes se descartan sin abrir el segmento
+        int falsos = 0;
+        for (int i = 11; i <= 1010; i++) if (s.puedeContener(String.format("%06d", i))) falsos++;
+        assertTrue(falsos < 50, "Falsos positivos: " + falsos);
+    }
+
+    @Test
+    void unSegmentoSinCabeceraLaRecuperaLeyendoElTexto() throws IOException {
+        SegmentoLog original = escribirSegmentos().get(1);
+        Files.delete(Paths.get("depositos.000002.seg"));
+        List<SegmentoLog> segmentos = SegmentoLog.listar("depositos");
+        assertEquals(2, segmentos.size());
+        SegmentoLog s = segmentos.get(1);
+        assertTrue(Files.exists(Paths.get("depositos.000002.seg")));
+        assertEquals(original.getRegistros(), s.getRegistros());
+        assertEquals(original.getDesde(), s.getDesde());
+        assertEquals(original.getHasta(), s.getHasta());
+        assertEquals(original.getTamanio(), s.getTamanio());
+    }
+
+    @Test
+    void unaCabeceraDanadaSeVuelveAArmar() throws IOException {
+        escribirSegmentos();
+        Files.write(Paths.get("depositos.000001.seg"), new byte[] { 1, 2, 3 });
+        SegmentoLog s = SegmentoLog.listar("depositos").get(0);
+        assertEquals(100, s.getRegistros());
+        assertTrue(s.puedeContener("000001"));
+        assertTrue(Files.size(Paths.get("depositos.000001.seg")) > 3);
+    }
+
+    @Test
+    void seDescartanLasCabecerasSinTexto() throws IOException {
+        escribirSegmentos();
+        Files.delete(Paths.get("depositos.000002.txt"));
+        List<SegmentoLog> segmentos = SegmentoLog.listar("depositos");
+        assertEquals(1, segmentos.size());
+        assertFalse(Files.exists(Paths.get("depositos.000002.seg")));
+        assertFalse(Files.exists(Paths.get("depositos.000002.txt.idx")));
+    }
+
+    @Test
+    void unaCompresionQueNoLlegoABorrarElTextoSeTermina() throws IOException {
+        SegmentoLog texto = escribirSegmentos().get(0);
+        List<MovimientoLog> antes = leer(texto, "000003");
+        SegmentoLog comprimido = texto.comprimir();
+        assertTrue(comprimido.isComprimido());
+        assertTrue(Files.exists(Paths.get("depositos.000001.txt")));
+
+        SegmentoLog listado = SegmentoLog.listar("depositos").get(0);
+        assertTrue(listado.isComprimido());
+        assertFalse(Files.exists(Paths.get("depositos.000001.txt")));
+        assertFalse(Files.exists(Paths.get("depositos.000001.seg")));
+        assertEquals(texto.getRegistros(), listado.getRegistros());
+        // Mismo contenido y mismas posiciones que en el texto
+        List<MovimientoLog> despues = leer(listado, "000003");
+        assertEquals(10, despues.size());
+        for (int i = 0; i < antes.size(); i++) {
+            assertEquals(antes.get(i).getSaldoFinal(), despues.get(i).getSaldoFinal());
+            assertEquals(antes.get(i).getPosicion(), despues.get(i).getPosicion());
+        }
+        // Desde una posición intermedia sólo lo que sigue
+        long medio = antes.get(5).getPosicion();
+        assertEquals(5, leerDesde(listado, "000003", medio).size());
+    }
+
+    private static List<MovimientoLog> leer(SegmentoLog s, String cuenta) throws IOException {
+        return leerDesde(s, cuenta, 0);
+    }
+
+    private static List<MovimientoLog> leerDesde(SegmentoLog s, String cuenta, long posicion) throws IOException {
+        List<LectorSegmentos.Fuente> fuentes = new ArrayList<>();
+        s.agregarFuentes(fuentes, cuenta, posicion);
+        List<MovimientoLog> resultado = new ArrayList<>();
+        try (LectorSegmentos lector = new LectorSegmentos(fuentes, null)) {
+            lector.forEachRemaining(resultado::add);
+        }
+        s.cerrarIndice();
+        return resultado;
+    }
+}
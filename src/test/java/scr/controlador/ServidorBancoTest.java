@@ -0,0 +1,95 @@
+package scr.controlador;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import scr.model.CuentaCorriente;
+import scr.model.Deposito;
+import scr.model.Dinero;
+import scr.model.Retiro;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del protocolo de {@link ServidorBanco} (sin conexiones: se llama a
+ * {@code responder} directamente), en el modo con locks y en el particionado.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class ServidorBancoTest {
+
+    private BancoController controlador;
+    private ServidorBanco servidor;
+    private final Fallida persistencia = new Fallida();
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    @AfterEach
+    void cerrar() {
+        if (servidor != null) servidor.close();
+        if (controlador != null) controlador.cerrar();
+    }
+
+    private void abrir(int particiones) throws Exception {
+        controlador = new BancoController(persistencia, "cuentas.txt", "instantanea.txt", 0, particiones);
+        controlador.abrirCuenta(new CuentaCorriente("Prueba", "000001", 50), Dinero.unidades(10));
+        servidor = new ServidorBanco(controlador, 0);
+    }
+
+    private String responder(String pedido) {
+        StringBuilder respuesta = new StringBuilder();
+        servidor.responder(pedido, respuesta);
+        return respuesta.toString();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 2})
+    void retirarRespondeElSaldoQueDejoElRetiro(int particiones) throws Exception {
+        abrir(particiones);
+        assertEquals("OK 4.50", responder("RETIRAR 000001 5"));
+        assertEquals("ERROR Saldo insuficiente", responder("RETIRAR 000001 5"));
+        assertEquals("ERROR Cuenta no encontrada", responder("RETIRAR 999999 5"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 2})
+    void unaFallaAlRegistrarSeRespondeComoError(int particiones) throws Exception {
+        abrir(particiones);
+        persistencia.fallar = true;
+        String respuesta = responder("RETIRAR 000001 1");
+        assertTrue(respuesta.startsWith("ERROR "), respuesta);
+        assertTrue(respuesta.contains("disco lleno"), respuesta);
+        respuesta = responder("DEPOSITAR 000001 1");
+        assertTrue(respuesta.startsWith("ERROR "), respuesta);
+        // ERROR significa que no se aplicó: el reintento se aplica una sola vez
+        assertEquals("OK 10.00", responder("SALDO 000001"));
+        persistencia.fallar = false;
+        assertEquals("OK", responder("PING"));
+        assertEquals("OK 8.50", responder("RETIRAR 000001 1"));
+    }
+
+    // Backend en memoria que, si se pide, falla al registrar
+    private static final class Fallida implements Persistencia {
+        volatile boolean fallar;
+
+        @Override
+        public void registrarMovimiento(String tipoMovimiento, String numeroCuenta, long monto, long saldoFinal) {
+            if (fallar) throw new IllegalStateException("disco lleno");
+        }
+
+        @Override public void confirmar() { }
+        @Override public void cerrar() { }
+        @Override public void reproducir(Consumer<MovimientoLog> visitante) { }
+        @Override public long[] posicion() { return new long[0]; }
+        @Override public void reproducirDesde(long[] posicion, Consumer<MovimientoLog> visitante) { }
+        @Override public List<Deposito> cargarDepositosParaCuenta(String numeroCuenta) { return new ArrayList<>(); }
+        @Override public List<Retiro> cargarRetirosParaCuenta(String numeroCuenta) { return new ArrayList<>(); }
+    }
+}
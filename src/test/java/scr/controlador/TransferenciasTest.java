@@ -0,0 +1,111 @@
+package scr.controlador;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import scr.excepciones.OperacionInvalidaException;
+import scr.excepciones.SaldoInsuficienteException;
+import scr.model.CuentaAhorros;
+import scr.model.CuentaBancaria;
+import scr.model.CuentaCorriente;
+import scr.model.CuentaEmpresarial;
+import scr.model.Dinero;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Prueba de carga de {@link BancoController#transferir}: varios hilos transfieren en
+ * ambos sentidos entre pocas cuentas muy usadas. Ningún hilo queda bloqueado, el
+ * dinero se conserva (descontando las comisiones cobradas) y al reiniciar desde el
+ * diario se recupera cada saldo.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class TransferenciasTest {
+
+    private static final int HILOS = 8;
+    private static final int TRANSFERENCIAS_POR_HILO = 10_000;
+    private static final long SALDO_INICIAL = Dinero.unidades(1_000);
+
+    private BancoController controlador;
+    private final List<CuentaBancaria> cuentas = new ArrayList<>();
+
+    @BeforeEach
+    void preparar() {
+        ArchivosPrueba.limpiar();
+        controlador = abrir();
+        for (int i = 0; i < 3; i++) {
+            cuentas.add(new CuentaCorriente("Prueba", controlador.generarNumeroCuenta(), 50));
+            cuentas.add(new CuentaAhorros("Prueba", controlador.generarNumeroCuenta(), 0.01, Integer.MAX_VALUE));
+            cuentas.add(new CuentaEmpresarial("Prueba", controlador.generarNumeroCuenta(), Dinero.unidades(100), "Gestor"));
+        }
+        for (CuentaBancaria c : cuentas) controlador.abrirCuenta(c, SALDO_INICIAL);
+    }
+
+    @AfterEach
+    void cerrar() {
+        if (controlador != null) controlador.cerrar();
+    }
+
+    private static BancoController abrir() {
+        return new BancoController(ArchivosPrueba.backend("binaria", ModoDurabilidad.GRUPO), "cuentas.txt", "instantanea.txt", 0);
+    }
+
+    @Test
+    void transferenciasCruzadasConservanElDinero() throws Exception {
+        LongAdder comisiones = new LongAdder();
+        LongAdder realizadas = new LongAdder();
+        List<Throwable> errores = new ArrayList<>();
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            SplittableRandom azar = new SplittableRandom(h);
+            Thread t = new Thread(() -> {
+                for (int j = 0; j < TRANSFERENCIAS_POR_HILO; j++) {
+                    // Casi siempre entre las tres primeras cuentas, en cualquier sentido
+                    int a = azar.nextInt(10) < 9 ? azar.nextInt(3) : azar.nextInt(cuentas.size());
+                    int b = azar.nextInt(10) < 9 ? azar.nextInt(3) : azar.nextInt(cuentas.size());
+                    if (a == b) continue;
+                    CuentaBancaria desde = cuentas.get(a);
+                    long monto = 1 + azar.nextInt((int) Dinero.unidades(150));
+                    try {
+                        controlador.transferir(desde.getNumeroCuenta(), cuentas.get(b).getNumeroCuenta(), monto);
+                        realizadas.increment();
+                        if (desde instanceof CuentaCorriente) comisiones.add(((CuentaCorriente) desde).getComisionRetiro());
+                    } catch (SaldoInsuficienteException | OperacionInvalidaException e) {
+                        // Rechazo esperado: saldo o límite de la empresarial
+                    } catch (RuntimeException e) {
+                        synchronized (errores) {
+                            errores.add(e);
+                        }
+                    }
+                }
+            });
+            hilos.add(t);
+            t.start();
+        }
+        for (Thread t : hilos) {
+            t.join(60_000);
+            assertFalse(t.isAlive(), "Un hilo de transferencias no terminó");
+        }
+        assertEquals(List.of(), errores);
+
+        long total = 0;
+        long[] saldos = new long[cuentas.size()];
+        for (int i = 0; i < cuentas.size(); i++) {
+            saldos[i] = cuentas.get(i).getSaldo();
+            total += saldos[i];
+        }
+        assertEquals(SALDO_INICIAL * cuentas.size() - comisiones.sum(), total, realizadas.sum() + " transferencias");
+
+        controlador.cerrar();
+        controlador = abrir();
+        for (int i = 0; i < cuentas.size(); i++) {
+            String numero = cuentas.get(i).getNumeroCuenta();
+            assertEquals(saldos[i], controlador.buscarCuenta(numero).getSaldo(), "Cuenta " + numero);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package scr.controlador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import scr.model.Dinero;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link ValidadorSaldos} sobre los logs de texto: un {@code Saldo Final}
+ * editado a mano se informa en su línea y en la siguiente de la misma cuenta, y un log
+ * que no puede leerse completo corta la validación en lugar de darla por buena.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class ValidadorSaldosTest {
+
+    @BeforeEach
+    void limpiar() {
+        ArchivosPrueba.limpiar();
+    }
+
+    @Test
+    void unSaldoEditadoSeInformaEnSuLineaYEnLaSiguiente() throws Exception {
+        GestorArchivos gestor = new GestorArchivos(ModoDurabilidad.POR_OPERACION, 1, 0);
+        gestor.registrarMovimiento("DEPOSITO", "000001", Dinero.unidades(100), Dinero.unidades(100));
+        gestor.registrarMovimiento("DEPOSITO", "000002", Dinero.unidades(50), Dinero.unidades(50));
+        gestor.registrarMovimiento("DEPOSITO", "000001", Dinero.unidades(100), Dinero.unidades(200));
+        gestor.registrarMovimiento("DEPOSITO", "000002", Dinero.unidades(50), Dinero.unidades(100));
+        gestor.registrarMovimiento("DEPOSITO", "000001", Dinero.unidades(100), Dinero.unidades(300));
+        gestor.cerrar();
+
+        // Mismo largo, así no se corren las posiciones de las líneas siguientes
+        Path log = Paths.get("depositos.txt");
+        String contenido = Files.readString(log, StandardCharsets.UTF_8);
+        String editado = contenido.replace("Saldo Final: $200.00", "Saldo Final: $250.00");
+        assertEquals(contenido.length(), editado.length());
+        Files.writeString(log, editado, StandardCharsets.UTF_8);
+        List<String> lineas = Files.readAllLines(log, StandardCharsets.UTF_8);
+        long posicionEditada = (lineas.get(0) + lineas.get(1)).length() + 2;
+        long posicionSiguiente = posicionEditada + (lineas.get(2) + lineas.get(3)).length() + 2;
+
+        GestorArchivos reabierto = new GestorArchivos(ModoDurabilidad.POR_OPERACION, 1, 0);
+        ValidadorSaldos validador = new ValidadorSaldos();
+        reabierto.reproducir(validador);
+        reabierto.cerrar();
+
+        assertEquals(5, validador.getMovimientos());
+        assertEquals(2, validador.getCantidadDiscrepancias(), validador.toString());
+        assertEquals(1, validador.getCuentasConDiscrepancias());
+        List<DiscrepanciaSaldo> discrepancias = validador.getDiscrepancias();
+
+        DiscrepanciaSaldo propia = discrepancias.get(0);
+        assertEquals("000001", propia.getNumeroCuenta());
+        assertEquals(posicionEditada, propia.getPosicion());
+        assertEquals(Dinero.unidades(100), propia.getSaldoAnterior());
+        assertEquals(Dinero.unidades(200), propia.getSaldoEsperado());
+        assertEquals(Dinero.unidades(250), propia.getSaldoRegistrado());
+
+        // La cuenta sigue desde el saldo registrado, así que la línea siguiente tampoco cierra
+        DiscrepanciaSaldo siguiente = discrepancias.get(1);
+        assertEquals("000001", siguiente.getNumeroCuenta());
+        assertEquals(posicionSiguiente, siguiente.getPosicion());
+        assertEquals(Dinero.unidades(250), siguiente.getSaldoAnterior());
+        assertEquals(Dinero.unidades(350), siguiente.getSaldoEsperado());
+        assertEquals(Dinero.unidades(300), siguiente.getSaldoRegistrado());
+
+        assertEquals(Dinero.unidades(300), validador.getSaldo("000001"));
+        assertEquals(Dinero.unidades(100), validador.getSaldo("000002"));
+    }
+
+    @Test
+    void unSegmentoQueNoPuedeLeerseCortaLaValidacion() throws Exception {
+        GestorArchivos gestor = new GestorArchivos(ModoDurabilidad.POR_OPERACION, 1, 0, 1024, 0);
+        for (int i = 1; i <= 50; i++) {
+            gestor.registrarMovimiento("DEPOSITO", "000001", Dinero.unidades(1), Dinero.unidades(i));
+        }
+        gestor.cerrar();
+
+        BancoController controlador = new BancoController(
+                new GestorArchivos(ModoDurabilidad.POR_OPERACION, 1, 0, 1024, 0), "cuentas.txt", "instantanea.txt", 0);
+        assertEquals(0, controlador.validarSaldos().getCantidadDiscrepancias());
+
+        // Un segmento cerrado desaparece después de abrir los logs
+        Path segmento;
+        try (Stream<Path> archivos = Files.list(Paths.get(""))) {
+            segmento = archivos.filter(p -> p.getFileName().toString().matches("depositos\\.\\d+\\.txt"))
+                    .sorted().findFirst().orElseThrow();
+        }
+        Files.delete(segmento);
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, controlador::validarSaldos);
+        assertTrue(e.getMessage().contains("leer"), e.getMessage());
+        controlador.cerrar();
+    }
+}
@@ -0,0 +1,53 @@
+package scr.model;
+import org.junit.jupiter.api.Test;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de {@link Dinero}.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class DineroTest {
+
+    @Test
+    void formateaConDosDecimales() {
+        assertEquals("1234.56", Dinero.formatear(123456));
+        assertEquals("0.05", Dinero.formatear(5));
+        assertEquals("-0.05", Dinero.formatear(-5));
+        assertEquals("-12.30", Dinero.formatear(-1230));
+        assertEquals("0.00", Dinero.formatear(0));
+    }
+
+    @Test
+    void leeMontos() {
+        assertEquals(125000, Dinero.parsear("1250"));
+        assertEquals(-350, Dinero.parsear("-3.5"));
+        assertEquals(9999, Dinero.parsear("$99.99"));
+        assertEquals(9999, Dinero.parsear(" +$99.99 "));
+        assertEquals(50, Dinero.parsear(".5"));
+        for (String invalido : new String[] {"", "$", "1.234", "1,5", "12a", "--1"}) {
+            assertThrows(NumberFormatException.class, () -> Dinero.parsear(invalido), invalido);
+        }
+        assertThrows(ArithmeticException.class, () -> Dinero.parsear("92233720368547758.08"));
+    }
+
+    @Test
+    void formatoYLecturaSonInversos() {
+        SplittableRandom azar = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            long c = azar.nextLong(-1_000_000_000_000L, 1_000_000_000_000L);
+            assertEquals(c, Dinero.parsear(Dinero.formatear(c)));
+        }
+    }
+
+    @Test
+    void sumasExactas() {
+        // Con double, 0.1 + 0.2 != 0.3
+        assertEquals(Dinero.parsear("0.30"), Dinero.parsear("0.10") + Dinero.parsear("0.20"));
+        assertEquals(2, Dinero.aplicarTasa(150, 0.01));
+        assertEquals(Dinero.unidades(20), Dinero.aplicarTasa(Dinero.unidades(1000), 0.02));
+    }
+}
@@ -0,0 +1,81 @@
+package scr.model;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas de {@link HistorialMovimientos}: el buffer circular conserva los últimos
+ * movimientos en orden y las sumas por columnas coinciden con recorrerlo.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class HistorialMovimientosTest {
+
+    @Test
+    void conservaLosUltimosEnOrden() {
+        HistorialMovimientos h = new HistorialMovimientos(PoliticaHistorial.ultimos(5));
+        for (int i = 0; i < 12; i++) h.agregar(i % 2 == 0 ? HistorialMovimientos.DEPOSITO : HistorialMovimientos.RETIRO, i, i * 10);
+        assertEquals(5, h.tamanio());
+        assertEquals(7, h.descartados());
+        assertEquals(4, h.descartados(HistorialMovimientos.DEPOSITO));
+        assertEquals(3, h.descartados(HistorialMovimientos.RETIRO));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(7 + i, h.getFecha(i));
+            assertEquals((7 + i) * 10, h.getMonto(i));
+        }
+    }
+
+    @Test
+    void sumarCoincideConRecorrerAlDarLaVuelta() {
+        HistorialMovimientos h = new HistorialMovimientos(PoliticaHistorial.ultimos(100));
+        for (int n = 1; n <= 1000; n++) {
+            h.agregar(n % 3 == 0 ? HistorialMovimientos.RETIRO : HistorialMovimientos.DEPOSITO, n, n);
+            long depositos = 0;
+            long retiros = 0;
+            for (int i = 0; i < h.tamanio(); i++) {
+                if (h.getTipo(i) == HistorialMovimientos.DEPOSITO) depositos += h.getMonto(i);
+                else retiros += h.getMonto(i);
+            }
+            assertEquals(depositos, h.sumar(HistorialMovimientos.DEPOSITO));
+            assertEquals(retiros, h.sumar(HistorialMovimientos.RETIRO));
+        }
+    }
+
+    @Test
+    void quitarUltimoAlDarLaVueltaConservaElResto() {
+        HistorialMovimientos h = new HistorialMovimientos(PoliticaHistorial.ultimos(5));
+        for (int i = 0; i < 7; i++) h.agregar(HistorialMovimientos.DEPOSITO, i, i * 10);
+        h.agregar(HistorialMovimientos.RETIRO, 7, 70);
+        h.marcarRegistrados();
+        h.agregar(HistorialMovimientos.RETIRO, 8, 80);
+        assertEquals(HistorialMovimientos.RETIRO, h.quitarUltimo());
+        assertEquals(4, h.tamanio());
+        assertEquals(4, h.descartados());
+        assertEquals(4, h.primeroSinRegistrar());
+        assertEquals(70, h.getMonto(3));
+        assertEquals(70, h.sumar(HistorialMovimientos.RETIRO));
+        h.agregar(HistorialMovimientos.DEPOSITO, 9, 90);
+        assertEquals(90, h.getMonto(4));
+    }
+
+    @Test
+    void laVentanaDescartaLosVencidos() {
+        HistorialMovimientos h = new HistorialMovimientos(PoliticaHistorial.ventana(Duration.ofSeconds(60)));
+        h.agregar(HistorialMovimientos.DEPOSITO, 0, 1);
+        h.agregar(HistorialMovimientos.DEPOSITO, 30, 2);
+        h.agregar(HistorialMovimientos.DEPOSITO, 90, 3);
+        assertEquals(2, h.tamanio());
+        assertEquals(5, h.sumar(HistorialMovimientos.DEPOSITO));
+    }
+
+    @Test
+    void reducirLaPoliticaConservaLosUltimos() {
+        HistorialMovimientos h = new HistorialMovimientos(PoliticaHistorial.ILIMITADA);
+        for (int i = 0; i < 50; i++) h.agregar(HistorialMovimientos.DEPOSITO, i, i);
+        h.setPolitica(PoliticaHistorial.ultimos(10));
+        assertEquals(10, h.tamanio());
+        assertEquals(40, h.getMonto(0));
+        assertEquals(49, h.getMonto(9));
+    }
+}
@@ -0,0 +1,54 @@
+package scr.model;
+import org.junit.jupiter.api.Test;
+import scr.excepciones.OperacionInvalidaException;
+import scr.excepciones.SaldoInsuficienteException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de los retiros sin excepciones: {@link CuentaBancaria#intentarRetirar(long)}
+ * informa el mismo rechazo que {@code retirar} lanza, y un rechazo no modifica la cuenta.
+ *
+ * @author Juan
+ * @version 1.0
+ */
+class RetirosTest {
+
+    @Test
+    void corrienteRechazaSinSaldoParaLaComision() {
+        CuentaCorriente cuenta = new CuentaCorriente("Prueba", "000001", 50);
+        cuenta.depositar(100);
+        assertEquals(ResultadoRetiro.SALDO_INSUFICIENTE, cuenta.intentarRetirar(100));
+        OperacionInvalidaException e = assertThrows(OperacionInvalidaException.class, () -> cuenta.retirar(100));
+        assertInstanceOf(SaldoInsuficienteException.class, e.getCause());
+        assertEquals(100, cuenta.getSaldo());
+        assertEquals(ResultadoRetiro.REALIZADO, cuenta.intentarRetirar(50));
+        assertEquals(0, cuenta.getSaldo());
+    }
+
+    @Test
+    void ahorrosSoloCuentaLosRetirosRealizados() {
+        CuentaAhorros cuenta = new CuentaAhorros("Prueba", "000001", 0.01, 3);
+        cuenta.depositar(100);
+        assertEquals(ResultadoRetiro.SALDO_INSUFICIENTE, cuenta.intentarRetirar(200));
+        assertEquals(ResultadoRetiro.MONTO_INVALIDO, cuenta.intentarRetirar(0));
+        assertEquals(0, cuenta.getRetirosRealizadosEsteMes());
+        assertEquals(ResultadoRetiro.REALIZADO, cuenta.intentarRetirar(100));
+        assertEquals(1, cuenta.getRetirosRealizadosEsteMes());
+    }
+
+    @Test
+    void empresarialDistingueElLimiteDelSaldo() {
+        CuentaEmpresarial cuenta = new CuentaEmpresarial("Prueba", "000001", 1000, "Gestor");
+        cuenta.depositar(500);
+        assertEquals(ResultadoRetiro.LIMITE_EXCEDIDO, cuenta.intentarRetirar(2000));
+        OperacionInvalidaException limite = assertThrows(OperacionInvalidaException.class, () -> cuenta.retirar(2000));
+        assertNull(limite.getCause());
+        assertEquals(ResultadoRetiro.SALDO_INSUFICIENTE, cuenta.intentarRetirar(800));
+        OperacionInvalidaException saldo = assertThrows(OperacionInvalidaException.class, () -> cuenta.retirar(800));
+        assertInstanceOf(SaldoInsuficienteException.class, saldo.getCause());
+        assertEquals(500, cuenta.getSaldo());
+    }
+}